@@ -0,0 +1,110 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.benchmark;
+
+import com.tencent.bk.sdk.crypto.cryptor.ASymmetricCryptor;
+import com.tencent.bk.sdk.crypto.cryptor.ASymmetricCryptorFactory;
+import com.tencent.bk.sdk.crypto.cryptor.consts.CryptorNames;
+import com.tencent.bk.sdk.crypto.util.RSAUtil;
+import com.tencent.bk.sdk.crypto.util.SM2Util;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 非对称加密器（SM2、RSA）字节数组与字符串接口的吞吐量
+ * RSA（2048位密钥、PKCS1填充）单次最多加密245字节，因此数据大小只覆盖非对称加密常见的密钥、短口令等场景
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ASymmetricCryptorBenchmark {
+
+    @Param({"SM2", "RSA"})
+    private String cryptorName;
+
+    @Param({"16", "128"})
+    private int payloadSize;
+
+    private ASymmetricCryptor cryptor;
+    private PublicKey publicKey;
+    private PrivateKey privateKey;
+    private byte[] message;
+    private byte[] encryptedMessage;
+    private String stringMessage;
+    private String encryptedStringMessage;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        cryptor = ASymmetricCryptorFactory.getCryptor(cryptorName);
+        KeyPair keyPair = CryptorNames.RSA.equals(cryptorName) ? RSAUtil.genKeyPair() : SM2Util.genKeyPair();
+        publicKey = keyPair.getPublic();
+        privateKey = keyPair.getPrivate();
+        message = new byte[payloadSize];
+        new Random(0).nextBytes(message);
+        encryptedMessage = cryptor.encrypt(publicKey, message);
+        stringMessage = RandomStringUtils.randomAlphanumeric(payloadSize);
+        encryptedStringMessage = cryptor.encrypt(publicKey, stringMessage);
+    }
+
+    @Benchmark
+    public byte[] encryptBytes() {
+        return cryptor.encrypt(publicKey, message);
+    }
+
+    @Benchmark
+    public byte[] decryptBytes() {
+        return cryptor.decrypt(privateKey, encryptedMessage);
+    }
+
+    @Benchmark
+    public String encryptString() {
+        return cryptor.encrypt(publicKey, stringMessage);
+    }
+
+    @Benchmark
+    public String decryptString() {
+        return cryptor.decrypt(privateKey, encryptedStringMessage);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.benchmark;
+
+import com.tencent.bk.sdk.crypto.util.Base64Util;
+import com.tencent.bk.sdk.crypto.util.CryptorMetaUtil;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base64Util编解码的吞吐量：commons-codec实现的编解码接口与带密文前缀的JDK编解码接口，
+ * 辅助计数器bytes给出每秒处理的原始字节数
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class Base64Benchmark {
+
+    private static final byte[] PREFIX_BYTES =
+        (CryptorMetaUtil.getCipherMetaPrefix() + "SM4" + CryptorMetaUtil.getCipherMetaSuffix())
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Param({"16", "1024", "65536", "1048576", "67108864"})
+    private int payloadSize;
+
+    private byte[] content;
+    private String encodedContent;
+    private String encodedContentWithPrefix;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class ByteCounter {
+        public long bytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        content = new byte[payloadSize];
+        new Random(0).nextBytes(content);
+        encodedContent = Base64Util.encodeContentToStr(content);
+        encodedContentWithPrefix = Base64Util.encodeContentToStrWithPrefix(PREFIX_BYTES, content);
+    }
+
+    @Benchmark
+    public String encode(ByteCounter counter) {
+        counter.bytes += payloadSize;
+        return Base64Util.encodeContentToStr(content);
+    }
+
+    @Benchmark
+    public byte[] decode(ByteCounter counter) {
+        counter.bytes += payloadSize;
+        return Base64Util.decodeContentToByte(encodedContent);
+    }
+
+    @Benchmark
+    public String encodeWithPrefix(ByteCounter counter) {
+        counter.bytes += payloadSize;
+        return Base64Util.encodeContentToStrWithPrefix(PREFIX_BYTES, content);
+    }
+
+    @Benchmark
+    public byte[] decodeWithPrefix(ByteCounter counter) {
+        counter.bytes += payloadSize;
+        return Base64Util.decodeContentWithPrefixToByte(PREFIX_BYTES, encodedContentWithPrefix);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基准测试套件：依次以不同线程数运行基准测试，每个线程数的结果单独输出为JSON文件（results-threads-N.json），
+ * 便于不同版本之间对比，通过./gradlew jmhSuite运行
+ * 参数：--threads=1,2,4 指定线程数（默认为1、2、4...直至CPU核数），--output=目录 指定结果输出目录，
+ * 其余参数按JMH命令行参数处理，如基准测试名称正则、-p payloadSize=16,1024
+ */
+public class BenchmarkSuite {
+
+    private static final String THREADS_ARG = "--threads=";
+    private static final String OUTPUT_ARG = "--output=";
+
+    public static void main(String[] args) throws Exception {
+        List<Integer> threadCounts = defaultThreadCounts();
+        Path outputDir = Paths.get("build", "reports", "jmh");
+        List<String> jmhArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith(THREADS_ARG)) {
+                String value = arg.substring(THREADS_ARG.length()).trim();
+                if (!value.isEmpty()) {
+                    threadCounts = parseThreadCounts(value);
+                }
+            } else if (arg.startsWith(OUTPUT_ARG)) {
+                outputDir = Paths.get(arg.substring(OUTPUT_ARG.length()));
+            } else {
+                jmhArgs.add(arg);
+            }
+        }
+        CommandLineOptions commandLineOptions = new CommandLineOptions(jmhArgs.toArray(new String[0]));
+        Files.createDirectories(outputDir);
+        for (int threads : threadCounts) {
+            Options options = new OptionsBuilder()
+                .parent(commandLineOptions)
+                .threads(threads)
+                .resultFormat(ResultFormatType.JSON)
+                .result(outputDir.resolve("results-threads-" + threads + ".json").toString())
+                .build();
+            new Runner(options).run();
+        }
+    }
+
+    private static List<Integer> defaultThreadCounts() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int threads = 1; threads < processors; threads <<= 1) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(processors);
+        return threadCounts;
+    }
+
+    private static List<Integer> parseThreadCounts(String value) {
+        List<Integer> threadCounts = new ArrayList<>();
+        for (String item : value.split(",")) {
+            int threads = Integer.parseInt(item.trim());
+            if (threads <= 0) {
+                throw new IllegalArgumentException("thread count must be positive: " + threads);
+            }
+            threadCounts.add(threads);
+        }
+        return threadCounts;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.benchmark;
+
+import com.tencent.bk.sdk.crypto.cryptor.consts.CryptorIds;
+import com.tencent.bk.sdk.crypto.util.CryptorMetaUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 密文元数据解析的吞吐量：从文本密文、密文流中解析加密器名称，以及在字节数组上校验v1文本前缀与v2二进制密文头
+ * 元数据解析与数据大小无关，密文内容固定为1KB
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CryptorMetaBenchmark {
+
+    private static final String PREFIX =
+        CryptorMetaUtil.getCipherMetaPrefix() + "SM4" + CryptorMetaUtil.getCipherMetaSuffix();
+    private static final byte[] PREFIX_BYTES = PREFIX.getBytes(StandardCharsets.UTF_8);
+
+    private String textCipher;
+    private byte[] prefixedCipher;
+    private byte[] headerCipher;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        byte[] cipher = new byte[1024];
+        new Random(0).nextBytes(cipher);
+        textCipher = PREFIX + Base64.getEncoder().encodeToString(cipher);
+        prefixedCipher = CryptorMetaUtil.addPrefixToEncryptedBytes(PREFIX_BYTES, cipher);
+        byte[] header = CryptorMetaUtil.buildCipherHeader(CryptorIds.SM4, null);
+        headerCipher = new byte[header.length + cipher.length];
+        System.arraycopy(header, 0, headerCipher, 0, header.length);
+        System.arraycopy(cipher, 0, headerCipher, header.length, cipher.length);
+    }
+
+    @Benchmark
+    public String cryptorNameFromCipher() {
+        return CryptorMetaUtil.getCryptorNameFromCipher(textCipher);
+    }
+
+    @Benchmark
+    public String cryptorNameFromCipherStream() {
+        return CryptorMetaUtil.getCryptorNameFromCipherStream(
+            new BufferedInputStream(new ByteArrayInputStream(prefixedCipher))
+        );
+    }
+
+    @Benchmark
+    public int checkPrefix() {
+        return CryptorMetaUtil.checkPrefixOfEncryptedBytes(PREFIX_BYTES, prefixedCipher);
+    }
+
+    @Benchmark
+    public int checkHeaderWithPrefix() {
+        return CryptorMetaUtil.checkHeaderOfEncryptedBytes(PREFIX_BYTES, CryptorIds.SM4, prefixedCipher);
+    }
+
+    @Benchmark
+    public int checkHeaderWithBinaryHeader() {
+        return CryptorMetaUtil.checkHeaderOfEncryptedBytes(PREFIX_BYTES, CryptorIds.SM4, headerCipher);
+    }
+}
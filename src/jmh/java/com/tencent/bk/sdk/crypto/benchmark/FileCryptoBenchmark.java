@@ -0,0 +1,124 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.benchmark;
+
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricCryptor;
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricCryptorFactory;
+import com.tencent.bk.sdk.crypto.util.CtrCipherUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文件加密性能对比：流式接口（FileInputStream/FileOutputStream）与基于文件映射的encryptFile接口
+ * parallel=false时流式接口即为原有的单线程1KB缓冲区实现
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileCryptoBenchmark {
+
+    private static final String KEY = "benchmarkKey";
+
+    @Param({"SM4", "AES"})
+    private String cryptorName;
+
+    @Param({"67108864"})
+    private int fileSize;
+
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    private SymmetricCryptor cryptor;
+    private Path plainFile;
+    private Path encryptedFile;
+    private Path outFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        CtrCipherUtil.setParallelEnabled(parallel);
+        cryptor = SymmetricCryptorFactory.getCryptor(cryptorName);
+        byte[] data = new byte[fileSize];
+        new Random(0).nextBytes(data);
+        plainFile = Files.createTempFile("benchmark", ".plain");
+        encryptedFile = Files.createTempFile("benchmark", ".encrypt");
+        outFile = Files.createTempFile("benchmark", ".out");
+        Files.write(plainFile, data);
+        cryptor.encryptFile(KEY, plainFile, encryptedFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        CtrCipherUtil.setParallelEnabled(true);
+        Files.deleteIfExists(plainFile);
+        Files.deleteIfExists(encryptedFile);
+        Files.deleteIfExists(outFile);
+    }
+
+    @Benchmark
+    public void encryptStream() throws IOException {
+        try (InputStream in = Files.newInputStream(plainFile); OutputStream out = Files.newOutputStream(outFile)) {
+            cryptor.encrypt(KEY, in, out);
+        }
+    }
+
+    @Benchmark
+    public void encryptFile() {
+        cryptor.encryptFile(KEY, plainFile, outFile);
+    }
+
+    @Benchmark
+    public void decryptStream() throws IOException {
+        try (InputStream in = Files.newInputStream(encryptedFile); OutputStream out = Files.newOutputStream(outFile)) {
+            cryptor.decrypt(KEY, in, out);
+        }
+    }
+
+    @Benchmark
+    public void decryptFile() {
+        cryptor.decryptFile(KEY, encryptedFile, outFile);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.benchmark;
+
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricCryptor;
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricCryptorFactory;
+import com.tencent.bk.sdk.crypto.cryptor.consts.CryptorNames;
+import com.tencent.bk.sdk.crypto.util.IvGenerator;
+import com.tencent.bk.sdk.crypto.util.IvUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IV生成并发性能对比，shared为原有的所有线程共享一个SecureRandom的实现
+ * 通过调整线程数观察吞吐量随核数的变化：./gradlew jmh -PjmhIncludes=IvGeneratorBenchmark -PjmhThreads=8
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IvGeneratorBenchmark {
+
+    private static final byte[] KEY_BYTES = "benchmarkKey".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] MESSAGE_BYTES = new byte[64];
+
+    @Param({"shared", "threadLocal", "pool", "counter"})
+    private String generatorType;
+
+    private IvGenerator generator;
+    private IvGenerator defaultGenerator;
+    private SymmetricCryptor cryptor;
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private final byte[] iv = new byte[16];
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        if ("shared".equals(generatorType)) {
+            SecureRandom random = new SecureRandom();
+            generator = (iv, offset, length) -> {
+                byte[] bytes = new byte[length];
+                random.nextBytes(bytes);
+                System.arraycopy(bytes, 0, iv, offset, length);
+            };
+        } else {
+            generator = IvUtil.createIvGenerator(generatorType);
+        }
+        defaultGenerator = IvUtil.getIvGenerator();
+        IvUtil.setIvGenerator(generator);
+        cryptor = SymmetricCryptorFactory.getCryptor(CryptorNames.SM4);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        IvUtil.setIvGenerator(defaultGenerator);
+        if (generator instanceof Closeable) {
+            ((Closeable) generator).close();
+        }
+    }
+
+    @Benchmark
+    public byte[] nextIv(ThreadState state) {
+        generator.nextIv(state.iv, 0, state.iv.length);
+        return state.iv;
+    }
+
+    @Benchmark
+    public byte[] sm4Encrypt() {
+        return cryptor.encrypt(KEY_BYTES, MESSAGE_BYTES);
+    }
+}
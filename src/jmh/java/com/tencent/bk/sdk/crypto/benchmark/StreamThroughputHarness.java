@@ -0,0 +1,686 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.benchmark;
+
+import com.tencent.bk.sdk.crypto.cryptor.consts.CryptorNames;
+import com.tencent.bk.sdk.crypto.util.AESInputStream;
+import com.tencent.bk.sdk.crypto.util.AESOutputStream;
+import com.tencent.bk.sdk.crypto.util.AESUtil;
+import com.tencent.bk.sdk.crypto.util.CtrCipherUtil;
+import com.tencent.bk.sdk.crypto.util.SM4InputStream;
+import com.tencent.bk.sdk.crypto.util.SM4OutputStream;
+import com.tencent.bk.sdk.crypto.util.SM4Util;
+import com.tencent.bk.sdk.crypto.util.StreamCryptoOptions;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 流数据加解密端到端吞吐量测试工具：在本地生成测试数据，测量SM4/AES流式加解密在文件、管道与内存流上的实际吞吐量，
+ * 以及每GB数据消耗的CPU时间、内存分配速率与GC停顿，按加密器、调用方式、数据源、数据大小与缓冲区大小输出报告；
+ * 指定基线报告时输出与基线的对比，用于验证流数据处理相关改动在生产数据规模下的效果
+ * 调用方式：util为SM4Util/AESUtil流式接口，stream为SM4/AES加解密流（加密使用OutputStream，解密使用InputStream）
+ * 通过./gradlew streamBenchmark运行，参数见{@link #USAGE}或--help
+ */
+public class StreamThroughputHarness {
+
+    static final String USAGE = "Usage: StreamThroughputHarness [options]\n"
+        + "  --cryptors=SM4,AES           cryptors to test\n"
+        + "  --paths=util,stream          util: SM4Util/AESUtil stream API, stream: SM4/AES Input/OutputStream\n"
+        + "  --sources=file,pipe,memory   data source and sink\n"
+        + "  --sizes=64m,256m             data sizes, suffix k/m/g\n"
+        + "  --bufferSizes=8k,64k,1m      stream buffer sizes, suffix k/m/g\n"
+        + "  --warmup=1                   warmup iterations per case\n"
+        + "  --iterations=3               measured iterations per case\n"
+        + "  --parallel=true|false        enable parallel CTR (default: SDK setting)\n"
+        + "  --readAhead=true|false       enable read-ahead in util path (default: false)\n"
+        + "  --workDir=DIR                directory for generated files (default: temp directory)\n"
+        + "  --report=FILE                CSV report (default: build/reports/stream-benchmark/results.csv)\n"
+        + "  --baseline=FILE              previous CSV report to compare with";
+
+    private static final String KEY = "benchmarkKey";
+    private static final String PATH_UTIL = "util";
+    private static final String PATH_STREAM = "stream";
+    private static final String SOURCE_FILE = "file";
+    private static final String SOURCE_PIPE = "pipe";
+    private static final String SOURCE_MEMORY = "memory";
+    private static final String OPERATION_ENCRYPT = "encrypt";
+    private static final String OPERATION_DECRYPT = "decrypt";
+    private static final String CSV_HEADER =
+        "cryptor,path,source,operation,sizeBytes,bufferSize,mbPerSecond,cpuSecondsPerGb,allocMbPerSecond,gcCount,gcMillis";
+
+    private static final int IV_LENGTH = 16;
+    private static final int GENERATE_CHUNK_SIZE = 1024 * 1024;
+    private static final int PIPE_BUFFER_SIZE = 64 * 1024;
+    private static final double MB = 1024 * 1024;
+    private static final double GB = 1024 * 1024 * 1024;
+
+    private final Config config;
+    private final ExecutorService producerExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "stream-benchmark-producer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final List<Result> results = new ArrayList<>();
+    /**
+     * stream调用方式中复制数据使用的缓冲区，在用例间复用，避免测试工具自身的分配计入结果
+     */
+    private byte[] copyBuffer = new byte[0];
+
+    StreamThroughputHarness(Config config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (Arrays.asList(args).contains("--help")) {
+            System.out.println(USAGE);
+            return;
+        }
+        Config config;
+        try {
+            config = Config.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+            return;
+        }
+        new StreamThroughputHarness(config).run();
+    }
+
+    void run() throws Exception {
+        if (config.parallel != null) {
+            CtrCipherUtil.setParallelEnabled(config.parallel);
+        }
+        boolean tempWorkDir = config.workDir == null;
+        Path workDir = tempWorkDir ? Files.createTempDirectory("stream-benchmark") : config.workDir;
+        Files.createDirectories(workDir);
+        System.out.println(Result.tableHeader());
+        try {
+            for (String cryptor : config.cryptors) {
+                for (long size : config.sizes) {
+                    try (Dataset dataset = Dataset.prepare(config, cryptor, size, workDir)) {
+                        runCases(cryptor, size, dataset, workDir);
+                    }
+                }
+            }
+        } finally {
+            producerExecutor.shutdownNow();
+            if (tempWorkDir) {
+                FileUtils.deleteQuietly(workDir.toFile());
+            }
+        }
+        writeReport();
+        if (config.baseline != null) {
+            compareWithBaseline();
+        }
+    }
+
+    private void runCases(String cryptor, long size, Dataset dataset, Path workDir) throws Exception {
+        for (String path : config.paths) {
+            for (String source : config.sources) {
+                if (!SOURCE_FILE.equals(source) && dataset.plainData == null) {
+                    System.out.println("skip " + source + " source for " + formatSize(size)
+                        + ": data larger than a byte array");
+                    continue;
+                }
+                for (String operation : Arrays.asList(OPERATION_ENCRYPT, OPERATION_DECRYPT)) {
+                    for (int bufferSize : config.bufferSizes) {
+                        Case c = new Case(cryptor, path, source, operation, size, bufferSize);
+                        Result result = measure(c, dataset, workDir.resolve("output.tmp"));
+                        results.add(result);
+                        System.out.println(result.tableRow());
+                    }
+                }
+            }
+        }
+    }
+
+    private Result measure(Case c, Dataset dataset, Path outputFile) throws Exception {
+        Sample total = new Sample();
+        for (int i = 0; i < config.warmup + config.iterations; i++) {
+            System.gc();
+            Sample before = Sample.take();
+            runOnce(c, dataset, outputFile);
+            Sample after = Sample.take();
+            if (i >= config.warmup) {
+                total.add(before, after);
+            }
+        }
+        return new Result(c, total, config.iterations);
+    }
+
+    private void runOnce(Case c, Dataset dataset, Path outputFile) throws Exception {
+        boolean encrypt = OPERATION_ENCRYPT.equals(c.operation);
+        InputStream in;
+        OutputStream out;
+        Future<?> producer = null;
+        if (SOURCE_FILE.equals(c.source)) {
+            in = Files.newInputStream(encrypt ? dataset.plainFile : dataset.cipherFile);
+            out = Files.newOutputStream(outputFile);
+        } else if (SOURCE_PIPE.equals(c.source)) {
+            byte[] data = encrypt ? dataset.plainData : dataset.cipherData;
+            PipedInputStream pipeIn = new PipedInputStream(PIPE_BUFFER_SIZE);
+            PipedOutputStream pipeOut = new PipedOutputStream(pipeIn);
+            producer = producerExecutor.submit(() -> {
+                try (OutputStream o = pipeOut) {
+                    for (int off = 0; off < data.length; off += PIPE_BUFFER_SIZE) {
+                        o.write(data, off, Math.min(PIPE_BUFFER_SIZE, data.length - off));
+                        // 唤醒等待数据的读取线程
+                        o.flush();
+                    }
+                }
+                return null;
+            });
+            in = pipeIn;
+            out = NullOutputStream.INSTANCE;
+        } else {
+            in = new ByteArrayInputStream(encrypt ? dataset.plainData : dataset.cipherData);
+            out = NullOutputStream.INSTANCE;
+        }
+        try {
+            process(c, encrypt, in, out);
+        } finally {
+            in.close();
+            out.close();
+        }
+        if (producer != null) {
+            producer.get();
+        }
+    }
+
+    private void process(Case c, boolean encrypt, InputStream in, OutputStream out) throws Exception {
+        boolean sm4 = CryptorNames.SM4.equals(c.cryptor);
+        if (PATH_UTIL.equals(c.path)) {
+            StreamCryptoOptions options = new StreamCryptoOptions(
+                c.bufferSize, c.bufferSize, config.readAhead, CtrCipherUtil.isParallelEnabled()
+            );
+            if (sm4 && encrypt) {
+                SM4Util.encrypt(KEY, in, out, options);
+            } else if (sm4) {
+                SM4Util.decrypt(KEY, in, out, options);
+            } else if (encrypt) {
+                AESUtil.encrypt(KEY, in, out, options);
+            } else {
+                AESUtil.decrypt(KEY, in, out, options);
+            }
+        } else if (encrypt) {
+            OutputStream shielded = CloseShieldOutputStream.wrap(out);
+            try (OutputStream cipherOut = sm4 ? new SM4OutputStream(shielded, KEY, c.bufferSize) :
+                new AESOutputStream(shielded, KEY, c.bufferSize)) {
+                copy(in, cipherOut, c.bufferSize);
+            }
+        } else {
+            try (InputStream cipherIn = sm4 ? new SM4InputStream(in, KEY, c.bufferSize) :
+                new AESInputStream(in, KEY, c.bufferSize)) {
+                copy(cipherIn, out, c.bufferSize);
+            }
+        }
+    }
+
+    private void copy(InputStream in, OutputStream out, int bufferSize) throws IOException {
+        if (copyBuffer.length < bufferSize) {
+            copyBuffer = new byte[bufferSize];
+        }
+        int n;
+        while ((n = in.read(copyBuffer, 0, bufferSize)) != -1) {
+            out.write(copyBuffer, 0, n);
+        }
+    }
+
+    private void writeReport() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(CSV_HEADER);
+        for (Result result : results) {
+            lines.add(result.toCsv());
+        }
+        Path parent = config.report.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.write(config.report, lines, StandardCharsets.UTF_8);
+        System.out.println("Report written to " + config.report.toAbsolutePath());
+    }
+
+    private void compareWithBaseline() throws IOException {
+        Map<String, Result> baseline = new HashMap<>();
+        for (String line : Files.readAllLines(config.baseline, StandardCharsets.UTF_8)) {
+            if (!line.isEmpty() && !line.equals(CSV_HEADER)) {
+                Result result = Result.fromCsv(line);
+                baseline.put(result.c.key(), result);
+            }
+        }
+        List<String> lines = new ArrayList<>();
+        lines.add("cryptor,path,source,operation,sizeBytes,bufferSize,"
+            + "baselineMbPerSecond,mbPerSecond,mbPerSecondChange,"
+            + "baselineCpuSecondsPerGb,cpuSecondsPerGb,cpuSecondsPerGbChange,"
+            + "baselineAllocMbPerSecond,allocMbPerSecond,baselineGcMillis,gcMillis");
+        System.out.println();
+        System.out.println("Comparison with " + config.baseline);
+        System.out.println(String.format(Locale.ROOT, "%-44s %21s %21s %21s",
+            "case", "MB/s", "CPU s/GB", "alloc MB/s"));
+        for (Result current : results) {
+            Result base = baseline.get(current.c.key());
+            if (base == null) {
+                continue;
+            }
+            System.out.println(String.format(Locale.ROOT, "%-44s %8.1f->%-8.1f%+5.0f%% %8.2f->%-8.2f%+5.0f%% %9.1f->%-9.1f",
+                current.c.label(),
+                base.mbPerSecond, current.mbPerSecond, change(base.mbPerSecond, current.mbPerSecond),
+                base.cpuSecondsPerGb, current.cpuSecondsPerGb, change(base.cpuSecondsPerGb, current.cpuSecondsPerGb),
+                base.allocMbPerSecond, current.allocMbPerSecond));
+            lines.add(String.format(Locale.ROOT, "%s,%.2f,%.2f,%.1f,%.3f,%.3f,%.1f,%.2f,%.2f,%.1f,%.1f",
+                current.c.key(),
+                base.mbPerSecond, current.mbPerSecond, change(base.mbPerSecond, current.mbPerSecond),
+                base.cpuSecondsPerGb, current.cpuSecondsPerGb, change(base.cpuSecondsPerGb, current.cpuSecondsPerGb),
+                base.allocMbPerSecond, current.allocMbPerSecond, base.gcMillis, current.gcMillis));
+        }
+        String fileName = config.report.getFileName().toString().replaceFirst("\\.csv$", "") + "-comparison.csv";
+        Path comparisonFile = config.report.resolveSibling(fileName);
+        Files.write(comparisonFile, lines, StandardCharsets.UTF_8);
+        System.out.println("Comparison written to " + comparisonFile.toAbsolutePath());
+    }
+
+    private static double change(double baseline, double current) {
+        return baseline == 0 ? 0 : (current - baseline) * 100 / baseline;
+    }
+
+    static long parseSize(String value) {
+        String s = value.trim().toLowerCase(Locale.ROOT);
+        long unit = 1;
+        char last = s.charAt(s.length() - 1);
+        if (last == 'k' || last == 'm' || last == 'g') {
+            unit = last == 'k' ? 1024L : last == 'm' ? 1024L * 1024 : 1024L * 1024 * 1024;
+            s = s.substring(0, s.length() - 1);
+        }
+        long size = Long.parseLong(s) * unit;
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive: " + value);
+        }
+        return size;
+    }
+
+    static String formatSize(long size) {
+        if (size % (1024L * 1024 * 1024) == 0) {
+            return size / (1024L * 1024 * 1024) + "GB";
+        } else if (size % (1024 * 1024) == 0) {
+            return size / (1024 * 1024) + "MB";
+        } else if (size % 1024 == 0) {
+            return size / 1024 + "KB";
+        }
+        return size + "B";
+    }
+
+    /**
+     * 命令行参数
+     */
+    static class Config {
+        List<String> cryptors = Arrays.asList(CryptorNames.SM4, CryptorNames.AES);
+        List<String> paths = Arrays.asList(PATH_UTIL, PATH_STREAM);
+        List<String> sources = Arrays.asList(SOURCE_FILE, SOURCE_PIPE, SOURCE_MEMORY);
+        List<Long> sizes = Arrays.asList(64L * 1024 * 1024, 256L * 1024 * 1024);
+        List<Integer> bufferSizes = Arrays.asList(8 * 1024, 64 * 1024, 1024 * 1024);
+        int warmup = 1;
+        int iterations = 3;
+        Boolean parallel;
+        boolean readAhead;
+        Path workDir;
+        Path report = Paths.get("build", "reports", "stream-benchmark", "results.csv");
+        Path baseline;
+
+        static Config parse(String[] args) {
+            Config config = new Config();
+            for (String arg : args) {
+                int index = arg.indexOf('=');
+                if (!arg.startsWith("--") || index < 0) {
+                    throw new IllegalArgumentException("Invalid argument: " + arg);
+                }
+                String name = arg.substring(2, index);
+                String value = arg.substring(index + 1);
+                switch (name) {
+                    case "cryptors":
+                        config.cryptors = parseList(value, CryptorNames.SM4, CryptorNames.AES);
+                        break;
+                    case "paths":
+                        config.paths = parseList(value, PATH_UTIL, PATH_STREAM);
+                        break;
+                    case "sources":
+                        config.sources = parseList(value, SOURCE_FILE, SOURCE_PIPE, SOURCE_MEMORY);
+                        break;
+                    case "sizes":
+                        config.sizes = new ArrayList<>();
+                        for (String item : value.split(",")) {
+                            config.sizes.add(parseSize(item));
+                        }
+                        break;
+                    case "bufferSizes":
+                        config.bufferSizes = new ArrayList<>();
+                        for (String item : value.split(",")) {
+                            long size = parseSize(item);
+                            if (size > Integer.MAX_VALUE) {
+                                throw new IllegalArgumentException("buffer size is too large: " + item);
+                            }
+                            config.bufferSizes.add((int) size);
+                        }
+                        break;
+                    case "warmup":
+                        config.warmup = Integer.parseInt(value);
+                        break;
+                    case "iterations":
+                        config.iterations = Integer.parseInt(value);
+                        break;
+                    case "parallel":
+                        config.parallel = Boolean.parseBoolean(value);
+                        break;
+                    case "readAhead":
+                        config.readAhead = Boolean.parseBoolean(value);
+                        break;
+                    case "workDir":
+                        config.workDir = Paths.get(value);
+                        break;
+                    case "report":
+                        config.report = Paths.get(value);
+                        break;
+                    case "baseline":
+                        config.baseline = Paths.get(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + name);
+                }
+            }
+            if (config.warmup < 0 || config.iterations <= 0) {
+                throw new IllegalArgumentException("warmup must be >= 0 and iterations must be > 0");
+            }
+            return config;
+        }
+
+        private static List<String> parseList(String value, String... allowed) {
+            List<String> items = new ArrayList<>();
+            for (String item : value.split(",")) {
+                String trimmed = item.trim();
+                if (!Arrays.asList(allowed).contains(trimmed)) {
+                    throw new IllegalArgumentException(
+                        "Unsupported value " + trimmed + ", expected one of " + Arrays.toString(allowed));
+                }
+                items.add(trimmed);
+            }
+            return items;
+        }
+    }
+
+    /**
+     * 同一加密器、同一数据大小的测试数据：明文与密文文件，数据不超过数组上限时另有内存中的明文与密文
+     */
+    static class Dataset implements AutoCloseable {
+        private Path plainFile;
+        private Path cipherFile;
+        private byte[] plainData;
+        private byte[] cipherData;
+
+        static Dataset prepare(Config config, String cryptor, long size, Path workDir) throws Exception {
+            Dataset dataset = new Dataset();
+            boolean needFile = config.sources.contains(SOURCE_FILE);
+            boolean needMemory = config.sources.contains(SOURCE_PIPE) || config.sources.contains(SOURCE_MEMORY);
+            Random random = new Random(size);
+            if (needMemory && size <= Integer.MAX_VALUE - IV_LENGTH - 8) {
+                dataset.plainData = new byte[(int) size];
+                random.nextBytes(dataset.plainData);
+                dataset.cipherData = new byte[(int) size + IV_LENGTH];
+                try (OutputStream out = new FixedArrayOutputStream(dataset.cipherData)) {
+                    encrypt(cryptor, new ByteArrayInputStream(dataset.plainData), out);
+                }
+            }
+            if (needFile) {
+                dataset.plainFile = workDir.resolve(cryptor + "-" + size + ".plain");
+                dataset.cipherFile = workDir.resolve(cryptor + "-" + size + ".cipher");
+                try (OutputStream out = Files.newOutputStream(dataset.plainFile)) {
+                    if (dataset.plainData != null) {
+                        out.write(dataset.plainData);
+                    } else {
+                        byte[] chunk = new byte[GENERATE_CHUNK_SIZE];
+                        for (long written = 0; written < size; written += chunk.length) {
+                            random.nextBytes(chunk);
+                            out.write(chunk, 0, (int) Math.min(chunk.length, size - written));
+                        }
+                    }
+                }
+                try (InputStream in = Files.newInputStream(dataset.plainFile);
+                     OutputStream out = Files.newOutputStream(dataset.cipherFile)) {
+                    encrypt(cryptor, in, out);
+                }
+            }
+            return dataset;
+        }
+
+        private static void encrypt(String cryptor, InputStream in, OutputStream out) throws Exception {
+            if (CryptorNames.SM4.equals(cryptor)) {
+                SM4Util.encrypt(KEY, in, out);
+            } else {
+                AESUtil.encrypt(KEY, in, out);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            plainData = null;
+            cipherData = null;
+            if (plainFile != null) {
+                Files.deleteIfExists(plainFile);
+                Files.deleteIfExists(cipherFile);
+            }
+        }
+    }
+
+    /**
+     * 写入预先分配好的数组，避免生成大数据量密文时ByteArrayOutputStream反复扩容
+     */
+    static class FixedArrayOutputStream extends OutputStream {
+        private final byte[] buf;
+        private int count;
+
+        FixedArrayOutputStream(byte[] buf) {
+            this.buf = buf;
+        }
+
+        @Override
+        public void write(int b) {
+            buf[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            System.arraycopy(b, off, buf, count, len);
+            count += len;
+        }
+    }
+
+    /**
+     * 测试用例
+     */
+    static class Case {
+        final String cryptor;
+        final String path;
+        final String source;
+        final String operation;
+        final long size;
+        final int bufferSize;
+
+        Case(String cryptor, String path, String source, String operation, long size, int bufferSize) {
+            this.cryptor = cryptor;
+            this.path = path;
+            this.source = source;
+            this.operation = operation;
+            this.size = size;
+            this.bufferSize = bufferSize;
+        }
+
+        String key() {
+            return String.join(",", cryptor, path, source, operation, String.valueOf(size),
+                String.valueOf(bufferSize));
+        }
+
+        String label() {
+            return String.format(Locale.ROOT, "%-4s %-6s %-6s %-7s %6s %6s",
+                cryptor, path, source, operation, formatSize(size), formatSize(bufferSize));
+        }
+    }
+
+    /**
+     * 进程级资源消耗快照：耗时、CPU时间、所有线程的内存分配量与GC次数/时间，累加时记录多次迭代的差值之和
+     */
+    static class Sample {
+        private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+        private static final OperatingSystemMXBean OS_MX_BEAN = ManagementFactory.getOperatingSystemMXBean();
+
+        long nanos;
+        long cpuNanos;
+        long allocatedBytes;
+        long gcCount;
+        long gcMillis;
+        long bytes;
+        private Map<Long, Long> threadAllocatedBytes = new HashMap<>();
+
+        static Sample take() {
+            Sample sample = new Sample();
+            if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean threadMxBean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+                long[] ids = threadMxBean.getAllThreadIds();
+                long[] allocated = threadMxBean.getThreadAllocatedBytes(ids);
+                for (int i = 0; i < ids.length; i++) {
+                    if (allocated[i] >= 0) {
+                        sample.threadAllocatedBytes.put(ids[i], allocated[i]);
+                    }
+                }
+            }
+            if (OS_MX_BEAN instanceof com.sun.management.OperatingSystemMXBean) {
+                sample.cpuNanos = ((com.sun.management.OperatingSystemMXBean) OS_MX_BEAN).getProcessCpuTime();
+            }
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                sample.gcCount += Math.max(gc.getCollectionCount(), 0);
+                sample.gcMillis += Math.max(gc.getCollectionTime(), 0);
+            }
+            sample.nanos = System.nanoTime();
+            return sample;
+        }
+
+        void add(Sample before, Sample after) {
+            nanos += after.nanos - before.nanos;
+            cpuNanos += after.cpuNanos - before.cpuNanos;
+            gcCount += after.gcCount - before.gcCount;
+            gcMillis += after.gcMillis - before.gcMillis;
+            // 期间结束的线程无法统计，生产者与线程池线程在测试期间保持存活
+            for (Map.Entry<Long, Long> entry : after.threadAllocatedBytes.entrySet()) {
+                allocatedBytes += entry.getValue() - before.threadAllocatedBytes.getOrDefault(entry.getKey(), 0L);
+            }
+        }
+    }
+
+    /**
+     * 单个测试用例的结果
+     */
+    static class Result {
+        final Case c;
+        final double mbPerSecond;
+        final double cpuSecondsPerGb;
+        final double allocMbPerSecond;
+        final double gcCount;
+        final double gcMillis;
+
+        Result(Case c, double mbPerSecond, double cpuSecondsPerGb, double allocMbPerSecond,
+               double gcCount, double gcMillis) {
+            this.c = c;
+            this.mbPerSecond = mbPerSecond;
+            this.cpuSecondsPerGb = cpuSecondsPerGb;
+            this.allocMbPerSecond = allocMbPerSecond;
+            this.gcCount = gcCount;
+            this.gcMillis = gcMillis;
+        }
+
+        /**
+         * GC次数与时间为每次迭代的平均值
+         */
+        Result(Case c, Sample total, int iterations) {
+            this(
+                c,
+                c.size * iterations / MB / (total.nanos / 1e9),
+                total.cpuNanos / 1e9 / (c.size * iterations / GB),
+                total.allocatedBytes / MB / (total.nanos / 1e9),
+                (double) total.gcCount / iterations,
+                (double) total.gcMillis / iterations
+            );
+        }
+
+        static String tableHeader() {
+            return String.format(Locale.ROOT, "%-4s %-6s %-6s %-7s %6s %6s %9s %9s %11s %7s %8s",
+                "alg", "path", "source", "op", "size", "buffer", "MB/s", "CPU s/GB", "alloc MB/s", "GCs", "GC ms");
+        }
+
+        String tableRow() {
+            return String.format(Locale.ROOT, "%s %9.1f %9.2f %11.1f %7.1f %8.1f",
+                c.label(), mbPerSecond, cpuSecondsPerGb, allocMbPerSecond, gcCount, gcMillis);
+        }
+
+        String toCsv() {
+            return String.format(Locale.ROOT, "%s,%.2f,%.3f,%.2f,%.1f,%.1f",
+                c.key(), mbPerSecond, cpuSecondsPerGb, allocMbPerSecond, gcCount, gcMillis);
+        }
+
+        static Result fromCsv(String line) {
+            String[] fields = line.split(",");
+            if (fields.length != 11) {
+                throw new IllegalArgumentException("Invalid report line: " + line);
+            }
+            Case c = new Case(fields[0], fields[1], fields[2], fields[3], Long.parseLong(fields[4]),
+                Integer.parseInt(fields[5]));
+            return new Result(c, Double.parseDouble(fields[6]), Double.parseDouble(fields[7]),
+                Double.parseDouble(fields[8]), Double.parseDouble(fields[9]), Double.parseDouble(fields[10]));
+        }
+    }
+}
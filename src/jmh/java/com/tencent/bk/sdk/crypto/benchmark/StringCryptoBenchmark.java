@@ -0,0 +1,118 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.benchmark;
+
+import com.tencent.bk.sdk.crypto.cryptor.AbstractSymmetricCryptor;
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricCryptorFactory;
+import com.tencent.bk.sdk.crypto.cryptor.UniversalDecryptor;
+import com.tencent.bk.sdk.crypto.util.Base64Util;
+import com.tencent.bk.sdk.crypto.util.CryptorMetaUtil;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 字符串加解密性能对比：原有实现（commons-codec编码后拼接前缀）与预分配缓冲区的JDK Base64实现，
+ * 以及按密文前缀自动选择加密器：解析加密器名称后查找工厂解密与通用解密器的对比
+ * 内存分配情况可通过gc分析器查看：./gradlew jmh -PjmhIncludes=StringCryptoBenchmark -PjmhProfilers=gc
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StringCryptoBenchmark {
+
+    private static final String KEY = "benchmarkKey";
+    private static final byte[] KEY_BYTES = KEY.getBytes(StandardCharsets.UTF_8);
+
+    @Param({"SM4", "AES"})
+    private String cryptorName;
+
+    @Param({"32", "1024"})
+    private int messageLength;
+
+    private AbstractSymmetricCryptor cryptor;
+    private UniversalDecryptor universalDecryptor;
+    private String message;
+    private String encryptedMessage;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        cryptor = (AbstractSymmetricCryptor) SymmetricCryptorFactory.getCryptor(cryptorName);
+        message = RandomStringUtils.randomAlphanumeric(messageLength);
+        encryptedMessage = cryptor.encrypt(KEY, message);
+        universalDecryptor = UniversalDecryptor.getInstance();
+    }
+
+    @Benchmark
+    public String encryptLegacy() {
+        byte[] encryptedBytes = cryptor.encryptIndeed(KEY_BYTES, message.getBytes(StandardCharsets.UTF_8));
+        return cryptor.getStringCipherPrefix() + Base64Util.encodeContentToStr(encryptedBytes);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return cryptor.encrypt(KEY, message);
+    }
+
+    @Benchmark
+    public String decryptLegacy() {
+        String base64EncryptedMessage = StringUtils.removeStart(encryptedMessage, cryptor.getStringCipherPrefix());
+        byte[] rawEncryptedMessage = Base64Util.decodeContentToByte(base64EncryptedMessage);
+        return new String(cryptor.decryptIndeed(KEY_BYTES, rawEncryptedMessage), StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return cryptor.decrypt(KEY, encryptedMessage);
+    }
+
+    @Benchmark
+    public String decryptDispatchLegacy() {
+        String cryptorName = CryptorMetaUtil.getCryptorNameFromCipher(encryptedMessage);
+        return SymmetricCryptorFactory.getCryptor(cryptorName).decrypt(KEY, encryptedMessage);
+    }
+
+    @Benchmark
+    public String decryptDispatchUniversal() {
+        return universalDecryptor.decrypt(KEY, encryptedMessage);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.benchmark;
+
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricCryptor;
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricCryptorFactory;
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对称加密器（SM4、AES、None）字节数组、字符串与流式接口的吞吐量，数据大小从16字节到64MB
+ * 除每秒操作次数外，辅助计数器bytes给出每秒处理的明文字节数，便于不同数据大小、不同版本之间对比
+ * 线程数通过-PjmhThreads指定，或使用./gradlew jmhSuite依次以1~N个线程运行
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SymmetricCryptorBenchmark {
+
+    private static final String KEY = "benchmarkKey";
+    private static final byte[] KEY_BYTES = KEY.getBytes(StandardCharsets.UTF_8);
+
+    @Param({"SM4", "AES", "None"})
+    private String cryptorName;
+
+    @Param({"16", "1024", "65536", "1048576", "67108864"})
+    private int payloadSize;
+
+    private SymmetricCryptor cryptor;
+    private byte[] message;
+    private byte[] encryptedMessage;
+    private String stringMessage;
+    private String encryptedStringMessage;
+    private byte[] encryptedStreamData;
+
+    /**
+     * 每个线程处理的明文字节数
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class ByteCounter {
+        public long bytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        cryptor = SymmetricCryptorFactory.getCryptor(cryptorName);
+        message = new byte[payloadSize];
+        new Random(0).nextBytes(message);
+        encryptedMessage = cryptor.encrypt(KEY_BYTES, message);
+        stringMessage = RandomStringUtils.randomAlphanumeric(payloadSize);
+        encryptedStringMessage = cryptor.encrypt(KEY, stringMessage);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payloadSize + 64);
+        cryptor.encrypt(KEY, new ByteArrayInputStream(message), out);
+        encryptedStreamData = out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] encryptBytes(ByteCounter counter) {
+        counter.bytes += payloadSize;
+        return cryptor.encrypt(KEY_BYTES, message);
+    }
+
+    @Benchmark
+    public byte[] decryptBytes(ByteCounter counter) {
+        counter.bytes += payloadSize;
+        return cryptor.decrypt(KEY_BYTES, encryptedMessage);
+    }
+
+    @Benchmark
+    public String encryptString(ByteCounter counter) {
+        counter.bytes += payloadSize;
+        return cryptor.encrypt(KEY, stringMessage);
+    }
+
+    @Benchmark
+    public String decryptString(ByteCounter counter) {
+        counter.bytes += payloadSize;
+        return cryptor.decrypt(KEY, encryptedStringMessage);
+    }
+
+    @Benchmark
+    public void encryptStream(ByteCounter counter) {
+        counter.bytes += payloadSize;
+        cryptor.encrypt(KEY, new ByteArrayInputStream(message), NullOutputStream.INSTANCE);
+    }
+
+    @Benchmark
+    public void decryptStream(ByteCounter counter) {
+        counter.bytes += payloadSize;
+        cryptor.decrypt(KEY, new ByteArrayInputStream(encryptedStreamData), NullOutputStream.INSTANCE);
+    }
+}
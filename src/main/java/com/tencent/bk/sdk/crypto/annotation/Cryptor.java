@@ -34,6 +34,11 @@ public @interface Cryptor {
      */
     String name() default "";
 
+    /**
+     * 二进制密文头（v2）中的算法ID（1~255），默认0表示不支持二进制密文头，始终使用文本前缀
+     */
+    int id() default 0;
+
     /**
      * 类型，默认为对称加密
      */
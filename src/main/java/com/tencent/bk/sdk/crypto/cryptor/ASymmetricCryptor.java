@@ -24,8 +24,15 @@
 
 package com.tencent.bk.sdk.crypto.cryptor;
 
+import com.tencent.bk.sdk.crypto.exception.CryptoException;
+import com.tencent.bk.sdk.crypto.util.CryptoExecutor;
+
+import java.nio.ByteBuffer;
 import java.security.PrivateKey;
 import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 非对称加密器接口
@@ -59,6 +66,55 @@ public interface ASymmetricCryptor {
      */
     byte[] decrypt(PrivateKey privateKey, byte[] encryptedMessage);
 
+    /**
+     * 加密缓冲区中的数据，将含元数据前缀的密文写入输出缓冲区，支持直接缓冲区
+     * 处理完成后输入缓冲区与输出缓冲区的position均向后移动；输出缓冲区空间不足时抛出异常，且不移动输入缓冲区的position
+     * 注意：非对称加密的密文长度与算法及密钥有关，无法预先精确计算
+     *
+     * @param publicKey 公钥，不可为null
+     * @param src       明文缓冲区，处理position至limit之间的全部数据，若无数据则不写入任何数据
+     * @param dst       输出缓冲区
+     * @return 写入输出缓冲区的字节数
+     * @throws com.tencent.bk.sdk.crypto.exception.CryptoException 加解密异常
+     */
+    default int encrypt(PublicKey publicKey, ByteBuffer src, ByteBuffer dst) {
+        byte[] message = new byte[src.remaining()];
+        src.get(message);
+        byte[] encryptedMessage = encrypt(publicKey, message);
+        if (encryptedMessage.length > dst.remaining()) {
+            src.position(src.position() - message.length);
+            throw new CryptoException(
+                "dst buffer is too small: required=" + encryptedMessage.length + ", remaining=" + dst.remaining()
+            );
+        }
+        dst.put(encryptedMessage);
+        return encryptedMessage.length;
+    }
+
+    /**
+     * 解密缓冲区中含元数据前缀的密文，将明文写入输出缓冲区，支持直接缓冲区
+     * 处理完成后输入缓冲区与输出缓冲区的position均向后移动
+     *
+     * @param privateKey 私钥，不可为null
+     * @param src        含元数据前缀的密文缓冲区，处理position至limit之间的全部数据，若无数据则不写入任何数据
+     * @param dst        输出缓冲区，剩余空间不小于密文长度即可
+     * @return 写入输出缓冲区的字节数
+     * @throws com.tencent.bk.sdk.crypto.exception.CryptoException 加解密异常
+     */
+    default int decrypt(PrivateKey privateKey, ByteBuffer src, ByteBuffer dst) {
+        byte[] encryptedMessage = new byte[src.remaining()];
+        src.get(encryptedMessage);
+        byte[] message = decrypt(privateKey, encryptedMessage);
+        if (message.length > dst.remaining()) {
+            src.position(src.position() - encryptedMessage.length);
+            throw new CryptoException(
+                "dst buffer is too small: required=" + message.length + ", remaining=" + dst.remaining()
+            );
+        }
+        dst.put(message);
+        return message.length;
+    }
+
     /**
      * 获取密文字符串的元数据前缀（用于标识该密文由何种加密器加密所得）
      *
@@ -85,4 +141,125 @@ public interface ASymmetricCryptor {
      * @throws com.tencent.bk.sdk.crypto.exception.CryptoException 加解密异常
      */
     String decrypt(PrivateKey privateKey, String base64MessageWithPrefix);
+
+    /**
+     * 使用同一公钥批量加密，结果与逐条调用encrypt(PublicKey, byte[])一一对应
+     *
+     * @param publicKey 公钥，不可为null
+     * @param messages  要加密的明文字节数组列表，若为null则原样返回，其中为null或空值的元素原样返回
+     * @return 加密后的密文字节数组列表
+     * @throws com.tencent.bk.sdk.crypto.exception.CryptoException 加解密异常
+     */
+    default List<byte[]> encryptBytesBatch(PublicKey publicKey, List<byte[]> messages) {
+        if (messages == null) {
+            return null;
+        }
+        List<byte[]> encryptedMessages = new ArrayList<>(messages.size());
+        for (byte[] message : messages) {
+            encryptedMessages.add(encrypt(publicKey, message));
+        }
+        return encryptedMessages;
+    }
+
+    /**
+     * 使用同一私钥批量解密，结果与逐条调用decrypt(PrivateKey, byte[])一一对应
+     *
+     * @param privateKey        私钥，不可为null
+     * @param encryptedMessages 加密后的密文字节数组列表，若为null则原样返回，其中为null或空值的元素原样返回
+     * @return 解密后的明文字节数组列表
+     * @throws com.tencent.bk.sdk.crypto.exception.CryptoException 加解密异常
+     */
+    default List<byte[]> decryptBytesBatch(PrivateKey privateKey, List<byte[]> encryptedMessages) {
+        if (encryptedMessages == null) {
+            return null;
+        }
+        List<byte[]> messages = new ArrayList<>(encryptedMessages.size());
+        for (byte[] encryptedMessage : encryptedMessages) {
+            messages.add(decrypt(privateKey, encryptedMessage));
+        }
+        return messages;
+    }
+
+    /**
+     * 使用同一公钥批量加密，结果与逐条调用encrypt(PublicKey, String)一一对应
+     *
+     * @param publicKey 公钥，不可为null
+     * @param messages  要加密的明文字符串（UTF-8编码）列表，若为null则原样返回，其中为null或空值的元素原样返回
+     * @return 加密后的密文字节数组经过base64编码并添加元数据前缀得到的字符串列表
+     * @throws com.tencent.bk.sdk.crypto.exception.CryptoException 加解密异常
+     */
+    default List<String> encryptBatch(PublicKey publicKey, List<String> messages) {
+        if (messages == null) {
+            return null;
+        }
+        List<String> encryptedMessages = new ArrayList<>(messages.size());
+        for (String message : messages) {
+            encryptedMessages.add(encrypt(publicKey, message));
+        }
+        return encryptedMessages;
+    }
+
+    /**
+     * 使用同一私钥批量解密，结果与逐条调用decrypt(PrivateKey, String)一一对应
+     *
+     * @param privateKey               私钥，不可为null
+     * @param base64MessagesWithPrefix 带元数据前缀的base64编码的【加密后的密文字节数组】列表，若为null则原样返回，
+     *                                 其中为null或空值的元素原样返回
+     * @return 解密后的明文字符串（UTF-8编码）列表
+     * @throws com.tencent.bk.sdk.crypto.exception.CryptoException 加解密异常
+     */
+    default List<String> decryptBatch(PrivateKey privateKey, List<String> base64MessagesWithPrefix) {
+        if (base64MessagesWithPrefix == null) {
+            return null;
+        }
+        List<String> messages = new ArrayList<>(base64MessagesWithPrefix.size());
+        for (String base64MessageWithPrefix : base64MessagesWithPrefix) {
+            messages.add(decrypt(privateKey, base64MessageWithPrefix));
+        }
+        return messages;
+    }
+
+    /**
+     * 在默认异步加解密线程池{@link CryptoExecutor#getDefault()}中加密
+     *
+     * @param publicKey 公钥，不可为null
+     * @param message   要加密的明文字节数组，若为null或空值则原样返回
+     * @return 含元数据前缀的加密后的密文字节数组；线程池饱和或超时时以异常结束
+     */
+    default CompletableFuture<byte[]> encryptAsync(PublicKey publicKey, byte[] message) {
+        return CryptoExecutor.getDefault().submit(() -> encrypt(publicKey, message));
+    }
+
+    /**
+     * 在默认异步加解密线程池{@link CryptoExecutor#getDefault()}中解密
+     *
+     * @param privateKey       私钥，不可为null
+     * @param encryptedMessage 含元数据前缀的加密后的密文字节数组，若为null或空值则原样返回
+     * @return 解密后的明文字节数组；线程池饱和或超时时以异常结束
+     */
+    default CompletableFuture<byte[]> decryptAsync(PrivateKey privateKey, byte[] encryptedMessage) {
+        return CryptoExecutor.getDefault().submit(() -> decrypt(privateKey, encryptedMessage));
+    }
+
+    /**
+     * 在默认异步加解密线程池{@link CryptoExecutor#getDefault()}中加密
+     *
+     * @param publicKey 公钥，不可为null
+     * @param message   要加密的明文字符串（UTF-8编码），若为null或空值则原样返回
+     * @return 经过base64编码并添加元数据前缀的密文字符串；线程池饱和或超时时以异常结束
+     */
+    default CompletableFuture<String> encryptAsync(PublicKey publicKey, String message) {
+        return CryptoExecutor.getDefault().submit(() -> encrypt(publicKey, message));
+    }
+
+    /**
+     * 在默认异步加解密线程池{@link CryptoExecutor#getDefault()}中解密
+     *
+     * @param privateKey              私钥，不可为null
+     * @param base64MessageWithPrefix 带元数据前缀的base64编码的【加密后的密文字节数组】，若为null或空值则原样返回
+     * @return 解密后的明文字符串（UTF-8编码）；线程池饱和或超时时以异常结束
+     */
+    default CompletableFuture<String> decryptAsync(PrivateKey privateKey, String base64MessageWithPrefix) {
+        return CryptoExecutor.getDefault().submit(() -> decrypt(privateKey, base64MessageWithPrefix));
+    }
 }
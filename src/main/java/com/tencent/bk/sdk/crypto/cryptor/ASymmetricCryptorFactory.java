@@ -24,96 +24,18 @@
 
 package com.tencent.bk.sdk.crypto.cryptor;
 
-import com.tencent.bk.sdk.crypto.annotation.Cryptor;
-import com.tencent.bk.sdk.crypto.annotation.CryptorTypeEnum;
 import com.tencent.bk.sdk.crypto.exception.CryptorNotFoundException;
-import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
-
-import java.util.HashMap;
-import java.util.Map;
-import java.util.ServiceLoader;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * 非对称加密器工厂
+ * 非对称加密器工厂，加密器的加载与查找委托给{@link CryptorRegistry}
  */
-@Slf4j
 public class ASymmetricCryptorFactory {
 
-    static Map<String, ASymmetricCryptor> aSymmetricCryptorMap = new ConcurrentHashMap<>();
-    static AtomicBoolean loading = new AtomicBoolean(false);
-    static CountDownLatch latch = new CountDownLatch(1);
-
     public static ASymmetricCryptor getCryptor(String name) {
-        if (!loading.get()) {
-            init();
-        }
-        if (latch.getCount() > 0) {
-            try {
-                latch.await();
-            } catch (InterruptedException e) {
-                log.error("wait for ASymmetricCryptorFactory load interrupted", e);
-            }
-        }
-        ASymmetricCryptor cryptor = aSymmetricCryptorMap.get(name);
-        if (cryptor != null) {
-            return cryptor;
+        CryptorEntry<ASymmetricCryptor> entry = CryptorRegistry.getInstance().getASymmetricEntry(name);
+        if (entry != null) {
+            return entry.getCryptor();
         }
         throw new CryptorNotFoundException("ASymmetricCryptor for " + name + " not found");
     }
-
-    private static void init() {
-        if (!loading.compareAndSet(false, true)) {
-            return;
-        }
-        try {
-            findCryptors();
-        } catch (Exception e) {
-            log.error("Exception occurred when findCryptors", e);
-        } finally {
-            latch.countDown();
-        }
-    }
-
-    private static void findCryptors() {
-
-        ServiceLoader<ASymmetricCryptor> serviceLoader = ServiceLoader.load(ASymmetricCryptor.class);
-
-        if (!serviceLoader.iterator().hasNext()) {
-            serviceLoader = ServiceLoader.load(ASymmetricCryptor.class, ServiceLoader.class.getClassLoader());
-        }
-        Map<String, Integer> candidatePriorityMap = new HashMap<>();
-        Map<String, ASymmetricCryptor> candidateMap = new HashMap<>();
-
-        for (ASymmetricCryptor aSymmetricCryptor : serviceLoader) {
-            // 默认值
-            String cryptorName = aSymmetricCryptor.getClass().getCanonicalName();
-            int priority = 0;
-            // 从注解解析
-            Cryptor cryptoAnonation = aSymmetricCryptor.getClass().getAnnotation(Cryptor.class);
-            if (cryptoAnonation != null) {
-                if (cryptoAnonation.type() != CryptorTypeEnum.ASYMMETRIC) {
-                    continue;
-                }
-                if (StringUtils.isNotBlank(cryptoAnonation.name())) {
-                    cryptorName = cryptoAnonation.name();
-                }
-                priority = cryptoAnonation.priority();
-            }
-            // 覆盖低优先级实现
-            Integer oldPriority = candidatePriorityMap.get(cryptorName);
-            if (oldPriority == null || priority > oldPriority) {
-                candidatePriorityMap.put(cryptorName, priority);
-                candidateMap.put(cryptorName, aSymmetricCryptor);
-            }
-        }
-        candidateMap.forEach((cryptorName, cryptor) -> {
-            aSymmetricCryptorMap.put(cryptorName, cryptor);
-            log.info("Add ASymmetricCryptor " + cryptorName
-                + " Crypto(" + candidatePriorityMap.get(cryptorName) + ") for " + cryptor);
-        });
-    }
 }
@@ -24,23 +24,74 @@
 
 package com.tencent.bk.sdk.crypto.cryptor;
 
+import com.tencent.bk.sdk.crypto.annotation.Cryptor;
 import com.tencent.bk.sdk.crypto.exception.CryptoException;
+import com.tencent.bk.sdk.crypto.metrics.CryptoMetricsUtil;
+import com.tencent.bk.sdk.crypto.metrics.CryptoOperation;
 import com.tencent.bk.sdk.crypto.util.Base64Util;
 import com.tencent.bk.sdk.crypto.util.CryptorMetaUtil;
 import lombok.NonNull;
 import org.apache.commons.lang3.StringUtils;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.PrivateKey;
 import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public abstract class AbstractASymmetricCryptor implements ASymmetricCryptor {
 
+    /**
+     * 缓存的密文元数据前缀
+     */
+    private volatile String cipherPrefix;
+
+    /**
+     * 缓存的密文元数据前缀字节数组（UTF-8编码）
+     */
+    private volatile byte[] cipherPrefixBytes;
+
+    /**
+     * 缓存的二进制密文头算法ID，-1表示尚未解析
+     */
+    private volatile int cipherAlgorithmId = -1;
+
+    /**
+     * 缓存的不带密钥ID的二进制密文头
+     */
+    private volatile byte[] cipherHeaderBytes;
+
     public abstract byte[] encryptIndeed(@NonNull PublicKey publicKey, @NonNull byte[] message);
 
     public abstract byte[] decryptIndeed(@NonNull PrivateKey privateKey, @NonNull byte[] encryptedMessage);
 
+    /**
+     * 解密数组指定区间中的密文，默认复制为字节数组后处理，子类可覆盖该方法直接在原数组上解密
+     *
+     * @param privateKey       私钥
+     * @param encryptedMessage 密文所在的字节数组
+     * @param offset           不含元数据前缀的密文起始位置
+     * @param length           不含元数据前缀的密文长度
+     * @return 明文字节数组
+     */
+    public byte[] decryptIndeed(@NonNull PrivateKey privateKey, @NonNull byte[] encryptedMessage,
+                                int offset, int length) {
+        return decryptIndeed(privateKey, Arrays.copyOfRange(encryptedMessage, offset, offset + length));
+    }
+
     public byte[] encrypt(PublicKey publicKey, byte[] message) {
+        if (!CryptoMetricsUtil.isEnabled()) {
+            return doEncrypt(publicKey, message);
+        }
+        return CryptoMetricsUtil.record(
+            getName(), CryptoOperation.ENCRYPT, CryptoMetricsUtil.lengthOf(message),
+            () -> doEncrypt(publicKey, message)
+        );
+    }
+
+    private byte[] doEncrypt(PublicKey publicKey, byte[] message) {
         if (publicKey == null) {
             throw new CryptoException("encrypt key is invalid: null");
         }
@@ -48,30 +99,216 @@ public abstract class AbstractASymmetricCryptor implements ASymmetricCryptor {
             return message;
         }
         byte[] encryptedBytes = encryptIndeed(publicKey, message);
-        return CryptorMetaUtil.addPrefixToEncryptedBytes(getStringCipherPrefix(), encryptedBytes);
+        return CryptorMetaUtil.addPrefixToEncryptedBytes(getCipherHeaderBytes(), encryptedBytes);
     }
 
     public byte[] decrypt(PrivateKey privateKey, byte[] encryptedMessage) {
+        if (!CryptoMetricsUtil.isEnabled()) {
+            return doDecrypt(privateKey, encryptedMessage);
+        }
+        return CryptoMetricsUtil.record(
+            getName(), CryptoOperation.DECRYPT, CryptoMetricsUtil.lengthOf(encryptedMessage),
+            () -> doDecrypt(privateKey, encryptedMessage)
+        );
+    }
+
+    private byte[] doDecrypt(PrivateKey privateKey, byte[] encryptedMessage) {
         if (privateKey == null) {
             throw new CryptoException("decrypt key is invalid: null");
         }
         if (encryptedMessage == null || encryptedMessage.length == 0) {
             return encryptedMessage;
         }
-        byte[] pureEncryptedBytes = CryptorMetaUtil.removePrefixFromEncryptedBytes(
-            getStringCipherPrefix(), encryptedMessage
+        int offset = CryptorMetaUtil.checkHeaderOfEncryptedBytes(
+            getCipherPrefixBytes(), getCipherAlgorithmId(), encryptedMessage
+        );
+        return decryptIndeed(privateKey, encryptedMessage, offset, encryptedMessage.length - offset);
+    }
+
+    @Override
+    public int encrypt(PublicKey publicKey, ByteBuffer src, ByteBuffer dst) {
+        if (!CryptoMetricsUtil.isEnabled()) {
+            return doEncrypt(publicKey, src, dst);
+        }
+        return CryptoMetricsUtil.record(
+            getName(), CryptoOperation.ENCRYPT, src.remaining(),
+            () -> doEncrypt(publicKey, src, dst)
+        );
+    }
+
+    private int doEncrypt(PublicKey publicKey, ByteBuffer src, ByteBuffer dst) {
+        if (publicKey == null) {
+            throw new CryptoException("encrypt key is invalid: null");
+        }
+        if (!src.hasRemaining()) {
+            return 0;
+        }
+        byte[] message = new byte[src.remaining()];
+        src.get(message);
+        byte[] encryptedBytes = encryptIndeed(publicKey, message);
+        byte[] headerBytes = getCipherHeaderBytes();
+        int outputSize = headerBytes.length + encryptedBytes.length;
+        if (dst.remaining() < outputSize) {
+            src.position(src.position() - message.length);
+            throw new CryptoException(
+                "dst buffer is too small: required=" + outputSize + ", remaining=" + dst.remaining()
+            );
+        }
+        dst.put(headerBytes);
+        dst.put(encryptedBytes);
+        return outputSize;
+    }
+
+    @Override
+    public int decrypt(PrivateKey privateKey, ByteBuffer src, ByteBuffer dst) {
+        if (!CryptoMetricsUtil.isEnabled()) {
+            return doDecrypt(privateKey, src, dst);
+        }
+        return CryptoMetricsUtil.record(
+            getName(), CryptoOperation.DECRYPT, src.remaining(),
+            () -> doDecrypt(privateKey, src, dst)
         );
-        return decryptIndeed(privateKey, pureEncryptedBytes);
+    }
+
+    private int doDecrypt(PrivateKey privateKey, ByteBuffer src, ByteBuffer dst) {
+        if (privateKey == null) {
+            throw new CryptoException("decrypt key is invalid: null");
+        }
+        if (!src.hasRemaining()) {
+            return 0;
+        }
+        CryptorMetaUtil.skipHeaderInEncryptedBuffer(getCipherPrefixBytes(), getCipherAlgorithmId(), src);
+        byte[] message;
+        if (src.hasArray()) {
+            message = decryptIndeed(privateKey, src.array(), src.arrayOffset() + src.position(), src.remaining());
+            src.position(src.limit());
+        } else {
+            byte[] pureEncryptedBytes = new byte[src.remaining()];
+            src.get(pureEncryptedBytes);
+            message = decryptIndeed(privateKey, pureEncryptedBytes);
+        }
+        if (dst.remaining() < message.length) {
+            throw new CryptoException(
+                "dst buffer is too small: required=" + message.length + ", remaining=" + dst.remaining()
+            );
+        }
+        dst.put(message);
+        return message.length;
     }
 
     public abstract String getName();
 
+    /**
+     * 获取密文元数据前缀，首次调用后缓存
+     *
+     * @return 密文元数据前缀
+     */
     public String getStringCipherPrefix() {
-        return "[Cipher:::" + getName() + "]";
+        String prefix = cipherPrefix;
+        if (prefix == null) {
+            prefix = CryptorMetaUtil.getCipherMetaPrefix() + getName() + CryptorMetaUtil.getCipherMetaSuffix();
+            cipherPrefix = prefix;
+        }
+        return prefix;
+    }
+
+    /**
+     * 获取密文元数据前缀的字节数组（UTF-8编码），首次调用后缓存，调用方不可修改返回的数组
+     *
+     * @return 密文元数据前缀字节数组
+     */
+    protected byte[] getCipherPrefixBytes() {
+        byte[] prefixBytes = cipherPrefixBytes;
+        if (prefixBytes == null) {
+            prefixBytes = StringUtils.defaultString(getStringCipherPrefix()).getBytes(StandardCharsets.UTF_8);
+            cipherPrefixBytes = prefixBytes;
+        }
+        return prefixBytes;
+    }
+
+    /**
+     * 获取二进制密文头中的算法ID，从Cryptor注解解析，首次调用后缓存
+     *
+     * @return 算法ID，未声明时返回0
+     */
+    protected int getCipherAlgorithmId() {
+        int algorithmId = cipherAlgorithmId;
+        if (algorithmId < 0) {
+            Cryptor cryptorAnnotation = getClass().getAnnotation(Cryptor.class);
+            algorithmId = cryptorAnnotation == null ? 0 : cryptorAnnotation.id();
+            cipherAlgorithmId = algorithmId;
+        }
+        return algorithmId;
+    }
+
+    /**
+     * 获取加密时写在二进制密文前的元数据：启用v2格式且声明了算法ID时为二进制密文头，否则为文本前缀字节数组，
+     * 调用方不可修改返回的数组
+     *
+     * @return 元数据字节数组
+     */
+    protected byte[] getCipherHeaderBytes() {
+        if (!isCipherHeaderEnabled()) {
+            return getCipherPrefixBytes();
+        }
+        byte[] headerBytes = cipherHeaderBytes;
+        if (headerBytes == null) {
+            headerBytes = CryptorMetaUtil.buildCipherHeader(getCipherAlgorithmId(), null);
+            cipherHeaderBytes = headerBytes;
+        }
+        return headerBytes;
+    }
+
+    private boolean isCipherHeaderEnabled() {
+        return CryptorMetaUtil.getCipherFormatVersion() == CryptorMetaUtil.CIPHER_FORMAT_V2
+            && getCipherAlgorithmId() > 0;
+    }
+
+    /**
+     * 将不含元数据的密文编码为字符串：v1格式为文本前缀 + base64(密文)，v2格式为[v2] + base64(二进制密文头 + 密文)
+     */
+    private String encodeStringCipher(byte[] encryptedMessage) {
+        if (!isCipherHeaderEnabled()) {
+            return Base64Util.encodeContentToStrWithPrefix(getCipherPrefixBytes(), encryptedMessage);
+        }
+        return CryptorMetaUtil.encodeStringCipherWithHeader(getCipherHeaderBytes(), encryptedMessage);
+    }
+
+    /**
+     * 解码字符串密文：v2格式跳过[v2]前缀后解码（结果以二进制密文头开始），否则跳过可能存在的文本前缀后解码
+     */
+    private byte[] decodeStringCipher(String base64MessageWithPrefix) {
+        if (CryptorMetaUtil.isStringCipherWithHeader(base64MessageWithPrefix)) {
+            return CryptorMetaUtil.decodeStringCipherWithHeader(base64MessageWithPrefix);
+        }
+        return Base64Util.decodeContentWithPrefixToByte(getCipherPrefixBytes(), base64MessageWithPrefix);
+    }
+
+    /**
+     * 计算字符串密文解码后的数据中密文的起始位置：只有v2格式的解码结果以二进制密文头开始，
+     * 带文本前缀或不含前缀（历史数据）时解码结果即为密文，不识别二进制密文头，避免随机IV被误当作密文头
+     */
+    private int getStringCipherBodyOffset(String base64MessageWithPrefix, byte[] rawEncryptedMessage) {
+        if (!CryptorMetaUtil.isStringCipherWithHeader(base64MessageWithPrefix)) {
+            return 0;
+        }
+        return CryptorMetaUtil.checkHeaderOfEncryptedBytes(
+            getCipherPrefixBytes(), getCipherAlgorithmId(), rawEncryptedMessage
+        );
     }
 
     @Override
     public String encrypt(PublicKey publicKey, String message) {
+        if (!CryptoMetricsUtil.isEnabled()) {
+            return doEncrypt(publicKey, message);
+        }
+        return CryptoMetricsUtil.record(
+            getName(), CryptoOperation.ENCRYPT, CryptoMetricsUtil.lengthOf(message),
+            () -> doEncrypt(publicKey, message)
+        );
+    }
+
+    private String doEncrypt(PublicKey publicKey, String message) {
         if (publicKey == null) {
             throw new CryptoException("encrypt key is invalid: null");
         }
@@ -82,28 +319,174 @@ public abstract class AbstractASymmetricCryptor implements ASymmetricCryptor {
             publicKey,
             message.getBytes(StandardCharsets.UTF_8)
         );
-        String finalCipher = Base64Util.encodeContentToStr(encryptedMessage);
-        String prefix = getStringCipherPrefix();
-        if (prefix != null) {
-            finalCipher = prefix + finalCipher;
-        }
-        return finalCipher;
+        return encodeStringCipher(encryptedMessage);
     }
 
     @Override
     public String decrypt(PrivateKey privateKey, String base64MessageWithPrefix) {
+        if (!CryptoMetricsUtil.isEnabled()) {
+            return doDecrypt(privateKey, base64MessageWithPrefix);
+        }
+        return CryptoMetricsUtil.record(
+            getName(), CryptoOperation.DECRYPT, CryptoMetricsUtil.lengthOf(base64MessageWithPrefix),
+            () -> doDecrypt(privateKey, base64MessageWithPrefix)
+        );
+    }
+
+    private String doDecrypt(PrivateKey privateKey, String base64MessageWithPrefix) {
         if (privateKey == null) {
             throw new CryptoException("decrypt key is invalid: null");
         }
         if (StringUtils.isEmpty(base64MessageWithPrefix)) {
             return base64MessageWithPrefix;
         }
-        String base64EncryptedMessage = StringUtils.removeStart(base64MessageWithPrefix, getStringCipherPrefix());
-        byte[] rawEncryptedMessage = Base64Util.decodeContentToByte(base64EncryptedMessage);
+        byte[] rawEncryptedMessage = decodeStringCipher(base64MessageWithPrefix);
+        int offset = getStringCipherBodyOffset(base64MessageWithPrefix, rawEncryptedMessage);
         byte[] decryptedMessage = decryptIndeed(
             privateKey,
-            rawEncryptedMessage
+            rawEncryptedMessage,
+            offset,
+            rawEncryptedMessage.length - offset
         );
         return new String(decryptedMessage, StandardCharsets.UTF_8);
     }
+
+    /**
+     * 批量加密：前缀计算只进行一次
+     */
+    @Override
+    public List<byte[]> encryptBytesBatch(PublicKey publicKey, List<byte[]> messages) {
+        if (!CryptoMetricsUtil.isEnabled()) {
+            return doEncryptBytesBatch(publicKey, messages);
+        }
+        return CryptoMetricsUtil.record(
+            getName(), CryptoOperation.ENCRYPT_BATCH, CryptoMetricsUtil.totalLength(messages),
+            () -> doEncryptBytesBatch(publicKey, messages)
+        );
+    }
+
+    private List<byte[]> doEncryptBytesBatch(PublicKey publicKey, List<byte[]> messages) {
+        if (publicKey == null) {
+            throw new CryptoException("encrypt key is invalid: null");
+        }
+        if (messages == null) {
+            return null;
+        }
+        byte[] headerBytes = getCipherHeaderBytes();
+        List<byte[]> encryptedMessages = new ArrayList<>(messages.size());
+        for (byte[] message : messages) {
+            if (message == null || message.length == 0) {
+                encryptedMessages.add(message);
+                continue;
+            }
+            byte[] encryptedBytes = encryptIndeed(publicKey, message);
+            encryptedMessages.add(CryptorMetaUtil.addPrefixToEncryptedBytes(headerBytes, encryptedBytes));
+        }
+        return encryptedMessages;
+    }
+
+    /**
+     * 批量解密：前缀计算只进行一次
+     */
+    @Override
+    public List<byte[]> decryptBytesBatch(PrivateKey privateKey, List<byte[]> encryptedMessages) {
+        if (!CryptoMetricsUtil.isEnabled()) {
+            return doDecryptBytesBatch(privateKey, encryptedMessages);
+        }
+        return CryptoMetricsUtil.record(
+            getName(), CryptoOperation.DECRYPT_BATCH, CryptoMetricsUtil.totalLength(encryptedMessages),
+            () -> doDecryptBytesBatch(privateKey, encryptedMessages)
+        );
+    }
+
+    private List<byte[]> doDecryptBytesBatch(PrivateKey privateKey, List<byte[]> encryptedMessages) {
+        if (privateKey == null) {
+            throw new CryptoException("decrypt key is invalid: null");
+        }
+        if (encryptedMessages == null) {
+            return null;
+        }
+        byte[] prefixBytes = getCipherPrefixBytes();
+        int algorithmId = getCipherAlgorithmId();
+        List<byte[]> messages = new ArrayList<>(encryptedMessages.size());
+        for (byte[] encryptedMessage : encryptedMessages) {
+            if (encryptedMessage == null || encryptedMessage.length == 0) {
+                messages.add(encryptedMessage);
+                continue;
+            }
+            int offset = CryptorMetaUtil.checkHeaderOfEncryptedBytes(prefixBytes, algorithmId, encryptedMessage);
+            messages.add(decryptIndeed(privateKey, encryptedMessage, offset, encryptedMessage.length - offset));
+        }
+        return messages;
+    }
+
+    /**
+     * 批量加密：前缀计算只进行一次，密文字符串按最终长度一次性生成
+     */
+    @Override
+    public List<String> encryptBatch(PublicKey publicKey, List<String> messages) {
+        if (!CryptoMetricsUtil.isEnabled()) {
+            return doEncryptBatch(publicKey, messages);
+        }
+        return CryptoMetricsUtil.record(
+            getName(), CryptoOperation.ENCRYPT_BATCH, CryptoMetricsUtil.totalStringLength(messages),
+            () -> doEncryptBatch(publicKey, messages)
+        );
+    }
+
+    private List<String> doEncryptBatch(PublicKey publicKey, List<String> messages) {
+        if (publicKey == null) {
+            throw new CryptoException("encrypt key is invalid: null");
+        }
+        if (messages == null) {
+            return null;
+        }
+        List<String> encryptedMessages = new ArrayList<>(messages.size());
+        for (String message : messages) {
+            if (StringUtils.isEmpty(message)) {
+                encryptedMessages.add(message);
+                continue;
+            }
+            byte[] encryptedMessage = encryptIndeed(publicKey, message.getBytes(StandardCharsets.UTF_8));
+            encryptedMessages.add(encodeStringCipher(encryptedMessage));
+        }
+        return encryptedMessages;
+    }
+
+    /**
+     * 批量解密：前缀计算只进行一次
+     */
+    @Override
+    public List<String> decryptBatch(PrivateKey privateKey, List<String> base64MessagesWithPrefix) {
+        if (!CryptoMetricsUtil.isEnabled()) {
+            return doDecryptBatch(privateKey, base64MessagesWithPrefix);
+        }
+        return CryptoMetricsUtil.record(
+            getName(), CryptoOperation.DECRYPT_BATCH, CryptoMetricsUtil.totalStringLength(base64MessagesWithPrefix),
+            () -> doDecryptBatch(privateKey, base64MessagesWithPrefix)
+        );
+    }
+
+    private List<String> doDecryptBatch(PrivateKey privateKey, List<String> base64MessagesWithPrefix) {
+        if (privateKey == null) {
+            throw new CryptoException("decrypt key is invalid: null");
+        }
+        if (base64MessagesWithPrefix == null) {
+            return null;
+        }
+        List<String> messages = new ArrayList<>(base64MessagesWithPrefix.size());
+        for (String base64MessageWithPrefix : base64MessagesWithPrefix) {
+            if (StringUtils.isEmpty(base64MessageWithPrefix)) {
+                messages.add(base64MessageWithPrefix);
+                continue;
+            }
+            byte[] rawEncryptedMessage = decodeStringCipher(base64MessageWithPrefix);
+            int offset = getStringCipherBodyOffset(base64MessageWithPrefix, rawEncryptedMessage);
+            byte[] decryptedMessage = decryptIndeed(
+                privateKey, rawEncryptedMessage, offset, rawEncryptedMessage.length - offset
+            );
+            messages.add(new String(decryptedMessage, StandardCharsets.UTF_8));
+        }
+        return messages;
+    }
 }
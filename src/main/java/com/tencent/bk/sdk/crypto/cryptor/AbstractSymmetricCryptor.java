@@ -24,25 +24,189 @@
 
 package com.tencent.bk.sdk.crypto.cryptor;
 
+import com.tencent.bk.sdk.crypto.annotation.Cryptor;
 import com.tencent.bk.sdk.crypto.exception.CryptoException;
+import com.tencent.bk.sdk.crypto.metrics.CryptoMetricsUtil;
+import com.tencent.bk.sdk.crypto.metrics.CryptoOperation;
 import com.tencent.bk.sdk.crypto.util.Base64Util;
 import com.tencent.bk.sdk.crypto.util.CryptorMetaUtil;
+import com.tencent.bk.sdk.crypto.util.StreamCryptoOptions;
 import lombok.NonNull;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
 import org.apache.commons.lang3.StringUtils;
 
-import java.io.BufferedInputStream;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
 
 public abstract class AbstractSymmetricCryptor implements SymmetricCryptor {
 
+    /**
+     * 缓存的密文元数据前缀
+     */
+    private volatile String cipherPrefix;
+
+    /**
+     * 缓存的密文元数据前缀字节数组（UTF-8编码）
+     */
+    private volatile byte[] cipherPrefixBytes;
+
+    /**
+     * 缓存的二进制密文头算法ID，-1表示尚未解析
+     */
+    private volatile int cipherAlgorithmId = -1;
+
+    /**
+     * 缓存的不带密钥ID的二进制密文头
+     */
+    private volatile byte[] cipherHeaderBytes;
+
     public abstract byte[] encryptIndeed(@NonNull byte[] key, @NonNull byte[] message);
 
     public abstract byte[] decryptIndeed(@NonNull byte[] key, @NonNull byte[] encryptedMessage);
 
+    /**
+     * 对密钥进行预处理（如补齐、派生），结果保存在密钥句柄中供后续加解密复用
+     * 子类可覆盖该方法及encryptIndeed/decryptIndeed的密钥句柄版本以避免每次调用都重复处理密钥
+     *
+     * @param key 密钥字节数组
+     * @return 预处理后的密钥，不需要预处理时返回null
+     */
+    protected SecretKey prepareSecretKey(@NonNull byte[] key) {
+        return null;
+    }
+
+    /**
+     * 使用密钥句柄加密
+     *
+     * @param keyHandle 密钥句柄
+     * @param message   明文字节数组
+     * @return 不含元数据前缀的密文字节数组
+     */
+    public byte[] encryptIndeed(@NonNull SymmetricKeyHandle keyHandle, @NonNull byte[] message) {
+        return encryptIndeed(keyHandle.getKey(), message);
+    }
+
+    /**
+     * 使用密钥句柄解密
+     *
+     * @param keyHandle        密钥句柄
+     * @param encryptedMessage 不含元数据前缀的密文字节数组
+     * @return 明文字节数组
+     */
+    public byte[] decryptIndeed(@NonNull SymmetricKeyHandle keyHandle, @NonNull byte[] encryptedMessage) {
+        return decryptIndeed(keyHandle.getKey(), encryptedMessage);
+    }
+
+    /**
+     * 解密数组指定区间中的密文，默认复制为字节数组后处理，子类可覆盖该方法直接在原数组上解密
+     *
+     * @param key              密钥
+     * @param encryptedMessage 密文所在的字节数组
+     * @param offset           不含元数据前缀的密文起始位置
+     * @param length           不含元数据前缀的密文长度
+     * @return 明文字节数组
+     */
+    public byte[] decryptIndeed(@NonNull byte[] key, @NonNull byte[] encryptedMessage, int offset, int length) {
+        return decryptIndeed(key, Arrays.copyOfRange(encryptedMessage, offset, offset + length));
+    }
+
+    /**
+     * 使用密钥句柄解密数组指定区间中的密文，默认复制为字节数组后处理，子类可覆盖该方法直接在原数组上解密
+     *
+     * @param keyHandle        密钥句柄
+     * @param encryptedMessage 密文所在的字节数组
+     * @param offset           不含元数据前缀的密文起始位置
+     * @param length           不含元数据前缀的密文长度
+     * @return 明文字节数组
+     */
+    public byte[] decryptIndeed(@NonNull SymmetricKeyHandle keyHandle, @NonNull byte[] encryptedMessage,
+                                int offset, int length) {
+        return decryptIndeed(keyHandle, Arrays.copyOfRange(encryptedMessage, offset, offset + length));
+    }
+
+    /**
+     * 加密后的密文（不含元数据前缀）相对明文增加的长度，如IV长度，用于预先计算输出缓冲区大小
+     * 子类可覆盖该方法及encryptIndeed/decryptIndeed的缓冲区版本以直接读写缓冲区
+     *
+     * @return 增加的长度，无法预先确定时返回-1
+     */
+    protected int getCipherOverhead() {
+        return -1;
+    }
+
+    /**
+     * 创建分块加解密使用的CTR工作模式密码器，支持分块加解密的子类覆盖该方法
+     *
+     * @param keyHandle 密钥句柄
+     * @param iv        IV
+     * @param mode      密码器工作模式
+     * @return 已初始化的密码器，不支持分块加解密时返回null
+     */
+    protected Cipher createCtrCipher(@NonNull SymmetricKeyHandle keyHandle, @NonNull byte[] iv, int mode) {
+        return null;
+    }
+
+    /**
+     * 加密缓冲区中的数据，默认复制为字节数组后处理
+     *
+     * @param key 密钥
+     * @param src 明文缓冲区
+     * @param dst 输出缓冲区，写入不含元数据前缀的密文
+     */
+    public void encryptIndeed(@NonNull byte[] key, @NonNull ByteBuffer src, @NonNull ByteBuffer dst) {
+        byte[] message = new byte[src.remaining()];
+        src.get(message);
+        dst.put(encryptIndeed(key, message));
+    }
+
+    /**
+     * 解密缓冲区中的数据，默认复制为字节数组后处理
+     *
+     * @param key 密钥
+     * @param src 不含元数据前缀的密文缓冲区
+     * @param dst 输出缓冲区，写入明文
+     */
+    public void decryptIndeed(@NonNull byte[] key, @NonNull ByteBuffer src, @NonNull ByteBuffer dst) {
+        byte[] encryptedMessage = new byte[src.remaining()];
+        src.get(encryptedMessage);
+        dst.put(decryptIndeed(key, encryptedMessage));
+    }
+
+    /**
+     * 使用密钥句柄加密数组指定区间的数据，将不含元数据前缀的密文写入输出数组，默认复制为字节数组后处理
+     * 子类可覆盖该方法直接写入输出数组，调用方已按getOutputSize保证输出数组空间充足
+     *
+     * @param keyHandle    密钥句柄
+     * @param message      明文字节数组
+     * @param offset       明文起始位置
+     * @param length       明文长度
+     * @param output       输出字节数组
+     * @param outputOffset 输出起始位置
+     * @return 写入输出数组的字节数
+     */
+    public int encryptIndeed(@NonNull SymmetricKeyHandle keyHandle, @NonNull byte[] message, int offset, int length,
+                             @NonNull byte[] output, int outputOffset) {
+        byte[] encryptedMessage = encryptIndeed(keyHandle, Arrays.copyOfRange(message, offset, offset + length));
+        System.arraycopy(encryptedMessage, 0, output, outputOffset, encryptedMessage.length);
+        return encryptedMessage.length;
+    }
+
     /**
      * 对流数据进行加密
      *
@@ -75,69 +239,883 @@ public abstract class AbstractSymmetricCryptor implements SymmetricCryptor {
         );
     }
 
+    /**
+     * 按调优参数对流数据进行加密，默认忽略调优参数，子类可覆盖该方法以使用调优参数
+     *
+     * @param key     密钥
+     * @param in      明文输入流
+     * @param out     密文输出流
+     * @param options 流数据处理调优参数
+     */
+    public void encryptIndeed(String key, InputStream in, OutputStream out, StreamCryptoOptions options) {
+        encryptIndeed(key, in, out);
+    }
+
+    /**
+     * 按调优参数对流数据进行解密，默认忽略调优参数，子类可覆盖该方法以使用调优参数
+     *
+     * @param key     密钥
+     * @param in      密文输入流
+     * @param out     明文输出流
+     * @param options 流数据处理调优参数
+     */
+    public void decryptIndeed(String key, InputStream in, OutputStream out, StreamCryptoOptions options) {
+        decryptIndeed(key, in, out);
+    }
+
+    /**
+     * 对文件数据进行加密，默认按流数据处理，子类可覆盖该方法使用文件映射等更高效的方式
+     *
+     * @param key 密钥
+     * @param in  明文文件通道，从当前位置读取至文件末尾
+     * @param out 密文文件通道（可读写），从当前位置开始写入
+     */
+    public void encryptFileIndeed(String key, FileChannel in, FileChannel out) throws IOException {
+        encryptIndeed(key, Channels.newInputStream(in), Channels.newOutputStream(out));
+    }
+
+    /**
+     * 对文件数据进行解密，默认按流数据处理，子类可覆盖该方法使用文件映射等更高效的方式
+     *
+     * @param key 密钥
+     * @param in  密文文件通道，从当前位置读取至文件末尾
+     * @param out 明文文件通道（可读写），从当前位置开始写入
+     */
+    public void decryptFileIndeed(String key, FileChannel in, FileChannel out) throws IOException {
+        decryptIndeed(key, Channels.newInputStream(in), Channels.newOutputStream(out));
+    }
+
     public byte[] encrypt(byte[] key, byte[] message) {
+        if (!CryptoMetricsUtil.isEnabled()) {
+            return doEncrypt(key, message);
+        }
+        return CryptoMetricsUtil.record(
+            getName(), CryptoOperation.ENCRYPT, CryptoMetricsUtil.lengthOf(message),
+            () -> doEncrypt(key, message)
+        );
+    }
+
+    private byte[] doEncrypt(byte[] key, byte[] message) {
         if (key == null || key.length == 0) {
             throw new CryptoException("encrypt key is invalid: null or empty");
         }
         if (message == null || message.length == 0) {
             return message;
         }
+        int outputSize = getOutputSize(message.length);
+        if (outputSize >= 0) {
+            byte[] output = new byte[outputSize];
+            encryptToArray(prepareKey(key), message, 0, message.length, output, 0);
+            return output;
+        }
         byte[] encryptedBytes = encryptIndeed(key, message);
-        return CryptorMetaUtil.addPrefixToEncryptedBytes(getStringCipherPrefix(), encryptedBytes);
+        return CryptorMetaUtil.addPrefixToEncryptedBytes(getCipherHeaderBytes(), encryptedBytes);
     }
 
     public byte[] decrypt(byte[] key, byte[] encryptedMessage) {
+        if (!CryptoMetricsUtil.isEnabled()) {
+            return doDecrypt(key, encryptedMessage);
+        }
+        return CryptoMetricsUtil.record(
+            getName(), CryptoOperation.DECRYPT, CryptoMetricsUtil.lengthOf(encryptedMessage),
+            () -> doDecrypt(key, encryptedMessage)
+        );
+    }
+
+    private byte[] doDecrypt(byte[] key, byte[] encryptedMessage) {
         if (key == null || key.length == 0) {
             throw new CryptoException("decrypt key is invalid: null or empty");
         }
         if (encryptedMessage == null || encryptedMessage.length == 0) {
             return encryptedMessage;
         }
-        String prefix = getStringCipherPrefix();
-        byte[] expectedPrefixBytes = prefix.getBytes(StandardCharsets.UTF_8);
-        if (encryptedMessage.length < expectedPrefixBytes.length) {
-            throw new CryptoException("encryptedMessage is invalid: cannot find enough prefix bytes");
+        int offset = CryptorMetaUtil.checkHeaderOfEncryptedBytes(
+            getCipherPrefixBytes(), getCipherAlgorithmId(), encryptedMessage
+        );
+        return decryptIndeed(key, encryptedMessage, offset, encryptedMessage.length - offset);
+    }
+
+    @Override
+    public int getOutputSize(int messageLength) {
+        if (messageLength == 0) {
+            return 0;
+        }
+        int overhead = getCipherOverhead();
+        if (overhead < 0) {
+            return -1;
         }
-        byte[] pureEncryptedBytes = CryptorMetaUtil.removePrefixFromEncryptedBytes(prefix, encryptedMessage);
-        return decryptIndeed(key, pureEncryptedBytes);
+        return getCipherHeaderBytes().length + overhead + messageLength;
+    }
+
+    /**
+     * 计算使用指定密钥句柄加密时的输出长度，句柄带有密钥ID时密文头包含密钥ID
+     */
+    private int getOutputSize(SymmetricKeyHandle keyHandle, int messageLength) {
+        int outputSize = getOutputSize(messageLength);
+        if (outputSize <= 0 || keyHandle.getKeyId() == null) {
+            return outputSize;
+        }
+        return outputSize - getCipherHeaderBytes().length + getCipherHeaderBytes(keyHandle).length;
+    }
+
+    @Override
+    public int encrypt(byte[] key, ByteBuffer src, ByteBuffer dst) {
+        // 无法预先计算输出长度时回退到字节数组接口，由该接口记录指标
+        if (!CryptoMetricsUtil.isEnabled() || getOutputSize(src.remaining()) < 0) {
+            return doEncrypt(key, src, dst);
+        }
+        return CryptoMetricsUtil.record(
+            getName(), CryptoOperation.ENCRYPT, src.remaining(),
+            () -> doEncrypt(key, src, dst)
+        );
+    }
+
+    private int doEncrypt(byte[] key, ByteBuffer src, ByteBuffer dst) {
+        if (key == null || key.length == 0) {
+            throw new CryptoException("encrypt key is invalid: null or empty");
+        }
+        int messageLength = src.remaining();
+        if (messageLength == 0) {
+            return 0;
+        }
+        int outputSize = getOutputSize(messageLength);
+        if (outputSize < 0) {
+            return SymmetricCryptor.super.encrypt(key, src, dst);
+        }
+        if (dst.remaining() < outputSize) {
+            throw new CryptoException(
+                "dst buffer is too small: required=" + outputSize + ", remaining=" + dst.remaining()
+            );
+        }
+        int start = dst.position();
+        dst.put(getCipherHeaderBytes());
+        encryptIndeed(key, src, dst);
+        return dst.position() - start;
+    }
+
+    @Override
+    public int decrypt(byte[] key, ByteBuffer src, ByteBuffer dst) {
+        if (!CryptoMetricsUtil.isEnabled()) {
+            return doDecrypt(key, src, dst);
+        }
+        return CryptoMetricsUtil.record(
+            getName(), CryptoOperation.DECRYPT, src.remaining(),
+            () -> doDecrypt(key, src, dst)
+        );
+    }
+
+    private int doDecrypt(byte[] key, ByteBuffer src, ByteBuffer dst) {
+        if (key == null || key.length == 0) {
+            throw new CryptoException("decrypt key is invalid: null or empty");
+        }
+        if (!src.hasRemaining()) {
+            return 0;
+        }
+        // 解密失败（如输出缓冲区空间不足）时src与dst均恢复到调用前的位置，调用方可扩大dst后重试
+        int srcPosition = src.position();
+        int start = dst.position();
+        try {
+            CryptorMetaUtil.skipHeaderInEncryptedBuffer(getCipherPrefixBytes(), getCipherAlgorithmId(), src);
+            int overhead = getCipherOverhead();
+            if (overhead >= 0 && dst.remaining() < src.remaining() - overhead) {
+                throw new CryptoException(
+                    "dst buffer is too small: required=" + (src.remaining() - overhead)
+                        + ", remaining=" + dst.remaining()
+                );
+            }
+            decryptIndeed(key, src, dst);
+        } catch (RuntimeException e) {
+            src.position(srcPosition);
+            dst.position(start);
+            throw e;
+        }
+        return dst.position() - start;
     }
 
     public void encrypt(String key, InputStream in, OutputStream out) {
-        byte[] prefixBytes = getStringCipherPrefix().getBytes(StandardCharsets.UTF_8);
+        encrypt(key, in, out, StreamCryptoOptions.getDefault());
+    }
+
+    @Override
+    public void encrypt(String key, InputStream in, OutputStream out, StreamCryptoOptions options) {
+        if (!CryptoMetricsUtil.isEnabled()) {
+            doEncrypt(key, in, out, options);
+            return;
+        }
+        CryptoMetricsUtil.recordStream(
+            getName(), CryptoOperation.ENCRYPT_STREAM, in,
+            countingIn -> doEncrypt(key, countingIn, out, options)
+        );
+    }
+
+    private void doEncrypt(String key, InputStream in, OutputStream out, StreamCryptoOptions options) {
         try {
-            out.write(prefixBytes);
-            encryptIndeed(key, in, out);
+            out.write(getCipherHeaderBytes());
+            encryptIndeed(key, in, out, options);
         } catch (IOException e) {
             throw new CryptoException("Fail to encrypt data in stream", e);
         }
     }
 
     public void decrypt(String key, InputStream in, OutputStream out) {
-        byte[] prefixBytes = getStringCipherPrefix().getBytes(StandardCharsets.UTF_8);
-        byte[] cipherPrefixBytes = new byte[prefixBytes.length];
-        BufferedInputStream bis = new BufferedInputStream(in);
-        bis.mark(prefixBytes.length);
+        decrypt(key, in, out, StreamCryptoOptions.getDefault());
+    }
+
+    @Override
+    public void decrypt(String key, InputStream in, OutputStream out, StreamCryptoOptions options) {
+        if (!CryptoMetricsUtil.isEnabled()) {
+            doDecrypt(key, in, out, options);
+            return;
+        }
+        CryptoMetricsUtil.recordStream(
+            getName(), CryptoOperation.DECRYPT_STREAM, in,
+            countingIn -> doDecrypt(key, countingIn, out, options)
+        );
+    }
+
+    private void doDecrypt(String key, InputStream in, OutputStream out, StreamCryptoOptions options) {
+        byte[] head = new byte[getCipherMetaPeekLength()];
+        // 只回退元数据之后多读的字节，避免BufferedInputStream额外分配8KB缓冲区并多一次拷贝
+        PushbackInputStream pis = new PushbackInputStream(in, head.length);
         try {
-            int n = bis.read(cipherPrefixBytes);
-            if (n != prefixBytes.length) {
-                bis.reset();
-            } else if (!Arrays.equals(prefixBytes, cipherPrefixBytes)) {
-                bis.reset();
+            int n = IOUtils.read(pis, head);
+            int metaLength = getCipherMetaLength(head, n);
+            if (n > metaLength) {
+                pis.unread(head, metaLength, n - metaLength);
             }
-            decryptIndeed(key, bis, out);
+            decryptIndeed(key, pis, out, options);
         } catch (IOException e) {
             throw new CryptoException("Fail to decrypt data in stream", e);
         }
     }
 
+    @Override
+    public SymmetricChunkCipher newChunkEncryptor(String key) {
+        return new SymmetricChunkCipher(this, prepareKey(key), Cipher.ENCRYPT_MODE);
+    }
+
+    @Override
+    public SymmetricChunkCipher newChunkDecryptor(String key) {
+        return new SymmetricChunkCipher(this, prepareKey(key), Cipher.DECRYPT_MODE);
+    }
+
+    /**
+     * 文本密文格式与字符串接口一致：v1格式为文本前缀 + base64(IV + 密文)，v2格式为[v2] + base64(二进制密文头 + IV + 密文)
+     */
+    @Override
+    public void encryptToBase64(String key, InputStream in, OutputStream out) {
+        try {
+            OutputStream base64Out;
+            if (isCipherHeaderEnabled()) {
+                out.write(CryptorMetaDefinition.getStringCipherHeaderPrefix().getBytes(StandardCharsets.UTF_8));
+                base64Out = Base64.getEncoder().wrap(CloseShieldOutputStream.wrap(out));
+                base64Out.write(getCipherHeaderBytes());
+            } else {
+                out.write(getCipherPrefixBytes());
+                base64Out = Base64.getEncoder().wrap(CloseShieldOutputStream.wrap(out));
+            }
+            encryptIndeed(key, in, base64Out);
+            base64Out.close();
+        } catch (IOException e) {
+            throw new CryptoException("Fail to encrypt data to base64 stream", e);
+        }
+    }
+
+    /**
+     * 按文本前缀解析文本密文：v1格式跳过文本前缀，v2格式跳过[v2]前缀并校验二进制密文头，不含前缀时按流数据解密
+     */
+    @Override
+    public void decryptFromBase64(String key, InputStream in, OutputStream out) {
+        byte[] prefixBytes = getCipherPrefixBytes();
+        byte[] headerPrefixBytes =
+            CryptorMetaDefinition.getStringCipherHeaderPrefix().getBytes(StandardCharsets.UTF_8);
+        byte[] head = new byte[Math.max(prefixBytes.length, headerPrefixBytes.length)];
+        PushbackInputStream pis = new PushbackInputStream(in, head.length);
+        try {
+            int n = IOUtils.read(pis, head);
+            if (startsWith(head, n, prefixBytes)) {
+                pis.unread(head, prefixBytes.length, n - prefixBytes.length);
+                decryptIndeed(key, Base64Util.wrapDecodingStream(pis), out);
+            } else if (startsWith(head, n, headerPrefixBytes)) {
+                pis.unread(head, headerPrefixBytes.length, n - headerPrefixBytes.length);
+                decryptIndeed(key, skipCipherHeader(Base64Util.wrapDecodingStream(pis)), out);
+            } else {
+                pis.unread(head, 0, n);
+                decrypt(key, Base64Util.wrapDecodingStream(pis), out);
+            }
+        } catch (IOException e) {
+            throw new CryptoException("Fail to decrypt data from base64 stream", e);
+        }
+    }
+
+    private static boolean startsWith(byte[] head, int length, byte[] prefixBytes) {
+        if (length < prefixBytes.length) {
+            return false;
+        }
+        for (int i = 0; i < prefixBytes.length; i++) {
+            if (head[i] != prefixBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 校验并跳过流开头的二进制密文头，返回位于密文头之后的流
+     */
+    private InputStream skipCipherHeader(InputStream in) throws IOException {
+        byte[] head = new byte[CryptorMetaUtil.CIPHER_HEADER_MIN_LENGTH + 1];
+        PushbackInputStream pis = new PushbackInputStream(in, head.length);
+        int n = IOUtils.read(pis, head);
+        int headerLength = CryptorMetaUtil.getMatchingCipherHeaderLength(getCipherAlgorithmId(), head, 0, n);
+        if (headerLength == 0) {
+            throw new CryptoException("encryptedMessage is invalid: cipher header unexpected");
+        }
+        if (n > headerLength) {
+            pis.unread(head, headerLength, n - headerLength);
+        } else {
+            IOUtils.skipFully(pis, headerLength - n);
+        }
+        return pis;
+    }
+
+    @Override
+    public void encryptFile(String key, Path src, Path dst) {
+        if (!CryptoMetricsUtil.isEnabled()) {
+            doEncryptFile(key, src, dst);
+            return;
+        }
+        CryptoMetricsUtil.run(getName(), CryptoOperation.ENCRYPT_FILE, sizeOf(src), () -> doEncryptFile(key, src, dst));
+    }
+
+    private void doEncryptFile(String key, Path src, Path dst) {
+        ByteBuffer prefixBuffer = ByteBuffer.wrap(getCipherHeaderBytes());
+        try (FileChannel in = FileChannel.open(src, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(dst, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                 StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            while (prefixBuffer.hasRemaining()) {
+                out.write(prefixBuffer);
+            }
+            encryptFileIndeed(key, in, out);
+        } catch (IOException e) {
+            throw new CryptoException("Fail to encrypt file: " + src, e);
+        }
+    }
+
+    @Override
+    public void decryptFile(String key, Path src, Path dst) {
+        if (!CryptoMetricsUtil.isEnabled()) {
+            doDecryptFile(key, src, dst);
+            return;
+        }
+        CryptoMetricsUtil.run(getName(), CryptoOperation.DECRYPT_FILE, sizeOf(src), () -> doDecryptFile(key, src, dst));
+    }
+
+    private void doDecryptFile(String key, Path src, Path dst) {
+        ByteBuffer cipherPrefixBuffer = ByteBuffer.allocate(getCipherMetaPeekLength());
+        try (FileChannel in = FileChannel.open(src, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(dst, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                 StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            while (cipherPrefixBuffer.hasRemaining()) {
+                if (in.read(cipherPrefixBuffer) == -1) {
+                    break;
+                }
+            }
+            // 与流数据解密一致：兼容不含元数据的密文
+            in.position(getCipherMetaLength(cipherPrefixBuffer.array(), cipherPrefixBuffer.position()));
+            decryptFileIndeed(key, in, out);
+        } catch (IOException e) {
+            throw new CryptoException("Fail to decrypt file: " + src, e);
+        }
+    }
+
+    @Override
+    public SymmetricKeyHandle prepareKey(byte[] key) {
+        if (key == null || key.length == 0) {
+            throw new CryptoException("key is invalid: null or empty");
+        }
+        byte[] keyCopy = key.clone();
+        return new SymmetricKeyHandle(getName(), keyCopy, prepareSecretKey(keyCopy));
+    }
+
+    @Override
+    public byte[] encrypt(SymmetricKeyHandle keyHandle, byte[] message) {
+        if (!CryptoMetricsUtil.isEnabled()) {
+            return doEncrypt(keyHandle, message);
+        }
+        return CryptoMetricsUtil.record(
+            getName(), CryptoOperation.ENCRYPT, CryptoMetricsUtil.lengthOf(message),
+            () -> doEncrypt(keyHandle, message)
+        );
+    }
+
+    private byte[] doEncrypt(SymmetricKeyHandle keyHandle, byte[] message) {
+        checkKeyHandle(keyHandle);
+        if (message == null || message.length == 0) {
+            return message;
+        }
+        int outputSize = getOutputSize(keyHandle, message.length);
+        if (outputSize >= 0) {
+            byte[] output = new byte[outputSize];
+            encryptToArray(keyHandle, message, 0, message.length, output, 0);
+            return output;
+        }
+        byte[] encryptedBytes = encryptIndeed(keyHandle, message);
+        return CryptorMetaUtil.addPrefixToEncryptedBytes(getCipherHeaderBytes(keyHandle), encryptedBytes);
+    }
+
+    @Override
+    public int encrypt(byte[] key, byte[] message, int offset, int length, byte[] output, int outputOffset) {
+        if (key == null || key.length == 0) {
+            throw new CryptoException("encrypt key is invalid: null or empty");
+        }
+        return encrypt(prepareKey(key), message, offset, length, output, outputOffset);
+    }
+
+    @Override
+    public int encrypt(SymmetricKeyHandle keyHandle, byte[] message, int offset, int length,
+                       byte[] output, int outputOffset) {
+        checkKeyHandle(keyHandle);
+        if (offset < 0 || length < 0 || offset > message.length - length) {
+            throw new IndexOutOfBoundsException(
+                "offset=" + offset + ", length=" + length + ", message.length=" + message.length
+            );
+        }
+        if (length == 0) {
+            return 0;
+        }
+        int outputSize = getOutputSize(keyHandle, length);
+        if (outputSize < 0 && keyHandle.getKeyId() == null) {
+            return SymmetricCryptor.super.encrypt(keyHandle, message, offset, length, output, outputOffset);
+        }
+        if (outputSize < 0) {
+            byte[] encryptedMessage = doEncrypt(keyHandle, Arrays.copyOfRange(message, offset, offset + length));
+            if (outputOffset < 0 || output.length - outputOffset < encryptedMessage.length) {
+                throw new CryptoException("output buffer is too small: required=" + encryptedMessage.length
+                    + ", remaining=" + (output.length - outputOffset));
+            }
+            System.arraycopy(encryptedMessage, 0, output, outputOffset, encryptedMessage.length);
+            return encryptedMessage.length;
+        }
+        if (outputOffset < 0 || output.length - outputOffset < outputSize) {
+            throw new CryptoException(
+                "output buffer is too small: required=" + outputSize + ", remaining=" + (output.length - outputOffset)
+            );
+        }
+        return encryptToArray(keyHandle, message, offset, length, output, outputOffset);
+    }
+
+    @Override
+    public byte[] decrypt(SymmetricKeyHandle keyHandle, byte[] encryptedMessage) {
+        if (!CryptoMetricsUtil.isEnabled()) {
+            return doDecrypt(keyHandle, encryptedMessage);
+        }
+        return CryptoMetricsUtil.record(
+            getName(), CryptoOperation.DECRYPT, CryptoMetricsUtil.lengthOf(encryptedMessage),
+            () -> doDecrypt(keyHandle, encryptedMessage)
+        );
+    }
+
+    private byte[] doDecrypt(SymmetricKeyHandle keyHandle, byte[] encryptedMessage) {
+        checkKeyHandle(keyHandle);
+        if (encryptedMessage == null || encryptedMessage.length == 0) {
+            return encryptedMessage;
+        }
+        int offset = CryptorMetaUtil.checkHeaderOfEncryptedBytes(
+            getCipherPrefixBytes(), getCipherAlgorithmId(), encryptedMessage
+        );
+        return decryptIndeed(keyHandle, encryptedMessage, offset, encryptedMessage.length - offset);
+    }
+
+    @Override
+    public String encrypt(SymmetricKeyHandle keyHandle, String message) {
+        if (!CryptoMetricsUtil.isEnabled()) {
+            return doEncrypt(keyHandle, message);
+        }
+        return CryptoMetricsUtil.record(
+            getName(), CryptoOperation.ENCRYPT, CryptoMetricsUtil.lengthOf(message),
+            () -> doEncrypt(keyHandle, message)
+        );
+    }
+
+    private String doEncrypt(SymmetricKeyHandle keyHandle, String message) {
+        checkKeyHandle(keyHandle);
+        if (StringUtils.isEmpty(message)) {
+            return message;
+        }
+        byte[] encryptedMessage = encryptIndeed(keyHandle, message.getBytes(StandardCharsets.UTF_8));
+        if (keyHandle.getKeyId() != null) {
+            return CryptorMetaUtil.encodeStringCipherWithHeader(getCipherHeaderBytes(keyHandle), encryptedMessage);
+        }
+        return encodeStringCipher(encryptedMessage);
+    }
+
+    @Override
+    public String decrypt(SymmetricKeyHandle keyHandle, String base64MessageWithPrefix) {
+        if (!CryptoMetricsUtil.isEnabled()) {
+            return doDecrypt(keyHandle, base64MessageWithPrefix);
+        }
+        return CryptoMetricsUtil.record(
+            getName(), CryptoOperation.DECRYPT, CryptoMetricsUtil.lengthOf(base64MessageWithPrefix),
+            () -> doDecrypt(keyHandle, base64MessageWithPrefix)
+        );
+    }
+
+    private String doDecrypt(SymmetricKeyHandle keyHandle, String base64MessageWithPrefix) {
+        checkKeyHandle(keyHandle);
+        if (StringUtils.isEmpty(base64MessageWithPrefix)) {
+            return base64MessageWithPrefix;
+        }
+        byte[] rawEncryptedMessage = decodeStringCipher(base64MessageWithPrefix);
+        int offset = getStringCipherBodyOffset(base64MessageWithPrefix, rawEncryptedMessage);
+        byte[] decryptedMessage = decryptIndeed(
+            keyHandle, rawEncryptedMessage, offset, rawEncryptedMessage.length - offset
+        );
+        return new String(decryptedMessage, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 批量加密：密钥预处理、前缀计算只进行一次
+     */
+    @Override
+    public List<byte[]> encryptBytesBatch(byte[] key, List<byte[]> messages) {
+        if (!CryptoMetricsUtil.isEnabled()) {
+            return doEncryptBytesBatch(key, messages);
+        }
+        return CryptoMetricsUtil.record(
+            getName(), CryptoOperation.ENCRYPT_BATCH, CryptoMetricsUtil.totalLength(messages),
+            () -> doEncryptBytesBatch(key, messages)
+        );
+    }
+
+    private List<byte[]> doEncryptBytesBatch(byte[] key, List<byte[]> messages) {
+        if (key == null || key.length == 0) {
+            throw new CryptoException("encrypt key is invalid: null or empty");
+        }
+        if (messages == null) {
+            return null;
+        }
+        SymmetricKeyHandle keyHandle = prepareKey(key);
+        byte[] headerBytes = getCipherHeaderBytes();
+        List<byte[]> encryptedMessages = new ArrayList<>(messages.size());
+        for (byte[] message : messages) {
+            if (message == null || message.length == 0) {
+                encryptedMessages.add(message);
+                continue;
+            }
+            int outputSize = getOutputSize(message.length);
+            if (outputSize >= 0) {
+                byte[] output = new byte[outputSize];
+                encryptToArray(keyHandle, message, 0, message.length, output, 0);
+                encryptedMessages.add(output);
+                continue;
+            }
+            byte[] encryptedBytes = encryptIndeed(keyHandle, message);
+            encryptedMessages.add(CryptorMetaUtil.addPrefixToEncryptedBytes(headerBytes, encryptedBytes));
+        }
+        return encryptedMessages;
+    }
+
+    /**
+     * 批量解密：密钥预处理、前缀计算只进行一次
+     */
+    @Override
+    public List<byte[]> decryptBytesBatch(byte[] key, List<byte[]> encryptedMessages) {
+        if (!CryptoMetricsUtil.isEnabled()) {
+            return doDecryptBytesBatch(key, encryptedMessages);
+        }
+        return CryptoMetricsUtil.record(
+            getName(), CryptoOperation.DECRYPT_BATCH, CryptoMetricsUtil.totalLength(encryptedMessages),
+            () -> doDecryptBytesBatch(key, encryptedMessages)
+        );
+    }
+
+    private List<byte[]> doDecryptBytesBatch(byte[] key, List<byte[]> encryptedMessages) {
+        if (key == null || key.length == 0) {
+            throw new CryptoException("decrypt key is invalid: null or empty");
+        }
+        if (encryptedMessages == null) {
+            return null;
+        }
+        SymmetricKeyHandle keyHandle = prepareKey(key);
+        byte[] prefixBytes = getCipherPrefixBytes();
+        int algorithmId = getCipherAlgorithmId();
+        List<byte[]> messages = new ArrayList<>(encryptedMessages.size());
+        for (byte[] encryptedMessage : encryptedMessages) {
+            if (encryptedMessage == null || encryptedMessage.length == 0) {
+                messages.add(encryptedMessage);
+                continue;
+            }
+            int offset = CryptorMetaUtil.checkHeaderOfEncryptedBytes(prefixBytes, algorithmId, encryptedMessage);
+            messages.add(decryptIndeed(keyHandle, encryptedMessage, offset, encryptedMessage.length - offset));
+        }
+        return messages;
+    }
+
+    /**
+     * 批量加密：密钥预处理、前缀计算只进行一次，密文字符串按最终长度一次性生成
+     */
+    @Override
+    public List<String> encryptBatch(String key, List<String> messages) {
+        if (!CryptoMetricsUtil.isEnabled()) {
+            return doEncryptBatch(key, messages);
+        }
+        return CryptoMetricsUtil.record(
+            getName(), CryptoOperation.ENCRYPT_BATCH, CryptoMetricsUtil.totalStringLength(messages),
+            () -> doEncryptBatch(key, messages)
+        );
+    }
+
+    private List<String> doEncryptBatch(String key, List<String> messages) {
+        if (StringUtils.isEmpty(key)) {
+            throw new CryptoException("encrypt key is invalid: null or empty");
+        }
+        if (messages == null) {
+            return null;
+        }
+        SymmetricKeyHandle keyHandle = prepareKey(key.getBytes(StandardCharsets.UTF_8));
+        List<String> encryptedMessages = new ArrayList<>(messages.size());
+        for (String message : messages) {
+            if (StringUtils.isEmpty(message)) {
+                encryptedMessages.add(message);
+                continue;
+            }
+            byte[] encryptedMessage = encryptIndeed(keyHandle, message.getBytes(StandardCharsets.UTF_8));
+            encryptedMessages.add(encodeStringCipher(encryptedMessage));
+        }
+        return encryptedMessages;
+    }
+
+    /**
+     * 批量解密：密钥预处理、前缀计算只进行一次
+     */
+    @Override
+    public List<String> decryptBatch(String key, List<String> base64MessagesWithPrefix) {
+        if (!CryptoMetricsUtil.isEnabled()) {
+            return doDecryptBatch(key, base64MessagesWithPrefix);
+        }
+        return CryptoMetricsUtil.record(
+            getName(), CryptoOperation.DECRYPT_BATCH, CryptoMetricsUtil.totalStringLength(base64MessagesWithPrefix),
+            () -> doDecryptBatch(key, base64MessagesWithPrefix)
+        );
+    }
+
+    private List<String> doDecryptBatch(String key, List<String> base64MessagesWithPrefix) {
+        if (StringUtils.isEmpty(key)) {
+            throw new CryptoException("decrypt key is invalid: null or empty");
+        }
+        if (base64MessagesWithPrefix == null) {
+            return null;
+        }
+        SymmetricKeyHandle keyHandle = prepareKey(key.getBytes(StandardCharsets.UTF_8));
+        List<String> messages = new ArrayList<>(base64MessagesWithPrefix.size());
+        for (String base64MessageWithPrefix : base64MessagesWithPrefix) {
+            if (StringUtils.isEmpty(base64MessageWithPrefix)) {
+                messages.add(base64MessageWithPrefix);
+                continue;
+            }
+            byte[] rawEncryptedMessage = decodeStringCipher(base64MessageWithPrefix);
+            int offset = getStringCipherBodyOffset(base64MessageWithPrefix, rawEncryptedMessage);
+            byte[] decryptedMessage = decryptIndeed(
+                keyHandle, rawEncryptedMessage, offset, rawEncryptedMessage.length - offset
+            );
+            messages.add(new String(decryptedMessage, StandardCharsets.UTF_8));
+        }
+        return messages;
+    }
+
+    /**
+     * 在输出数组中依次写入元数据与密文，调用方需保证输出数组空间不小于getOutputSize的结果
+     */
+    private int encryptToArray(SymmetricKeyHandle keyHandle, byte[] message, int offset, int length,
+                               byte[] output, int outputOffset) {
+        byte[] headerBytes = getCipherHeaderBytes(keyHandle);
+        System.arraycopy(headerBytes, 0, output, outputOffset, headerBytes.length);
+        return headerBytes.length
+            + encryptIndeed(keyHandle, message, offset, length, output, outputOffset + headerBytes.length);
+    }
+
+    private static long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private void checkKeyHandle(SymmetricKeyHandle keyHandle) {
+        if (keyHandle == null) {
+            throw new CryptoException("keyHandle is invalid: null");
+        }
+        if (!getName().equals(keyHandle.getCryptorName())) {
+            throw new CryptoException(
+                "keyHandle is prepared by cryptor " + keyHandle.getCryptorName() + ", cannot be used by " + getName()
+            );
+        }
+    }
+
     public abstract String getName();
 
+    /**
+     * 获取密文元数据前缀，首次调用后缓存
+     *
+     * @return 密文元数据前缀
+     */
     public String getStringCipherPrefix() {
-        return CryptorMetaUtil.getCipherMetaPrefix() + getName() + CryptorMetaUtil.getCipherMetaSuffix();
+        String prefix = cipherPrefix;
+        if (prefix == null) {
+            prefix = CryptorMetaUtil.getCipherMetaPrefix() + getName() + CryptorMetaUtil.getCipherMetaSuffix();
+            cipherPrefix = prefix;
+        }
+        return prefix;
+    }
+
+    /**
+     * 获取密文元数据前缀的字节数组（UTF-8编码），首次调用后缓存，调用方不可修改返回的数组
+     *
+     * @return 密文元数据前缀字节数组
+     */
+    protected byte[] getCipherPrefixBytes() {
+        byte[] prefixBytes = cipherPrefixBytes;
+        if (prefixBytes == null) {
+            prefixBytes = StringUtils.defaultString(getStringCipherPrefix()).getBytes(StandardCharsets.UTF_8);
+            cipherPrefixBytes = prefixBytes;
+        }
+        return prefixBytes;
+    }
+
+    /**
+     * 获取二进制密文头中的算法ID，从Cryptor注解解析，首次调用后缓存
+     *
+     * @return 算法ID，未声明时返回0
+     */
+    protected int getCipherAlgorithmId() {
+        int algorithmId = cipherAlgorithmId;
+        if (algorithmId < 0) {
+            Cryptor cryptorAnnotation = getClass().getAnnotation(Cryptor.class);
+            algorithmId = cryptorAnnotation == null ? 0 : cryptorAnnotation.id();
+            cipherAlgorithmId = algorithmId;
+        }
+        return algorithmId;
+    }
+
+    /**
+     * 获取加密时写在二进制密文前的元数据：启用v2格式且声明了算法ID时为二进制密文头，否则为文本前缀字节数组，
+     * 调用方不可修改返回的数组
+     *
+     * @return 元数据字节数组
+     */
+    protected byte[] getCipherHeaderBytes() {
+        if (!isCipherHeaderEnabled()) {
+            return getCipherPrefixBytes();
+        }
+        byte[] headerBytes = cipherHeaderBytes;
+        if (headerBytes == null) {
+            headerBytes = CryptorMetaUtil.buildCipherHeader(getCipherAlgorithmId(), null);
+            cipherHeaderBytes = headerBytes;
+        }
+        return headerBytes;
+    }
+
+    /**
+     * 获取使用指定密钥句柄加密时写在二进制密文前的元数据：句柄带有密钥ID时总是为带密钥ID的二进制密文头，
+     * 否则同getCipherHeaderBytes()
+     */
+    private byte[] getCipherHeaderBytes(SymmetricKeyHandle keyHandle) {
+        byte[] keyId = keyHandle.getKeyId();
+        if (keyId == null) {
+            return getCipherHeaderBytes();
+        }
+        if (getCipherAlgorithmId() <= 0) {
+            throw new CryptoException("Cryptor " + getName() + " does not declare an algorithm id, cannot write keyId");
+        }
+        return CryptorMetaUtil.buildCipherHeader(getCipherAlgorithmId(), keyId);
+    }
+
+    private boolean isCipherHeaderEnabled() {
+        return CryptorMetaUtil.getCipherFormatVersion() == CryptorMetaUtil.CIPHER_FORMAT_V2
+            && getCipherAlgorithmId() > 0;
+    }
+
+    /**
+     * 将不含元数据的密文编码为字符串：v1格式为文本前缀 + base64(密文)，v2格式为[v2] + base64(二进制密文头 + 密文)
+     */
+    private String encodeStringCipher(byte[] encryptedMessage) {
+        if (!isCipherHeaderEnabled()) {
+            return Base64Util.encodeContentToStrWithPrefix(getCipherPrefixBytes(), encryptedMessage);
+        }
+        return CryptorMetaUtil.encodeStringCipherWithHeader(getCipherHeaderBytes(), encryptedMessage);
+    }
+
+    /**
+     * 解码字符串密文：v2格式跳过[v2]前缀后解码（结果以二进制密文头开始），否则跳过可能存在的文本前缀后解码
+     */
+    private byte[] decodeStringCipher(String base64MessageWithPrefix) {
+        if (CryptorMetaUtil.isStringCipherWithHeader(base64MessageWithPrefix)) {
+            return CryptorMetaUtil.decodeStringCipherWithHeader(base64MessageWithPrefix);
+        }
+        return Base64Util.decodeContentWithPrefixToByte(getCipherPrefixBytes(), base64MessageWithPrefix);
+    }
+
+    /**
+     * 计算字符串密文解码后的数据中密文的起始位置：只有v2格式的解码结果以二进制密文头开始，
+     * 带文本前缀或不含前缀（历史数据）时解码结果即为密文，不识别二进制密文头，避免随机IV被误当作密文头
+     */
+    private int getStringCipherBodyOffset(String base64MessageWithPrefix, byte[] rawEncryptedMessage) {
+        if (!CryptorMetaUtil.isStringCipherWithHeader(base64MessageWithPrefix)) {
+            return 0;
+        }
+        return CryptorMetaUtil.checkHeaderOfEncryptedBytes(
+            getCipherPrefixBytes(), getCipherAlgorithmId(), rawEncryptedMessage
+        );
+    }
+
+    /**
+     * 流数据与文件解密时需要预读的长度，足以识别文本前缀或二进制密文头（含密钥ID长度字节）
+     */
+    int getCipherMetaPeekLength() {
+        return Math.max(getCipherPrefixBytes().length, CryptorMetaUtil.CIPHER_HEADER_MIN_LENGTH + 1);
+    }
+
+    /**
+     * 根据预读的数据计算元数据长度，兼容文本前缀、二进制密文头（开启识别时）与不含元数据的密文
+     *
+     * @param head   预读的数据
+     * @param length 预读到的长度
+     * @return 元数据长度，不含元数据时返回0
+     */
+    int getCipherMetaLength(byte[] head, int length) {
+        // 不含元数据的历史密文的随机IV可能恰好以二进制密文头开始，只有开启识别时才将其视为密文头
+        if (CryptorMetaUtil.isCipherHeaderDetectionEnabled()) {
+            int headerLength = CryptorMetaUtil.getMatchingCipherHeaderLength(getCipherAlgorithmId(), head, 0, length);
+            if (headerLength > 0) {
+                return headerLength;
+            }
+        }
+        byte[] prefixBytes = getCipherPrefixBytes();
+        if (length < prefixBytes.length) {
+            return 0;
+        }
+        for (int i = 0; i < prefixBytes.length; i++) {
+            if (head[i] != prefixBytes[i]) {
+                return 0;
+            }
+        }
+        return prefixBytes.length;
     }
 
     @Override
     public String encrypt(String key, String message) throws CryptoException {
+        if (!CryptoMetricsUtil.isEnabled()) {
+            return doEncrypt(key, message);
+        }
+        return CryptoMetricsUtil.record(
+            getName(), CryptoOperation.ENCRYPT, CryptoMetricsUtil.lengthOf(message),
+            () -> doEncrypt(key, message)
+        );
+    }
+
+    private String doEncrypt(String key, String message) {
         if (StringUtils.isEmpty(key)) {
             throw new CryptoException("encrypt key is invalid: null or empty");
         }
@@ -148,27 +1126,34 @@ public abstract class AbstractSymmetricCryptor implements SymmetricCryptor {
             key.getBytes(StandardCharsets.UTF_8),
             message.getBytes(StandardCharsets.UTF_8)
         );
-        String finalCipher = Base64Util.encodeContentToStr(encryptedMessage);
-        String prefix = getStringCipherPrefix();
-        if (prefix != null) {
-            finalCipher = prefix + finalCipher;
-        }
-        return finalCipher;
+        return encodeStringCipher(encryptedMessage);
     }
 
     @Override
     public String decrypt(String key, String base64MessageWithPrefix) {
+        if (!CryptoMetricsUtil.isEnabled()) {
+            return doDecrypt(key, base64MessageWithPrefix);
+        }
+        return CryptoMetricsUtil.record(
+            getName(), CryptoOperation.DECRYPT, CryptoMetricsUtil.lengthOf(base64MessageWithPrefix),
+            () -> doDecrypt(key, base64MessageWithPrefix)
+        );
+    }
+
+    private String doDecrypt(String key, String base64MessageWithPrefix) {
         if (StringUtils.isEmpty(key)) {
             throw new CryptoException("decrypt key is invalid: null or empty");
         }
         if (StringUtils.isEmpty(base64MessageWithPrefix)) {
             return base64MessageWithPrefix;
         }
-        String base64EncryptedMessage = StringUtils.removeStart(base64MessageWithPrefix, getStringCipherPrefix());
-        byte[] rawEncryptedMessage = Base64Util.decodeContentToByte(base64EncryptedMessage);
+        byte[] rawEncryptedMessage = decodeStringCipher(base64MessageWithPrefix);
+        int offset = getStringCipherBodyOffset(base64MessageWithPrefix, rawEncryptedMessage);
         byte[] decryptedMessage = decryptIndeed(
             key.getBytes(StandardCharsets.UTF_8),
-            rawEncryptedMessage
+            rawEncryptedMessage,
+            offset,
+            rawEncryptedMessage.length - offset
         );
         return new String(decryptedMessage, StandardCharsets.UTF_8);
     }
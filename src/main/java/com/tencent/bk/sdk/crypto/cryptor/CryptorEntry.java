@@ -0,0 +1,122 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.cryptor;
+
+import com.tencent.bk.sdk.crypto.annotation.CryptorTypeEnum;
+import org.apache.commons.lang3.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 加密器注册表中的一项：加密器实例及其预先计算好的元数据，所有字段均为final，创建后不可变，可在线程间无锁共享
+ *
+ * @param <C> 加密器类型
+ */
+public final class CryptorEntry<C> {
+
+    /**
+     * 加密器名称
+     */
+    private final String name;
+
+    /**
+     * 加密器类型
+     */
+    private final CryptorTypeEnum type;
+
+    /**
+     * 优先级（数值越大，优先级越高）
+     */
+    private final int priority;
+
+    /**
+     * 二进制密文头中的算法ID，0表示不支持二进制密文头
+     */
+    private final int algorithmId;
+
+    /**
+     * 加密器实例
+     */
+    private final C cryptor;
+
+    /**
+     * 密文元数据前缀，加密器不添加前缀时为空字符串
+     */
+    private final String cipherPrefix;
+
+    /**
+     * 密文元数据前缀字节数组（UTF-8编码）
+     */
+    private final byte[] cipherPrefixBytes;
+
+    CryptorEntry(String name, CryptorTypeEnum type, int priority, int algorithmId, C cryptor, String cipherPrefix) {
+        this.name = name;
+        this.type = type;
+        this.priority = priority;
+        this.algorithmId = algorithmId;
+        this.cryptor = cryptor;
+        this.cipherPrefix = StringUtils.defaultString(cipherPrefix);
+        this.cipherPrefixBytes = this.cipherPrefix.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CryptorTypeEnum getType() {
+        return type;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public int getAlgorithmId() {
+        return algorithmId;
+    }
+
+    public C getCryptor() {
+        return cryptor;
+    }
+
+    public String getCipherPrefix() {
+        return cipherPrefix;
+    }
+
+    /**
+     * 获取密文元数据前缀字节数组（UTF-8编码），调用方不可修改返回的数组
+     *
+     * @return 密文元数据前缀字节数组
+     */
+    public byte[] getCipherPrefixBytes() {
+        return cipherPrefixBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "CryptorEntry{name=" + name + ", type=" + type + ", priority=" + priority
+            + ", algorithmId=" + algorithmId + ", cryptor=" + cryptor + "}";
+    }
+}
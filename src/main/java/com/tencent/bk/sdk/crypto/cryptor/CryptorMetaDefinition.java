@@ -26,6 +26,14 @@ package com.tencent.bk.sdk.crypto.cryptor;
 
 /**
  * 加密器元数据定义
+ * <p>
+ * 密文元数据支持两种格式：
+ * v1：文本前缀，形如[Cipher:::SM4]；
+ * v2：紧凑二进制密文头，依次为魔数（1字节）、版本（1字节，最高位表示是否带有密钥ID）、算法ID（1字节），
+ * 带有密钥ID时再依次为密钥ID长度（1字节）与密钥ID。
+ * 魔数0xBC在UTF-8中不能作为字符的首字节，不会与v1文本前缀及文本明文混淆。
+ * v2格式的字符串密文为文本前缀[v2] + base64(二进制密文头 + 密文)，前缀中的字符不属于base64字母表，
+ * 不会与不含前缀的历史密文混淆
  */
 public class CryptorMetaDefinition {
 
@@ -46,4 +54,40 @@ public class CryptorMetaDefinition {
     public static String getCipherMetaSuffix() {
         return "]";
     }
+
+    /**
+     * 获取v2格式字符串密文的文本前缀
+     *
+     * @return v2格式字符串密文的文本前缀
+     */
+    public static String getStringCipherHeaderPrefix() {
+        return "[v2]";
+    }
+
+    /**
+     * 获取二进制密文头魔数
+     *
+     * @return 二进制密文头魔数
+     */
+    public static byte getCipherHeaderMagic() {
+        return (byte) 0xBC;
+    }
+
+    /**
+     * 获取二进制密文头版本
+     *
+     * @return 二进制密文头版本
+     */
+    public static byte getCipherHeaderVersion() {
+        return 0x02;
+    }
+
+    /**
+     * 获取二进制密文头版本字节中表示带有密钥ID的标志位
+     *
+     * @return 密钥ID标志位
+     */
+    public static byte getCipherHeaderKeyIdFlag() {
+        return (byte) 0x80;
+    }
 }
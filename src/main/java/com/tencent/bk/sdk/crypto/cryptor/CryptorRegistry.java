@@ -0,0 +1,328 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.cryptor;
+
+import com.tencent.bk.sdk.crypto.annotation.Cryptor;
+import com.tencent.bk.sdk.crypto.annotation.CryptorTypeEnum;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * 加密器注册表：通过SPI加载全部对称/非对称加密器，构建为不可变快照后一次性发布，
+ * 查询时只读取一次volatile引用，无锁、无等待，按名称与按密文前缀查询均为O(1)；
+ * 刷新或注册新加密器时基于当前快照复制出新快照再整体替换（写时复制），不影响正在进行的查询
+ */
+@Slf4j
+public final class CryptorRegistry {
+
+    /**
+     * 对称加密器：名称->注册项
+     */
+    private final Map<String, CryptorEntry<SymmetricCryptor>> symmetricByName;
+
+    /**
+     * 对称加密器：密文前缀->注册项，不含前缀为空的加密器
+     */
+    private final Map<String, CryptorEntry<SymmetricCryptor>> symmetricByPrefix;
+
+    /**
+     * 对称加密器：二进制密文头算法ID->注册项
+     */
+    private final CryptorEntry<SymmetricCryptor>[] symmetricById;
+
+    /**
+     * 非对称加密器：名称->注册项
+     */
+    private final Map<String, CryptorEntry<ASymmetricCryptor>> aSymmetricByName;
+
+    /**
+     * 非对称加密器：密文前缀->注册项，不含前缀为空的加密器
+     */
+    private final Map<String, CryptorEntry<ASymmetricCryptor>> aSymmetricByPrefix;
+
+    /**
+     * 非对称加密器：二进制密文头算法ID->注册项
+     */
+    private final CryptorEntry<ASymmetricCryptor>[] aSymmetricById;
+
+    private CryptorRegistry(Map<String, CryptorEntry<SymmetricCryptor>> symmetricByName,
+                            Map<String, CryptorEntry<ASymmetricCryptor>> aSymmetricByName) {
+        this.symmetricByName = Collections.unmodifiableMap(symmetricByName);
+        this.symmetricByPrefix = Collections.unmodifiableMap(indexByPrefix(symmetricByName));
+        this.symmetricById = indexById(symmetricByName);
+        this.aSymmetricByName = Collections.unmodifiableMap(aSymmetricByName);
+        this.aSymmetricByPrefix = Collections.unmodifiableMap(indexByPrefix(aSymmetricByName));
+        this.aSymmetricById = indexById(aSymmetricByName);
+    }
+
+    /**
+     * 延迟加载当前快照，类初始化由JVM保证只执行一次，之后的读取只是一次volatile读
+     */
+    private static class Holder {
+        static volatile CryptorRegistry current = load();
+    }
+
+    /**
+     * 获取当前的注册表快照，首次调用时通过SPI加载全部加密器
+     *
+     * @return 注册表快照
+     */
+    public static CryptorRegistry getInstance() {
+        return Holder.current;
+    }
+
+    /**
+     * 重新通过SPI加载全部加密器并发布新快照，已获取到旧快照的调用方不受影响
+     *
+     * @return 新的注册表快照
+     */
+    public static synchronized CryptorRegistry refresh() {
+        CryptorRegistry registry = load();
+        Holder.current = registry;
+        return registry;
+    }
+
+    /**
+     * 注册对称加密器，名称与优先级从Cryptor注解解析，同名加密器中优先级更高者生效
+     *
+     * @param cryptor 对称加密器
+     * @return 新的注册表快照
+     */
+    public static synchronized CryptorRegistry register(@NonNull SymmetricCryptor cryptor) {
+        CryptorRegistry old = Holder.current;
+        Map<String, CryptorEntry<SymmetricCryptor>> symmetricByName = new HashMap<>(old.symmetricByName);
+        CryptorEntry<SymmetricCryptor> entry = createEntry(cryptor, CryptorTypeEnum.SYMMETRIC,
+            cryptor.getStringCipherPrefix());
+        if (entry != null) {
+            putIfHigherPriority(symmetricByName, entry);
+        }
+        CryptorRegistry registry = new CryptorRegistry(symmetricByName, old.aSymmetricByName);
+        Holder.current = registry;
+        return registry;
+    }
+
+    /**
+     * 注册非对称加密器，名称与优先级从Cryptor注解解析，同名加密器中优先级更高者生效
+     *
+     * @param cryptor 非对称加密器
+     * @return 新的注册表快照
+     */
+    public static synchronized CryptorRegistry register(@NonNull ASymmetricCryptor cryptor) {
+        CryptorRegistry old = Holder.current;
+        Map<String, CryptorEntry<ASymmetricCryptor>> aSymmetricByName = new HashMap<>(old.aSymmetricByName);
+        CryptorEntry<ASymmetricCryptor> entry = createEntry(cryptor, CryptorTypeEnum.ASYMMETRIC,
+            cryptor.getStringCipherPrefix());
+        if (entry != null) {
+            putIfHigherPriority(aSymmetricByName, entry);
+        }
+        CryptorRegistry registry = new CryptorRegistry(old.symmetricByName, aSymmetricByName);
+        Holder.current = registry;
+        return registry;
+    }
+
+    /**
+     * 根据名称查找对称加密器
+     *
+     * @param name 加密器名称
+     * @return 注册项，不存在时返回null
+     */
+    public CryptorEntry<SymmetricCryptor> getSymmetricEntry(String name) {
+        return name == null ? null : symmetricByName.get(name);
+    }
+
+    /**
+     * 根据密文元数据前缀（如[Cipher:::SM4]）查找对称加密器
+     *
+     * @param cipherPrefix 密文元数据前缀
+     * @return 注册项，不存在时返回null
+     */
+    public CryptorEntry<SymmetricCryptor> getSymmetricEntryByPrefix(String cipherPrefix) {
+        return cipherPrefix == null ? null : symmetricByPrefix.get(cipherPrefix);
+    }
+
+    /**
+     * 根据二进制密文头中的算法ID查找对称加密器
+     *
+     * @param algorithmId 算法ID
+     * @return 注册项，不存在时返回null
+     */
+    public CryptorEntry<SymmetricCryptor> getSymmetricEntryById(int algorithmId) {
+        return algorithmId <= 0 || algorithmId >= symmetricById.length ? null : symmetricById[algorithmId];
+    }
+
+    /**
+     * 根据名称查找非对称加密器
+     *
+     * @param name 加密器名称
+     * @return 注册项，不存在时返回null
+     */
+    public CryptorEntry<ASymmetricCryptor> getASymmetricEntry(String name) {
+        return name == null ? null : aSymmetricByName.get(name);
+    }
+
+    /**
+     * 根据密文元数据前缀（如[Cipher:::SM2]）查找非对称加密器
+     *
+     * @param cipherPrefix 密文元数据前缀
+     * @return 注册项，不存在时返回null
+     */
+    public CryptorEntry<ASymmetricCryptor> getASymmetricEntryByPrefix(String cipherPrefix) {
+        return cipherPrefix == null ? null : aSymmetricByPrefix.get(cipherPrefix);
+    }
+
+    /**
+     * 根据二进制密文头中的算法ID查找非对称加密器
+     *
+     * @param algorithmId 算法ID
+     * @return 注册项，不存在时返回null
+     */
+    public CryptorEntry<ASymmetricCryptor> getASymmetricEntryById(int algorithmId) {
+        return algorithmId <= 0 || algorithmId >= aSymmetricById.length ? null : aSymmetricById[algorithmId];
+    }
+
+    /**
+     * @return 全部对称加密器注册项（不可修改）
+     */
+    public Collection<CryptorEntry<SymmetricCryptor>> getSymmetricEntries() {
+        return symmetricByName.values();
+    }
+
+    /**
+     * @return 全部非对称加密器注册项（不可修改）
+     */
+    public Collection<CryptorEntry<ASymmetricCryptor>> getASymmetricEntries() {
+        return aSymmetricByName.values();
+    }
+
+    private static CryptorRegistry load() {
+        Map<String, CryptorEntry<SymmetricCryptor>> symmetricByName = new HashMap<>();
+        Map<String, CryptorEntry<ASymmetricCryptor>> aSymmetricByName = new HashMap<>();
+        try {
+            for (SymmetricCryptor cryptor : loadServices(SymmetricCryptor.class)) {
+                CryptorEntry<SymmetricCryptor> entry = createEntry(cryptor, CryptorTypeEnum.SYMMETRIC,
+                    cryptor.getStringCipherPrefix());
+                if (entry != null) {
+                    putIfHigherPriority(symmetricByName, entry);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Exception occurred when find SymmetricCryptors", e);
+        }
+        try {
+            for (ASymmetricCryptor cryptor : loadServices(ASymmetricCryptor.class)) {
+                CryptorEntry<ASymmetricCryptor> entry = createEntry(cryptor, CryptorTypeEnum.ASYMMETRIC,
+                    cryptor.getStringCipherPrefix());
+                if (entry != null) {
+                    putIfHigherPriority(aSymmetricByName, entry);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Exception occurred when find ASymmetricCryptors", e);
+        }
+        symmetricByName.values().forEach(entry -> log.info("Add SymmetricCryptor " + entry.getName()
+            + " Crypto(" + entry.getPriority() + ") for " + entry.getCryptor()));
+        aSymmetricByName.values().forEach(entry -> log.info("Add ASymmetricCryptor " + entry.getName()
+            + " Crypto(" + entry.getPriority() + ") for " + entry.getCryptor()));
+        return new CryptorRegistry(symmetricByName, aSymmetricByName);
+    }
+
+    private static <C> ServiceLoader<C> loadServices(Class<C> serviceClass) {
+        ServiceLoader<C> serviceLoader = ServiceLoader.load(serviceClass);
+        if (!serviceLoader.iterator().hasNext()) {
+            serviceLoader = ServiceLoader.load(serviceClass, ServiceLoader.class.getClassLoader());
+        }
+        return serviceLoader;
+    }
+
+    /**
+     * 根据Cryptor注解创建注册项
+     *
+     * @return 注册项，注解声明的类型与期望类型不一致时返回null
+     */
+    private static <C> CryptorEntry<C> createEntry(C cryptor, CryptorTypeEnum expectedType, String cipherPrefix) {
+        // 默认值
+        String cryptorName = cryptor.getClass().getCanonicalName();
+        int priority = 0;
+        int algorithmId = 0;
+        // 从注解解析
+        Cryptor cryptorAnnotation = cryptor.getClass().getAnnotation(Cryptor.class);
+        if (cryptorAnnotation != null) {
+            if (cryptorAnnotation.type() != expectedType) {
+                return null;
+            }
+            if (StringUtils.isNotBlank(cryptorAnnotation.name())) {
+                cryptorName = cryptorAnnotation.name();
+            }
+            priority = cryptorAnnotation.priority();
+            algorithmId = cryptorAnnotation.id();
+        }
+        return new CryptorEntry<>(cryptorName, expectedType, priority, algorithmId, cryptor, cipherPrefix);
+    }
+
+    /**
+     * 覆盖低优先级实现
+     */
+    private static <C> void putIfHigherPriority(Map<String, CryptorEntry<C>> entryMap, CryptorEntry<C> entry) {
+        CryptorEntry<C> oldEntry = entryMap.get(entry.getName());
+        if (oldEntry == null || entry.getPriority() > oldEntry.getPriority()) {
+            entryMap.put(entry.getName(), entry);
+        }
+    }
+
+    private static <C> Map<String, CryptorEntry<C>> indexByPrefix(Map<String, CryptorEntry<C>> entryByName) {
+        Map<String, CryptorEntry<C>> entryByPrefix = new HashMap<>();
+        for (CryptorEntry<C> entry : entryByName.values()) {
+            if (!entry.getCipherPrefix().isEmpty()) {
+                entryByPrefix.put(entry.getCipherPrefix(), entry);
+            }
+        }
+        return entryByPrefix;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <C> CryptorEntry<C>[] indexById(Map<String, CryptorEntry<C>> entryByName) {
+        CryptorEntry<C>[] entryById = (CryptorEntry<C>[]) new CryptorEntry<?>[256];
+        for (CryptorEntry<C> entry : entryByName.values()) {
+            int algorithmId = entry.getAlgorithmId();
+            if (algorithmId <= 0 || algorithmId > 0xFF) {
+                continue;
+            }
+            if (entryById[algorithmId] != null) {
+                log.warn("Duplicate cryptor algorithmId " + algorithmId + ": " + entryById[algorithmId].getName()
+                    + " and " + entry.getName() + ", only the former can be found by algorithmId");
+                continue;
+            }
+            entryById[algorithmId] = entry;
+        }
+        return entryById;
+    }
+}
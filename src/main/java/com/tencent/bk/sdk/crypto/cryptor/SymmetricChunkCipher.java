@@ -0,0 +1,206 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.cryptor;
+
+import com.tencent.bk.sdk.crypto.exception.CryptoException;
+import com.tencent.bk.sdk.crypto.util.CtrCipherUtil;
+import com.tencent.bk.sdk.crypto.util.IvUtil;
+import lombok.NonNull;
+
+import javax.crypto.Cipher;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+
+/**
+ * 对称加密器的分块加解密器（CTR工作模式），用于数据以分块形式到达的场景（如响应式流、网络帧），无需桥接为阻塞的输入流
+ * 每次调用update处理传入分块的全部数据并立即返回对应的输出，不缓存明文/密文、不创建额外线程，
+ * 因此作为响应式流中一对一的转换阶段使用时，上下游的请求量（背压）保持不变；
+ * 加密时在第一个输出分块前写入元数据与IV，解密时从前几个分块中解析元数据与IV，元数据格式与流数据接口一致
+ * 注意：实例有状态且非线程安全，每个数据流使用独立的实例，update调用需串行
+ */
+public final class SymmetricChunkCipher {
+
+    private static final int IV_LENGTH = CtrCipherUtil.BLOCK_SIZE;
+
+    private final AbstractSymmetricCryptor cryptor;
+    private final SymmetricKeyHandle keyHandle;
+    private final int mode;
+    private Cipher cipher;
+    /**
+     * 加密时尚未输出的元数据与IV；解密时已接收的元数据与IV
+     */
+    private byte[] head;
+    private int headLength;
+    /**
+     * 解密时识别出的元数据长度，-1表示尚未识别
+     */
+    private int metaLength = -1;
+    private boolean finished = false;
+
+    SymmetricChunkCipher(@NonNull AbstractSymmetricCryptor cryptor, @NonNull SymmetricKeyHandle keyHandle, int mode) {
+        this.cryptor = cryptor;
+        this.keyHandle = keyHandle;
+        this.mode = mode;
+        if (mode == Cipher.ENCRYPT_MODE) {
+            byte[] iv = IvUtil.nextIv(IV_LENGTH);
+            this.cipher = createCipher(iv);
+            byte[] headerBytes = cryptor.getCipherHeaderBytes();
+            this.head = Arrays.copyOf(headerBytes, headerBytes.length + IV_LENGTH);
+            System.arraycopy(iv, 0, head, headerBytes.length, IV_LENGTH);
+            this.headLength = head.length;
+        } else {
+            this.head = new byte[cryptor.getCipherMetaPeekLength() + IV_LENGTH];
+        }
+    }
+
+    /**
+     * 处理一个分块
+     *
+     * @param chunk 输入分块，处理position至limit之间的全部数据，处理后position移动到limit
+     * @return 输出分块（新分配的堆缓冲区，可直接读取），解密时元数据与IV尚未接收完整则返回空缓冲区
+     * @throws CryptoException       加解密异常
+     * @throws IllegalStateException 已调用过finish
+     */
+    public ByteBuffer update(@NonNull ByteBuffer chunk) {
+        ensureNotFinished();
+        return process(chunk, false);
+    }
+
+    /**
+     * 结束处理，之后不可再调用update
+     * 加密时若未调用过update，返回元数据与IV（与流数据接口加密空数据的输出一致）；
+     * 解密时若元数据与IV不完整则抛出异常
+     *
+     * @return 剩余的输出数据（新分配的堆缓冲区，可直接读取）
+     * @throws CryptoException       加解密异常，包括解密时数据不完整
+     * @throws IllegalStateException 已调用过finish
+     */
+    public ByteBuffer finish() {
+        ensureNotFinished();
+        finished = true;
+        ByteBuffer output = process(ByteBuffer.allocate(0), true);
+        try {
+            byte[] last = cipher.doFinal();
+            if (last.length == 0) {
+                return output;
+            }
+            ByteBuffer merged = ByteBuffer.allocate(output.remaining() + last.length);
+            merged.put(output).put(last);
+            merged.flip();
+            return merged;
+        } catch (GeneralSecurityException e) {
+            throw new CryptoException("Fail to finish chunk cipher", e);
+        }
+    }
+
+    /**
+     * @return 是否已调用过finish
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    private ByteBuffer process(ByteBuffer chunk, boolean last) {
+        int pendingOffset;
+        if (mode == Cipher.ENCRYPT_MODE) {
+            pendingOffset = 0;
+        } else {
+            if (cipher == null && !readHead(chunk, last)) {
+                return ByteBuffer.allocate(0);
+            }
+            pendingOffset = metaLength + IV_LENGTH;
+        }
+        // 加密时为未输出的元数据与IV，解密时为预读时多读入的密文，处理后均不再需要
+        int pendingLength = Math.max(headLength - pendingOffset, 0);
+        try {
+            ByteBuffer output;
+            if (mode == Cipher.ENCRYPT_MODE) {
+                output = ByteBuffer.allocate(pendingLength + cipher.getOutputSize(chunk.remaining()));
+                output.put(head, pendingOffset, pendingLength);
+            } else {
+                output = ByteBuffer.allocate(cipher.getOutputSize(pendingLength + chunk.remaining()));
+                if (pendingLength > 0) {
+                    output.put(cipher.update(head, pendingOffset, pendingLength));
+                }
+            }
+            headLength = pendingOffset;
+            if (chunk.hasRemaining()) {
+                cipher.update(chunk, output);
+            }
+            output.flip();
+            return output;
+        } catch (GeneralSecurityException e) {
+            throw new CryptoException("Fail to process chunk", e);
+        }
+    }
+
+    /**
+     * 解密时从分块中读取元数据与IV，读取完整后创建密码器
+     *
+     * @return 是否已读取完整
+     */
+    private boolean readHead(ByteBuffer chunk, boolean last) {
+        while (true) {
+            int target = metaLength < 0 ? head.length - IV_LENGTH : metaLength + IV_LENGTH;
+            int n = Math.max(Math.min(chunk.remaining(), target - headLength), 0);
+            chunk.get(head, headLength, n);
+            headLength += n;
+            if (metaLength < 0) {
+                if (headLength < target && !last) {
+                    return false;
+                }
+                metaLength = cryptor.getCipherMetaLength(head, headLength);
+                if (metaLength + IV_LENGTH > head.length) {
+                    // 带密钥ID的二进制密文头可能长于预读长度
+                    head = Arrays.copyOf(head, metaLength + IV_LENGTH);
+                }
+                continue;
+            }
+            if (headLength < target) {
+                if (last) {
+                    throw new CryptoException("Broken iv data.");
+                }
+                return false;
+            }
+            cipher = createCipher(Arrays.copyOfRange(head, metaLength, metaLength + IV_LENGTH));
+            return true;
+        }
+    }
+
+    private Cipher createCipher(byte[] iv) {
+        Cipher ctrCipher = cryptor.createCtrCipher(keyHandle, iv, mode);
+        if (ctrCipher == null) {
+            throw new CryptoException("Chunk cipher is not supported by cryptor " + cryptor.getName());
+        }
+        return ctrCipher;
+    }
+
+    private void ensureNotFinished() {
+        if (finished) {
+            throw new IllegalStateException("Chunk cipher is finished");
+        }
+    }
+}
@@ -24,8 +24,26 @@
 
 package com.tencent.bk.sdk.crypto.cryptor;
 
+import com.tencent.bk.sdk.crypto.exception.CryptoException;
+import com.tencent.bk.sdk.crypto.util.Base64Util;
+import com.tencent.bk.sdk.crypto.util.CryptoExecutor;
+import com.tencent.bk.sdk.crypto.util.StreamCryptoOptions;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 对称加密器接口
@@ -59,6 +77,99 @@ public interface SymmetricCryptor {
      */
     byte[] decrypt(byte[] key, byte[] encryptedMessage);
 
+    /**
+     * 获取加密指定长度的明文时所需的输出缓冲区大小
+     *
+     * @param messageLength 明文长度
+     * @return 含元数据前缀的密文长度，无法预先计算时返回-1
+     */
+    default int getOutputSize(int messageLength) {
+        return -1;
+    }
+
+    /**
+     * 加密缓冲区中的数据，将含元数据前缀的密文写入输出缓冲区，支持直接缓冲区
+     * 处理完成后输入缓冲区与输出缓冲区的position均向后移动；输出缓冲区空间不足时抛出异常，且不移动输入缓冲区的position
+     *
+     * @param key 密钥字节数组，不可为null或空值
+     * @param src 明文缓冲区，处理position至limit之间的全部数据，若无数据则不写入任何数据
+     * @param dst 输出缓冲区，所需空间可通过getOutputSize方法预先获取
+     * @return 写入输出缓冲区的字节数
+     * @throws com.tencent.bk.sdk.crypto.exception.CryptoException 加解密异常
+     */
+    default int encrypt(byte[] key, ByteBuffer src, ByteBuffer dst) {
+        byte[] message = new byte[src.remaining()];
+        src.get(message);
+        byte[] encryptedMessage = encrypt(key, message);
+        if (encryptedMessage.length > dst.remaining()) {
+            src.position(src.position() - message.length);
+            throw new CryptoException(
+                "dst buffer is too small: required=" + encryptedMessage.length + ", remaining=" + dst.remaining()
+            );
+        }
+        dst.put(encryptedMessage);
+        return encryptedMessage.length;
+    }
+
+    /**
+     * 解密缓冲区中含元数据前缀的密文，将明文写入输出缓冲区，支持直接缓冲区
+     * 处理完成后输入缓冲区与输出缓冲区的position均向后移动
+     *
+     * @param key 密钥字节数组，不可为null或空值
+     * @param src 含元数据前缀的密文缓冲区，处理position至limit之间的全部数据，若无数据则不写入任何数据
+     * @param dst 输出缓冲区，剩余空间不小于密文长度即可
+     * @return 写入输出缓冲区的字节数
+     * @throws com.tencent.bk.sdk.crypto.exception.CryptoException 加解密异常
+     */
+    default int decrypt(byte[] key, ByteBuffer src, ByteBuffer dst) {
+        byte[] encryptedMessage = new byte[src.remaining()];
+        src.get(encryptedMessage);
+        byte[] message = decrypt(key, encryptedMessage);
+        if (message.length > dst.remaining()) {
+            src.position(src.position() - encryptedMessage.length);
+            throw new CryptoException(
+                "dst buffer is too small: required=" + message.length + ", remaining=" + dst.remaining()
+            );
+        }
+        dst.put(message);
+        return message.length;
+    }
+
+    /**
+     * 加密明文数组的指定区间，将含元数据前缀的密文直接写入调用方提供的输出数组
+     * 调用方可通过getOutputSize方法预先计算所需空间并复用输出数组，避免每次加密分配新数组
+     *
+     * @param key          密钥字节数组，不可为null或空值
+     * @param message      明文字节数组
+     * @param offset       明文起始位置
+     * @param length       明文长度，为0时不写入任何数据
+     * @param output       输出字节数组
+     * @param outputOffset 输出起始位置
+     * @return 写入输出数组的字节数
+     * @throws com.tencent.bk.sdk.crypto.exception.CryptoException 加解密异常，包括输出数组空间不足
+     */
+    default int encrypt(byte[] key, byte[] message, int offset, int length, byte[] output, int outputOffset) {
+        return encrypt(key, ByteBuffer.wrap(message, offset, length),
+            ByteBuffer.wrap(output, outputOffset, output.length - outputOffset));
+    }
+
+    /**
+     * 使用预处理后的密钥句柄加密明文数组的指定区间，将含元数据前缀的密文直接写入调用方提供的输出数组
+     *
+     * @param keyHandle    由当前加密器的prepareKey方法得到的密钥句柄，不可为null
+     * @param message      明文字节数组
+     * @param offset       明文起始位置
+     * @param length       明文长度，为0时不写入任何数据
+     * @param output       输出字节数组
+     * @param outputOffset 输出起始位置
+     * @return 写入输出数组的字节数
+     * @throws com.tencent.bk.sdk.crypto.exception.CryptoException 加解密异常，包括输出数组空间不足
+     */
+    default int encrypt(SymmetricKeyHandle keyHandle, byte[] message, int offset, int length,
+                        byte[] output, int outputOffset) {
+        return encrypt(keyHandle.getKey(), message, offset, length, output, outputOffset);
+    }
+
     /**
      * 对输入流中的数据加密，并写入到输出流中（含元数据前缀）
      * 注意：该方法不对输入流与输出流做关闭操作，需要外层调用方自行处理
@@ -79,6 +190,212 @@ public interface SymmetricCryptor {
      */
     void decrypt(String key, InputStream in, OutputStream out);
 
+    /**
+     * 按调优参数对输入流中的数据加密，并写入到输出流中（含元数据前缀），适用于需要调整读写缓冲区大小或启用预读的大数据量场景
+     * 不支持调优参数的加密器忽略该参数；注意：该方法不对输入流与输出流做关闭操作，需要外层调用方自行处理
+     *
+     * @param key     密钥
+     * @param in      输入流
+     * @param out     输出流
+     * @param options 流数据处理调优参数
+     */
+    default void encrypt(String key, InputStream in, OutputStream out, StreamCryptoOptions options) {
+        encrypt(key, in, out);
+    }
+
+    /**
+     * 按调优参数对输入流中的数据（含元数据前缀）解密，并写入到输出流中，适用于需要调整读写缓冲区大小或启用预读的大数据量场景
+     * 不支持调优参数的加密器忽略该参数；注意：该方法不对输入流与输出流做关闭操作，需要外层调用方自行处理
+     *
+     * @param key     密钥
+     * @param in      输入流
+     * @param out     输出流
+     * @param options 流数据处理调优参数
+     */
+    default void decrypt(String key, InputStream in, OutputStream out, StreamCryptoOptions options) {
+        decrypt(key, in, out);
+    }
+
+    /**
+     * 在默认异步加解密线程池{@link CryptoExecutor#getDefault()}中加密
+     *
+     * @param key     密钥字节数组，不可为null或空值
+     * @param message 要加密的明文字节数组，若为null或空值则原样返回
+     * @return 含元数据前缀的加密后的密文字节数组；线程池饱和或超时时以异常结束
+     */
+    default CompletableFuture<byte[]> encryptAsync(byte[] key, byte[] message) {
+        return CryptoExecutor.getDefault().submit(() -> encrypt(key, message));
+    }
+
+    /**
+     * 在默认异步加解密线程池{@link CryptoExecutor#getDefault()}中解密
+     *
+     * @param key              密钥字节数组，不可为null或空值
+     * @param encryptedMessage 含元数据前缀的加密后的密文字节数组，若为null或空值则原样返回
+     * @return 解密后的明文字节数组；线程池饱和或超时时以异常结束
+     */
+    default CompletableFuture<byte[]> decryptAsync(byte[] key, byte[] encryptedMessage) {
+        return CryptoExecutor.getDefault().submit(() -> decrypt(key, encryptedMessage));
+    }
+
+    /**
+     * 在默认异步加解密线程池{@link CryptoExecutor#getDefault()}中加密
+     *
+     * @param key     密钥字符串，不可为null或空值
+     * @param message 要加密的明文字符串（UTF-8编码），若为null或空值则原样返回
+     * @return 经过base64编码并添加元数据前缀的密文字符串；线程池饱和或超时时以异常结束
+     */
+    default CompletableFuture<String> encryptAsync(String key, String message) {
+        return CryptoExecutor.getDefault().submit(() -> encrypt(key, message));
+    }
+
+    /**
+     * 在默认异步加解密线程池{@link CryptoExecutor#getDefault()}中解密
+     *
+     * @param key                     密钥字符串，不可为null或空值
+     * @param base64MessageWithPrefix 带元数据前缀的base64编码的【加密后的密文字节数组】，若为null或空值则原样返回
+     * @return 解密后的明文字符串（UTF-8编码）；线程池饱和或超时时以异常结束
+     */
+    default CompletableFuture<String> decryptAsync(String key, String base64MessageWithPrefix) {
+        return CryptoExecutor.getDefault().submit(() -> decrypt(key, base64MessageWithPrefix));
+    }
+
+    /**
+     * 在默认异步加解密线程池{@link CryptoExecutor#getDefault()}中对输入流中的数据加密，并写入到输出流中
+     * 注意：该方法不对输入流与输出流做关闭操作，超时后流可能仍在被后台线程读写，需在返回的Future结束且任务执行完成后再关闭
+     *
+     * @param key 密钥
+     * @param in  输入流
+     * @param out 输出流
+     * @return 加密完成时结束；线程池饱和或超时时以异常结束
+     */
+    default CompletableFuture<Void> encryptAsync(String key, InputStream in, OutputStream out) {
+        return CryptoExecutor.getDefault().submit(() -> {
+            encrypt(key, in, out);
+            return null;
+        });
+    }
+
+    /**
+     * 在默认异步加解密线程池{@link CryptoExecutor#getDefault()}中对输入流中的数据（含元数据前缀）解密，并写入到输出流中
+     * 注意：该方法不对输入流与输出流做关闭操作，超时后流可能仍在被后台线程读写，需在返回的Future结束且任务执行完成后再关闭
+     *
+     * @param key 密钥
+     * @param in  输入流
+     * @param out 输出流
+     * @return 解密完成时结束；线程池饱和或超时时以异常结束
+     */
+    default CompletableFuture<Void> decryptAsync(String key, InputStream in, OutputStream out) {
+        return CryptoExecutor.getDefault().submit(() -> {
+            decrypt(key, in, out);
+            return null;
+        });
+    }
+
+    /**
+     * 创建分块加密器，用于明文以分块形式到达的场景（如响应式流），输出与encrypt(String, InputStream, OutputStream)一致
+     *
+     * @param key 密钥
+     * @return 分块加密器，每个数据流使用一个
+     * @throws com.tencent.bk.sdk.crypto.exception.CryptoException 加密器不支持分块加密
+     */
+    default SymmetricChunkCipher newChunkEncryptor(String key) {
+        throw new CryptoException("Chunk cipher is not supported by cryptor " + getName());
+    }
+
+    /**
+     * 创建分块解密器，用于密文以分块形式到达的场景（如响应式流），可解密encrypt(String, InputStream, OutputStream)的输出
+     *
+     * @param key 密钥
+     * @return 分块解密器，每个数据流使用一个
+     * @throws com.tencent.bk.sdk.crypto.exception.CryptoException 加密器不支持分块解密（可能在处理第一个分块时抛出）
+     */
+    default SymmetricChunkCipher newChunkDecryptor(String key) {
+        throw new CryptoException("Chunk cipher is not supported by cryptor " + getName());
+    }
+
+    /**
+     * 对文件中的数据加密，并写入到目标文件中（含元数据前缀），目标文件已存在时将被覆盖
+     *
+     * @param key 密钥
+     * @param src 明文文件路径
+     * @param dst 密文文件路径
+     * @throws com.tencent.bk.sdk.crypto.exception.CryptoException 加解密异常
+     */
+    default void encryptFile(String key, Path src, Path dst) {
+        try (InputStream in = Files.newInputStream(src); OutputStream out = Files.newOutputStream(dst)) {
+            encrypt(key, in, out);
+        } catch (IOException e) {
+            throw new CryptoException("Fail to encrypt file: " + src, e);
+        }
+    }
+
+    /**
+     * 对文件中的数据（含元数据前缀）解密，并写入到目标文件中，目标文件已存在时将被覆盖
+     *
+     * @param key 密钥
+     * @param src 密文文件路径
+     * @param dst 明文文件路径
+     * @throws com.tencent.bk.sdk.crypto.exception.CryptoException 加解密异常
+     */
+    default void decryptFile(String key, Path src, Path dst) {
+        try (InputStream in = Files.newInputStream(src); OutputStream out = Files.newOutputStream(dst)) {
+            decrypt(key, in, out);
+        } catch (IOException e) {
+            throw new CryptoException("Fail to decrypt file: " + src, e);
+        }
+    }
+
+    /**
+     * 对输入流中的数据加密，以文本形式写入到输出流中：元数据前缀 + base64编码的密文，与字符串接口的密文格式一致
+     * 边读取边编码输出，内存占用与数据大小无关；注意：该方法不对输入流与输出流做关闭操作，需要外层调用方自行处理
+     *
+     * @param key 密钥
+     * @param in  明文输入流
+     * @param out 文本密文输出流
+     * @throws com.tencent.bk.sdk.crypto.exception.CryptoException 加解密异常
+     */
+    default void encryptToBase64(String key, InputStream in, OutputStream out) {
+        String prefix = getStringCipherPrefix();
+        try {
+            if (prefix != null) {
+                out.write(prefix.getBytes(StandardCharsets.UTF_8));
+            }
+            OutputStream base64Out = Base64.getEncoder().wrap(CloseShieldOutputStream.wrap(out));
+            encrypt(key, in, base64Out);
+            // 关闭编码流以写出末尾的填充字符，底层输出流不会被关闭
+            base64Out.close();
+        } catch (IOException e) {
+            throw new CryptoException("Fail to encrypt data to base64 stream", e);
+        }
+    }
+
+    /**
+     * 对encryptToBase64方法输出的文本密文流解密，并将明文写入到输出流中
+     * 兼容不含元数据前缀、含换行的base64文本，含其他非base64字符时抛出异常，边读取边解码，内存占用与数据大小无关；
+     * 注意：该方法不对输入流与输出流做关闭操作，需要外层调用方自行处理
+     *
+     * @param key 密钥
+     * @param in  文本密文输入流
+     * @param out 明文输出流
+     * @throws com.tencent.bk.sdk.crypto.exception.CryptoException 加解密异常
+     */
+    default void decryptFromBase64(String key, InputStream in, OutputStream out) {
+        String prefix = getStringCipherPrefix();
+        byte[] prefixBytes = prefix == null ? new byte[0] : prefix.getBytes(StandardCharsets.UTF_8);
+        PushbackInputStream pis = new PushbackInputStream(in, Math.max(prefixBytes.length, 1));
+        try {
+            byte[] textPrefixBytes = new byte[prefixBytes.length];
+            int n = IOUtils.read(pis, textPrefixBytes);
+            if (n != prefixBytes.length || !Arrays.equals(prefixBytes, textPrefixBytes)) {
+                pis.unread(textPrefixBytes, 0, n);
+            }
+            decrypt(key, Base64Util.wrapDecodingStream(pis), out);
+        } catch (IOException e) {
+            throw new CryptoException("Fail to decrypt data from base64 stream", e);
+        }
+    }
+
     /**
      * 获取密文字符串的元数据前缀（用于标识该密文由何种加密器加密所得）
      *
@@ -105,4 +422,153 @@ public interface SymmetricCryptor {
      * @throws com.tencent.bk.sdk.crypto.exception.CryptoException 加解密异常
      */
     String decrypt(String key, String base64MessageWithPrefix);
+
+    /**
+     * 对密钥进行预处理，得到可在多次加解密调用间复用的密钥句柄
+     *
+     * @param key 密钥字节数组
+     * @return 密钥句柄，只能用于当前加密器
+     * @throws com.tencent.bk.sdk.crypto.exception.CryptoException 密钥不合法
+     */
+    default SymmetricKeyHandle prepareKey(byte[] key) {
+        return new SymmetricKeyHandle(getName(), key == null ? new byte[0] : key.clone(), null);
+    }
+
+    /**
+     * 对密钥进行预处理，得到可在多次加解密调用间复用的密钥句柄
+     *
+     * @param key 密钥字符串（UTF-8编码）
+     * @return 密钥句柄，只能用于当前加密器
+     * @throws com.tencent.bk.sdk.crypto.exception.CryptoException 密钥不合法
+     */
+    default SymmetricKeyHandle prepareKey(String key) {
+        return prepareKey(key == null ? null : key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 使用预处理后的密钥句柄加密
+     *
+     * @param keyHandle 由当前加密器的prepareKey方法得到的密钥句柄，不可为null
+     * @param message   要加密的明文字节数组，若为null或空值则原样返回
+     * @return 含元数据前缀的加密后的密文字节数组
+     * @throws com.tencent.bk.sdk.crypto.exception.CryptoException 加解密异常
+     */
+    default byte[] encrypt(SymmetricKeyHandle keyHandle, byte[] message) {
+        return encrypt(keyHandle.getKey(), message);
+    }
+
+    /**
+     * 使用预处理后的密钥句柄解密
+     *
+     * @param keyHandle        由当前加密器的prepareKey方法得到的密钥句柄，不可为null
+     * @param encryptedMessage 含元数据前缀的加密后的密文字节数组，若为null或空值则原样返回
+     * @return 解密后的明文字节数组
+     * @throws com.tencent.bk.sdk.crypto.exception.CryptoException 加解密异常
+     */
+    default byte[] decrypt(SymmetricKeyHandle keyHandle, byte[] encryptedMessage) {
+        return decrypt(keyHandle.getKey(), encryptedMessage);
+    }
+
+    /**
+     * 使用预处理后的密钥句柄加密
+     *
+     * @param keyHandle 由当前加密器的prepareKey方法得到的密钥句柄，不可为null
+     * @param message   要加密的明文字符串（UTF-8编码），若为null或空值则原样返回
+     * @return 加密后的密文字节数组，经过base64编码并添加元数据前缀得到的字符串
+     * @throws com.tencent.bk.sdk.crypto.exception.CryptoException 加解密异常；默认实现使用字符串密钥接口，
+     *                                                             句柄的原始密钥不是合法的UTF-8字节序列时抛出
+     */
+    default String encrypt(SymmetricKeyHandle keyHandle, String message) {
+        return encrypt(keyHandle.getKeyAsString(), message);
+    }
+
+    /**
+     * 使用预处理后的密钥句柄解密
+     *
+     * @param keyHandle               由当前加密器的prepareKey方法得到的密钥句柄，不可为null
+     * @param base64MessageWithPrefix 带元数据前缀的base64编码的【加密后的密文字节数组】，若为null或空值则原样返回
+     * @return 解密后的明文字符串（UTF-8编码）
+     * @throws com.tencent.bk.sdk.crypto.exception.CryptoException 加解密异常；默认实现使用字符串密钥接口，
+     *                                                             句柄的原始密钥不是合法的UTF-8字节序列时抛出
+     */
+    default String decrypt(SymmetricKeyHandle keyHandle, String base64MessageWithPrefix) {
+        return decrypt(keyHandle.getKeyAsString(), base64MessageWithPrefix);
+    }
+
+    /**
+     * 使用同一密钥批量加密，结果与逐条调用encrypt(byte[], byte[])一一对应
+     *
+     * @param key      密钥字节数组，不可为null或空值
+     * @param messages 要加密的明文字节数组列表，若为null则原样返回，其中为null或空值的元素原样返回
+     * @return 含元数据前缀的加密后的密文字节数组列表
+     * @throws com.tencent.bk.sdk.crypto.exception.CryptoException 加解密异常
+     */
+    default List<byte[]> encryptBytesBatch(byte[] key, List<byte[]> messages) {
+        if (messages == null) {
+            return null;
+        }
+        List<byte[]> encryptedMessages = new ArrayList<>(messages.size());
+        for (byte[] message : messages) {
+            encryptedMessages.add(encrypt(key, message));
+        }
+        return encryptedMessages;
+    }
+
+    /**
+     * 使用同一密钥批量解密，结果与逐条调用decrypt(byte[], byte[])一一对应
+     *
+     * @param key               密钥字节数组，不可为null或空值
+     * @param encryptedMessages 含元数据前缀的加密后的密文字节数组列表，若为null则原样返回，其中为null或空值的元素原样返回
+     * @return 解密后的明文字节数组列表
+     * @throws com.tencent.bk.sdk.crypto.exception.CryptoException 加解密异常
+     */
+    default List<byte[]> decryptBytesBatch(byte[] key, List<byte[]> encryptedMessages) {
+        if (encryptedMessages == null) {
+            return null;
+        }
+        List<byte[]> messages = new ArrayList<>(encryptedMessages.size());
+        for (byte[] encryptedMessage : encryptedMessages) {
+            messages.add(decrypt(key, encryptedMessage));
+        }
+        return messages;
+    }
+
+    /**
+     * 使用同一密钥批量加密，结果与逐条调用encrypt(String, String)一一对应
+     *
+     * @param key      密钥字符串，不可为null或空值
+     * @param messages 要加密的明文字符串（UTF-8编码）列表，若为null则原样返回，其中为null或空值的元素原样返回
+     * @return 加密后的密文字节数组经过base64编码并添加元数据前缀得到的字符串列表
+     * @throws com.tencent.bk.sdk.crypto.exception.CryptoException 加解密异常
+     */
+    default List<String> encryptBatch(String key, List<String> messages) {
+        if (messages == null) {
+            return null;
+        }
+        List<String> encryptedMessages = new ArrayList<>(messages.size());
+        for (String message : messages) {
+            encryptedMessages.add(encrypt(key, message));
+        }
+        return encryptedMessages;
+    }
+
+    /**
+     * 使用同一密钥批量解密，结果与逐条调用decrypt(String, String)一一对应
+     *
+     * @param key                      密钥字符串，不可为null或空值
+     * @param base64MessagesWithPrefix 带元数据前缀的base64编码的【加密后的密文字节数组】列表，若为null则原样返回，
+     *                                 其中为null或空值的元素原样返回
+     * @return 解密后的明文字符串（UTF-8编码）列表
+     * @throws com.tencent.bk.sdk.crypto.exception.CryptoException 加解密异常
+     */
+    default List<String> decryptBatch(String key, List<String> base64MessagesWithPrefix) {
+        if (base64MessagesWithPrefix == null) {
+            return null;
+        }
+        List<String> messages = new ArrayList<>(base64MessagesWithPrefix.size());
+        for (String base64MessageWithPrefix : base64MessagesWithPrefix) {
+            messages.add(decrypt(key, base64MessageWithPrefix));
+        }
+        return messages;
+    }
 }
@@ -0,0 +1,139 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.cryptor;
+
+import com.tencent.bk.sdk.crypto.exception.CryptoException;
+import com.tencent.bk.sdk.crypto.util.CryptorMetaUtil;
+
+import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 对称加密密钥句柄：由对称加密器对密钥进行一次性预处理（补齐、派生等）后得到，
+ * 可在多次加解密调用（包括多线程并发调用）间复用，避免每次调用都重复处理密钥
+ * 通过withKeyId附加密钥ID后，使用该句柄加密的字节数组与字符串密文总是写入带密钥ID的二进制密文头（v2格式），
+ * 解密方可通过CryptorMetaUtil.getCipherKeyId读取密钥ID以选择解密密钥
+ */
+public class SymmetricKeyHandle {
+
+    /**
+     * 创建该句柄的对称加密器名称，句柄只能用于同名的加密器
+     */
+    private final String cryptorName;
+
+    /**
+     * 原始密钥字节数组
+     */
+    private final byte[] key;
+
+    /**
+     * 预处理后的密钥，加密器不需要预处理密钥时为null
+     */
+    private final SecretKey secretKey;
+
+    /**
+     * 加密时写入二进制密文头的密钥ID，为null时不写入
+     */
+    private final byte[] keyId;
+
+    public SymmetricKeyHandle(String cryptorName, byte[] key, SecretKey secretKey) {
+        this(cryptorName, key, secretKey, null);
+    }
+
+    public SymmetricKeyHandle(String cryptorName, byte[] key, SecretKey secretKey, byte[] keyId) {
+        if (keyId != null && (keyId.length == 0 || keyId.length > CryptorMetaUtil.CIPHER_HEADER_MAX_KEY_ID_LENGTH)) {
+            throw new CryptoException("keyId is invalid: length must be in [1, "
+                + CryptorMetaUtil.CIPHER_HEADER_MAX_KEY_ID_LENGTH + "]");
+        }
+        this.cryptorName = cryptorName;
+        this.key = key;
+        this.secretKey = secretKey;
+        this.keyId = keyId == null ? null : keyId.clone();
+    }
+
+    /**
+     * 创建带有密钥ID的句柄，与当前句柄共用预处理后的密钥
+     *
+     * @param keyId 密钥ID（1~255字节），为null时创建不带密钥ID的句柄
+     * @return 新的密钥句柄
+     */
+    public SymmetricKeyHandle withKeyId(byte[] keyId) {
+        return new SymmetricKeyHandle(cryptorName, key, secretKey, keyId);
+    }
+
+    public String getCryptorName() {
+        return cryptorName;
+    }
+
+    /**
+     * 获取原始密钥字节数组，调用方不可修改返回的数组内容
+     *
+     * @return 原始密钥字节数组
+     */
+    public byte[] getKey() {
+        return key;
+    }
+
+    /**
+     * 将原始密钥按UTF-8还原为密钥字符串，供只实现了字符串密钥接口的加密器使用
+     *
+     * @return 密钥字符串
+     * @throws CryptoException 原始密钥不是合法的UTF-8字节序列（非由字符串密钥创建），无法还原
+     */
+    String getKeyAsString() {
+        try {
+            return StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT)
+                .decode(ByteBuffer.wrap(key))
+                .toString();
+        } catch (CharacterCodingException e) {
+            throw new CryptoException(
+                "Key of " + this + " is not valid UTF-8, cryptor must override the keyHandle string methods", e);
+        }
+    }
+
+    public SecretKey getSecretKey() {
+        return secretKey;
+    }
+
+    /**
+     * 获取密钥ID，调用方不可修改返回的数组内容
+     *
+     * @return 密钥ID，未设置时返回null
+     */
+    public byte[] getKeyId() {
+        return keyId;
+    }
+
+    @Override
+    public String toString() {
+        return "SymmetricKeyHandle(cryptorName=" + cryptorName + ", key.len=" + key.length
+            + (keyId == null ? "" : ", keyId.len=" + keyId.length) + ")";
+    }
+}
@@ -0,0 +1,422 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.cryptor;
+
+import com.tencent.bk.sdk.crypto.exception.CryptoException;
+import com.tencent.bk.sdk.crypto.util.Base64Util;
+import com.tencent.bk.sdk.crypto.util.CryptorMetaUtil;
+import lombok.NonNull;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 通用解密器：根据密文的元数据（v1文本前缀如[Cipher:::SM4]，或v2二进制密文头）自动选择已注册的对称加密器解密，
+ * 不含已知元数据的数据原样返回，适用于同一字段中混合存储多种算法、多种格式密文与明文的场景。
+ * 元数据匹配使用基于注册表快照预先构建的前缀树，对字符串、字节数组、流数据只扫描一次，
+ * 不生成中间子字符串，匹配到的元数据长度直接用于跳过元数据，加密器不再重复校验。
+ * v2格式的字符串密文为[v2] + base64(二进制密文头 + 密文)，密文头的前3个字节恰好编码为4个字符（如SM4为[v2]vAIB），
+ * 同样通过前缀树识别；不以[v2]开头的字符串不会被当作v2密文
+ * 实例创建后不可变，可在多线程间共享
+ */
+public final class UniversalDecryptor {
+
+    private static volatile UniversalDecryptor defaultInstance;
+
+    private final CryptorRegistry registry;
+
+    /**
+     * 按字符匹配的前缀树，用于字符串密文
+     */
+    private final Node charRoot;
+
+    /**
+     * 按字节匹配的前缀树（UTF-8编码），用于字节数组与流数据密文
+     */
+    private final Node byteRoot;
+
+    /**
+     * 流数据需要预读的最大长度：最长文本前缀的字节数与二进制密文头（含密钥ID长度字节）长度的较大值
+     */
+    private final int maxPrefixBytesLength;
+
+    /**
+     * 基于当前的加密器注册表快照创建通用解密器
+     */
+    public UniversalDecryptor() {
+        this(CryptorRegistry.getInstance());
+    }
+
+    /**
+     * 基于指定的加密器注册表快照创建通用解密器，之后注册表的刷新不影响该实例
+     *
+     * @param registry 加密器注册表快照
+     */
+    public UniversalDecryptor(@NonNull CryptorRegistry registry) {
+        this.registry = registry;
+        this.charRoot = new Node();
+        this.byteRoot = new Node();
+        int maxLength = CryptorMetaUtil.CIPHER_HEADER_MIN_LENGTH + 1;
+        for (CryptorEntry<SymmetricCryptor> entry : registry.getSymmetricEntries()) {
+            String prefix = entry.getCipherPrefix();
+            if (!prefix.isEmpty()) {
+                addString(prefix, entry, false);
+                addBytes(entry.getCipherPrefixBytes(), entry, false);
+                maxLength = Math.max(maxLength, entry.getCipherPrefixBytes().length);
+            }
+            if (entry.getAlgorithmId() > 0 && entry.getAlgorithmId() <= 0xFF) {
+                byte[] header = CryptorMetaUtil.buildCipherHeader(entry.getAlgorithmId(), null);
+                byte[] headerWithKeyId = header.clone();
+                headerWithKeyId[1] |= CryptorMetaDefinition.getCipherHeaderKeyIdFlag();
+                for (byte[] headerBytes : new byte[][]{header, headerWithKeyId}) {
+                    addBytes(headerBytes, entry, true);
+                    addString(CryptorMetaDefinition.getStringCipherHeaderPrefix()
+                        + Base64.getEncoder().encodeToString(headerBytes), entry, true);
+                }
+            }
+        }
+        this.maxPrefixBytesLength = maxLength;
+    }
+
+    private void addString(String prefix, CryptorEntry<SymmetricCryptor> entry, boolean cipherHeader) {
+        Node node = charRoot;
+        for (int i = 0; i < prefix.length(); i++) {
+            node = node.getOrAddChild(prefix.charAt(i));
+        }
+        node.entry = entry;
+        node.cipherHeader = cipherHeader;
+    }
+
+    private void addBytes(byte[] prefixBytes, CryptorEntry<SymmetricCryptor> entry, boolean cipherHeader) {
+        Node node = byteRoot;
+        for (byte b : prefixBytes) {
+            node = node.getOrAddChild(b & 0xFF);
+        }
+        node.entry = entry;
+        node.cipherHeader = cipherHeader;
+    }
+
+    /**
+     * 获取基于当前加密器注册表快照的通用解密器，注册表刷新后自动重建
+     *
+     * @return 通用解密器
+     */
+    public static UniversalDecryptor getInstance() {
+        CryptorRegistry registry = CryptorRegistry.getInstance();
+        UniversalDecryptor decryptor = defaultInstance;
+        if (decryptor == null || decryptor.registry != registry) {
+            decryptor = new UniversalDecryptor(registry);
+            defaultInstance = decryptor;
+        }
+        return decryptor;
+    }
+
+    /**
+     * 匹配字符串密文的元数据前缀
+     *
+     * @param cipher 密文
+     * @return 前缀对应的加密器注册项，不含已知前缀时返回null
+     */
+    public CryptorEntry<SymmetricCryptor> match(String cipher) {
+        Node matched = matchNode(cipher);
+        return matched == null ? null : matched.entry;
+    }
+
+    /**
+     * 匹配字节数组密文指定区间的元数据前缀
+     *
+     * @param encrypted 密文所在的字节数组
+     * @param offset    密文起始位置
+     * @param length    密文长度
+     * @return 前缀对应的加密器注册项，不含已知前缀时返回null
+     */
+    public CryptorEntry<SymmetricCryptor> match(byte[] encrypted, int offset, int length) {
+        Node matched = matchNode(encrypted, offset, length);
+        return matched == null ? null : matched.entry;
+    }
+
+    private Node matchNode(String cipher) {
+        if (cipher == null) {
+            return null;
+        }
+        Node node = charRoot;
+        Node matched = null;
+        for (int i = 0; i < cipher.length(); i++) {
+            node = node.getChild(cipher.charAt(i));
+            if (node == null) {
+                break;
+            }
+            if (node.entry != null) {
+                matched = node;
+            }
+        }
+        return matched;
+    }
+
+    private Node matchNode(byte[] encrypted, int offset, int length) {
+        if (encrypted == null) {
+            return null;
+        }
+        Node node = byteRoot;
+        Node matched = null;
+        int end = offset + Math.min(length, maxPrefixBytesLength);
+        for (int i = offset; i < end; i++) {
+            node = node.getChild(encrypted[i] & 0xFF);
+            if (node == null) {
+                break;
+            }
+            if (node.entry != null) {
+                matched = node;
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * 计算匹配到的元数据长度
+     *
+     * @param matched   匹配到的前缀树节点
+     * @param encrypted 数据，二进制密文头需要据此计算密钥ID长度
+     * @param length    可用数据长度
+     * @return 元数据长度
+     */
+    private static int getMetaLength(Node matched, byte[] encrypted, int length) {
+        if (!matched.cipherHeader) {
+            return matched.entry.getCipherPrefixBytes().length;
+        }
+        return CryptorMetaUtil.getCipherHeaderLength(encrypted, 0, length);
+    }
+
+    /**
+     * 解密字符串密文，不含已知前缀的数据原样返回
+     *
+     * @param key    密钥
+     * @param cipher 带元数据前缀的base64编码的密文，或明文
+     * @return 明文
+     */
+    public String decrypt(String key, String cipher) {
+        Node matched = matchNode(cipher);
+        if (matched == null) {
+            return cipher;
+        }
+        CryptorEntry<SymmetricCryptor> entry = matched.entry;
+        if (StringUtils.isEmpty(key)) {
+            throw new CryptoException("decrypt key is invalid: null or empty");
+        }
+        SymmetricCryptor cryptor = entry.getCryptor();
+        if (!(cryptor instanceof AbstractSymmetricCryptor)) {
+            return cryptor.decrypt(key, cipher);
+        }
+        byte[] rawEncryptedMessage = decodeStringCipher(matched, cipher);
+        int offset = getStringCipherBodyOffset(matched, rawEncryptedMessage);
+        byte[] decryptedMessage = ((AbstractSymmetricCryptor) cryptor).decryptIndeed(
+            key.getBytes(StandardCharsets.UTF_8),
+            rawEncryptedMessage,
+            offset,
+            rawEncryptedMessage.length - offset
+        );
+        return new String(decryptedMessage, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 解密字节数组密文，不含已知前缀的数据原样返回
+     *
+     * @param key       密钥
+     * @param encrypted 带元数据前缀的密文，或明文
+     * @return 明文
+     */
+    public byte[] decrypt(byte[] key, byte[] encrypted) {
+        if (encrypted == null) {
+            return null;
+        }
+        Node matched = matchNode(encrypted, 0, encrypted.length);
+        if (matched == null) {
+            return encrypted;
+        }
+        CryptorEntry<SymmetricCryptor> entry = matched.entry;
+        if (key == null || key.length == 0) {
+            throw new CryptoException("decrypt key is invalid: null or empty");
+        }
+        SymmetricCryptor cryptor = entry.getCryptor();
+        if (!(cryptor instanceof AbstractSymmetricCryptor)) {
+            return cryptor.decrypt(key, encrypted);
+        }
+        int offset = getMetaLength(matched, encrypted, encrypted.length);
+        if (offset > encrypted.length) {
+            throw new CryptoException("encryptedMessage is invalid: cipher header is truncated");
+        }
+        return ((AbstractSymmetricCryptor) cryptor).decryptIndeed(key, encrypted, offset, encrypted.length - offset);
+    }
+
+    /**
+     * 解密流数据，不含已知前缀的数据原样输出
+     *
+     * @param key 密钥
+     * @param in  密文输入流
+     * @param out 明文输出流
+     */
+    public void decrypt(String key, InputStream in, OutputStream out) {
+        BufferedInputStream bis = new BufferedInputStream(in);
+        try {
+            byte[] head = new byte[maxPrefixBytesLength];
+            bis.mark(maxPrefixBytesLength);
+            int n = IOUtils.read(bis, head);
+            Node matched = matchNode(head, 0, n);
+            bis.reset();
+            if (matched == null) {
+                IOUtils.copy(bis, out);
+                return;
+            }
+            if (StringUtils.isEmpty(key)) {
+                throw new CryptoException("decrypt key is invalid: null or empty");
+            }
+            SymmetricCryptor cryptor = matched.entry.getCryptor();
+            if (!(cryptor instanceof AbstractSymmetricCryptor)) {
+                cryptor.decrypt(key, bis, out);
+                return;
+            }
+            IOUtils.skipFully(bis, getMetaLength(matched, head, n));
+            ((AbstractSymmetricCryptor) cryptor).decryptIndeed(key, bis, out);
+        } catch (IOException e) {
+            throw new CryptoException("Fail to decrypt data in stream", e);
+        }
+    }
+
+    /**
+     * 批量解密字符串密文，每种加密器的密钥预处理只进行一次，不含已知前缀的数据原样返回
+     *
+     * @param key     密钥
+     * @param ciphers 带元数据前缀的base64编码的密文或明文列表，若为null则原样返回
+     * @return 明文列表，与密文列表一一对应
+     */
+    public List<String> decryptBatch(String key, List<String> ciphers) {
+        if (ciphers == null) {
+            return null;
+        }
+        Map<CryptorEntry<SymmetricCryptor>, SymmetricKeyHandle> keyHandleMap = new IdentityHashMap<>();
+        List<String> messages = new ArrayList<>(ciphers.size());
+        for (String cipher : ciphers) {
+            Node matched = matchNode(cipher);
+            if (matched == null) {
+                messages.add(cipher);
+                continue;
+            }
+            CryptorEntry<SymmetricCryptor> entry = matched.entry;
+            if (StringUtils.isEmpty(key)) {
+                throw new CryptoException("decrypt key is invalid: null or empty");
+            }
+            SymmetricCryptor cryptor = entry.getCryptor();
+            if (!(cryptor instanceof AbstractSymmetricCryptor)) {
+                messages.add(cryptor.decrypt(key, cipher));
+                continue;
+            }
+            SymmetricKeyHandle keyHandle = keyHandleMap.computeIfAbsent(
+                entry, e -> cryptor.prepareKey(key.getBytes(StandardCharsets.UTF_8))
+            );
+            byte[] rawEncryptedMessage = decodeStringCipher(matched, cipher);
+            int offset = getStringCipherBodyOffset(matched, rawEncryptedMessage);
+            byte[] decryptedMessage = ((AbstractSymmetricCryptor) cryptor).decryptIndeed(
+                keyHandle,
+                rawEncryptedMessage,
+                offset,
+                rawEncryptedMessage.length - offset
+            );
+            messages.add(new String(decryptedMessage, StandardCharsets.UTF_8));
+        }
+        return messages;
+    }
+
+    /**
+     * 解码字符串密文：v1格式跳过文本前缀后解码，v2格式跳过[v2]前缀后解码（结果包含二进制密文头）
+     */
+    private static byte[] decodeStringCipher(Node matched, String cipher) {
+        if (matched.cipherHeader) {
+            return CryptorMetaUtil.decodeStringCipherWithHeader(cipher);
+        }
+        return Base64Util.decodeContentToByte(cipher, matched.entry.getCipherPrefix().length());
+    }
+
+    private static int getStringCipherBodyOffset(Node matched, byte[] rawEncryptedMessage) {
+        if (!matched.cipherHeader) {
+            return 0;
+        }
+        int offset = getMetaLength(matched, rawEncryptedMessage, rawEncryptedMessage.length);
+        if (offset < 0 || offset > rawEncryptedMessage.length) {
+            throw new CryptoException("encryptedMessage is invalid: cipher header is truncated");
+        }
+        return offset;
+    }
+
+    /**
+     * 前缀树节点，构建完成后只读；子节点数量通常为1，使用数组线性查找
+     */
+    private static final class Node {
+        private int[] labels = new int[0];
+        private Node[] children = new Node[0];
+        private CryptorEntry<SymmetricCryptor> entry;
+        /**
+         * 匹配到的是否为二进制密文头（v2），否则为文本前缀（v1）
+         */
+        private boolean cipherHeader;
+
+        Node getChild(int label) {
+            int[] currentLabels = labels;
+            for (int i = 0; i < currentLabels.length; i++) {
+                if (currentLabels[i] == label) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node getOrAddChild(int label) {
+            Node child = getChild(label);
+            if (child != null) {
+                return child;
+            }
+            child = new Node();
+            int n = labels.length;
+            int[] newLabels = new int[n + 1];
+            Node[] newChildren = new Node[n + 1];
+            System.arraycopy(labels, 0, newLabels, 0, n);
+            System.arraycopy(children, 0, newChildren, 0, n);
+            newLabels[n] = label;
+            newChildren[n] = child;
+            labels = newLabels;
+            children = newChildren;
+            return child;
+        }
+    }
+}
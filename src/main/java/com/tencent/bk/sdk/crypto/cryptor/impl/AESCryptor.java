@@ -27,20 +27,28 @@ package com.tencent.bk.sdk.crypto.cryptor.impl;
 import com.tencent.bk.sdk.crypto.annotation.Cryptor;
 import com.tencent.bk.sdk.crypto.annotation.CryptorTypeEnum;
 import com.tencent.bk.sdk.crypto.cryptor.AbstractSymmetricCryptor;
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricKeyHandle;
+import com.tencent.bk.sdk.crypto.cryptor.consts.CryptorIds;
 import com.tencent.bk.sdk.crypto.cryptor.consts.CryptorNames;
 import com.tencent.bk.sdk.crypto.exception.CryptoException;
+import com.tencent.bk.sdk.crypto.util.CtrCipherUtil;
 import com.tencent.bk.sdk.crypto.util.AESUtil;
+import com.tencent.bk.sdk.crypto.util.StreamCryptoOptions;
 import lombok.NonNull;
 import org.slf4j.helpers.FormattingTuple;
 import org.slf4j.helpers.MessageFormatter;
 
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 /**
  * 使用AES/CTR/NoPadding的加密实现
  */
-@Cryptor(name = CryptorNames.AES, type = CryptorTypeEnum.SYMMETRIC, priority = 1)
+@Cryptor(name = CryptorNames.AES, id = CryptorIds.AES, type = CryptorTypeEnum.SYMMETRIC, priority = 1)
 public class AESCryptor extends AbstractSymmetricCryptor {
 
     @Override
@@ -76,10 +84,138 @@ public class AESCryptor extends AbstractSymmetricCryptor {
         }
     }
 
+    @Override
+    public byte[] decryptIndeed(@NonNull byte[] key, @NonNull byte[] encryptedMessage, int offset, int length) {
+        try {
+            return AESUtil.decryptWithSecretKey(encryptedMessage, offset, length, AESUtil.getSecretKey(key));
+        } catch (Exception e) {
+            FormattingTuple msg = MessageFormatter.format(
+                "Fail to decrypt using AES, key.len={}, encryptedMessage.len={}",
+                key.length,
+                length
+            );
+            throw new CryptoException(msg.getMessage(), e);
+        }
+    }
+
+    @Override
+    protected SecretKey prepareSecretKey(@NonNull byte[] key) {
+        try {
+            return AESUtil.getSecretKey(key);
+        } catch (Exception e) {
+            FormattingTuple msg = MessageFormatter.format(
+                "Fail to prepare AES key, key.len={}",
+                key.length
+            );
+            throw new CryptoException(msg.getMessage(), e);
+        }
+    }
+
+    @Override
+    public byte[] encryptIndeed(@NonNull SymmetricKeyHandle keyHandle, @NonNull byte[] message) {
+        try {
+            return AESUtil.encryptWithSecretKey(message, keyHandle.getSecretKey());
+        } catch (Exception e) {
+            FormattingTuple msg = MessageFormatter.format(
+                "Fail to encrypt using AES, key.len={}, message.len={}",
+                keyHandle.getKey().length,
+                message.length
+            );
+            throw new CryptoException(msg.getMessage(), e);
+        }
+    }
+
+    @Override
+    public byte[] decryptIndeed(@NonNull SymmetricKeyHandle keyHandle, @NonNull byte[] encryptedMessage) {
+        try {
+            return AESUtil.decryptWithSecretKey(encryptedMessage, keyHandle.getSecretKey());
+        } catch (Exception e) {
+            FormattingTuple msg = MessageFormatter.format(
+                "Fail to decrypt using AES, key.len={}, encryptedMessage.len={}",
+                keyHandle.getKey().length,
+                encryptedMessage.length
+            );
+            throw new CryptoException(msg.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int encryptIndeed(@NonNull SymmetricKeyHandle keyHandle, @NonNull byte[] message, int offset, int length,
+                             @NonNull byte[] output, int outputOffset) {
+        try {
+            return AESUtil.encrypt(message, offset, length, output, outputOffset, keyHandle.getSecretKey());
+        } catch (Exception e) {
+            FormattingTuple msg = MessageFormatter.format(
+                "Fail to encrypt using AES, key.len={}, message.len={}",
+                keyHandle.getKey().length,
+                length
+            );
+            throw new CryptoException(msg.getMessage(), e);
+        }
+    }
+
+    @Override
+    public byte[] decryptIndeed(@NonNull SymmetricKeyHandle keyHandle, @NonNull byte[] encryptedMessage,
+                                int offset, int length) {
+        try {
+            return AESUtil.decryptWithSecretKey(encryptedMessage, offset, length, keyHandle.getSecretKey());
+        } catch (Exception e) {
+            FormattingTuple msg = MessageFormatter.format(
+                "Fail to decrypt using AES, key.len={}, encryptedMessage.len={}",
+                keyHandle.getKey().length,
+                length
+            );
+            throw new CryptoException(msg.getMessage(), e);
+        }
+    }
+
+    @Override
+    protected int getCipherOverhead() {
+        return CtrCipherUtil.BLOCK_SIZE;
+    }
+
+    @Override
+    protected Cipher createCtrCipher(@NonNull SymmetricKeyHandle keyHandle, @NonNull byte[] iv, int mode) {
+        return AESUtil.creatCipher(keyHandle.getSecretKey(), iv, mode);
+    }
+
+    @Override
+    public void encryptIndeed(@NonNull byte[] key, @NonNull ByteBuffer src, @NonNull ByteBuffer dst) {
+        try {
+            AESUtil.encrypt(src, dst, AESUtil.getSecretKey(key));
+        } catch (Exception e) {
+            FormattingTuple msg = MessageFormatter.format(
+                "Fail to encrypt using AES, key.len={}, message.len={}",
+                key.length,
+                src.remaining()
+            );
+            throw new CryptoException(msg.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void decryptIndeed(@NonNull byte[] key, @NonNull ByteBuffer src, @NonNull ByteBuffer dst) {
+        try {
+            AESUtil.decrypt(src, dst, AESUtil.getSecretKey(key));
+        } catch (Exception e) {
+            FormattingTuple msg = MessageFormatter.format(
+                "Fail to decrypt using AES, key.len={}, encryptedMessage.len={}",
+                key.length,
+                src.remaining()
+            );
+            throw new CryptoException(msg.getMessage(), e);
+        }
+    }
+
     @Override
     public void encryptIndeed(String key, InputStream in, OutputStream out) {
+        encryptIndeed(key, in, out, StreamCryptoOptions.getDefault());
+    }
+
+    @Override
+    public void encryptIndeed(String key, InputStream in, OutputStream out, StreamCryptoOptions options) {
         try {
-            AESUtil.encrypt(key, in, out);
+            AESUtil.encrypt(key, in, out, options);
         } catch (Exception e) {
             FormattingTuple msg = MessageFormatter.format(
                 "Fail to encrypt using AES, key.len={}",
@@ -91,8 +227,13 @@ public class AESCryptor extends AbstractSymmetricCryptor {
 
     @Override
     public void decryptIndeed(String key, InputStream in, OutputStream out) {
+        decryptIndeed(key, in, out, StreamCryptoOptions.getDefault());
+    }
+
+    @Override
+    public void decryptIndeed(String key, InputStream in, OutputStream out, StreamCryptoOptions options) {
         try {
-            AESUtil.decrypt(key, in, out);
+            AESUtil.decrypt(key, in, out, options);
         } catch (Exception e) {
             FormattingTuple msg = MessageFormatter.format(
                 "Fail to decrypt using AES, key.len={}",
@@ -101,4 +242,30 @@ public class AESCryptor extends AbstractSymmetricCryptor {
             throw new CryptoException(msg.getMessage(), e);
         }
     }
+
+    @Override
+    public void encryptFileIndeed(String key, FileChannel in, FileChannel out) {
+        try {
+            AESUtil.encryptFile(key, in, out);
+        } catch (Exception e) {
+            FormattingTuple msg = MessageFormatter.format(
+                "Fail to encrypt file using AES, key.len={}",
+                key.length()
+            );
+            throw new CryptoException(msg.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void decryptFileIndeed(String key, FileChannel in, FileChannel out) {
+        try {
+            AESUtil.decryptFile(key, in, out);
+        } catch (Exception e) {
+            FormattingTuple msg = MessageFormatter.format(
+                "Fail to decrypt file using AES, key.len={}",
+                key.length()
+            );
+            throw new CryptoException(msg.getMessage(), e);
+        }
+    }
 }
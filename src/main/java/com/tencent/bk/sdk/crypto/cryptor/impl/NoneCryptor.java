@@ -28,14 +28,19 @@ package com.tencent.bk.sdk.crypto.cryptor.impl;
 import com.tencent.bk.sdk.crypto.annotation.Cryptor;
 import com.tencent.bk.sdk.crypto.annotation.CryptorTypeEnum;
 import com.tencent.bk.sdk.crypto.cryptor.SymmetricCryptor;
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricKeyHandle;
 import com.tencent.bk.sdk.crypto.cryptor.consts.CryptorNames;
 import com.tencent.bk.sdk.crypto.exception.CryptoException;
-import org.apache.commons.io.IOUtils;
+import com.tencent.bk.sdk.crypto.metrics.CryptoMetricsUtil;
+import com.tencent.bk.sdk.crypto.metrics.CryptoOperation;
+import com.tencent.bk.sdk.crypto.util.BasicCipherUtil;
+import com.tencent.bk.sdk.crypto.util.StreamCryptoOptions;
 import org.slf4j.helpers.FormattingTuple;
 import org.slf4j.helpers.MessageFormatter;
 
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 /**
  * 不做任何加密操作，直接返回明文/密文的加解密实现
@@ -49,18 +54,75 @@ public class NoneCryptor implements SymmetricCryptor {
 
     @Override
     public byte[] encrypt(byte[] key, byte[] message) {
+        recordPassThrough(CryptoOperation.ENCRYPT, CryptoMetricsUtil.lengthOf(message));
         return message;
     }
 
     @Override
     public byte[] decrypt(byte[] key, byte[] encryptedMessage) {
+        recordPassThrough(CryptoOperation.DECRYPT, CryptoMetricsUtil.lengthOf(encryptedMessage));
         return encryptedMessage;
     }
 
+    @Override
+    public int getOutputSize(int messageLength) {
+        return messageLength;
+    }
+
+    @Override
+    public int encrypt(byte[] key, ByteBuffer src, ByteBuffer dst) {
+        if (!CryptoMetricsUtil.isEnabled()) {
+            return copy(src, dst);
+        }
+        return CryptoMetricsUtil.record(getName(), CryptoOperation.ENCRYPT, src.remaining(), () -> copy(src, dst));
+    }
+
+    @Override
+    public int decrypt(byte[] key, ByteBuffer src, ByteBuffer dst) {
+        if (!CryptoMetricsUtil.isEnabled()) {
+            return copy(src, dst);
+        }
+        return CryptoMetricsUtil.record(getName(), CryptoOperation.DECRYPT, src.remaining(), () -> copy(src, dst));
+    }
+
+    /**
+     * 明文/密文原样返回，不计耗时，只记录次数与数据量
+     */
+    private void recordPassThrough(CryptoOperation operation, long bytes) {
+        if (CryptoMetricsUtil.isEnabled()) {
+            CryptoMetricsUtil.record(getName(), operation, bytes, 0, null);
+        }
+    }
+
+    private int copy(ByteBuffer src, ByteBuffer dst) {
+        int length = src.remaining();
+        if (dst.remaining() < length) {
+            throw new CryptoException("dst buffer is too small: required=" + length + ", remaining=" + dst.remaining());
+        }
+        dst.put(src);
+        return length;
+    }
+
     @Override
     public void encrypt(String key, InputStream in, OutputStream out) {
+        encrypt(key, in, out, StreamCryptoOptions.getDefault());
+    }
+
+    @Override
+    public void encrypt(String key, InputStream in, OutputStream out, StreamCryptoOptions options) {
+        if (!CryptoMetricsUtil.isEnabled()) {
+            doEncrypt(key, in, out, options);
+            return;
+        }
+        CryptoMetricsUtil.recordStream(
+            getName(), CryptoOperation.ENCRYPT_STREAM, in,
+            countingIn -> doEncrypt(key, countingIn, out, options)
+        );
+    }
+
+    private void doEncrypt(String key, InputStream in, OutputStream out, StreamCryptoOptions options) {
         try {
-            IOUtils.copy(in, out);
+            BasicCipherUtil.transfer(in, out, null, options);
         } catch (Exception e) {
             FormattingTuple msg = MessageFormatter.format(
                 "Fail to encrypt using None, key.len={}",
@@ -72,8 +134,24 @@ public class NoneCryptor implements SymmetricCryptor {
 
     @Override
     public void decrypt(String key, InputStream in, OutputStream out) {
+        decrypt(key, in, out, StreamCryptoOptions.getDefault());
+    }
+
+    @Override
+    public void decrypt(String key, InputStream in, OutputStream out, StreamCryptoOptions options) {
+        if (!CryptoMetricsUtil.isEnabled()) {
+            doDecrypt(key, in, out, options);
+            return;
+        }
+        CryptoMetricsUtil.recordStream(
+            getName(), CryptoOperation.DECRYPT_STREAM, in,
+            countingIn -> doDecrypt(key, countingIn, out, options)
+        );
+    }
+
+    private void doDecrypt(String key, InputStream in, OutputStream out, StreamCryptoOptions options) {
         try {
-            IOUtils.copy(in, out);
+            BasicCipherUtil.transfer(in, out, null, options);
         } catch (Exception e) {
             FormattingTuple msg = MessageFormatter.format(
                 "Fail to decrypt using None, key.len={}",
@@ -90,11 +168,23 @@ public class NoneCryptor implements SymmetricCryptor {
 
     @Override
     public String encrypt(String key, String message) {
+        recordPassThrough(CryptoOperation.ENCRYPT, CryptoMetricsUtil.lengthOf(message));
         return message;
     }
 
     @Override
     public String decrypt(String key, String base64MessageWithPrefix) {
+        recordPassThrough(CryptoOperation.DECRYPT, CryptoMetricsUtil.lengthOf(base64MessageWithPrefix));
         return base64MessageWithPrefix;
     }
+
+    @Override
+    public String encrypt(SymmetricKeyHandle keyHandle, String message) {
+        return encrypt((String) null, message);
+    }
+
+    @Override
+    public String decrypt(SymmetricKeyHandle keyHandle, String base64MessageWithPrefix) {
+        return decrypt((String) null, base64MessageWithPrefix);
+    }
 }
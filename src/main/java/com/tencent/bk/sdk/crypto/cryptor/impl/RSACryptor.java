@@ -27,6 +27,7 @@ package com.tencent.bk.sdk.crypto.cryptor.impl;
 import com.tencent.bk.sdk.crypto.annotation.Cryptor;
 import com.tencent.bk.sdk.crypto.annotation.CryptorTypeEnum;
 import com.tencent.bk.sdk.crypto.cryptor.AbstractASymmetricCryptor;
+import com.tencent.bk.sdk.crypto.cryptor.consts.CryptorIds;
 import com.tencent.bk.sdk.crypto.cryptor.consts.CryptorNames;
 import com.tencent.bk.sdk.crypto.exception.CryptoException;
 import com.tencent.bk.sdk.crypto.util.RSAUtil;
@@ -40,7 +41,7 @@ import java.security.PublicKey;
 /**
  * 使用RSA的非对称加密实现
  */
-@Cryptor(name = CryptorNames.RSA, type = CryptorTypeEnum.ASYMMETRIC, priority = 1)
+@Cryptor(name = CryptorNames.RSA, id = CryptorIds.RSA, type = CryptorTypeEnum.ASYMMETRIC, priority = 1)
 public class RSACryptor extends AbstractASymmetricCryptor {
 
     @Override
@@ -75,4 +76,19 @@ public class RSACryptor extends AbstractASymmetricCryptor {
             throw new CryptoException(msg.getMessage(), e);
         }
     }
+
+    @Override
+    public byte[] decryptIndeed(@NonNull PrivateKey privateKey, @NonNull byte[] encryptedMessage,
+                                int offset, int length) {
+        try {
+            return RSAUtil.decryptToBytes(privateKey, encryptedMessage, offset, length);
+        } catch (Exception e) {
+            FormattingTuple msg = MessageFormatter.format(
+                "Fail to decrypt using RSA, privateKey.len={}, encryptedMessage.len={}",
+                privateKey.getEncoded().length,
+                length
+            );
+            throw new CryptoException(msg.getMessage(), e);
+        }
+    }
 }
@@ -27,6 +27,7 @@ package com.tencent.bk.sdk.crypto.cryptor.impl;
 import com.tencent.bk.sdk.crypto.annotation.Cryptor;
 import com.tencent.bk.sdk.crypto.annotation.CryptorTypeEnum;
 import com.tencent.bk.sdk.crypto.cryptor.AbstractASymmetricCryptor;
+import com.tencent.bk.sdk.crypto.cryptor.consts.CryptorIds;
 import com.tencent.bk.sdk.crypto.cryptor.consts.CryptorNames;
 import com.tencent.bk.sdk.crypto.util.SM2Util;
 import lombok.NonNull;
@@ -37,7 +38,7 @@ import java.security.PublicKey;
 /**
  * 使用国密算法SM2的非对称加密实现
  */
-@Cryptor(name = CryptorNames.SM2, type = CryptorTypeEnum.ASYMMETRIC, priority = 1)
+@Cryptor(name = CryptorNames.SM2, id = CryptorIds.SM2, type = CryptorTypeEnum.ASYMMETRIC, priority = 1)
 public class SM2Cryptor extends AbstractASymmetricCryptor {
 
     @Override
@@ -54,4 +55,10 @@ public class SM2Cryptor extends AbstractASymmetricCryptor {
     public byte[] decryptIndeed(@NonNull PrivateKey privateKey, @NonNull byte[] encryptedMessage) {
         return SM2Util.decrypt(privateKey, encryptedMessage);
     }
+
+    @Override
+    public byte[] decryptIndeed(@NonNull PrivateKey privateKey, @NonNull byte[] encryptedMessage,
+                                int offset, int length) {
+        return SM2Util.decrypt(privateKey, encryptedMessage, offset, length);
+    }
 }
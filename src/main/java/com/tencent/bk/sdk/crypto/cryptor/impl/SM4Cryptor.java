@@ -27,20 +27,28 @@ package com.tencent.bk.sdk.crypto.cryptor.impl;
 import com.tencent.bk.sdk.crypto.annotation.Cryptor;
 import com.tencent.bk.sdk.crypto.annotation.CryptorTypeEnum;
 import com.tencent.bk.sdk.crypto.cryptor.AbstractSymmetricCryptor;
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricKeyHandle;
+import com.tencent.bk.sdk.crypto.cryptor.consts.CryptorIds;
 import com.tencent.bk.sdk.crypto.cryptor.consts.CryptorNames;
 import com.tencent.bk.sdk.crypto.exception.CryptoException;
+import com.tencent.bk.sdk.crypto.util.CtrCipherUtil;
 import com.tencent.bk.sdk.crypto.util.SM4Util;
+import com.tencent.bk.sdk.crypto.util.StreamCryptoOptions;
 import lombok.NonNull;
 import org.slf4j.helpers.FormattingTuple;
 import org.slf4j.helpers.MessageFormatter;
 
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 /**
  * 使用国密算法SM4/CTR/NoPadding的加解密实现
  */
-@Cryptor(name = CryptorNames.SM4, type = CryptorTypeEnum.SYMMETRIC, priority = 1)
+@Cryptor(name = CryptorNames.SM4, id = CryptorIds.SM4, type = CryptorTypeEnum.SYMMETRIC, priority = 1)
 public class SM4Cryptor extends AbstractSymmetricCryptor {
 
     @Override
@@ -58,10 +66,67 @@ public class SM4Cryptor extends AbstractSymmetricCryptor {
         return SM4Util.decrypt(key, encryptedMessage);
     }
 
+    @Override
+    public byte[] decryptIndeed(@NonNull byte[] key, @NonNull byte[] encryptedMessage, int offset, int length) {
+        return SM4Util.decryptWithSecretKey(SM4Util.toSecretKey(key), encryptedMessage, offset, length);
+    }
+
+    @Override
+    protected SecretKey prepareSecretKey(@NonNull byte[] key) {
+        return SM4Util.toSecretKey(key);
+    }
+
+    @Override
+    public byte[] encryptIndeed(@NonNull SymmetricKeyHandle keyHandle, @NonNull byte[] message) {
+        return SM4Util.encryptWithSecretKey(keyHandle.getSecretKey(), message);
+    }
+
+    @Override
+    public byte[] decryptIndeed(@NonNull SymmetricKeyHandle keyHandle, @NonNull byte[] encryptedMessage) {
+        return SM4Util.decryptWithSecretKey(keyHandle.getSecretKey(), encryptedMessage);
+    }
+
+    @Override
+    public int encryptIndeed(@NonNull SymmetricKeyHandle keyHandle, @NonNull byte[] message, int offset, int length,
+                             @NonNull byte[] output, int outputOffset) {
+        return SM4Util.encrypt(keyHandle.getSecretKey(), message, offset, length, output, outputOffset);
+    }
+
+    @Override
+    public byte[] decryptIndeed(@NonNull SymmetricKeyHandle keyHandle, @NonNull byte[] encryptedMessage,
+                                int offset, int length) {
+        return SM4Util.decryptWithSecretKey(keyHandle.getSecretKey(), encryptedMessage, offset, length);
+    }
+
+    @Override
+    protected int getCipherOverhead() {
+        return CtrCipherUtil.BLOCK_SIZE;
+    }
+
+    @Override
+    protected Cipher createCtrCipher(@NonNull SymmetricKeyHandle keyHandle, @NonNull byte[] iv, int mode) {
+        return SM4Util.creatCipher(keyHandle.getSecretKey(), iv, mode);
+    }
+
+    @Override
+    public void encryptIndeed(@NonNull byte[] key, @NonNull ByteBuffer src, @NonNull ByteBuffer dst) {
+        SM4Util.encrypt(SM4Util.toSecretKey(key), src, dst);
+    }
+
+    @Override
+    public void decryptIndeed(@NonNull byte[] key, @NonNull ByteBuffer src, @NonNull ByteBuffer dst) {
+        SM4Util.decrypt(SM4Util.toSecretKey(key), src, dst);
+    }
+
     @Override
     public void encryptIndeed(String key, InputStream in, OutputStream out) {
+        encryptIndeed(key, in, out, StreamCryptoOptions.getDefault());
+    }
+
+    @Override
+    public void encryptIndeed(String key, InputStream in, OutputStream out, StreamCryptoOptions options) {
         try {
-            SM4Util.encrypt(key, in, out);
+            SM4Util.encrypt(key, in, out, options);
         } catch (Exception e) {
             FormattingTuple msg = MessageFormatter.format(
                 "Fail to encrypt using SM4, key.len={}",
@@ -73,8 +138,13 @@ public class SM4Cryptor extends AbstractSymmetricCryptor {
 
     @Override
     public void decryptIndeed(String key, InputStream in, OutputStream out) {
+        decryptIndeed(key, in, out, StreamCryptoOptions.getDefault());
+    }
+
+    @Override
+    public void decryptIndeed(String key, InputStream in, OutputStream out, StreamCryptoOptions options) {
         try {
-            SM4Util.decrypt(key, in, out);
+            SM4Util.decrypt(key, in, out, options);
         } catch (Exception e) {
             FormattingTuple msg = MessageFormatter.format(
                 "Fail to decrypt using SM4, key.len={}",
@@ -83,4 +153,30 @@ public class SM4Cryptor extends AbstractSymmetricCryptor {
             throw new CryptoException(msg.getMessage(), e);
         }
     }
+
+    @Override
+    public void encryptFileIndeed(String key, FileChannel in, FileChannel out) {
+        try {
+            SM4Util.encryptFile(key, in, out);
+        } catch (Exception e) {
+            FormattingTuple msg = MessageFormatter.format(
+                "Fail to encrypt file using SM4, key.len={}",
+                key.length()
+            );
+            throw new CryptoException(msg.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void decryptFileIndeed(String key, FileChannel in, FileChannel out) {
+        try {
+            SM4Util.decryptFile(key, in, out);
+        } catch (Exception e) {
+            FormattingTuple msg = MessageFormatter.format(
+                "Fail to decrypt file using SM4, key.len={}",
+                key.length()
+            );
+            throw new CryptoException(msg.getMessage(), e);
+        }
+    }
 }
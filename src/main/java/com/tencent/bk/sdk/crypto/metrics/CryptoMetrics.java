@@ -0,0 +1,53 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.metrics;
+
+/**
+ * 加解密指标采集SPI：加密器与加解密流在每次操作完成后上报操作次数、处理字节数、耗时与异常，
+ * 可通过META-INF/services/com.tencent.bk.sdk.crypto.metrics.CryptoMetrics接入Micrometer、Prometheus等指标库，
+ * 或通过CryptoMetricsUtil.setMetrics设置；实现需保证线程安全，且不应在record中执行耗时操作
+ */
+public interface CryptoMetrics {
+
+    /**
+     * 是否启用指标采集，返回false时SDK不计时也不调用record方法
+     *
+     * @return 是否启用
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * 记录一次加解密操作
+     *
+     * @param cryptorName  加密器名称，如SM4、AES、SM2
+     * @param operation    操作类型
+     * @param bytes        输入数据字节数（字符串接口为字符数）
+     * @param elapsedNanos 耗时（纳秒）
+     * @param error        操作失败时抛出的异常，成功时为null
+     */
+    void record(String cryptorName, CryptoOperation operation, long bytes, long elapsedNanos, Throwable error);
+}
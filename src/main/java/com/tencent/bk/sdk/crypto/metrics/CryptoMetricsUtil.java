@@ -0,0 +1,293 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.Cipher;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 加解密指标工具类，加密器与加解密流均通过该类上报指标
+ * 默认通过SPI加载CryptoMetrics实现，未找到时使用不统计任何数据的NoopCryptoMetrics，
+ * 可通过系统属性或setMetrics方法切换实现；未启用时调用方应先判断isEnabled，跳过计时与封装以保证热点路径无额外开销
+ */
+@Slf4j
+public class CryptoMetricsUtil {
+
+    /**
+     * 指标实现类型的系统属性名称，可选值：spi（默认）、memory、noop
+     */
+    public static final String PROPERTY_METRICS = "bk.sdk.crypto.metrics";
+
+    public static final String METRICS_SPI = "spi";
+    public static final String METRICS_MEMORY = "memory";
+    public static final String METRICS_NOOP = "noop";
+
+    private static volatile CryptoMetrics metrics =
+        createMetrics(System.getProperty(PROPERTY_METRICS, METRICS_SPI));
+
+    /**
+     * 获取当前使用的指标实现
+     *
+     * @return 指标实现
+     */
+    public static CryptoMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 设置加解密指标实现
+     *
+     * @param cryptoMetrics 指标实现，不可为null，关闭统计时传入NoopCryptoMetrics.INSTANCE
+     */
+    public static void setMetrics(CryptoMetrics cryptoMetrics) {
+        if (cryptoMetrics == null) {
+            throw new IllegalArgumentException("cryptoMetrics cannot be null");
+        }
+        CryptoMetricsUtil.metrics = cryptoMetrics;
+    }
+
+    /**
+     * 当前是否启用指标统计
+     *
+     * @return 是否启用
+     */
+    public static boolean isEnabled() {
+        return metrics.isEnabled();
+    }
+
+    /**
+     * 记录一次操作的指标，指标实现抛出的异常不影响加解密结果
+     *
+     * @param cryptorName  加密器名称
+     * @param operation    操作类型
+     * @param bytes        输入数据字节数
+     * @param elapsedNanos 耗时（纳秒）
+     * @param error        操作失败时的异常，成功时为null
+     */
+    public static void record(String cryptorName, CryptoOperation operation, long bytes, long elapsedNanos,
+                              Throwable error) {
+        try {
+            metrics.record(cryptorName, operation, bytes, elapsedNanos, error);
+        } catch (Throwable e) {
+            log.debug("Fail to record crypto metrics", e);
+        }
+    }
+
+    /**
+     * 执行操作并记录耗时与结果，操作抛出的异常原样抛出
+     *
+     * @param cryptorName 加密器名称
+     * @param operation   操作类型
+     * @param bytes       输入数据字节数
+     * @param action      操作
+     * @param <T>         操作结果类型
+     * @return 操作结果
+     */
+    public static <T> T record(String cryptorName, CryptoOperation operation, long bytes, Supplier<T> action) {
+        long start = System.nanoTime();
+        Throwable error = null;
+        try {
+            return action.get();
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            record(cryptorName, operation, bytes, System.nanoTime() - start, error);
+        }
+    }
+
+    /**
+     * 执行无返回值的操作并记录耗时与结果，操作抛出的异常原样抛出
+     *
+     * @param cryptorName 加密器名称
+     * @param operation   操作类型
+     * @param bytes       输入数据字节数
+     * @param action      操作
+     */
+    public static void run(String cryptorName, CryptoOperation operation, long bytes, Runnable action) {
+        record(cryptorName, operation, bytes, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * 执行流数据操作并记录耗时与结果，处理的字节数按操作从输入流读取的字节数统计
+     *
+     * @param cryptorName 加密器名称
+     * @param operation   操作类型
+     * @param in          输入流
+     * @param action      操作，参数为对输入流计数的封装流
+     */
+    public static void recordStream(String cryptorName, CryptoOperation operation, InputStream in,
+                                    Consumer<InputStream> action) {
+        CountingInputStream countingIn = new CountingInputStream(in);
+        long start = System.nanoTime();
+        Throwable error = null;
+        try {
+            action.accept(countingIn);
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            record(cryptorName, operation, countingIn.count, System.nanoTime() - start, error);
+        }
+    }
+
+    /**
+     * 字节数组长度，null视为0
+     */
+    public static long lengthOf(byte[] data) {
+        return data == null ? 0 : data.length;
+    }
+
+    /**
+     * 字符串长度（字符数），null视为0
+     */
+    public static long lengthOf(String data) {
+        return data == null ? 0 : data.length();
+    }
+
+    /**
+     * 批量数据的总字节数
+     */
+    public static long totalLength(List<byte[]> dataList) {
+        long total = 0;
+        if (dataList != null) {
+            for (byte[] data : dataList) {
+                total += lengthOf(data);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 批量字符串的总长度（字符数）
+     */
+    public static long totalStringLength(List<String> dataList) {
+        long total = 0;
+        if (dataList != null) {
+            for (String data : dataList) {
+                total += lengthOf(data);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 从密码器的算法名称（如SM4/CTR/NoPadding）中取出算法部分，作为加解密流上报指标时的加密器名称
+     *
+     * @param cipher 密码器
+     * @return 算法名称
+     */
+    public static String getCryptorName(Cipher cipher) {
+        String algorithm = cipher.getAlgorithm();
+        int index = algorithm.indexOf('/');
+        return index < 0 ? algorithm : algorithm.substring(0, index);
+    }
+
+    /**
+     * 根据类型名称创建指标实现
+     *
+     * @param type 类型名称，可选值：spi、memory、noop，无法识别时使用spi
+     * @return 指标实现
+     */
+    public static CryptoMetrics createMetrics(String type) {
+        if (METRICS_MEMORY.equalsIgnoreCase(type)) {
+            return new InMemoryCryptoMetrics();
+        } else if (METRICS_NOOP.equalsIgnoreCase(type)) {
+            return NoopCryptoMetrics.INSTANCE;
+        } else if (!METRICS_SPI.equalsIgnoreCase(type)) {
+            log.warn("Unknown crypto metrics type: {}, use {} instead", type, METRICS_SPI);
+        }
+        return loadMetrics();
+    }
+
+    private static CryptoMetrics loadMetrics() {
+        try {
+            ServiceLoader<CryptoMetrics> serviceLoader = ServiceLoader.load(CryptoMetrics.class);
+            if (!serviceLoader.iterator().hasNext()) {
+                serviceLoader = ServiceLoader.load(CryptoMetrics.class, ServiceLoader.class.getClassLoader());
+            }
+            Iterator<CryptoMetrics> iterator = serviceLoader.iterator();
+            if (iterator.hasNext()) {
+                CryptoMetrics cryptoMetrics = iterator.next();
+                log.info("Use CryptoMetrics: {}", cryptoMetrics.getClass().getName());
+                return cryptoMetrics;
+            }
+        } catch (Exception e) {
+            log.error("Exception occurred when find CryptoMetrics", e);
+        }
+        return NoopCryptoMetrics.INSTANCE;
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
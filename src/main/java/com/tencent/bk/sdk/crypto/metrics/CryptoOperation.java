@@ -0,0 +1,63 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.metrics;
+
+/**
+ * 加解密操作类型
+ */
+public enum CryptoOperation {
+    /**
+     * 字节数组、字符串、ByteBuffer加密
+     */
+    ENCRYPT,
+    /**
+     * 字节数组、字符串、ByteBuffer解密
+     */
+    DECRYPT,
+    /**
+     * 批量加密，一次调用记录一次
+     */
+    ENCRYPT_BATCH,
+    /**
+     * 批量解密，一次调用记录一次
+     */
+    DECRYPT_BATCH,
+    /**
+     * 流数据加密
+     */
+    ENCRYPT_STREAM,
+    /**
+     * 流数据解密
+     */
+    DECRYPT_STREAM,
+    /**
+     * 文件加密
+     */
+    ENCRYPT_FILE,
+    /**
+     * 文件解密
+     */
+    DECRYPT_FILE
+}
@@ -0,0 +1,131 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.metrics;
+
+/**
+ * 某个加密器某类操作的指标统计快照，耗时单位均为纳秒
+ */
+public final class CryptoOperationStats {
+
+    private final String cryptorName;
+    private final CryptoOperation operation;
+    /**
+     * 操作次数（含失败）
+     */
+    private final long count;
+    /**
+     * 失败次数
+     */
+    private final long errorCount;
+    /**
+     * 处理的输入数据字节数
+     */
+    private final long bytes;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long p50Nanos;
+    private final long p90Nanos;
+    private final long p99Nanos;
+    private final long p999Nanos;
+
+    CryptoOperationStats(String cryptorName, CryptoOperation operation, long count, long errorCount, long bytes,
+                         LatencyHistogram latency) {
+        this.cryptorName = cryptorName;
+        this.operation = operation;
+        this.count = count;
+        this.errorCount = errorCount;
+        this.bytes = bytes;
+        this.totalNanos = latency.getTotalNanos();
+        this.maxNanos = latency.getMaxNanos();
+        this.p50Nanos = latency.getPercentileNanos(50);
+        this.p90Nanos = latency.getPercentileNanos(90);
+        this.p99Nanos = latency.getPercentileNanos(99);
+        this.p999Nanos = latency.getPercentileNanos(99.9);
+    }
+
+    public String getCryptorName() {
+        return cryptorName;
+    }
+
+    public CryptoOperation getOperation() {
+        return operation;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getMeanNanos() {
+        return count == 0 ? 0 : totalNanos / count;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    public long getP90Nanos() {
+        return p90Nanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    public long getP999Nanos() {
+        return p999Nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "CryptoOperationStats{cryptorName=" + cryptorName
+            + ", operation=" + operation
+            + ", count=" + count
+            + ", errorCount=" + errorCount
+            + ", bytes=" + bytes
+            + ", meanNanos=" + getMeanNanos()
+            + ", p50Nanos=" + p50Nanos
+            + ", p90Nanos=" + p90Nanos
+            + ", p99Nanos=" + p99Nanos
+            + ", p999Nanos=" + p999Nanos
+            + ", maxNanos=" + maxNanos
+            + "}";
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 内置的内存指标实现：按加密器名称与操作类型分别统计操作次数、失败次数、处理字节数与耗时直方图，
+ * 记录过程无锁，可定期通过getStats获取快照并导出到监控系统
+ */
+public class InMemoryCryptoMetrics implements CryptoMetrics {
+
+    private static final CryptoOperation[] OPERATIONS = CryptoOperation.values();
+
+    /**
+     * 加密器名称->按操作类型序号索引的指标
+     */
+    private final Map<String, OperationMetrics[]> metricsByCryptor = new ConcurrentHashMap<>();
+
+    @Override
+    public void record(String cryptorName, CryptoOperation operation, long bytes, long elapsedNanos,
+                       Throwable error) {
+        OperationMetrics[] metrics = metricsByCryptor.get(cryptorName);
+        if (metrics == null) {
+            metrics = metricsByCryptor.computeIfAbsent(cryptorName, name -> newOperationMetrics());
+        }
+        metrics[operation.ordinal()].record(bytes, elapsedNanos, error != null);
+    }
+
+    /**
+     * 获取指定加密器、指定操作的统计快照
+     *
+     * @param cryptorName 加密器名称
+     * @param operation   操作类型
+     * @return 统计快照，没有记录时返回null
+     */
+    public CryptoOperationStats getStats(String cryptorName, CryptoOperation operation) {
+        OperationMetrics[] metrics = metricsByCryptor.get(cryptorName);
+        if (metrics == null) {
+            return null;
+        }
+        return metrics[operation.ordinal()].toStats(cryptorName, operation);
+    }
+
+    /**
+     * 获取全部有记录的统计快照
+     *
+     * @return 统计快照列表
+     */
+    public List<CryptoOperationStats> getStats() {
+        List<CryptoOperationStats> statsList = new ArrayList<>();
+        metricsByCryptor.forEach((cryptorName, metrics) -> {
+            for (CryptoOperation operation : OPERATIONS) {
+                CryptoOperationStats stats = metrics[operation.ordinal()].toStats(cryptorName, operation);
+                if (stats != null) {
+                    statsList.add(stats);
+                }
+            }
+        });
+        return statsList;
+    }
+
+    /**
+     * 清空全部统计数据
+     */
+    public void reset() {
+        metricsByCryptor.clear();
+    }
+
+    private static OperationMetrics[] newOperationMetrics() {
+        OperationMetrics[] metrics = new OperationMetrics[OPERATIONS.length];
+        for (int i = 0; i < metrics.length; i++) {
+            metrics[i] = new OperationMetrics();
+        }
+        return metrics;
+    }
+
+    private static class OperationMetrics {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errorCount = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        void record(long bytes, long elapsedNanos, boolean error) {
+            count.increment();
+            if (error) {
+                errorCount.increment();
+            }
+            this.bytes.add(bytes);
+            latency.record(elapsedNanos);
+        }
+
+        CryptoOperationStats toStats(String cryptorName, CryptoOperation operation) {
+            long count = this.count.sum();
+            if (count == 0) {
+                return null;
+            }
+            return new CryptoOperationStats(cryptorName, operation, count, errorCount.sum(), bytes.sum(), latency);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.util;
+
+import javax.crypto.Cipher;
+import java.io.OutputStream;
+
+/**
+ * 数据写入时，使用AES进行加密
+ * 数据格式与AESUtil.encrypt(String, InputStream, OutputStream)的输出一致：IV + 密文，需调用close结束写入
+ */
+public class AESOutputStream extends CipherOutputStream {
+
+    public AESOutputStream(OutputStream out, String key) {
+        this(out, key, StreamUtils.BUFFER_SIZE);
+    }
+
+    public AESOutputStream(OutputStream out, String key, int size) {
+        super(out, createEncryptCipher(key), size);
+    }
+
+    private static Cipher createEncryptCipher(String key) {
+        return AESUtil.creatCipher(
+            AESUtil.toSecretKey(key),
+            IvUtil.nextIv(CtrCipherUtil.BLOCK_SIZE),
+            Cipher.ENCRYPT_MODE
+        );
+    }
+}
@@ -28,23 +28,52 @@ import com.tencent.bk.sdk.crypto.exception.CryptoException;
 
 import javax.crypto.Cipher;
 import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.NoSuchAlgorithmException;
 import java.security.NoSuchProviderException;
 import java.security.SecureRandom;
+import java.util.Arrays;
 
 /**
  * 对称加密算法AES相关操作工具类
  */
 public class AESUtil extends BasicCipherUtil {
+    /**
+     * 派生密钥缓存最大条目数的系统属性名称
+     */
+    public static final String PROPERTY_KEY_CACHE_MAX_SIZE = "bk.sdk.crypto.aes.keyCache.maxSize";
     /**
      * 加密/解密算法/工作模式/填充方式
      */
-    private static final String CIPHER_ALGORITHM = "AES/CTR/NoPadding";
+    static final String CIPHER_ALGORITHM = "AES/CTR/NoPadding";
+    /**
+     * 密钥算法
+     */
+    private static final String KEY_ALGORITHM = "AES";
+    /**
+     * 派生密钥长度（位）
+     */
+    private static final int KEY_SIZE_BITS = 128;
+    /**
+     * 派生密钥缓存：密钥派生需要构造SHA1PRNG，开销较大且存在同步竞争，相同密钥只需派生一次
+     */
+    private static final DerivedKeyCache keyCache = new DerivedKeyCache(
+        KEY_ALGORITHM,
+        Integer.getInteger(PROPERTY_KEY_CACHE_MAX_SIZE, 128),
+        AESUtil::deriveKey
+    );
 
     /**
      * 加密数据
@@ -60,20 +89,83 @@ public class AESUtil extends BasicCipherUtil {
         if (key == null || key.length == 0) {
             throw new CryptoException("encrypt key is invalid: null or empty");
         }
-        Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM);
-        cipher.init(Cipher.ENCRYPT_MODE, getKeySpec(cipher, key));
+        return encryptWithSecretKey(data, getKeySpec(key));
+    }
 
-        byte[] iv = cipher.getIV();
-        byte[] finalData = cipher.doFinal(data);
-        if (iv == null) {
-            throw new RuntimeException(String.format("CIPHER_ALGORITHM %s is invalid", CIPHER_ALGORITHM));
+    /**
+     * 使用预先派生好的AES密钥加密数据
+     *
+     * @param data      待加密数据
+     * @param secretKey AES密钥，可通过getSecretKey方法由密钥字节数组派生得到
+     * @return byte[] 加密后的数据
+     */
+    public static byte[] encryptWithSecretKey(byte[] data, SecretKey secretKey) throws Exception {
+        if (data == null || data.length == 0) {
+            return data;
+        }
+        if (secretKey == null) {
+            throw new CryptoException("encrypt key is invalid: null");
         }
-        byte[] finalDataWithIv = new byte[finalData.length + iv.length];
-        System.arraycopy(iv, 0, finalDataWithIv, 0, iv.length);
-        System.arraycopy(finalData, 0, finalDataWithIv, iv.length, finalData.length);
+        byte[] finalDataWithIv = new byte[data.length + CtrCipherUtil.BLOCK_SIZE];
+        encrypt(data, 0, data.length, finalDataWithIv, 0, secretKey);
         return finalDataWithIv;
     }
 
+    /**
+     * 使用预先派生好的AES密钥加密数组指定区间的数据，将IV与密文直接写入输出数组
+     * 除IV外不分配与数据等长的中间数组
+     *
+     * @param data         待加密数据
+     * @param offset       待加密数据起始位置
+     * @param length       待加密数据长度
+     * @param output       输出数组，从outputOffset开始的剩余空间不可小于数据长度 + 16字节（IV）
+     * @param outputOffset 输出起始位置
+     * @param secretKey    AES密钥，可通过getSecretKey方法由密钥字节数组派生得到
+     * @return 写入输出数组的字节数
+     */
+    public static int encrypt(byte[] data, int offset, int length, byte[] output, int outputOffset,
+                              SecretKey secretKey) throws Exception {
+        if (secretKey == null) {
+            throw new CryptoException("encrypt key is invalid: null");
+        }
+        if (output.length - outputOffset < length + CtrCipherUtil.BLOCK_SIZE) {
+            throw new ShortBufferException(
+                "Output buffer too small: required=" + (length + CtrCipherUtil.BLOCK_SIZE)
+                    + ", remaining=" + (output.length - outputOffset)
+            );
+        }
+        byte[] iv = getRandomIv();
+        System.arraycopy(iv, 0, output, outputOffset, iv.length);
+        if (CtrCipherUtil.shouldParallelize(length)) {
+            CtrCipherUtil.process(CIPHER_ALGORITHM, null, Cipher.ENCRYPT_MODE, secretKey, iv,
+                data, offset, length, output, outputOffset + iv.length);
+            return length + iv.length;
+        }
+        Cipher cipher = CipherPool.getCipher(CIPHER_ALGORITHM, null);
+        cipher.init(Cipher.ENCRYPT_MODE, secretKey, new IvParameterSpec(iv));
+        return iv.length + cipher.doFinal(data, offset, length, output, outputOffset + iv.length);
+    }
+
+    /**
+     * 使用预先派生好的AES密钥加密输入缓冲区中的数据，将IV与密文直接写入输出缓冲区
+     * 支持直接缓冲区，处理完成后输入缓冲区与输出缓冲区的position均向后移动
+     *
+     * @param src       待加密数据缓冲区，处理position至limit之间的全部数据
+     * @param dst       输出缓冲区，剩余空间不可小于数据长度 + 16字节（IV）
+     * @param secretKey AES密钥，可通过getSecretKey方法由密钥字节数组派生得到
+     */
+    public static void encrypt(ByteBuffer src, ByteBuffer dst, SecretKey secretKey) {
+        if (secretKey == null) {
+            throw new CryptoException("encrypt key is invalid: null");
+        }
+        if (dst.remaining() < src.remaining() + CtrCipherUtil.BLOCK_SIZE) {
+            throw new BufferOverflowException();
+        }
+        byte[] iv = getRandomIv();
+        dst.put(iv);
+        CtrCipherUtil.process(CIPHER_ALGORITHM, null, Cipher.ENCRYPT_MODE, secretKey, iv, src, dst);
+    }
+
     /**
      * 对输入流中的数据加密，并写入到输出流中
      * 注意：该方法不对输入流与输出流做关闭操作，需要外层调用方自行处理
@@ -83,15 +175,56 @@ public class AESUtil extends BasicCipherUtil {
      * @param out 输出流
      */
     public static void encrypt(String key, InputStream in, OutputStream out) throws Exception {
+        encrypt(key, in, out, StreamCryptoOptions.getDefault());
+    }
+
+    /**
+     * 对输入流中的数据加密，并写入到输出流中
+     * 按调优参数使用流数据处理引擎；调优参数启用并行（默认参数启用）且并行CTR可用时，
+     * 读取的数据超过并行阈值后每次读取多个分段并行处理
+     * 注意：该方法不对输入流与输出流做关闭操作，需要外层调用方自行处理
+     *
+     * @param key     密钥
+     * @param in      输入流
+     * @param out     输出流
+     * @param options 流数据处理调优参数
+     */
+    public static void encrypt(String key, InputStream in, OutputStream out, StreamCryptoOptions options)
+        throws Exception {
         byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
-        Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM);
-        cipher.init(Cipher.ENCRYPT_MODE, getKeySpec(cipher, keyBytes));
-        byte[] arr = cipher.getIV();
-        if (arr == null) {
-            throw new RuntimeException(String.format("CIPHER_ALGORITHM %s is invalid", CIPHER_ALGORITHM));
+        if (options.isParallel() && CtrCipherUtil.shouldParallelizeStream()) {
+            byte[] iv = getRandomIv();
+            out.write(iv);
+            CtrCipherUtil.process(
+                CIPHER_ALGORITHM, null, Cipher.ENCRYPT_MODE, getKeySpec(keyBytes), iv, in, out, options
+            );
+            return;
         }
-        out.write(arr);
-        write(in, out, cipher);
+        Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM);
+        byte[] iv = getRandomIv();
+        cipher.init(Cipher.ENCRYPT_MODE, getKeySpec(keyBytes), new IvParameterSpec(iv));
+        out.write(iv);
+        transfer(in, out, cipher, options);
+    }
+
+    /**
+     * 对输入文件通道中当前位置之后的数据加密，并从输出文件通道的当前位置开始写入IV与密文
+     * 使用文件映射缓冲区读写，数据较大时并行处理；注意：该方法不对文件通道做关闭操作，需要外层调用方自行处理
+     *
+     * @param key 密钥
+     * @param in  输入文件通道，需可读
+     * @param out 输出文件通道，需可读写
+     */
+    public static void encryptFile(String key, FileChannel in, FileChannel out) throws IOException {
+        SecretKey secretKey = toSecretKey(key);
+        byte[] iv = getRandomIv();
+        long outPosition = out.position();
+        writeFully(out, ByteBuffer.wrap(iv));
+        long length = in.size() - in.position();
+        CtrCipherUtil.process(CIPHER_ALGORITHM, null, Cipher.ENCRYPT_MODE,
+            secretKey, iv, in, in.position(), length, out, outPosition + iv.length);
+        in.position(in.size());
+        out.position(outPosition + iv.length + length);
     }
 
     /**
@@ -108,12 +241,95 @@ public class AESUtil extends BasicCipherUtil {
         if (key == null || key.length == 0) {
             throw new CryptoException("decrypt key is invalid: null or empty");
         }
-        Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM);
-        cipher.init(Cipher.DECRYPT_MODE, getKeySpec(cipher, key), getIvSpec(cipher, data));
-        byte[] dataWithoutIv = new byte[data.length - cipher.getBlockSize()];
-        System.arraycopy(data, cipher.getBlockSize(), dataWithoutIv,
-            0, data.length - cipher.getBlockSize());
-        return cipher.doFinal(dataWithoutIv);
+        return decryptWithSecretKey(data, getKeySpec(key));
+    }
+
+    /**
+     * 使用预先派生好的AES密钥解密数据
+     *
+     * @param data      待解密数据
+     * @param secretKey AES密钥，可通过getSecretKey方法由密钥字节数组派生得到
+     * @return byte[] 解密后的数据
+     */
+    public static byte[] decryptWithSecretKey(byte[] data, SecretKey secretKey) throws Exception {
+        if (data == null || data.length == 0) {
+            return data;
+        }
+        if (secretKey == null) {
+            throw new CryptoException("decrypt key is invalid: null");
+        }
+        return decryptWithSecretKey(data, 0, data.length, secretKey);
+    }
+
+    /**
+     * 使用预先派生好的AES密钥解密数组指定区间中的数据（首部含IV），不复制密文
+     *
+     * @param data      待解密数据所在的数组
+     * @param offset    待解密数据起始位置
+     * @param length    待解密数据长度
+     * @param secretKey AES密钥，可通过getSecretKey方法由密钥字节数组派生得到
+     * @return byte[] 解密后的数据
+     */
+    public static byte[] decryptWithSecretKey(byte[] data, int offset, int length, SecretKey secretKey)
+        throws Exception {
+        if (length < CtrCipherUtil.BLOCK_SIZE) {
+            throw new CryptoException("Unexpected encrypted data length:" + length);
+        }
+        byte[] finalData = new byte[length - CtrCipherUtil.BLOCK_SIZE];
+        decrypt(data, offset, length, finalData, 0, secretKey);
+        return finalData;
+    }
+
+    /**
+     * 使用预先派生好的AES密钥解密数组指定区间中的数据（首部含IV），将明文直接写入输出数组
+     *
+     * @param data         待解密数据所在的数组
+     * @param offset       待解密数据起始位置
+     * @param length       待解密数据长度
+     * @param output       输出数组，从outputOffset开始的剩余空间不可小于数据长度 - 16字节（IV）
+     * @param outputOffset 输出起始位置
+     * @param secretKey    AES密钥，可通过getSecretKey方法由密钥字节数组派生得到
+     * @return 写入输出数组的字节数
+     */
+    public static int decrypt(byte[] data, int offset, int length, byte[] output, int outputOffset,
+                              SecretKey secretKey) throws Exception {
+        if (secretKey == null) {
+            throw new CryptoException("decrypt key is invalid: null");
+        }
+        if (length < CtrCipherUtil.BLOCK_SIZE) {
+            throw new CryptoException("Unexpected encrypted data length:" + length);
+        }
+        int dataOffset = offset + CtrCipherUtil.BLOCK_SIZE;
+        int dataLength = length - CtrCipherUtil.BLOCK_SIZE;
+        if (CtrCipherUtil.shouldParallelize(dataLength)) {
+            byte[] iv = Arrays.copyOfRange(data, offset, dataOffset);
+            CtrCipherUtil.process(CIPHER_ALGORITHM, null, Cipher.DECRYPT_MODE, secretKey, iv,
+                data, dataOffset, dataLength, output, outputOffset);
+            return dataLength;
+        }
+        Cipher cipher = CipherPool.getCipher(CIPHER_ALGORITHM, null);
+        cipher.init(Cipher.DECRYPT_MODE, secretKey, new IvParameterSpec(data, offset, CtrCipherUtil.BLOCK_SIZE));
+        return cipher.doFinal(data, dataOffset, dataLength, output, outputOffset);
+    }
+
+    /**
+     * 使用预先派生好的AES密钥解密输入缓冲区中的数据（首部含IV），将明文直接写入输出缓冲区
+     * 支持直接缓冲区，处理完成后输入缓冲区与输出缓冲区的position均向后移动
+     *
+     * @param src       待解密数据缓冲区，处理position至limit之间的全部数据
+     * @param dst       输出缓冲区，剩余空间不可小于数据长度 - 16字节（IV）
+     * @param secretKey AES密钥，可通过getSecretKey方法由密钥字节数组派生得到
+     */
+    public static void decrypt(ByteBuffer src, ByteBuffer dst, SecretKey secretKey) {
+        if (secretKey == null) {
+            throw new CryptoException("decrypt key is invalid: null");
+        }
+        if (src.remaining() < CtrCipherUtil.BLOCK_SIZE) {
+            throw new CryptoException("Unexpected encrypted data length:" + src.remaining());
+        }
+        byte[] iv = new byte[CtrCipherUtil.BLOCK_SIZE];
+        src.get(iv);
+        CtrCipherUtil.process(CIPHER_ALGORITHM, null, Cipher.DECRYPT_MODE, secretKey, iv, src, dst);
     }
 
     /**
@@ -125,28 +341,156 @@ public class AESUtil extends BasicCipherUtil {
      * @param out 输出流
      */
     public static void decrypt(String key, InputStream in, OutputStream out) throws Exception {
+        decrypt(key, in, out, StreamCryptoOptions.getDefault());
+    }
+
+    /**
+     * 对输入流中的数据解密，并写入到输出流中
+     * 按调优参数使用流数据处理引擎；调优参数启用并行（默认参数启用）且并行CTR可用时，
+     * 读取的数据超过并行阈值后每次读取多个分段并行处理
+     * 注意：该方法不对输入流与输出流做关闭操作，需要外层调用方自行处理
+     *
+     * @param key     密钥
+     * @param in      输入流
+     * @param out     输出流
+     * @param options 流数据处理调优参数
+     */
+    public static void decrypt(String key, InputStream in, OutputStream out, StreamCryptoOptions options)
+        throws Exception {
         byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
         Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM);
         byte[] iv = new byte[cipher.getBlockSize()];
         if (in.read(iv) < iv.length) {
             throw new RuntimeException();
         }
-        cipher.init(Cipher.DECRYPT_MODE, getKeySpec(cipher, keyBytes), new IvParameterSpec(iv));
-        write(in, out, cipher);
+        if (options.isParallel() && CtrCipherUtil.shouldParallelizeStream()) {
+            CtrCipherUtil.process(
+                CIPHER_ALGORITHM, null, Cipher.DECRYPT_MODE, getKeySpec(keyBytes), iv, in, out, options
+            );
+            return;
+        }
+        cipher.init(Cipher.DECRYPT_MODE, getKeySpec(keyBytes), new IvParameterSpec(iv));
+        transfer(in, out, cipher, options);
     }
 
-    private static IvParameterSpec getIvSpec(Cipher cipher, byte[] data) {
-        byte[] iv = new byte[cipher.getBlockSize()];
-        System.arraycopy(data, 0, iv, 0, iv.length);
-        return new IvParameterSpec(iv);
+    /**
+     * 打开一个可随机访问的解密通道，读取任意位置的明文时只需解密该位置附近的数据
+     * 注意：关闭返回的通道时会同时关闭底层通道
+     *
+     * @param key      密钥
+     * @param channel  密文所在的通道，如FileChannel
+     * @param ivOffset IV在通道中的位置，如AESUtil.encrypt(String, InputStream, OutputStream)输出的数据为0，
+     *                 AESCryptor输出的数据为元数据前缀的长度
+     * @return 明文视图的只读通道
+     */
+    public static SeekableByteChannel openDecryptChannel(String key, SeekableByteChannel channel, long ivOffset) {
+        return new CtrDecryptChannel(channel, ivOffset, CIPHER_ALGORITHM, null, toSecretKey(key));
+    }
+
+    /**
+     * 使用指定的AES密钥和iv数据创建对应mode的密码器
+     *
+     * @param secretKey AES密钥，可通过getSecretKey方法由密钥字节数组派生
+     * @param iv        iv数据
+     * @param mode      密码器工作模式
+     */
+    public static Cipher creatCipher(SecretKey secretKey, byte[] iv, int mode) {
+        try {
+            Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM);
+            cipher.init(mode, secretKey, new IvParameterSpec(iv));
+            return cipher;
+        } catch (Exception e) {
+            throw new CryptoException("Create cipher error", e);
+        }
+    }
+
+    /**
+     * 由密钥字符串派生出实际使用的AES密钥
+     *
+     * @param key 密钥字符串（UTF-8编码）
+     * @return AES密钥
+     */
+    static SecretKey toSecretKey(String key) {
+        try {
+            return getSecretKey(key.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new CryptoException("Fail to derive AES key", e);
+        }
     }
 
-    private static SecretKeySpec getKeySpec(Cipher cipher, byte[] key)
-        throws NoSuchAlgorithmException, NoSuchProviderException {
-        KeyGenerator kgen = KeyGenerator.getInstance("AES");
+    /**
+     * 从输入流中读取IV，iv值在流的头16个字节
+     *
+     * @param in 输入流
+     * @return iv数据
+     */
+    static byte[] readIv(InputStream in) {
+        try {
+            byte[] iv = new byte[CtrCipherUtil.BLOCK_SIZE];
+            if (in.read(iv) < iv.length) {
+                throw new IllegalStateException("Broken iv data.");
+            }
+            return iv;
+        } catch (IOException e) {
+            throw new CryptoException("Create cipher error", e);
+        }
+    }
+
+    private static byte[] getRandomIv() {
+        return IvUtil.nextIv(CtrCipherUtil.BLOCK_SIZE);
+    }
+
+    /**
+     * 对输入文件通道中当前位置之后的数据（IV + 密文）解密，并从输出文件通道的当前位置开始写入明文
+     * 使用文件映射缓冲区读写，数据较大时并行处理；注意：该方法不对文件通道做关闭操作，需要外层调用方自行处理
+     *
+     * @param key 密钥
+     * @param in  输入文件通道，需可读
+     * @param out 输出文件通道，需可读写
+     */
+    public static void decryptFile(String key, FileChannel in, FileChannel out) throws IOException {
+        ByteBuffer ivBuffer = ByteBuffer.allocate(CtrCipherUtil.BLOCK_SIZE);
+        while (ivBuffer.hasRemaining()) {
+            if (in.read(ivBuffer) == -1) {
+                throw new IllegalStateException("Broken iv data.");
+            }
+        }
+        long outPosition = out.position();
+        long length = in.size() - in.position();
+        CtrCipherUtil.process(CIPHER_ALGORITHM, null, Cipher.DECRYPT_MODE,
+            toSecretKey(key), ivBuffer.array(), in, in.position(), length, out, outPosition);
+        in.position(in.size());
+        out.position(outPosition + length);
+    }
+
+    /**
+     * 由密钥字节数组派生出实际使用的AES密钥，可预先派生并复用以避免每次加解密时重复处理密钥
+     *
+     * @param key 密钥字节数组
+     * @return AES密钥
+     */
+    public static SecretKey getSecretKey(byte[] key) throws GeneralSecurityException {
+        if (key == null || key.length == 0) {
+            throw new CryptoException("key is invalid: null or empty");
+        }
+        return getKeySpec(key);
+    }
+
+    private static SecretKeySpec getKeySpec(byte[] key) throws GeneralSecurityException {
+        return keyCache.getKeySpec(key);
+    }
+
+    /**
+     * 使用以密钥为种子的SHA1PRNG随机数生成器派生出实际使用的AES密钥
+     *
+     * @param key 密钥
+     * @return 派生得到的AES密钥
+     */
+    private static byte[] deriveKey(byte[] key) throws NoSuchAlgorithmException, NoSuchProviderException {
+        KeyGenerator kgen = KeyGenerator.getInstance(KEY_ALGORITHM);
         SecureRandom random = SecureRandom.getInstance("SHA1PRNG", "SUN");
         random.setSeed(key);
-        kgen.init(cipher.getBlockSize() * 8, random);
-        return new SecretKeySpec(kgen.generateKey().getEncoded(), "AES");
+        kgen.init(KEY_SIZE_BITS, random);
+        return kgen.generateKey().getEncoded();
     }
 }
@@ -28,11 +28,19 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
 @SuppressWarnings("unused")
 @Slf4j
 public class Base64Util {
+
+    private static final java.util.Base64.Encoder JDK_ENCODER = java.util.Base64.getEncoder();
+    private static final java.util.Base64.Decoder JDK_DECODER = java.util.Base64.getDecoder();
+
     /**
      * BASE64 解码字符串，返回解码后的字符串
      *
@@ -104,4 +112,172 @@ public class Base64Util {
             throw e;
         }
     }
+
+    /**
+     * 使用JDK内置BASE64编码器编码字节数组，与前缀一起写入按最终长度预先分配的缓冲区，只生成一个字符串
+     * 编码结果与encodeContentToStr一致（标准字母表，含填充，不换行）
+     *
+     * @param prefixBytes 前缀字节数组（UTF-8编码）
+     * @param byteContent 要进行编码的字节数组
+     * @return 前缀 + base64编码后的字符串
+     */
+    public static String encodeContentToStrWithPrefix(byte[] prefixBytes, byte[] byteContent) {
+        if (!isAscii(prefixBytes)) {
+            return new String(prefixBytes, StandardCharsets.UTF_8)
+                + new String(JDK_ENCODER.encode(byteContent), StandardCharsets.ISO_8859_1);
+        }
+        int encodedLength = 4 * ((byteContent.length + 2) / 3);
+        byte[] buffer = new byte[prefixBytes.length + encodedLength];
+        // 编码器只能从缓冲区起始位置写入，编码后整体后移为前缀腾出空间
+        int n = JDK_ENCODER.encode(byteContent, buffer);
+        System.arraycopy(buffer, 0, buffer, prefixBytes.length, n);
+        System.arraycopy(prefixBytes, 0, buffer, 0, prefixBytes.length);
+        return new String(buffer, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * 移除可能存在的前缀后BASE64解码，返回解码后的字节数组
+     * 优先在原字符串字节上使用JDK内置解码器直接解码，内容不符合标准格式（如含换行、URL安全字母表）时回退为宽松解码
+     *
+     * @param prefixBytes 前缀字节数组（UTF-8编码），字符串不以该前缀开头时忽略
+     * @param content     带前缀的base64编码后的字符串
+     * @return 解码后的字节数组
+     */
+    public static byte[] decodeContentWithPrefixToByte(byte[] prefixBytes, String content) {
+        byte[] contentBytes = content.getBytes(StandardCharsets.ISO_8859_1);
+        int offset = startsWith(contentBytes, prefixBytes) ? prefixBytes.length : 0;
+        try {
+            return decodeWithJdkDecoder(contentBytes, offset);
+        } catch (IllegalArgumentException e) {
+            return decodeContentToByte(
+                StringUtils.removeStart(content, new String(prefixBytes, StandardCharsets.UTF_8))
+            );
+        }
+    }
+
+    /**
+     * BASE64解码字符串中从指定位置开始的内容，供已知前缀长度的调用方跳过前缀，不生成子字符串
+     * 优先使用JDK内置解码器直接解码，内容不符合标准格式时回退为宽松解码
+     *
+     * @param content 带前缀的base64编码后的字符串
+     * @param offset  base64编码内容在字符串中的起始位置（字符数）
+     * @return 解码后的字节数组
+     */
+    public static byte[] decodeContentToByte(String content, int offset) {
+        // ISO_8859_1编码中每个字符对应一个字节，字符位置与字节位置一致
+        byte[] contentBytes = content.getBytes(StandardCharsets.ISO_8859_1);
+        try {
+            return decodeWithJdkDecoder(contentBytes, offset);
+        } catch (IllegalArgumentException e) {
+            return decodeContentToByte(content.substring(offset));
+        }
+    }
+
+    /**
+     * 包装base64文本输入流，返回边读取边解码的输入流
+     * 只忽略文本中的换行符（CR/LF），其他非base64字符在读取时抛出IOException，不会被静默丢弃
+     *
+     * @param in base64文本输入流
+     * @return 解码后的数据输入流，关闭时同时关闭原输入流
+     */
+    public static InputStream wrapDecodingStream(InputStream in) {
+        return JDK_DECODER.wrap(new LineBreakSkippingInputStream(in));
+    }
+
+    private static byte[] decodeWithJdkDecoder(byte[] contentBytes, int offset) {
+        ByteBuffer decoded = JDK_DECODER.decode(
+            ByteBuffer.wrap(contentBytes, offset, contentBytes.length - offset)
+        );
+        if (decoded.arrayOffset() == 0 && decoded.remaining() == decoded.array().length) {
+            return decoded.array();
+        }
+        byte[] result = new byte[decoded.remaining()];
+        decoded.get(result);
+        return result;
+    }
+
+    private static boolean isAscii(byte[] bytes) {
+        for (byte b : bytes) {
+            if (b < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean startsWith(byte[] bytes, byte[] prefixBytes) {
+        if (prefixBytes.length == 0 || bytes.length < prefixBytes.length || !isAscii(prefixBytes)) {
+            return false;
+        }
+        for (int i = 0; i < prefixBytes.length; i++) {
+            if (bytes[i] != prefixBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 读取时跳过换行符（CR/LF）的输入流
+     */
+    private static class LineBreakSkippingInputStream extends FilterInputStream {
+
+        LineBreakSkippingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b;
+            do {
+                b = in.read();
+            } while (b == '\r' || b == '\n');
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            int n;
+            do {
+                n = in.read(b, off, len);
+                if (n == -1) {
+                    return -1;
+                }
+                n = removeLineBreaks(b, off, n);
+            } while (n == 0);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = 0;
+            while (skipped < n && read() != -1) {
+                skipped++;
+            }
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return 0;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private static int removeLineBreaks(byte[] b, int off, int len) {
+            int pos = off;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] != '\r' && b[i] != '\n') {
+                    b[pos++] = b[i];
+                }
+            }
+            return pos - off;
+        }
+    }
 }
@@ -25,26 +25,259 @@
 package com.tencent.bk.sdk.crypto.util;
 
 import javax.crypto.Cipher;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 基础加解密操作工具类
  */
 public class BasicCipherUtil {
 
+    /**
+     * 从输入流读取数据，经密码器处理后写入输出流，使用默认调优参数
+     * 注意：该方法不对输入流与输出流做关闭操作，需要外层调用方自行处理
+     *
+     * @param in     输入流
+     * @param out    输出流
+     * @param cipher 已初始化的密码器
+     */
     protected static void write(InputStream in, OutputStream out, Cipher cipher) throws Exception {
-        byte[] iBuffer = new byte[1024];
-        int len;
-        while ((len = in.read(iBuffer)) != -1) {
-            byte[] oBuffer = cipher.update(iBuffer, 0, len);
-            if (oBuffer != null) {
-                out.write(oBuffer);
+        transfer(in, out, cipher, StreamCryptoOptions.getDefault());
+    }
+
+    /**
+     * 流数据处理引擎：从输入流读取数据，经密码器处理后写入输出流，输入流结束后结束密码器
+     * 读取缓冲区按调优参数自适应调整大小，密码器输出写入可复用的输出缓冲区，缓冲区均从BufferPool获取并在结束时归还
+     * 注意：该方法不对输入流与输出流做关闭操作，需要外层调用方自行处理
+     *
+     * @param in      输入流
+     * @param out     输出流
+     * @param cipher  已初始化的密码器，为null时原样拷贝数据
+     * @param options 调优参数
+     * @return 从输入流读取的字节数
+     */
+    public static long transfer(InputStream in,
+                                OutputStream out,
+                                Cipher cipher,
+                                StreamCryptoOptions options) throws IOException, GeneralSecurityException {
+        CipherWriter writer = new CipherWriter(out, cipher, options.getInitialBufferSize());
+        try {
+            long total = options.isReadAhead() ? transferWithReadAhead(in, writer, options) :
+                transferSequentially(in, writer, options);
+            writer.finish();
+            return total;
+        } finally {
+            writer.release();
+        }
+    }
+
+    private static long transferSequentially(InputStream in,
+                                             CipherWriter writer,
+                                             StreamCryptoOptions options)
+        throws IOException, GeneralSecurityException {
+        byte[] buffer = BufferPool.acquire(options.getInitialBufferSize());
+        try {
+            long total = 0;
+            int len;
+            while ((len = in.read(buffer)) != -1) {
+                writer.write(buffer, len);
+                total += len;
+                if (len == buffer.length && buffer.length < options.getMaxBufferSize()) {
+                    byte[] larger = BufferPool.acquire(nextBufferSize(len, options));
+                    BufferPool.releaseAndClear(buffer);
+                    buffer = larger;
+                }
+            }
+            return total;
+        } finally {
+            BufferPool.releaseAndClear(buffer);
+        }
+    }
+
+    /**
+     * 双缓冲：后台线程读取下一块数据的同时，当前线程处理并写出上一块数据
+     * 预读线程已全部占用时改为在当前线程顺序读取下一块数据
+     */
+    private static long transferWithReadAhead(InputStream in,
+                                              CipherWriter writer,
+                                              StreamCryptoOptions options)
+        throws IOException, GeneralSecurityException {
+        byte[] current = BufferPool.acquire(options.getInitialBufferSize());
+        byte[] next = null;
+        try {
+            next = BufferPool.acquire(options.getInitialBufferSize());
+            int len = in.read(current);
+            long total = 0;
+            while (len != -1) {
+                if (len == current.length && next.length < options.getMaxBufferSize()) {
+                    byte[] larger = BufferPool.acquire(nextBufferSize(len, options));
+                    BufferPool.releaseAndClear(next);
+                    next = larger;
+                }
+                byte[] readBuffer = next;
+                Future<Integer> nextRead = ReadAheadExecutor.trySubmit(in, readBuffer);
+                if (nextRead == null) {
+                    writer.write(current, len);
+                    total += len;
+                    len = in.read(readBuffer);
+                    next = current;
+                    current = readBuffer;
+                    continue;
+                }
+                try {
+                    writer.write(current, len);
+                } catch (IOException | GeneralSecurityException | RuntimeException e) {
+                    // 出错时也等待后台读取结束，保证返回后输入流不再被其他线程访问、缓冲区可以安全归还
+                    try {
+                        awaitRead(nextRead);
+                    } catch (IOException suppressed) {
+                        e.addSuppressed(suppressed);
+                    }
+                    throw e;
+                }
+                total += len;
+                len = awaitRead(nextRead);
+                next = current;
+                current = readBuffer;
+            }
+            return total;
+        } finally {
+            BufferPool.releaseAndClear(current);
+            BufferPool.releaseAndClear(next);
+        }
+    }
+
+    private static int nextBufferSize(int size, StreamCryptoOptions options) {
+        return (int) Math.min((long) size * 2, options.getMaxBufferSize());
+    }
+
+    /**
+     * 等待后台读取结束，等待期间不响应中断（结束后恢复中断状态），保证返回后读取缓冲区不再被后台线程写入
+     */
+    private static int awaitRead(Future<Integer> read) throws IOException {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return read.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof IOException) {
+                        throw (IOException) cause;
+                    }
+                    throw new IOException("Fail to read ahead", cause);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    protected static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * 将数据经密码器处理后写入输出流，密码器输出写入可复用的输出缓冲区
+     */
+    private static class CipherWriter {
+        private final OutputStream out;
+        private final Cipher cipher;
+        private byte[] outputBuffer;
+
+        CipherWriter(OutputStream out, Cipher cipher, int bufferSize) {
+            this.out = out;
+            this.cipher = cipher;
+            this.outputBuffer = cipher == null ? null :
+                BufferPool.acquire(Math.max(cipher.getOutputSize(bufferSize), 1));
+        }
+
+        void write(byte[] buffer, int len) throws IOException, GeneralSecurityException {
+            if (cipher == null) {
+                out.write(buffer, 0, len);
+                return;
+            }
+            ensureCapacity(len);
+            int n = cipher.update(buffer, 0, len, outputBuffer, 0);
+            if (n > 0) {
+                out.write(outputBuffer, 0, n);
             }
         }
-        byte[] oBuffer = cipher.doFinal();
-        if (oBuffer != null) {
-            out.write(oBuffer);
+
+        void finish() throws IOException, GeneralSecurityException {
+            if (cipher == null) {
+                return;
+            }
+            ensureCapacity(0);
+            int n = cipher.doFinal(outputBuffer, 0);
+            if (n > 0) {
+                out.write(outputBuffer, 0, n);
+            }
+        }
+
+        void release() {
+            BufferPool.releaseAndClear(outputBuffer);
+            outputBuffer = null;
+        }
+
+        private void ensureCapacity(int inputLength) {
+            int outputSize = cipher.getOutputSize(inputLength);
+            if (outputSize > outputBuffer.length) {
+                byte[] larger = BufferPool.acquire(outputSize);
+                BufferPool.releaseAndClear(outputBuffer);
+                outputBuffer = larger;
+            }
+        }
+    }
+
+    /**
+     * 预读使用的后台线程，线程数上限由系统属性bk.sdk.crypto.stream.readAheadThreads确定，空闲时回收
+     */
+    private static class ReadAheadExecutor {
+        static final ExecutorService INSTANCE = createExecutor();
+
+        private static ExecutorService createExecutor() {
+            int threads = Math.max(Integer.getInteger(StreamCryptoOptions.PROPERTY_READ_AHEAD_THREADS,
+                Runtime.getRuntime().availableProcessors()), 1);
+            AtomicInteger threadSeq = new AtomicInteger();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bk-crypto-stream-read-ahead-" + threadSeq.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+
+        /**
+         * 提交预读任务，没有空闲线程时返回null
+         */
+        static Future<Integer> trySubmit(InputStream in, byte[] buffer) {
+            try {
+                return INSTANCE.submit(() -> in.read(buffer));
+            } catch (RejectedExecutionException e) {
+                return null;
+            }
         }
     }
 }
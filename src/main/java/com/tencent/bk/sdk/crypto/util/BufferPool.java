@@ -0,0 +1,329 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.util;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * 字节缓冲区池：流数据加解密使用的读写缓冲区从池中获取、用完后归还，避免大量并发流操作时频繁分配大数组
+ * 缓冲区按2的幂划分大小等级（512字节~4MB），获取时向上取整到所在等级，超过最大等级的缓冲区不入池；
+ * 池中缓存的缓冲区总字节数有上限，超过上限时归还的缓冲区直接丢弃；支持堆内数组与直接缓冲区（堆外）两种缓冲区
+ * 开启泄漏检测后记录每个未归还缓冲区的获取位置，用于测试中检查是否所有缓冲区都已归还，并检查已入池的缓冲区是否被重复归还
+ * 注意：缓冲区归还后调用方不可再使用，同一缓冲区不可重复归还；获取的缓冲区内容未清零，可能残留上一个使用者的数据，
+ * 存放过明文的缓冲区须通过releaseAndClear清零后归还，避免明文经由池泄露给其他调用方
+ */
+public class BufferPool {
+
+    /**
+     * 是否启用缓冲区池的系统属性名称，默认启用
+     */
+    public static final String PROPERTY_ENABLED = "bk.sdk.crypto.bufferPool.enabled";
+    /**
+     * 池中最多缓存的缓冲区总字节数（堆内与直接缓冲区合计）的系统属性名称，默认64MB
+     */
+    public static final String PROPERTY_MAX_POOLED_BYTES = "bk.sdk.crypto.bufferPool.maxPooledBytes";
+    /**
+     * 是否开启泄漏检测的系统属性名称，默认关闭
+     */
+    public static final String PROPERTY_LEAK_DETECTION = "bk.sdk.crypto.bufferPool.leakDetection";
+
+    private static final int MIN_SIZE_SHIFT = 9;
+    private static final int MAX_SIZE_SHIFT = 22;
+    private static final long DEFAULT_MAX_POOLED_BYTES = 64L * 1024 * 1024;
+
+    private static volatile boolean enabled = Boolean.parseBoolean(System.getProperty(PROPERTY_ENABLED, "true"));
+
+    private static volatile boolean leakDetectionEnabled = Boolean.getBoolean(PROPERTY_LEAK_DETECTION);
+
+    private static final long maxPooledBytes = Long.getLong(PROPERTY_MAX_POOLED_BYTES, DEFAULT_MAX_POOLED_BYTES);
+
+    private static final AtomicLong pooledBytes = new AtomicLong();
+    private static final LongAdder acquiredCount = new LongAdder();
+    private static final LongAdder releasedCount = new LongAdder();
+    private static final LongAdder hitCount = new LongAdder();
+    private static final LongAdder discardedCount = new LongAdder();
+
+    /**
+     * 泄漏检测开启时记录未归还的缓冲区及其获取位置
+     */
+    private static final Map<Object, Throwable> outstandingBuffers =
+        Collections.synchronizedMap(new IdentityHashMap<>());
+
+    /**
+     * 泄漏检测开启时记录已归还且缓存在池中的缓冲区，用于发现重复归还
+     */
+    private static final Set<Object> pooledBuffers =
+        Collections.newSetFromMap(Collections.synchronizedMap(new IdentityHashMap<>()));
+
+    private static final SizeClassPool<byte[]> heapPool = new SizeClassPool<>(byte[]::new, buffer -> buffer.length);
+
+    private static final SizeClassPool<ByteBuffer> directPool =
+        new SizeClassPool<>(ByteBuffer::allocateDirect, ByteBuffer::capacity);
+
+    /**
+     * 获取堆内字节数组
+     *
+     * @param minSize 最小长度
+     * @return 长度不小于minSize的字节数组，内容未清零
+     */
+    public static byte[] acquire(int minSize) {
+        return track(heapPool.acquire(minSize));
+    }
+
+    /**
+     * 归还由acquire获取的字节数组
+     *
+     * @param buffer 字节数组，为null时忽略
+     */
+    public static void release(byte[] buffer) {
+        if (buffer != null) {
+            untrack(buffer);
+            if (!heapPool.release(buffer) && leakDetectionEnabled) {
+                pooledBuffers.remove(buffer);
+            }
+        }
+    }
+
+    /**
+     * 将字节数组清零后归还，用于存放过明文等敏感数据的缓冲区
+     *
+     * @param buffer 由acquire获取的字节数组，为null时忽略
+     */
+    public static void releaseAndClear(byte[] buffer) {
+        if (buffer != null) {
+            Arrays.fill(buffer, (byte) 0);
+            release(buffer);
+        }
+    }
+
+    /**
+     * 获取直接缓冲区（堆外内存）
+     *
+     * @param minSize 最小容量
+     * @return 容量不小于minSize的直接缓冲区，position为0，limit为容量，内容未清零
+     */
+    public static ByteBuffer acquireDirect(int minSize) {
+        ByteBuffer buffer = directPool.acquire(minSize);
+        buffer.clear();
+        return track(buffer);
+    }
+
+    /**
+     * 归还由acquireDirect获取的直接缓冲区
+     *
+     * @param buffer 直接缓冲区，为null时忽略
+     */
+    public static void releaseDirect(ByteBuffer buffer) {
+        if (buffer != null) {
+            untrack(buffer);
+            if (!directPool.release(buffer) && leakDetectionEnabled) {
+                pooledBuffers.remove(buffer);
+            }
+        }
+    }
+
+    /**
+     * 缓冲区池是否启用
+     *
+     * @return 是否启用
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 启用或关闭缓冲区池，关闭后每次均分配新的缓冲区，归还的缓冲区直接丢弃
+     *
+     * @param enabled 是否启用
+     */
+    public static void setEnabled(boolean enabled) {
+        BufferPool.enabled = enabled;
+    }
+
+    /**
+     * 开启或关闭泄漏检测，开启后记录每个未归还缓冲区的获取位置，会降低性能，仅用于测试与排查问题
+     * 切换时清空已有记录，因此开启前获取的缓冲区不参与检测
+     *
+     * @param enabled 是否开启
+     */
+    public static void setLeakDetectionEnabled(boolean enabled) {
+        outstandingBuffers.clear();
+        pooledBuffers.clear();
+        BufferPool.leakDetectionEnabled = enabled;
+    }
+
+    /**
+     * 获取开启泄漏检测后所有未归还缓冲区的获取位置
+     *
+     * @return 每个未归还缓冲区获取时的调用栈，未开启泄漏检测时返回空列表
+     */
+    public static List<Throwable> getLeakedBufferTraces() {
+        synchronized (outstandingBuffers) {
+            return new ArrayList<>(outstandingBuffers.values());
+        }
+    }
+
+    /**
+     * 获取当前运行统计快照
+     *
+     * @return 统计数据
+     */
+    public static BufferPoolStats getStats() {
+        long acquired = acquiredCount.sum();
+        long released = releasedCount.sum();
+        return new BufferPoolStats(
+            acquired,
+            released,
+            acquired - released,
+            hitCount.sum(),
+            discardedCount.sum(),
+            heapPool.pooledCount(),
+            directPool.pooledCount(),
+            pooledBytes.get()
+        );
+    }
+
+    /**
+     * 清空池中缓存的缓冲区
+     */
+    public static void clear() {
+        heapPool.clear();
+        directPool.clear();
+        pooledBuffers.clear();
+    }
+
+    private static <T> T track(T buffer) {
+        acquiredCount.increment();
+        if (leakDetectionEnabled) {
+            pooledBuffers.remove(buffer);
+            outstandingBuffers.put(buffer, new Throwable("Buffer acquired here"));
+        }
+        return buffer;
+    }
+
+    private static void untrack(Object buffer) {
+        if (leakDetectionEnabled) {
+            if (pooledBuffers.contains(buffer)) {
+                throw new IllegalStateException("Buffer is released twice");
+            }
+            outstandingBuffers.remove(buffer);
+            // 入池前先记录，避免入池后被其他线程立即获取时记录顺序错乱
+            pooledBuffers.add(buffer);
+        }
+        releasedCount.increment();
+    }
+
+    /**
+     * 计算大小等级，超过最大等级时返回-1
+     */
+    private static int sizeClass(int size) {
+        int shift = Math.max(MIN_SIZE_SHIFT, 32 - Integer.numberOfLeadingZeros(size - 1));
+        return shift > MAX_SIZE_SHIFT ? -1 : shift - MIN_SIZE_SHIFT;
+    }
+
+    /**
+     * 按大小等级缓存同一种缓冲区
+     */
+    private static class SizeClassPool<T> {
+        private final IntFunction<T> allocator;
+        private final ToIntFunction<T> capacity;
+        private final List<Queue<T>> queues = new ArrayList<>();
+
+        SizeClassPool(IntFunction<T> allocator, ToIntFunction<T> capacity) {
+            this.allocator = allocator;
+            this.capacity = capacity;
+            for (int shift = MIN_SIZE_SHIFT; shift <= MAX_SIZE_SHIFT; shift++) {
+                queues.add(new ConcurrentLinkedQueue<>());
+            }
+        }
+
+        T acquire(int minSize) {
+            if (minSize < 0) {
+                throw new IllegalArgumentException("negative buffer size: " + minSize);
+            }
+            int sizeClass = sizeClass(Math.max(minSize, 1));
+            if (!enabled || sizeClass < 0) {
+                return allocator.apply(minSize);
+            }
+            T buffer = queues.get(sizeClass).poll();
+            if (buffer != null) {
+                pooledBytes.addAndGet(-capacity.applyAsInt(buffer));
+                hitCount.increment();
+                return buffer;
+            }
+            return allocator.apply(1 << (sizeClass + MIN_SIZE_SHIFT));
+        }
+
+        /**
+         * @return 缓冲区是否已缓存到池中
+         */
+        boolean release(T buffer) {
+            int size = capacity.applyAsInt(buffer);
+            int sizeClass = size > 0 ? sizeClass(size) : -1;
+            // 只缓存恰好为某个大小等级的缓冲区
+            if (!enabled || sizeClass < 0 || size != 1 << (sizeClass + MIN_SIZE_SHIFT)) {
+                discardedCount.increment();
+                return false;
+            }
+            if (pooledBytes.addAndGet(size) > maxPooledBytes) {
+                pooledBytes.addAndGet(-size);
+                discardedCount.increment();
+                return false;
+            }
+            queues.get(sizeClass).offer(buffer);
+            return true;
+        }
+
+        int pooledCount() {
+            int count = 0;
+            for (Queue<T> queue : queues) {
+                count += queue.size();
+            }
+            return count;
+        }
+
+        void clear() {
+            for (Queue<T> queue : queues) {
+                T buffer;
+                while ((buffer = queue.poll()) != null) {
+                    pooledBytes.addAndGet(-capacity.applyAsInt(buffer));
+                }
+            }
+        }
+    }
+}
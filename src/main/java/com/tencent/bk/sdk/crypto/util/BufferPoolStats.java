@@ -0,0 +1,121 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.util;
+
+/**
+ * 字节缓冲区池的运行统计快照
+ */
+public final class BufferPoolStats {
+
+    /**
+     * 累计获取的缓冲区数量
+     */
+    private final long acquiredCount;
+    /**
+     * 累计归还的缓冲区数量
+     */
+    private final long releasedCount;
+    /**
+     * 已获取未归还的缓冲区数量，长期增长说明存在未关闭的流等泄漏
+     */
+    private final long outstandingCount;
+    /**
+     * 从池中复用的次数
+     */
+    private final long hitCount;
+    /**
+     * 归还时因池已满、大小不属于任何等级或池未启用而丢弃的次数
+     */
+    private final long discardedCount;
+    /**
+     * 池中缓存的堆内数组数量
+     */
+    private final int pooledHeapBuffers;
+    /**
+     * 池中缓存的直接缓冲区数量
+     */
+    private final int pooledDirectBuffers;
+    /**
+     * 池中缓存的缓冲区总字节数
+     */
+    private final long pooledBytes;
+
+    BufferPoolStats(long acquiredCount, long releasedCount, long outstandingCount, long hitCount,
+                    long discardedCount, int pooledHeapBuffers, int pooledDirectBuffers, long pooledBytes) {
+        this.acquiredCount = acquiredCount;
+        this.releasedCount = releasedCount;
+        this.outstandingCount = outstandingCount;
+        this.hitCount = hitCount;
+        this.discardedCount = discardedCount;
+        this.pooledHeapBuffers = pooledHeapBuffers;
+        this.pooledDirectBuffers = pooledDirectBuffers;
+        this.pooledBytes = pooledBytes;
+    }
+
+    public long getAcquiredCount() {
+        return acquiredCount;
+    }
+
+    public long getReleasedCount() {
+        return releasedCount;
+    }
+
+    public long getOutstandingCount() {
+        return outstandingCount;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getDiscardedCount() {
+        return discardedCount;
+    }
+
+    public int getPooledHeapBuffers() {
+        return pooledHeapBuffers;
+    }
+
+    public int getPooledDirectBuffers() {
+        return pooledDirectBuffers;
+    }
+
+    public long getPooledBytes() {
+        return pooledBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "BufferPoolStats{acquiredCount=" + acquiredCount
+            + ", releasedCount=" + releasedCount
+            + ", outstandingCount=" + outstandingCount
+            + ", hitCount=" + hitCount
+            + ", discardedCount=" + discardedCount
+            + ", pooledHeapBuffers=" + pooledHeapBuffers
+            + ", pooledDirectBuffers=" + pooledDirectBuffers
+            + ", pooledBytes=" + pooledBytes
+            + "}";
+    }
+}
@@ -1,14 +1,21 @@
 package com.tencent.bk.sdk.crypto.util;
 
+import com.tencent.bk.sdk.crypto.metrics.CryptoMetricsUtil;
+import com.tencent.bk.sdk.crypto.metrics.CryptoOperation;
+
 import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
 import javax.crypto.IllegalBlockSizeException;
+import javax.crypto.ShortBufferException;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 
 /**
  * 读取Cipher处理过的数据，将其转换成明文。
+ * 密文读取缓冲区与明文缓冲区在创建时从BufferPool获取并重复使用，读取过程中不再分配新的数组，关闭流时归还。
+ * 启用指标统计时，关闭流时按DECRYPT_STREAM记录一次指标，耗时为密码器累计处理时间，不含读取输入流的时间。
  */
 public class CipherInputStream extends FilterInputStream {
     /**
@@ -22,7 +29,7 @@ public class CipherInputStream extends FilterInputStream {
     protected byte[] buf;
 
     /**
-     * 明文数据
+     * 明文数据缓冲区，重复使用，有效数据为[plainDataPos, plainDataLimit)
      */
     protected byte[] plainData;
 
@@ -31,18 +38,53 @@ public class CipherInputStream extends FilterInputStream {
      */
     protected int plainDataPos = 0;
 
+    /**
+     * 明文数据有效长度
+     */
+    protected int plainDataLimit = 0;
+
     // this flag is set to true after EOF has reached
     private boolean reachEOF = false;
 
 
     private boolean closed = false;
 
+    /**
+     * 创建流时是否启用了指标统计
+     */
+    private final boolean metricsEnabled = CryptoMetricsUtil.isEnabled();
+
+    /**
+     * 密码器已处理的密文长度
+     */
+    private long cipherBytes = 0;
+
+    /**
+     * 密码器累计处理时间（纳秒），仅在启用指标统计时累计
+     */
+    private long cipherNanos = 0;
+
+    /**
+     * 密码器处理失败时的异常
+     */
+    private Throwable cipherError;
+
     private void ensureOpen() throws IOException {
         if (closed) {
             throw new IOException("Stream closed");
         }
     }
 
+    /**
+     * 创建一个使用了指定密码器和默认缓冲区大小（StreamUtils.BUFFER_SIZE）的流
+     *
+     * @param in     输入流
+     * @param cipher 密码器
+     */
+    public CipherInputStream(InputStream in, Cipher cipher) {
+        this(in, cipher, StreamUtils.BUFFER_SIZE);
+    }
+
     /**
      * 创建一个使用了指定密码器和缓冲区大小的流
      *
@@ -57,18 +99,18 @@ public class CipherInputStream extends FilterInputStream {
         } else if (size <= 0) {
             throw new IllegalArgumentException("buffer size <= 0");
         }
-        buf = new byte[size];
         this.cipher = cipher;
+        buf = BufferPool.acquire(size);
+        plainData = BufferPool.acquire(Math.max(cipher.getOutputSize(buf.length), buf.length));
     }
 
-    /**
-     * 单字节缓冲区
-     */
-    private byte[] singleByteBuf = new byte[1];
-
     @Override
     public int read() throws IOException {
-        return read(singleByteBuf, 0, 1) == -1 ? -1 : Byte.toUnsignedInt(singleByteBuf[0]);
+        ensureOpen();
+        if (readableSize() == 0 && fill() == -1) {
+            return -1;
+        }
+        return Byte.toUnsignedInt(plainData[plainDataPos++]);
     }
 
     @Override
@@ -81,92 +123,125 @@ public class CipherInputStream extends FilterInputStream {
         } else if (len == 0) {
             return 0;
         }
-        if (readableSize() == 0 && fill() == -1) {
-            return -1;
+        int read = 0;
+        while (read < len) {
+            if (readableSize() == 0 && fill() == -1) {
+                return read == 0 ? -1 : read;
+            }
+            int size = Math.min(readableSize(), len - read);
+            System.arraycopy(plainData, plainDataPos, b, off + read, size);
+            plainDataPos += size;
+            read += size;
         }
-        if (readableSize() < len) {
-            int read = 0;
-            do {
-                int rz = readableSize();
-                int size = Math.min(rz, b.length - off);
-                System.arraycopy(plainData, plainDataPos, b, off, size);
-                plainDataPos += size;
-                off += rz;
-                read += rz;
-                if (readableSize() <= 0 && fill() == -1) {
-                    return read;
-                }
-            } while (read < len);
-        } else {
-            System.arraycopy(plainData, plainDataPos, b, off, len);
-            plainDataPos += len;
+        return read;
+    }
+
+    /**
+     * 将剩余的全部明文写入输出流，直接从明文缓冲区写出，不经过调用方的中间数组
+     * 注意：该方法不关闭输出流
+     *
+     * @param out 输出流
+     * @return 写入的字节数
+     */
+    public long transferTo(OutputStream out) throws IOException {
+        ensureOpen();
+        long transferred = 0;
+        while (readableSize() > 0 || fill() != -1) {
+            int size = readableSize();
+            out.write(plainData, plainDataPos, size);
+            plainDataPos += size;
+            transferred += size;
         }
-        return len;
+        return transferred;
     }
 
     /**
      * 当前可读数据大小
      */
-    private int readableSize() {
-        if (plainData == null) {
-            return 0;
-        }
-        return plainData.length - plainDataPos;
+    protected int readableSize() {
+        return plainDataLimit - plainDataPos;
+    }
+
+    /**
+     * 丢弃已解密但未读取的明文数据
+     */
+    protected void discardPlainData() {
+        plainDataPos = 0;
+        plainDataLimit = 0;
     }
 
     /**
      * 填充数据
-     * 解密更多的数据，填充到明文数据
+     * 解密更多的数据，填充到明文数据缓冲区，直到得到数据或到达输入流末尾
+     *
+     * @return 填充的明文长度，到达末尾且无剩余数据时返回-1
      */
     private int fill() throws IOException {
-        int read = in.read(buf);
-        int updated = -1;
-        if (read == -1) {
+        plainDataPos = 0;
+        plainDataLimit = 0;
+        while (!reachEOF) {
+            int read = in.read(buf);
+            long start = metricsEnabled ? System.nanoTime() : 0L;
             try {
-                plainData = cipher.doFinal();
-            } catch (IllegalBlockSizeException | BadPaddingException e) {
+                if (read == -1) {
+                    reachEOF = true;
+                    ensurePlainDataCapacity(0);
+                    plainDataLimit = cipher.doFinal(plainData, 0);
+                } else {
+                    ensurePlainDataCapacity(read);
+                    plainDataLimit = cipher.update(buf, 0, read, plainData, 0);
+                    cipherBytes += read;
+                }
+            } catch (IllegalBlockSizeException | BadPaddingException | ShortBufferException e) {
+                cipherError = e;
                 throw new IllegalStateException(e);
+            } finally {
+                if (metricsEnabled) {
+                    cipherNanos += System.nanoTime() - start;
+                }
+            }
+            if (plainDataLimit > 0) {
+                return plainDataLimit;
             }
-        } else {
-            plainData = cipher.update(buf, 0, read);
         }
-        if (plainData != null && plainData.length > 0) {
-            updated = plainData.length;
+        return -1;
+    }
+
+    /**
+     * 带填充的工作模式下密码器内部可能缓存了部分分组，输出长度可能超过输入长度，此时扩大明文缓冲区
+     */
+    private void ensurePlainDataCapacity(int inputLength) {
+        int outputSize = cipher.getOutputSize(inputLength);
+        if (outputSize > plainData.length) {
+            byte[] larger = BufferPool.acquire(outputSize);
+            BufferPool.releaseAndClear(plainData);
+            plainData = larger;
         }
-        plainDataPos = 0;
-        return updated;
     }
 
+    /**
+     * 当前已解密未读取的明文长度，不会阻塞
+     */
     @Override
     public int available() throws IOException {
         ensureOpen();
-        if (reachEOF) {
-            return 0;
-        } else {
-            return 1;
-        }
+        return readableSize();
     }
 
-    private byte[] b = new byte[512];
-
     @Override
     public long skip(long n) throws IOException {
+        ensureOpen();
         if (n < 0) {
             throw new IllegalArgumentException("negative skip length");
         }
-        int max = (int) Math.min(n, Integer.MAX_VALUE);
-        int total = 0;
-        while (total < max) {
-            int len = max - total;
-            if (len > b.length) {
-                len = b.length;
-            }
-            len = read(b, 0, len);
-            if (len == -1) {
-                reachEOF = true;
+        long total = 0;
+        while (total < n) {
+            if (readableSize() == 0 && fill() == -1) {
                 break;
             }
-            total += len;
+            int size = (int) Math.min(readableSize(), n - total);
+            plainDataPos += size;
+            total += size;
         }
         return total;
     }
@@ -174,8 +249,21 @@ public class CipherInputStream extends FilterInputStream {
     @Override
     public void close() throws IOException {
         if (!closed) {
-            in.close();
             closed = true;
+            try {
+                in.close();
+            } finally {
+                BufferPool.releaseAndClear(buf);
+                BufferPool.releaseAndClear(plainData);
+                buf = null;
+                plainData = null;
+                if (metricsEnabled) {
+                    CryptoMetricsUtil.record(
+                        CryptoMetricsUtil.getCryptorName(cipher), CryptoOperation.DECRYPT_STREAM,
+                        cipherBytes, cipherNanos, cipherError
+                    );
+                }
+            }
         }
     }
 
@@ -1,69 +1,232 @@
 package com.tencent.bk.sdk.crypto.util;
 
+import com.tencent.bk.sdk.crypto.metrics.CryptoMetricsUtil;
+import com.tencent.bk.sdk.crypto.metrics.CryptoOperation;
+
 import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
 import javax.crypto.IllegalBlockSizeException;
+import javax.crypto.ShortBufferException;
 import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 
 /**
  * 使用Cipher对数据进行加密后写入。
+ * 写入的明文先缓存在内部缓冲区中，缓冲区满时加密并写出，明文与密文缓冲区在创建时从BufferPool获取并重复使用，关闭流时归还；
+ * flush只将已缓存的数据加密写出并刷新底层输出流，不结束密码器，可以安全地在中途多次调用；
+ * 只有close时才结束密码器（doFinal）；启用指标统计时，关闭流时按ENCRYPT_STREAM记录一次指标，耗时为密码器累计处理时间，不含写出时间。
  */
 public class CipherOutputStream extends FilterOutputStream {
     protected Cipher cipher;
     private boolean writedIv = false;
     private byte[] iv;
 
+    /**
+     * 明文缓冲区
+     */
+    private byte[] buf;
+
+    /**
+     * 明文缓冲区中的数据长度
+     */
+    private int count = 0;
+
+    /**
+     * 密文缓冲区，重复使用
+     */
+    private byte[] cipherBuf;
+
     private boolean closed = false;
 
+    /**
+     * 创建流时是否启用了指标统计
+     */
+    private final boolean metricsEnabled = CryptoMetricsUtil.isEnabled();
+
+    /**
+     * 密码器已处理的明文长度
+     */
+    private long cipherBytes = 0;
+
+    /**
+     * 密码器累计处理时间（纳秒），仅在启用指标统计时累计
+     */
+    private long cipherNanos = 0;
+
+    /**
+     * 密码器处理失败时的异常
+     */
+    private Throwable cipherError;
+
+    /**
+     * 创建一个使用了指定密码器和默认缓冲区大小（StreamUtils.BUFFER_SIZE）的流
+     *
+     * @param out    输出流
+     * @param cipher 密码器
+     */
     public CipherOutputStream(OutputStream out, Cipher cipher) {
+        this(out, cipher, StreamUtils.BUFFER_SIZE);
+    }
+
+    /**
+     * 创建一个使用了指定密码器和缓冲区大小的流
+     *
+     * @param out    输出流
+     * @param cipher 密码器
+     * @param size   明文缓冲区大小
+     */
+    public CipherOutputStream(OutputStream out, Cipher cipher, int size) {
         super(out);
         if (out == null) {
             throw new NullPointerException();
+        } else if (size <= 0) {
+            throw new IllegalArgumentException("buffer size <= 0");
         }
         this.cipher = cipher;
         this.iv = cipher.getIV();
+        this.buf = BufferPool.acquire(size);
+        this.cipherBuf = BufferPool.acquire(Math.max(cipher.getOutputSize(buf.length), buf.length));
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
     }
 
     @Override
     public void write(int b) throws IOException {
-        byte[] buf = new byte[1];
-        buf[0] = (byte) (b & 0xff);
-        write(buf, 0, 1);
+        ensureOpen();
+        if (count == buf.length) {
+            flushBuffer();
+        }
+        buf[count++] = (byte) b;
     }
 
     @Override
     public void write(byte[] b, int off, int len) throws IOException {
-        if (iv != null && !writedIv) {
-            out.write(iv);
-            writedIv = true;
+        ensureOpen();
+        if (b == null) {
+            throw new NullPointerException();
+        } else if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
         }
-        byte[] encryptData = cipher.update(b, off, len);
-        if (encryptData != null && encryptData.length > 0) {
-            out.write(encryptData, 0, encryptData.length);
+        if (len >= buf.length) {
+            // 大块数据不经过明文缓冲区，直接分段加密写出
+            flushBuffer();
+            while (len > 0) {
+                int size = Math.min(len, buf.length);
+                update(b, off, size);
+                off += size;
+                len -= size;
+            }
+            return;
+        }
+        if (len > buf.length - count) {
+            flushBuffer();
         }
+        System.arraycopy(b, off, buf, count, len);
+        count += len;
     }
 
+    /**
+     * 将缓存的明文加密写出，并刷新底层输出流，不结束密码器
+     */
     @Override
     public void flush() throws IOException {
+        ensureOpen();
+        flushBuffer();
+        out.flush();
+    }
+
+    /**
+     * 将缓存的明文加密写出，结束密码器并关闭底层输出流
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
         try {
-            byte[] encryptData = cipher.doFinal();
-            if (encryptData != null && encryptData.length > 0) {
-                out.write(encryptData);
+            try {
+                flushBuffer();
+                ensureCipherBufCapacity(0);
+                long start = metricsEnabled ? System.nanoTime() : 0L;
+                int n = cipher.doFinal(cipherBuf, 0);
+                if (metricsEnabled) {
+                    cipherNanos += System.nanoTime() - start;
+                }
+                if (n > 0) {
+                    out.write(cipherBuf, 0, n);
+                }
+                out.flush();
+            } finally {
+                out.close();
             }
-        } catch (IllegalBlockSizeException | BadPaddingException e) {
+        } catch (IllegalBlockSizeException | BadPaddingException | ShortBufferException e) {
+            cipherError = e;
             throw new IllegalStateException(e);
+        } finally {
+            BufferPool.releaseAndClear(buf);
+            BufferPool.releaseAndClear(cipherBuf);
+            buf = null;
+            cipherBuf = null;
+            if (metricsEnabled) {
+                CryptoMetricsUtil.record(
+                    CryptoMetricsUtil.getCryptorName(cipher), CryptoOperation.ENCRYPT_STREAM,
+                    cipherBytes, cipherNanos, cipherError
+                );
+            }
         }
-        out.flush();
     }
 
-    @Override
-    public void close() throws IOException {
-        if (!closed) {
-            flush();
-            out.close();
-            closed = true;
+    private void flushBuffer() throws IOException {
+        writeIvIfNeeded();
+        if (count > 0) {
+            update(buf, 0, count);
+            count = 0;
+        }
+    }
+
+    private void update(byte[] b, int off, int len) throws IOException {
+        writeIvIfNeeded();
+        ensureCipherBufCapacity(len);
+        int n;
+        long start = metricsEnabled ? System.nanoTime() : 0L;
+        try {
+            n = cipher.update(b, off, len, cipherBuf, 0);
+            cipherBytes += len;
+        } catch (ShortBufferException e) {
+            cipherError = e;
+            throw new IllegalStateException(e);
+        } finally {
+            if (metricsEnabled) {
+                cipherNanos += System.nanoTime() - start;
+            }
+        }
+        if (n > 0) {
+            out.write(cipherBuf, 0, n);
+        }
+    }
+
+    private void writeIvIfNeeded() throws IOException {
+        if (iv != null && !writedIv) {
+            out.write(iv);
+            writedIv = true;
+        }
+    }
+
+    /**
+     * 带填充的工作模式下密码器内部可能缓存了部分分组，输出长度可能超过输入长度，此时扩大密文缓冲区
+     */
+    private void ensureCipherBufCapacity(int inputLength) {
+        int outputSize = cipher.getOutputSize(inputLength);
+        if (outputSize > cipherBuf.length) {
+            byte[] larger = BufferPool.acquire(outputSize);
+            BufferPool.releaseAndClear(cipherBuf);
+            cipherBuf = larger;
         }
     }
 }
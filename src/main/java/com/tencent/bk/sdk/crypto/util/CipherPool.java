@@ -0,0 +1,126 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.util;
+
+import javax.crypto.Cipher;
+import javax.crypto.NoSuchPaddingException;
+import java.security.NoSuchAlgorithmException;
+import java.security.NoSuchProviderException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 密码器实例池：按线程缓存Cipher实例，热点路径上只需重新init已有的Cipher，避免每次调用都进行Cipher.getInstance（Provider查找）
+ * 注意：从池中获取的Cipher只能在当前线程内用于一次完整的init + doFinal操作，不可跨方法调用持有（如流式加解密场景）
+ */
+public class CipherPool {
+
+    /**
+     * 是否启用密码器池的系统属性名称
+     */
+    public static final String PROPERTY_ENABLED = "bk.sdk.crypto.cipherPool.enabled";
+    /**
+     * 每个线程最多缓存的Cipher实例数量的系统属性名称
+     */
+    public static final String PROPERTY_MAX_SIZE_PER_THREAD = "bk.sdk.crypto.cipherPool.maxSizePerThread";
+    /**
+     * 每个线程默认最多缓存的Cipher实例数量
+     */
+    private static final int DEFAULT_MAX_SIZE_PER_THREAD = 8;
+
+    private static volatile boolean enabled = Boolean.parseBoolean(System.getProperty(PROPERTY_ENABLED, "true"));
+
+    private static final int maxSizePerThread = Integer.getInteger(
+        PROPERTY_MAX_SIZE_PER_THREAD,
+        DEFAULT_MAX_SIZE_PER_THREAD
+    );
+
+    /**
+     * 线程内的Cipher缓存，按最近最少使用的顺序淘汰
+     */
+    private static final ThreadLocal<Map<String, Cipher>> threadLocalCiphers = ThreadLocal.withInitial(
+        () -> new LinkedHashMap<String, Cipher>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Cipher> eldest) {
+                return size() > maxSizePerThread;
+            }
+        }
+    );
+
+    /**
+     * 获取一个Cipher实例，启用密码器池时优先复用当前线程缓存的实例，调用方需自行调用init进行初始化
+     *
+     * @param transformation 加解密算法/工作模式/填充方式
+     * @param provider       Provider名称，为null时使用默认Provider
+     * @return Cipher实例
+     */
+    public static Cipher getCipher(String transformation, String provider)
+        throws NoSuchAlgorithmException, NoSuchProviderException, NoSuchPaddingException {
+        if (!enabled) {
+            return newCipher(transformation, provider);
+        }
+        Map<String, Cipher> ciphers = threadLocalCiphers.get();
+        String cacheKey = provider == null ? transformation : transformation + "@" + provider;
+        Cipher cipher = ciphers.get(cacheKey);
+        if (cipher == null) {
+            cipher = newCipher(transformation, provider);
+            ciphers.put(cacheKey, cipher);
+        }
+        return cipher;
+    }
+
+    /**
+     * 密码器池是否启用
+     *
+     * @return 是否启用
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 启用或关闭密码器池，关闭后每次均创建新的Cipher实例
+     *
+     * @param enabled 是否启用
+     */
+    public static void setEnabled(boolean enabled) {
+        CipherPool.enabled = enabled;
+    }
+
+    /**
+     * 清理当前线程缓存的Cipher实例（如线程归还到容器线程池前）
+     */
+    public static void clearCurrentThread() {
+        threadLocalCiphers.remove();
+    }
+
+    private static Cipher newCipher(String transformation, String provider)
+        throws NoSuchAlgorithmException, NoSuchProviderException, NoSuchPaddingException {
+        if (provider == null) {
+            return Cipher.getInstance(transformation);
+        }
+        return Cipher.getInstance(transformation, provider);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.util;
+
+/**
+ * 随机前缀 + 计数器的Nonce生成器，每次生成只需递增计数器，不调用随机数生成器
+ * 16字节Nonce结构：8字节随机前缀 | 4字节消息计数器 | 4字节0（CTR模式下加解密过程中递增的分组计数器）
+ * 每个线程使用独立的随机前缀与计数器，计数器用尽后重新生成随机前缀；
+ * 注意：每个Nonce为CTR模式预留2^32个分组（64GB）的计数空间，单条消息超过该长度时不可使用本生成器
+ */
+public class CounterIvGenerator implements IvGenerator {
+
+    /**
+     * Nonce长度，与SM4、AES的分组长度一致
+     */
+    public static final int NONCE_LENGTH = CtrCipherUtil.BLOCK_SIZE;
+
+    private static final int PREFIX_LENGTH = 8;
+
+    private final ThreadLocal<NonceState> states = ThreadLocal.withInitial(NonceState::new);
+
+    @Override
+    public void nextIv(byte[] iv, int offset, int length) {
+        if (length != NONCE_LENGTH) {
+            throw new IllegalArgumentException("Unsupported nonce length: " + length + ", expected: " + NONCE_LENGTH);
+        }
+        NonceState state = states.get();
+        int counter = state.counter++;
+        System.arraycopy(state.prefix, 0, iv, offset, PREFIX_LENGTH);
+        if (state.counter == 0) {
+            // 计数器用尽，后续Nonce使用新的随机前缀
+            state.resetPrefix();
+        }
+        iv[offset + 8] = (byte) (counter >>> 24);
+        iv[offset + 9] = (byte) (counter >>> 16);
+        iv[offset + 10] = (byte) (counter >>> 8);
+        iv[offset + 11] = (byte) counter;
+        iv[offset + 12] = 0;
+        iv[offset + 13] = 0;
+        iv[offset + 14] = 0;
+        iv[offset + 15] = 0;
+    }
+
+    private static class NonceState {
+        private final byte[] prefix = new byte[PREFIX_LENGTH];
+        private int counter;
+
+        NonceState() {
+            resetPrefix();
+        }
+
+        void resetPrefix() {
+            ThreadLocalIvGenerator.newSecureRandom().nextBytes(prefix);
+        }
+    }
+}
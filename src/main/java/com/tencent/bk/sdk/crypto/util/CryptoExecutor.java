@@ -0,0 +1,253 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.util;
+
+import com.tencent.bk.sdk.crypto.exception.CryptoException;
+import lombok.NonNull;
+
+import java.io.Closeable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 异步加解密使用的有界线程池：线程数与队列容量固定，队列已满时立即以CryptoException失败而不是阻塞调用方，
+ * 可为每次提交设置超时时间，并通过getStats方法获取饱和情况的统计数据
+ * 默认实例的线程数、队列容量与超时时间可通过系统属性配置
+ */
+public class CryptoExecutor implements Closeable {
+
+    /**
+     * 默认实例线程数，默认为CPU核数
+     */
+    public static final String PROPERTY_THREADS = "bk.sdk.crypto.async.threads";
+    /**
+     * 默认实例的任务队列容量，默认为1024
+     */
+    public static final String PROPERTY_QUEUE_CAPACITY = "bk.sdk.crypto.async.queueCapacity";
+    /**
+     * 默认实例中每个任务的超时时间（毫秒），默认为0，即不超时
+     */
+    public static final String PROPERTY_TIMEOUT_MILLIS = "bk.sdk.crypto.async.timeoutMillis";
+
+    private static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    private static final AtomicInteger EXECUTOR_SEQ = new AtomicInteger();
+
+    private static volatile CryptoExecutor defaultExecutor;
+
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final long timeoutMillis;
+    private final LongAdder submittedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder timedOutCount = new LongAdder();
+    private final AtomicInteger peakQueueSize = new AtomicInteger();
+
+    /**
+     * @param threads       线程数
+     * @param queueCapacity 任务队列容量，队列已满时新提交的任务将被拒绝
+     * @param timeoutMillis 任务默认超时时间（毫秒），从提交时开始计算，小于等于0表示不超时
+     */
+    public CryptoExecutor(int threads, int queueCapacity, long timeoutMillis) {
+        if (threads <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException(
+                "threads and queueCapacity must be positive: threads=" + threads + ", queueCapacity=" + queueCapacity
+            );
+        }
+        this.queueCapacity = queueCapacity;
+        this.timeoutMillis = timeoutMillis;
+        this.executor = new ThreadPoolExecutor(
+            threads,
+            threads,
+            60L,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            daemonThreadFactory("bk-crypto-async-" + EXECUTOR_SEQ.incrementAndGet() + "-")
+        );
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 获取默认实例，首次调用时按系统属性创建
+     *
+     * @return 默认异步加解密线程池
+     */
+    public static CryptoExecutor getDefault() {
+        CryptoExecutor executor = defaultExecutor;
+        if (executor == null) {
+            synchronized (CryptoExecutor.class) {
+                executor = defaultExecutor;
+                if (executor == null) {
+                    executor = new CryptoExecutor(
+                        Integer.getInteger(PROPERTY_THREADS, Runtime.getRuntime().availableProcessors()),
+                        Integer.getInteger(PROPERTY_QUEUE_CAPACITY, DEFAULT_QUEUE_CAPACITY),
+                        Long.getLong(PROPERTY_TIMEOUT_MILLIS, 0L)
+                    );
+                    defaultExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * 替换默认实例，被替换的实例不会被关闭，需由调用方自行处理
+     *
+     * @param executor 新的默认异步加解密线程池
+     */
+    public static void setDefault(@NonNull CryptoExecutor executor) {
+        synchronized (CryptoExecutor.class) {
+            defaultExecutor = executor;
+        }
+    }
+
+    /**
+     * 提交任务，使用默认超时时间
+     *
+     * @param task 加解密任务
+     * @param <T>  结果类型
+     * @return 任务结果；线程池饱和时以CryptoException失败，超时时以TimeoutException失败
+     */
+    public <T> CompletableFuture<T> submit(@NonNull Supplier<T> task) {
+        return submit(task, timeoutMillis);
+    }
+
+    /**
+     * 提交任务
+     * 注意：加解密计算不响应中断，超时或被取消的任务若已开始执行，将在后台执行完成后丢弃结果；尚未开始的任务不会再执行
+     *
+     * @param task          加解密任务
+     * @param timeoutMillis 超时时间（毫秒），从提交时开始计算，小于等于0表示不超时
+     * @param <T>           结果类型
+     * @return 任务结果；线程池饱和时以CryptoException失败，超时时以TimeoutException失败
+     */
+    public <T> CompletableFuture<T> submit(@NonNull Supplier<T> task, long timeoutMillis) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        submittedCount.increment();
+        try {
+            executor.execute(() -> {
+                if (future.isDone()) {
+                    return;
+                }
+                try {
+                    future.complete(task.get());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            future.completeExceptionally(
+                new CryptoException("Crypto executor is saturated: " + getStats(), e)
+            );
+            return future;
+        }
+        updatePeakQueueSize();
+        if (timeoutMillis > 0 && !future.isDone()) {
+            ScheduledFuture<?> timeout = TimeoutScheduler.INSTANCE.schedule(() -> {
+                // 先计数再结束Future，保证调用方观察到超时时统计数据已更新
+                timedOutCount.increment();
+                if (!future.completeExceptionally(
+                    new TimeoutException("Crypto task timed out after " + timeoutMillis + "ms"))) {
+                    timedOutCount.decrement();
+                }
+            }, timeoutMillis, TimeUnit.MILLISECONDS);
+            future.whenComplete((result, t) -> timeout.cancel(false));
+        }
+        return future;
+    }
+
+    /**
+     * 获取当前运行统计快照
+     *
+     * @return 统计数据
+     */
+    public CryptoExecutorStats getStats() {
+        return new CryptoExecutorStats(
+            executor.getMaximumPoolSize(),
+            executor.getPoolSize(),
+            executor.getActiveCount(),
+            executor.getQueue().size(),
+            queueCapacity,
+            peakQueueSize.get(),
+            submittedCount.sum(),
+            executor.getCompletedTaskCount(),
+            rejectedCount.sum(),
+            timedOutCount.sum()
+        );
+    }
+
+    /**
+     * 关闭线程池，已提交的任务仍会执行完成
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private void updatePeakQueueSize() {
+        int queueSize = executor.getQueue().size();
+        int peak;
+        while (queueSize > (peak = peakQueueSize.get())) {
+            if (peakQueueSize.compareAndSet(peak, queueSize)) {
+                return;
+            }
+        }
+    }
+
+    private static ThreadFactory daemonThreadFactory(String namePrefix) {
+        AtomicInteger threadSeq = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadSeq.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 所有实例共享的超时调度线程，首次使用超时功能时创建
+     */
+    private static class TimeoutScheduler {
+        static final ScheduledExecutorService INSTANCE = createScheduler();
+
+        private static ScheduledExecutorService createScheduler() {
+            ScheduledThreadPoolExecutor scheduler =
+                new ScheduledThreadPoolExecutor(1, daemonThreadFactory("bk-crypto-async-timeout-"));
+            scheduler.setRemoveOnCancelPolicy(true);
+            return scheduler;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.util;
+
+/**
+ * 异步加解密线程池的运行统计快照，用于评估线程数与队列容量是否合适
+ */
+public final class CryptoExecutorStats {
+
+    /**
+     * 最大线程数
+     */
+    private final int maxThreads;
+    /**
+     * 当前线程数
+     */
+    private final int poolSize;
+    /**
+     * 正在执行任务的线程数
+     */
+    private final int activeThreads;
+    /**
+     * 当前排队的任务数
+     */
+    private final int queueSize;
+    /**
+     * 队列容量
+     */
+    private final int queueCapacity;
+    /**
+     * 观察到的最大排队任务数
+     */
+    private final int peakQueueSize;
+    /**
+     * 已提交的任务数（含被拒绝的任务）
+     */
+    private final long submittedCount;
+    /**
+     * 已执行完成的任务数
+     */
+    private final long completedCount;
+    /**
+     * 因线程池饱和被拒绝的任务数
+     */
+    private final long rejectedCount;
+    /**
+     * 超时的任务数
+     */
+    private final long timedOutCount;
+
+    CryptoExecutorStats(int maxThreads, int poolSize, int activeThreads, int queueSize, int queueCapacity,
+                        int peakQueueSize, long submittedCount, long completedCount, long rejectedCount,
+                        long timedOutCount) {
+        this.maxThreads = maxThreads;
+        this.poolSize = poolSize;
+        this.activeThreads = activeThreads;
+        this.queueSize = queueSize;
+        this.queueCapacity = queueCapacity;
+        this.peakQueueSize = peakQueueSize;
+        this.submittedCount = submittedCount;
+        this.completedCount = completedCount;
+        this.rejectedCount = rejectedCount;
+        this.timedOutCount = timedOutCount;
+    }
+
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public int getActiveThreads() {
+        return activeThreads;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public int getPeakQueueSize() {
+        return peakQueueSize;
+    }
+
+    public long getSubmittedCount() {
+        return submittedCount;
+    }
+
+    public long getCompletedCount() {
+        return completedCount;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public long getTimedOutCount() {
+        return timedOutCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CryptoExecutorStats{maxThreads=" + maxThreads
+            + ", poolSize=" + poolSize
+            + ", activeThreads=" + activeThreads
+            + ", queueSize=" + queueSize
+            + ", queueCapacity=" + queueCapacity
+            + ", peakQueueSize=" + peakQueueSize
+            + ", submittedCount=" + submittedCount
+            + ", completedCount=" + completedCount
+            + ", rejectedCount=" + rejectedCount
+            + ", timedOutCount=" + timedOutCount
+            + "}";
+    }
+}
@@ -33,8 +33,10 @@ import org.apache.commons.lang3.StringUtils;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Base64;
 
 /**
  * 加密器元数据操作工具类
@@ -42,6 +44,115 @@ import java.util.Arrays;
 @Slf4j
 public class CryptorMetaUtil {
 
+    /**
+     * 加密时写入的密文元数据格式版本的系统属性名称：1为文本前缀（默认），2为紧凑二进制密文头
+     */
+    public static final String PROPERTY_CIPHER_FORMAT_VERSION = "bk.sdk.crypto.cipher.formatVersion";
+    /**
+     * 文本前缀格式版本
+     */
+    public static final int CIPHER_FORMAT_V1 = 1;
+    /**
+     * 紧凑二进制密文头格式版本
+     */
+    public static final int CIPHER_FORMAT_V2 = 2;
+    /**
+     * 不带密钥ID的二进制密文头长度：魔数 + 版本 + 算法ID
+     */
+    public static final int CIPHER_HEADER_MIN_LENGTH = 3;
+    /**
+     * 二进制密文头中密钥ID的最大长度
+     */
+    public static final int CIPHER_HEADER_MAX_KEY_ID_LENGTH = 255;
+    /**
+     * 解密流数据与文件时是否识别不含文本前缀的数据开头的二进制密文头的系统属性名称，默认关闭（写入格式为v2时总是识别）
+     */
+    public static final String PROPERTY_CIPHER_HEADER_DETECTION = "bk.sdk.crypto.cipher.headerDetection";
+
+    private static final byte[] STRING_CIPHER_HEADER_PREFIX_BYTES =
+        CryptorMetaDefinition.getStringCipherHeaderPrefix().getBytes(StandardCharsets.UTF_8);
+
+    private static volatile boolean cipherHeaderDetectionEnabled = Boolean.getBoolean(PROPERTY_CIPHER_HEADER_DETECTION);
+
+    private static volatile int cipherFormatVersion = Integer.getInteger(
+        PROPERTY_CIPHER_FORMAT_VERSION, CIPHER_FORMAT_V1
+    ) == CIPHER_FORMAT_V2 ? CIPHER_FORMAT_V2 : CIPHER_FORMAT_V1;
+
+    /**
+     * 获取加密时写入的密文元数据格式版本，解密字节数组与字符串时总是同时兼容两种格式
+     *
+     * @return 格式版本，CIPHER_FORMAT_V1或CIPHER_FORMAT_V2
+     */
+    public static int getCipherFormatVersion() {
+        return cipherFormatVersion;
+    }
+
+    /**
+     * 设置加密时写入的密文元数据格式版本，未声明算法ID的加密器始终使用文本前缀
+     *
+     * @param version 格式版本，CIPHER_FORMAT_V1或CIPHER_FORMAT_V2
+     */
+    public static void setCipherFormatVersion(int version) {
+        if (version != CIPHER_FORMAT_V1 && version != CIPHER_FORMAT_V2) {
+            throw new IllegalArgumentException("unsupported cipher format version: " + version);
+        }
+        CryptorMetaUtil.cipherFormatVersion = version;
+    }
+
+    /**
+     * 解密流数据与文件时是否识别二进制密文头
+     * 流数据与文件兼容不含任何元数据的历史密文，其随机IV可能恰好以二进制密文头开始，
+     * 因此只有写入格式为v2或显式开启时才识别，否则只识别文本前缀
+     *
+     * @return 是否识别二进制密文头
+     */
+    public static boolean isCipherHeaderDetectionEnabled() {
+        return cipherHeaderDetectionEnabled || cipherFormatVersion == CIPHER_FORMAT_V2;
+    }
+
+    /**
+     * 开启或关闭解密流数据与文件时对二进制密文头的识别，写入格式为v2时总是识别
+     *
+     * @param enabled 是否开启
+     */
+    public static void setCipherHeaderDetectionEnabled(boolean enabled) {
+        CryptorMetaUtil.cipherHeaderDetectionEnabled = enabled;
+    }
+
+    /**
+     * 判断字符串密文是否为v2格式（以[v2]文本前缀开始）
+     *
+     * @param cipher 字符串密文
+     * @return 是否为v2格式
+     */
+    public static boolean isStringCipherWithHeader(String cipher) {
+        return cipher != null && cipher.startsWith(CryptorMetaDefinition.getStringCipherHeaderPrefix());
+    }
+
+    /**
+     * 将带二进制密文头的密文编码为v2格式的字符串密文：[v2] + base64(二进制密文头 + 密文)
+     *
+     * @param headerBytes    二进制密文头
+     * @param encryptedBytes 不含元数据的密文
+     * @return 字符串密文
+     */
+    public static String encodeStringCipherWithHeader(byte[] headerBytes, byte[] encryptedBytes) {
+        return Base64Util.encodeContentToStrWithPrefix(
+            STRING_CIPHER_HEADER_PREFIX_BYTES,
+            addPrefixToEncryptedBytes(headerBytes, encryptedBytes)
+        );
+    }
+
+    /**
+     * 解码v2格式的字符串密文，调用方需先通过isStringCipherWithHeader确认
+     *
+     * @param cipher 字符串密文
+     * @return 解码后的数据，以二进制密文头开始
+     */
+    public static byte[] decodeStringCipherWithHeader(String cipher) {
+        return Base64Util.decodeContentToByte(cipher, STRING_CIPHER_HEADER_PREFIX_BYTES.length);
+    }
+
     /**
      * 获取密文元数据前缀
      *
@@ -71,7 +182,20 @@ public class CryptorMetaUtil {
         if (StringUtils.isEmpty(prefix)) {
             return encryptedBytes;
         }
-        byte[] prefixBytes = prefix.getBytes(StandardCharsets.UTF_8);
+        return addPrefixToEncryptedBytes(prefix.getBytes(StandardCharsets.UTF_8), encryptedBytes);
+    }
+
+    /**
+     * 为密文字节数组添加前缀，供需要多次添加同一前缀的场景复用前缀字节数组
+     *
+     * @param prefixBytes    前缀字节数组（UTF-8编码）
+     * @param encryptedBytes 加密后的密文字节数组
+     * @return 带前缀的密文字节数组
+     */
+    public static byte[] addPrefixToEncryptedBytes(byte[] prefixBytes, byte[] encryptedBytes) {
+        if (prefixBytes.length == 0) {
+            return encryptedBytes;
+        }
         byte[] finalBytes = new byte[encryptedBytes.length + prefixBytes.length];
         System.arraycopy(prefixBytes, 0, finalBytes, 0, prefixBytes.length);
         System.arraycopy(encryptedBytes, 0, finalBytes, prefixBytes.length, encryptedBytes.length);
@@ -86,18 +210,280 @@ public class CryptorMetaUtil {
      * @return 移除了前缀的密文字节数组
      */
     public static byte[] removePrefixFromEncryptedBytes(String prefix, byte[] encryptedBytes) {
-        byte[] expectedPrefixBytes = prefix.getBytes(StandardCharsets.UTF_8);
-        byte[] prefixBytes = new byte[expectedPrefixBytes.length];
-        System.arraycopy(encryptedBytes, 0, prefixBytes, 0, prefixBytes.length);
-        if (!Arrays.equals(prefixBytes, expectedPrefixBytes)) {
+        return removePrefixFromEncryptedBytes(prefix.getBytes(StandardCharsets.UTF_8), encryptedBytes);
+    }
+
+    /**
+     * 移除密文字节数组中的前缀，供需要多次移除同一前缀的场景复用前缀字节数组
+     *
+     * @param expectedPrefixBytes 前缀字节数组（UTF-8编码）
+     * @param encryptedBytes      带前缀的密文字节数组
+     * @return 移除了前缀的密文字节数组
+     */
+    public static byte[] removePrefixFromEncryptedBytes(byte[] expectedPrefixBytes, byte[] encryptedBytes) {
+        int offset = checkPrefixOfEncryptedBytes(expectedPrefixBytes, encryptedBytes);
+        return Arrays.copyOfRange(encryptedBytes, offset, encryptedBytes.length);
+    }
+
+    /**
+     * 在原数组上校验密文字节数组中的前缀，不复制数据
+     *
+     * @param expectedPrefixBytes 前缀字节数组（UTF-8编码）
+     * @param encryptedBytes      带前缀的密文字节数组
+     * @return 前缀之后的密文在数组中的起始位置
+     */
+    public static int checkPrefixOfEncryptedBytes(byte[] expectedPrefixBytes, byte[] encryptedBytes) {
+        if (encryptedBytes.length < expectedPrefixBytes.length) {
+            throw new CryptoException("encryptedMessage is invalid: cannot find enough prefix bytes");
+        }
+        for (int i = 0; i < expectedPrefixBytes.length; i++) {
+            if (encryptedBytes[i] != expectedPrefixBytes[i]) {
+                throw new CryptoException(
+                    "encryptedMessage is invalid: prefix bytes unexpected, whose hex should be: " +
+                        CryptoUtils.toHex(expectedPrefixBytes)
+                );
+            }
+        }
+        return expectedPrefixBytes.length;
+    }
+
+    /**
+     * 校验缓冲区中的密文前缀并将position移动到前缀之后，不复制数据
+     *
+     * @param expectedPrefixBytes 前缀字节数组（UTF-8编码）
+     * @param encryptedBuffer     带前缀的密文缓冲区
+     */
+    public static void skipPrefixInEncryptedBuffer(byte[] expectedPrefixBytes, ByteBuffer encryptedBuffer) {
+        if (encryptedBuffer.remaining() < expectedPrefixBytes.length) {
+            throw new CryptoException("encryptedMessage is invalid: cannot find enough prefix bytes");
+        }
+        int position = encryptedBuffer.position();
+        for (int i = 0; i < expectedPrefixBytes.length; i++) {
+            if (encryptedBuffer.get(position + i) != expectedPrefixBytes[i]) {
+                throw new CryptoException(
+                    "encryptedMessage is invalid: prefix bytes unexpected, whose hex should be: " +
+                        CryptoUtils.toHex(expectedPrefixBytes)
+                );
+            }
+        }
+        encryptedBuffer.position(position + expectedPrefixBytes.length);
+    }
+
+    /**
+     * 构建二进制密文头
+     *
+     * @param algorithmId 算法ID（1~255）
+     * @param keyId       密钥ID，不需要时传null
+     * @return 二进制密文头
+     */
+    public static byte[] buildCipherHeader(int algorithmId, byte[] keyId) {
+        if (algorithmId <= 0 || algorithmId > 0xFF) {
+            throw new IllegalArgumentException("algorithmId must be in [1, 255]: " + algorithmId);
+        }
+        if (keyId == null) {
+            return new byte[]{
+                CryptorMetaDefinition.getCipherHeaderMagic(),
+                CryptorMetaDefinition.getCipherHeaderVersion(),
+                (byte) algorithmId
+            };
+        }
+        if (keyId.length > CIPHER_HEADER_MAX_KEY_ID_LENGTH) {
+            throw new IllegalArgumentException("keyId is too long: " + keyId.length);
+        }
+        byte[] header = new byte[CIPHER_HEADER_MIN_LENGTH + 1 + keyId.length];
+        header[0] = CryptorMetaDefinition.getCipherHeaderMagic();
+        header[1] = (byte) (CryptorMetaDefinition.getCipherHeaderVersion()
+            | CryptorMetaDefinition.getCipherHeaderKeyIdFlag());
+        header[2] = (byte) algorithmId;
+        header[3] = (byte) keyId.length;
+        System.arraycopy(keyId, 0, header, CIPHER_HEADER_MIN_LENGTH + 1, keyId.length);
+        return header;
+    }
+
+    /**
+     * 判断数据在指定位置是否以二进制密文头开始，并计算密文头长度
+     * 带有密钥ID时只根据密钥ID长度字节计算，不校验密钥ID本身是否完整，供只预读了部分数据的流处理使用
+     *
+     * @param bytes  数据
+     * @param offset 起始位置
+     * @param length 可用数据长度
+     * @return 密文头长度，不是二进制密文头时返回-1
+     */
+    public static int getCipherHeaderLength(byte[] bytes, int offset, int length) {
+        if (length < CIPHER_HEADER_MIN_LENGTH
+            || bytes[offset] != CryptorMetaDefinition.getCipherHeaderMagic()) {
+            return -1;
+        }
+        int version = bytes[offset + 1] & 0xFF;
+        int keyIdFlag = CryptorMetaDefinition.getCipherHeaderKeyIdFlag() & 0xFF;
+        if ((version & ~keyIdFlag) != CryptorMetaDefinition.getCipherHeaderVersion()) {
+            return -1;
+        }
+        if ((version & keyIdFlag) == 0) {
+            return CIPHER_HEADER_MIN_LENGTH;
+        }
+        if (length < CIPHER_HEADER_MIN_LENGTH + 1) {
+            throw new CryptoException("encryptedMessage is invalid: cipher header is truncated");
+        }
+        return CIPHER_HEADER_MIN_LENGTH + 1 + (bytes[offset + CIPHER_HEADER_MIN_LENGTH] & 0xFF);
+    }
+
+    /**
+     * 获取二进制密文头中的算法ID，调用方需先通过getCipherHeaderLength确认数据以二进制密文头开始
+     *
+     * @param bytes  数据
+     * @param offset 密文头起始位置
+     * @return 算法ID
+     */
+    public static int getCipherHeaderAlgorithmId(byte[] bytes, int offset) {
+        return bytes[offset + 2] & 0xFF;
+    }
+
+    /**
+     * 获取二进制密文头中的密钥ID，调用方需先通过getCipherHeaderLength确认数据以二进制密文头开始
+     *
+     * @param bytes  数据
+     * @param offset 密文头起始位置
+     * @return 密钥ID，不带密钥ID时返回null
+     */
+    public static byte[] getCipherHeaderKeyId(byte[] bytes, int offset) {
+        if ((bytes[offset + 1] & CryptorMetaDefinition.getCipherHeaderKeyIdFlag()) == 0) {
+            return null;
+        }
+        int keyIdOffset = offset + CIPHER_HEADER_MIN_LENGTH + 1;
+        return Arrays.copyOfRange(bytes, keyIdOffset, keyIdOffset + (bytes[offset + CIPHER_HEADER_MIN_LENGTH] & 0xFF));
+    }
+
+    /**
+     * 读取字节数组密文的二进制密文头中的密钥ID，用于按密钥ID选择解密密钥
+     *
+     * @param encryptedMessage 带元数据的密文字节数组
+     * @return 密钥ID，不是二进制密文头或不带密钥ID时返回null
+     */
+    public static byte[] getCipherKeyId(byte[] encryptedMessage) {
+        if (encryptedMessage == null) {
+            return null;
+        }
+        int headerLength = getCipherHeaderLength(encryptedMessage, 0, encryptedMessage.length);
+        if (headerLength < 0 || headerLength > encryptedMessage.length) {
+            return null;
+        }
+        return getCipherHeaderKeyId(encryptedMessage, 0);
+    }
+
+    /**
+     * 读取v2格式字符串密文（[v2] + base64(二进制密文头 + 密文)）中的密钥ID，只解码密文头所在的开头部分
+     *
+     * @param base64Message 字符串密文
+     * @return 密钥ID，不是v2格式或不带密钥ID时返回null
+     */
+    public static byte[] getCipherKeyId(String base64Message) {
+        if (!isStringCipherWithHeader(base64Message)) {
+            return null;
+        }
+        // 带密钥ID的密文头最长为CIPHER_HEADER_MIN_LENGTH + 1 + 255字节，base64编码后不超过348个字符
+        int maxHeaderChars = (CIPHER_HEADER_MIN_LENGTH + 1 + CIPHER_HEADER_MAX_KEY_ID_LENGTH + 2) / 3 * 4;
+        int start = STRING_CIPHER_HEADER_PREFIX_BYTES.length;
+        int length = Math.min(base64Message.length() - start, maxHeaderChars) / 4 * 4;
+        byte[] headerBytes;
+        try {
+            headerBytes = Base64.getDecoder().decode(base64Message.substring(start, start + length));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return getCipherKeyId(headerBytes);
+    }
+
+    /**
+     * 计算数据开头属于指定算法的二进制密文头长度，用于兼容可能不含元数据的流数据密文
+     *
+     * @param algorithmId 期望的算法ID，为0时不识别二进制密文头
+     * @param bytes       数据
+     * @param offset      起始位置
+     * @param length      可用数据长度
+     * @return 密文头长度，不是指定算法的二进制密文头时返回0
+     */
+    public static int getMatchingCipherHeaderLength(int algorithmId, byte[] bytes, int offset, int length) {
+        if (algorithmId <= 0) {
+            return 0;
+        }
+        int headerLength = getCipherHeaderLength(bytes, offset, length);
+        if (headerLength < 0 || getCipherHeaderAlgorithmId(bytes, offset) != algorithmId) {
+            return 0;
+        }
+        return headerLength;
+    }
+
+    /**
+     * 在原数组上校验密文元数据，兼容v1文本前缀与v2二进制密文头，不复制数据
+     *
+     * @param expectedPrefixBytes 期望的文本前缀字节数组（UTF-8编码）
+     * @param algorithmId         期望的算法ID，为0时只接受文本前缀
+     * @param encryptedBytes      带元数据的密文字节数组
+     * @return 元数据之后的密文在数组中的起始位置
+     */
+    public static int checkHeaderOfEncryptedBytes(byte[] expectedPrefixBytes, int algorithmId,
+                                                  byte[] encryptedBytes) {
+        if (algorithmId <= 0 || encryptedBytes.length == 0
+            || encryptedBytes[0] != CryptorMetaDefinition.getCipherHeaderMagic()) {
+            return checkPrefixOfEncryptedBytes(expectedPrefixBytes, encryptedBytes);
+        }
+        int headerLength = checkCipherHeader(algorithmId, encryptedBytes, 0, encryptedBytes.length);
+        if (headerLength > encryptedBytes.length) {
+            throw new CryptoException("encryptedMessage is invalid: cipher header is truncated");
+        }
+        return headerLength;
+    }
+
+    /**
+     * 校验缓冲区中的密文元数据并将position移动到元数据之后，兼容v1文本前缀与v2二进制密文头，不复制数据
+     *
+     * @param expectedPrefixBytes 期望的文本前缀字节数组（UTF-8编码）
+     * @param algorithmId         期望的算法ID，为0时只接受文本前缀
+     * @param encryptedBuffer     带元数据的密文缓冲区
+     */
+    public static void skipHeaderInEncryptedBuffer(byte[] expectedPrefixBytes, int algorithmId,
+                                                   ByteBuffer encryptedBuffer) {
+        int position = encryptedBuffer.position();
+        if (algorithmId <= 0 || !encryptedBuffer.hasRemaining()
+            || encryptedBuffer.get(position) != CryptorMetaDefinition.getCipherHeaderMagic()) {
+            skipPrefixInEncryptedBuffer(expectedPrefixBytes, encryptedBuffer);
+            return;
+        }
+        byte[] head = new byte[Math.min(encryptedBuffer.remaining(), CIPHER_HEADER_MIN_LENGTH + 1)];
+        for (int i = 0; i < head.length; i++) {
+            head[i] = encryptedBuffer.get(position + i);
+        }
+        int headerLength = checkCipherHeader(algorithmId, head, 0, head.length);
+        if (headerLength > encryptedBuffer.remaining()) {
+            throw new CryptoException("encryptedMessage is invalid: cipher header is truncated");
+        }
+        encryptedBuffer.position(position + headerLength);
+    }
+
+    /**
+     * 校验二进制密文头的版本与算法ID，不校验密钥ID是否完整
+     *
+     * @return 密文头长度
+     */
+    private static int checkCipherHeader(int algorithmId, byte[] bytes, int offset, int length) {
+        if (length < CIPHER_HEADER_MIN_LENGTH) {
+            throw new CryptoException("encryptedMessage is invalid: cannot find enough cipher header bytes");
+        }
+        int headerLength = getCipherHeaderLength(bytes, offset, length);
+        if (headerLength < 0) {
+            throw new CryptoException(
+                "encryptedMessage is invalid: unsupported cipher header version: " + (bytes[offset + 1] & 0xFF)
+            );
+        }
+        int actualAlgorithmId = getCipherHeaderAlgorithmId(bytes, offset);
+        if (actualAlgorithmId != algorithmId) {
             throw new CryptoException(
-                "encryptedMessage is invalid: prefix bytes unexpected, whose hex should be: " +
-                    CryptoUtils.toHex(expectedPrefixBytes)
+                "encryptedMessage is invalid: cipher header algorithmId unexpected, expected=" + algorithmId
+                    + ", actually=" + actualAlgorithmId
             );
         }
-        byte[] pureEncryptedBytes = new byte[encryptedBytes.length - prefixBytes.length];
-        System.arraycopy(encryptedBytes, prefixBytes.length, pureEncryptedBytes, 0, pureEncryptedBytes.length);
-        return pureEncryptedBytes;
+        return headerLength;
     }
 
     /**
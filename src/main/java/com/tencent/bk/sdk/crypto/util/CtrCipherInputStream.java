@@ -0,0 +1,162 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.util;
+
+import com.tencent.bk.sdk.crypto.exception.CryptoException;
+
+import javax.crypto.Cipher;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+
+/**
+ * 读取CTR工作模式加密的数据，将其转换成明文。
+ * CTR模式下任意位置的密钥流都可以由IV直接计算得到，因此skip只需跳过底层输入流中的密文并重新初始化密码器，
+ * 无需解密被跳过的数据；底层输入流支持高效跳过（如FileInputStream）时，skip的开销与跳过的长度无关。
+ */
+public class CtrCipherInputStream extends CipherInputStream {
+
+    private final Key key;
+
+    private final byte[] iv;
+
+    /**
+     * 当前读取位置（明文中的偏移量）
+     */
+    private long position = 0;
+
+    /**
+     * @param in             输入流，当前位置须为IV之后的第一个密文字节
+     * @param transformation 加解密算法/工作模式/填充方式，必须为CTR工作模式
+     * @param provider       Provider名称，为null时使用默认Provider
+     * @param key            密钥
+     * @param iv             IV（密文起始位置对应的计数器）
+     * @param size           输入流缓冲区大小
+     */
+    public CtrCipherInputStream(InputStream in,
+                                String transformation,
+                                String provider,
+                                Key key,
+                                byte[] iv,
+                                int size) {
+        super(in, createCipher(transformation, provider, key, iv), size);
+        this.key = key;
+        this.iv = iv.clone();
+    }
+
+    private static Cipher createCipher(String transformation, String provider, Key key, byte[] iv) {
+        try {
+            Cipher cipher = provider == null ? Cipher.getInstance(transformation) :
+                Cipher.getInstance(transformation, provider);
+            CtrCipherUtil.initCipher(cipher, Cipher.DECRYPT_MODE, key, iv, 0);
+            return cipher;
+        } catch (GeneralSecurityException e) {
+            throw new CryptoException("Create cipher error", e);
+        }
+    }
+
+    /**
+     * 获取当前读取位置
+     *
+     * @return 当前读取位置（明文中的偏移量）
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            position++;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            position += n;
+        }
+        return n;
+    }
+
+    @Override
+    public long transferTo(OutputStream out) throws IOException {
+        long n = super.transferTo(out);
+        position += n;
+        return n;
+    }
+
+    /**
+     * CTR模式下密文与明文长度一致，底层输入流中可无阻塞读取的密文均可解密为明文
+     */
+    @Override
+    public int available() throws IOException {
+        long available = (long) super.available() + in.available();
+        return (int) Math.min(available, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        if (n < 0) {
+            throw new IllegalArgumentException("negative skip length");
+        }
+        int buffered = readableSize();
+        if (n <= buffered) {
+            plainDataPos += (int) n;
+            position += n;
+            return n;
+        }
+        // 已解密未读取的明文与底层输入流中的密文一一对应，丢弃后底层输入流恰好位于position + buffered处
+        discardPlainData();
+        long skipped = buffered + skipCipherData(n - buffered);
+        position += skipped;
+        try {
+            CtrCipherUtil.initCipher(cipher, Cipher.DECRYPT_MODE, key, iv, position);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Fail to reinit cipher at position " + position, e);
+        }
+        return skipped;
+    }
+
+    private long skipCipherData(long n) throws IOException {
+        long remaining = n;
+        while (remaining > 0) {
+            long skipped = in.skip(remaining);
+            if (skipped > 0) {
+                remaining -= skipped;
+            } else if (in.read() == -1) {
+                break;
+            } else {
+                remaining--;
+            }
+        }
+        return n - remaining;
+    }
+}
@@ -0,0 +1,457 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.util;
+
+import com.tencent.bk.sdk.crypto.exception.CryptoException;
+import org.apache.commons.io.input.BoundedInputStream;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * CTR工作模式加解密工具类
+ * CTR模式下每个分组的密钥流只取决于IV与分组序号，因此可将大块数据按分组边界切分为多个分段，
+ * 由ForkJoin线程池并行处理，各分段使用IV加上分段起始分组序号得到的计数器初始化，结果与单线程处理完全一致
+ */
+public class CtrCipherUtil {
+
+    /**
+     * 是否启用并行处理的系统属性名称
+     */
+    public static final String PROPERTY_PARALLEL_ENABLED = "bk.sdk.crypto.ctr.parallel.enabled";
+    /**
+     * 启用并行处理的最小数据长度（字节）的系统属性名称
+     */
+    public static final String PROPERTY_PARALLEL_THRESHOLD = "bk.sdk.crypto.ctr.parallel.threshold";
+    /**
+     * 并行处理时每个分段长度（字节）的系统属性名称，会向下对齐到分组长度的整数倍
+     */
+    public static final String PROPERTY_PARALLEL_SEGMENT_SIZE = "bk.sdk.crypto.ctr.parallel.segmentSize";
+    /**
+     * CTR模式使用的分组密码（SM4、AES）的分组长度
+     */
+    public static final int BLOCK_SIZE = 16;
+
+    private static final int DEFAULT_PARALLEL_THRESHOLD = 1024 * 1024;
+    private static final int DEFAULT_PARALLEL_SEGMENT_SIZE = 256 * 1024;
+    /**
+     * 文件加解密时每次映射的文件区域长度，为分组长度的整数倍
+     */
+    private static final long MAP_WINDOW_SIZE = 64L * 1024 * 1024;
+    /**
+     * 流数据并行处理时每批读取数据的最大长度，与BufferPool最大的大小等级一致，避免每批都分配新数组
+     */
+    private static final int MAX_STREAM_BATCH_SIZE = 4 * 1024 * 1024;
+
+    private static volatile boolean parallelEnabled = Boolean.parseBoolean(
+        System.getProperty(PROPERTY_PARALLEL_ENABLED, "true")
+    );
+
+    private static final int parallelThreshold = Math.max(
+        Integer.getInteger(PROPERTY_PARALLEL_THRESHOLD, DEFAULT_PARALLEL_THRESHOLD),
+        BLOCK_SIZE
+    );
+
+    private static final int segmentSize = Math.max(
+        Integer.getInteger(PROPERTY_PARALLEL_SEGMENT_SIZE, DEFAULT_PARALLEL_SEGMENT_SIZE) / BLOCK_SIZE * BLOCK_SIZE,
+        BLOCK_SIZE
+    );
+
+    private static volatile ForkJoinPool forkJoinPool = ForkJoinPool.commonPool();
+
+    /**
+     * 是否启用并行处理
+     *
+     * @return 是否启用
+     */
+    public static boolean isParallelEnabled() {
+        return parallelEnabled;
+    }
+
+    /**
+     * 启用或关闭并行处理，关闭后所有数据均在调用线程中处理
+     *
+     * @param enabled 是否启用
+     */
+    public static void setParallelEnabled(boolean enabled) {
+        CtrCipherUtil.parallelEnabled = enabled;
+    }
+
+    /**
+     * 设置并行处理使用的线程池，默认使用ForkJoinPool.commonPool()
+     *
+     * @param pool 线程池，不可为null
+     */
+    public static void setForkJoinPool(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("pool cannot be null");
+        }
+        CtrCipherUtil.forkJoinPool = pool;
+    }
+
+    /**
+     * 流数据是否可以并行处理：长度未知，启用了并行处理且线程池可并行时，由process先按单线程处理，
+     * 读取的数据达到并行处理阈值后再分段并行处理
+     *
+     * @return 是否并行处理
+     */
+    public static boolean shouldParallelizeStream() {
+        return parallelEnabled && forkJoinPool.getParallelism() > 1;
+    }
+
+    /**
+     * 指定长度的数据是否应当并行处理
+     *
+     * @param length 数据长度
+     * @return 是否并行处理
+     */
+    public static boolean shouldParallelize(long length) {
+        return parallelEnabled && length >= parallelThreshold && forkJoinPool.getParallelism() > 1;
+    }
+
+    /**
+     * 计算从IV开始第blockIndex个分组使用的计数器，即把IV视为128位大端整数加上blockIndex
+     *
+     * @param iv         初始化向量（初始计数器）
+     * @param blockIndex 分组序号
+     * @return 该分组使用的计数器
+     */
+    public static byte[] getCounter(byte[] iv, long blockIndex) {
+        byte[] counter = iv.clone();
+        long carry = blockIndex;
+        for (int i = counter.length - 1; i >= 0 && carry != 0; i--) {
+            long sum = (counter[i] & 0xFF) + (carry & 0xFF);
+            counter[i] = (byte) sum;
+            carry = (carry >>> 8) + (sum >>> 8);
+        }
+        return counter;
+    }
+
+    /**
+     * 将密码器初始化到数据中的指定位置：使用该位置所在分组的计数器初始化，并丢弃分组内位于该位置之前的密钥流
+     *
+     * @param cipher   CTR工作模式的密码器
+     * @param mode     密码器工作模式
+     * @param key      密钥
+     * @param iv       数据起始位置对应的计数器
+     * @param position 数据中的位置（字节）
+     */
+    public static void initCipher(Cipher cipher, int mode, Key key, byte[] iv, long position)
+        throws GeneralSecurityException {
+        cipher.init(mode, key, new IvParameterSpec(getCounter(iv, position / BLOCK_SIZE)));
+        int offsetInBlock = (int) (position % BLOCK_SIZE);
+        if (offsetInBlock > 0) {
+            cipher.update(new byte[offsetInBlock]);
+        }
+    }
+
+    /**
+     * 对字节数组中的数据进行CTR模式加解密，数据较大时按分段并行处理
+     *
+     * @param transformation 加解密算法/工作模式/填充方式，必须为CTR工作模式
+     * @param provider       Provider名称，为null时使用默认Provider
+     * @param mode           密码器工作模式
+     * @param key            密钥
+     * @param iv             数据起始位置对应的计数器
+     * @param input          输入数据
+     * @param inputOffset    输入数据起始位置
+     * @param length         数据长度
+     * @param output         输出缓冲区，可与输入数据为同一数组且起始位置相同
+     * @param outputOffset   输出缓冲区起始位置
+     */
+    public static void process(String transformation,
+                               String provider,
+                               int mode,
+                               Key key,
+                               byte[] iv,
+                               byte[] input,
+                               int inputOffset,
+                               int length,
+                               byte[] output,
+                               int outputOffset) {
+        process(transformation, provider, mode, key, iv,
+            ByteBuffer.wrap(input, inputOffset, length), ByteBuffer.wrap(output, outputOffset, length));
+    }
+
+    /**
+     * 对缓冲区中的数据进行CTR模式加解密，数据较大时按分段并行处理，支持直接缓冲区与文件映射缓冲区
+     * 处理src中position至limit之间的全部数据，结果写入dst的position处，处理完成后两者的position均向后移动数据长度
+     *
+     * @param transformation 加解密算法/工作模式/填充方式，必须为CTR工作模式
+     * @param provider       Provider名称，为null时使用默认Provider
+     * @param mode           密码器工作模式
+     * @param key            密钥
+     * @param iv             src中数据起始位置对应的计数器
+     * @param src            输入缓冲区
+     * @param dst            输出缓冲区，剩余空间不可小于输入数据长度
+     */
+    public static void process(String transformation,
+                               String provider,
+                               int mode,
+                               Key key,
+                               byte[] iv,
+                               ByteBuffer src,
+                               ByteBuffer dst) {
+        int length = src.remaining();
+        if (dst.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        CtrSegmentAction action = new CtrSegmentAction(
+            transformation, provider, mode, key, iv, src, dst, 0, (length + segmentSize - 1) / segmentSize, length
+        );
+        if (length <= segmentSize || !parallelEnabled || forkJoinPool.getParallelism() <= 1) {
+            action.processSegments();
+        } else {
+            forkJoinPool.invoke(action);
+        }
+        src.position(src.position() + length);
+        dst.position(dst.position() + length);
+    }
+
+    /**
+     * 对文件中的数据进行CTR模式加解密，使用文件映射缓冲区读写，避免数据在堆内存与内核之间的额外复制，数据较大时按分段并行处理
+     *
+     * @param transformation 加解密算法/工作模式/填充方式，必须为CTR工作模式
+     * @param provider       Provider名称，为null时使用默认Provider
+     * @param mode           密码器工作模式
+     * @param key            密钥
+     * @param iv             输入数据起始位置对应的计数器
+     * @param in             输入文件通道，需可读
+     * @param inPosition     输入数据在输入文件中的起始位置
+     * @param length         数据长度
+     * @param out            输出文件通道，需可读写
+     * @param outPosition    输出数据在输出文件中的起始位置
+     */
+    public static void process(String transformation,
+                               String provider,
+                               int mode,
+                               Key key,
+                               byte[] iv,
+                               FileChannel in,
+                               long inPosition,
+                               long length,
+                               FileChannel out,
+                               long outPosition) throws IOException {
+        long processed = 0;
+        while (processed < length) {
+            long windowSize = Math.min(MAP_WINDOW_SIZE, length - processed);
+            MappedByteBuffer src = in.map(FileChannel.MapMode.READ_ONLY, inPosition + processed, windowSize);
+            MappedByteBuffer dst = out.map(FileChannel.MapMode.READ_WRITE, outPosition + processed, windowSize);
+            // 映射窗口长度为分组长度的整数倍，因此每个窗口的数据总是从分组边界开始
+            process(transformation, provider, mode, key, getCounter(iv, processed / BLOCK_SIZE), src, dst);
+            processed += windowSize;
+        }
+    }
+
+    /**
+     * 对输入流中的数据进行CTR模式加解密，并写入到输出流中
+     * 读取的数据达到并行处理阈值之前使用流数据处理引擎逐块处理并写出，小数据量与管道等慢速输入不会等待读满大缓冲区；
+     * 超过阈值后每次读取多个分段（最多4MB）的数据并行处理
+     * 注意：该方法不对输入流与输出流做关闭操作，需要外层调用方自行处理
+     *
+     * @param transformation 加解密算法/工作模式/填充方式，必须为CTR工作模式
+     * @param provider       Provider名称，为null时使用默认Provider
+     * @param mode           密码器工作模式
+     * @param key            密钥
+     * @param iv             流中数据起始位置对应的计数器
+     * @param in             输入流
+     * @param out            输出流
+     */
+    public static void process(String transformation,
+                               String provider,
+                               int mode,
+                               Key key,
+                               byte[] iv,
+                               InputStream in,
+                               OutputStream out) throws IOException {
+        process(transformation, provider, mode, key, iv, in, out, StreamCryptoOptions.getDefault());
+    }
+
+    /**
+     * 按调优参数对输入流中的数据进行CTR模式加解密，并写入到输出流中
+     * 达到并行处理阈值之前的数据按调优参数（缓冲区大小、预读）使用流数据处理引擎处理；
+     * 调优参数启用并行时，超过阈值后的数据每次读取多个分段（最多4MB）并行处理，否则全部使用流数据处理引擎
+     * 注意：该方法不对输入流与输出流做关闭操作，需要外层调用方自行处理
+     *
+     * @param transformation 加解密算法/工作模式/填充方式，必须为CTR工作模式
+     * @param provider       Provider名称，为null时使用默认Provider
+     * @param mode           密码器工作模式
+     * @param key            密钥
+     * @param iv             流中数据起始位置对应的计数器
+     * @param in             输入流
+     * @param out            输出流
+     * @param options        流数据处理调优参数
+     */
+    public static void process(String transformation,
+                               String provider,
+                               int mode,
+                               Key key,
+                               byte[] iv,
+                               InputStream in,
+                               OutputStream out,
+                               StreamCryptoOptions options) throws IOException {
+        boolean parallel = options.isParallel() && parallelEnabled && forkJoinPool.getParallelism() > 1;
+        // 单线程处理的长度向上对齐到分组边界，之后并行处理的数据总是从分组边界开始
+        long sequentialLength = parallel ?
+            ((long) parallelThreshold + BLOCK_SIZE - 1) / BLOCK_SIZE * BLOCK_SIZE : Long.MAX_VALUE;
+        long processed;
+        try {
+            // 处理过程中会回调调用方的输入输出流，期间可能再次调用单次加解密接口，因此使用独立的密码器而不是CipherPool中的实例
+            Cipher cipher = provider == null ? Cipher.getInstance(transformation) :
+                Cipher.getInstance(transformation, provider);
+            initCipher(cipher, mode, key, iv, 0);
+            InputStream sequentialIn = parallel ? new BoundedInputStream(in, sequentialLength) : in;
+            processed = BasicCipherUtil.transfer(sequentialIn, out, cipher, options);
+        } catch (GeneralSecurityException e) {
+            throw new CryptoException("Fail to process CTR stream", e);
+        }
+        if (processed < sequentialLength) {
+            return;
+        }
+        int batchSize = (int) Math.max(
+            Math.min((long) segmentSize * forkJoinPool.getParallelism(), MAX_STREAM_BATCH_SIZE), segmentSize
+        );
+        // 池化缓冲区可能大于批长度，只使用前batchSize字节
+        byte[] buffer = BufferPool.acquire(batchSize);
+        try {
+            long blockIndex = processed / BLOCK_SIZE;
+            int len;
+            while ((len = readFully(in, buffer, batchSize)) > 0) {
+                byte[] counter = getCounter(iv, blockIndex);
+                process(transformation, provider, mode, key, counter, buffer, 0, len, buffer, 0);
+                out.write(buffer, 0, len);
+                // 除最后一次外每次都读满一批，批长度为分组长度的整数倍，因此下次读取的数据总是从分组边界开始
+                blockIndex += len / BLOCK_SIZE;
+                if (len < batchSize) {
+                    break;
+                }
+            }
+        } finally {
+            BufferPool.releaseAndClear(buffer);
+        }
+    }
+
+    private static int readFully(InputStream in, byte[] buffer, int length) throws IOException {
+        int total = 0;
+        while (total < length) {
+            int n = in.read(buffer, total, length - total);
+            if (n == -1) {
+                break;
+            }
+            total += n;
+        }
+        return total;
+    }
+
+    /**
+     * 处理[fromSegment, toSegment)范围内分段的任务，范围内多于一个分段时二分后并行处理
+     */
+    private static class CtrSegmentAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final String transformation;
+        private final String provider;
+        private final int mode;
+        private final Key key;
+        private final byte[] iv;
+        private final ByteBuffer input;
+        private final ByteBuffer output;
+        private final int fromSegment;
+        private final int toSegment;
+        private final int length;
+
+        CtrSegmentAction(String transformation,
+                         String provider,
+                         int mode,
+                         Key key,
+                         byte[] iv,
+                         ByteBuffer input,
+                         ByteBuffer output,
+                         int fromSegment,
+                         int toSegment,
+                         int length) {
+            this.transformation = transformation;
+            this.provider = provider;
+            this.mode = mode;
+            this.key = key;
+            this.iv = iv;
+            this.input = input;
+            this.output = output;
+            this.fromSegment = fromSegment;
+            this.toSegment = toSegment;
+            this.length = length;
+        }
+
+        @Override
+        protected void compute() {
+            if (toSegment - fromSegment <= 1) {
+                processSegments();
+                return;
+            }
+            int middle = (fromSegment + toSegment) >>> 1;
+            invokeAll(subAction(fromSegment, middle), subAction(middle, toSegment));
+        }
+
+        private CtrSegmentAction subAction(int from, int to) {
+            return new CtrSegmentAction(transformation, provider, mode, key, iv, input, output, from, to, length);
+        }
+
+        /**
+         * 在当前线程中连续处理范围内的所有分段
+         */
+        void processSegments() {
+            int start = fromSegment * segmentSize;
+            int end = (int) Math.min((long) toSegment * segmentSize, length);
+            if (start >= end) {
+                return;
+            }
+            // 各分段使用独立的视图，不修改调用方缓冲区的position/limit
+            ByteBuffer in = input.duplicate();
+            in.limit(input.position() + end);
+            in.position(input.position() + start);
+            ByteBuffer out = output.duplicate();
+            out.limit(output.position() + end);
+            out.position(output.position() + start);
+            try {
+                Cipher cipher = CipherPool.getCipher(transformation, provider);
+                cipher.init(mode, key, new IvParameterSpec(getCounter(iv, start / BLOCK_SIZE)));
+                cipher.doFinal(in, out);
+            } catch (GeneralSecurityException e) {
+                throw new CryptoException("Fail to process CTR segment", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.util;
+
+import com.tencent.bk.sdk.crypto.exception.CryptoException;
+
+import javax.crypto.Cipher;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+
+/**
+ * CTR工作模式密文的随机访问解密通道（只读）
+ * 底层通道中的数据格式为：[任意头部] + IV + 密文，本通道的position/size均以明文为准，
+ * 定位到任意位置时由IV直接计算该位置的计数器，无需解密之前的数据；顺序读取时复用密码器状态，不重复初始化；
+ * 读取缓冲区为从BufferPool获取的直接缓冲区，关闭通道时归还
+ */
+public class CtrDecryptChannel implements SeekableByteChannel {
+
+    private final SeekableByteChannel channel;
+    /**
+     * 密文在底层通道中的起始位置
+     */
+    private final long dataOffset;
+    private final Key key;
+    private final byte[] iv;
+    private final Cipher cipher;
+    private ByteBuffer buffer;
+
+    /**
+     * 当前读取位置（明文中的偏移量）
+     */
+    private long position = 0;
+    /**
+     * 密码器状态对应的位置，为-1时表示需要重新初始化
+     */
+    private long cipherPosition = -1;
+
+    /**
+     * @param channel        底层通道
+     * @param ivOffset       IV在底层通道中的位置
+     * @param transformation 加解密算法/工作模式/填充方式，必须为CTR工作模式
+     * @param provider       Provider名称，为null时使用默认Provider
+     * @param key            密钥
+     */
+    public CtrDecryptChannel(SeekableByteChannel channel,
+                             long ivOffset,
+                             String transformation,
+                             String provider,
+                             Key key) {
+        this.channel = channel;
+        this.dataOffset = ivOffset + CtrCipherUtil.BLOCK_SIZE;
+        this.key = key;
+        try {
+            this.iv = readIv(channel, ivOffset);
+            this.cipher = provider == null ? Cipher.getInstance(transformation) :
+                Cipher.getInstance(transformation, provider);
+        } catch (IOException | GeneralSecurityException e) {
+            throw new CryptoException("Create cipher error", e);
+        }
+        this.buffer = BufferPool.acquireDirect(StreamUtils.BUFFER_SIZE);
+    }
+
+    private static byte[] readIv(SeekableByteChannel channel, long ivOffset) throws IOException {
+        ByteBuffer ivBuffer = ByteBuffer.allocate(CtrCipherUtil.BLOCK_SIZE);
+        channel.position(ivOffset);
+        while (ivBuffer.hasRemaining()) {
+            if (channel.read(ivBuffer) == -1) {
+                throw new EOFException("Broken iv data.");
+            }
+        }
+        return ivBuffer.array();
+    }
+
+    @Override
+    public synchronized int read(ByteBuffer dst) throws IOException {
+        ensureOpen();
+        if (!dst.hasRemaining()) {
+            return 0;
+        }
+        long remaining = size() - position;
+        if (remaining <= 0) {
+            return -1;
+        }
+        if (cipherPosition != position) {
+            try {
+                CtrCipherUtil.initCipher(cipher, Cipher.DECRYPT_MODE, key, iv, position);
+            } catch (GeneralSecurityException e) {
+                throw new IOException("Fail to init cipher at position " + position, e);
+            }
+            cipherPosition = position;
+        }
+        buffer.clear();
+        buffer.limit((int) Math.min(Math.min(dst.remaining(), buffer.capacity()), remaining));
+        channel.position(dataOffset + position);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) == -1) {
+                break;
+            }
+        }
+        buffer.flip();
+        int n = buffer.remaining();
+        if (n == 0) {
+            return -1;
+        }
+        try {
+            cipher.update(buffer, dst);
+        } catch (GeneralSecurityException e) {
+            cipherPosition = -1;
+            throw new IOException("Fail to decrypt data at position " + position, e);
+        }
+        position += n;
+        cipherPosition = position;
+        return n;
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public synchronized long position() throws IOException {
+        ensureOpen();
+        return position;
+    }
+
+    @Override
+    public synchronized SeekableByteChannel position(long newPosition) throws IOException {
+        ensureOpen();
+        if (newPosition < 0) {
+            throw new IllegalArgumentException("negative position");
+        }
+        this.position = newPosition;
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        return Math.max(channel.size() - dataOffset, 0);
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long size) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            releaseBuffer();
+        }
+    }
+
+    private synchronized void releaseBuffer() {
+        if (buffer != null) {
+            BufferPool.releaseDirect(buffer);
+            buffer = null;
+        }
+    }
+
+    private void ensureOpen() throws ClosedChannelException {
+        if (!channel.isOpen()) {
+            throw new ClosedChannelException();
+        }
+    }
+}
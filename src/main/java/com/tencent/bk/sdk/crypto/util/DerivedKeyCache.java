@@ -0,0 +1,218 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.util;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 派生密钥缓存：以原始密钥字节为键缓存派生得到的密钥，相同密钥的重复加解密操作无需再次派生
+ * 缓存容量有限，超出容量时淘汰最近最少使用的条目，并将被淘汰条目中的原始密钥与派生密钥数据清零
+ */
+public class DerivedKeyCache {
+
+    /**
+     * 访问时间的更新精度，避免热点条目在每次命中时都写共享内存
+     */
+    private static final long ACCESS_TIME_RESOLUTION_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * 密钥派生函数
+     */
+    @FunctionalInterface
+    public interface KeyDeriver {
+        /**
+         * 由原始密钥派生出实际使用的密钥
+         *
+         * @param rawKey 原始密钥字节数组
+         * @return 派生密钥字节数组
+         */
+        byte[] derive(byte[] rawKey) throws GeneralSecurityException;
+    }
+
+    private final String algorithm;
+    private final int maxSize;
+    private final KeyDeriver deriver;
+    private final Map<CacheKey, Entry> cache = new ConcurrentHashMap<>();
+
+    /**
+     * @param algorithm 派生密钥所属的算法名称
+     * @param maxSize   最大缓存条目数，小于等于0时不缓存
+     * @param deriver   密钥派生函数
+     */
+    public DerivedKeyCache(String algorithm, int maxSize, KeyDeriver deriver) {
+        this.algorithm = algorithm;
+        this.maxSize = maxSize;
+        this.deriver = deriver;
+    }
+
+    /**
+     * 获取原始密钥对应的派生密钥，未命中缓存时进行派生并放入缓存
+     *
+     * @param rawKey 原始密钥字节数组
+     * @return 派生密钥
+     */
+    public SecretKeySpec getKeySpec(byte[] rawKey) throws GeneralSecurityException {
+        if (maxSize <= 0) {
+            return new SecretKeySpec(deriver.derive(rawKey), algorithm);
+        }
+        Entry entry = cache.get(new CacheKey(rawKey));
+        if (entry != null) {
+            SecretKeySpec keySpec = entry.readKeySpec(algorithm);
+            if (keySpec != null) {
+                entry.touch();
+                return keySpec;
+            }
+        }
+        byte[] derivedKey = deriver.derive(rawKey);
+        SecretKeySpec keySpec = new SecretKeySpec(derivedKey, algorithm);
+        Entry newEntry = new Entry(new CacheKey(rawKey.clone()), derivedKey);
+        if (cache.putIfAbsent(newEntry.key, newEntry) != null) {
+            // 其他线程已并发放入相同密钥的条目，丢弃当前派生结果
+            newEntry.destroy();
+            return keySpec;
+        }
+        evictIfNecessary();
+        return keySpec;
+    }
+
+    /**
+     * 当前缓存的条目数
+     *
+     * @return 条目数
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * 清空缓存，并将所有条目中的密钥数据清零
+     */
+    public void clear() {
+        for (Entry entry : cache.values()) {
+            if (cache.remove(entry.key, entry)) {
+                entry.destroy();
+            }
+        }
+    }
+
+    private void evictIfNecessary() {
+        while (cache.size() > maxSize) {
+            Entry eldest = null;
+            for (Entry entry : cache.values()) {
+                if (eldest == null || entry.lastAccessNanos - eldest.lastAccessNanos < 0) {
+                    eldest = entry;
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            if (cache.remove(eldest.key, eldest)) {
+                eldest.destroy();
+            }
+        }
+    }
+
+    /**
+     * 以字节内容作为相等性判断依据的缓存键
+     */
+    private static final class CacheKey {
+        private final byte[] bytes;
+        private final int hash;
+
+        CacheKey(byte[] bytes) {
+            this.bytes = bytes;
+            this.hash = Arrays.hashCode(bytes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return hash == other.hash && Arrays.equals(bytes, other.bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+        private final CacheKey key;
+        private final byte[] derivedKey;
+        /**
+         * 读取派生密钥使用乐观读，仅在清零时加写锁，命中路径上的线程之间不产生竞争
+         */
+        private final StampedLock lock = new StampedLock();
+        private boolean destroyed = false;
+        private volatile long lastAccessNanos = System.nanoTime();
+
+        Entry(CacheKey key, byte[] derivedKey) {
+            this.key = key;
+            this.derivedKey = derivedKey;
+        }
+
+        /**
+         * 读取派生密钥，条目已被（或正在被）清零时返回null
+         */
+        SecretKeySpec readKeySpec(String algorithm) {
+            long stamp = lock.tryOptimisticRead();
+            SecretKeySpec keySpec = destroyed ? null : new SecretKeySpec(derivedKey, algorithm);
+            if (!lock.validate(stamp)) {
+                return null;
+            }
+            return keySpec;
+        }
+
+        void touch() {
+            long now = System.nanoTime();
+            if (now - lastAccessNanos > ACCESS_TIME_RESOLUTION_NANOS) {
+                lastAccessNanos = now;
+            }
+        }
+
+        void destroy() {
+            long stamp = lock.writeLock();
+            try {
+                destroyed = true;
+                Arrays.fill(derivedKey, (byte) 0);
+                Arrays.fill(key.bytes, (byte) 0);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+    }
+}
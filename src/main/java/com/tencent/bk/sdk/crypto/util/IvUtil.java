@@ -0,0 +1,117 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * IV生成工具类，SM4Util、AESUtil加密时均通过该类获取IV
+ * 默认使用每个线程独立DRBG实例的ThreadLocalIvGenerator，可通过系统属性或setIvGenerator方法切换实现
+ */
+@Slf4j
+public class IvUtil {
+
+    /**
+     * IV生成器类型的系统属性名称，可选值：threadLocal（默认）、pool、counter
+     */
+    public static final String PROPERTY_IV_GENERATOR = "bk.sdk.crypto.iv.generator";
+
+    public static final String GENERATOR_THREAD_LOCAL = "threadLocal";
+    public static final String GENERATOR_POOL = "pool";
+    public static final String GENERATOR_COUNTER = "counter";
+
+    private static volatile IvGenerator ivGenerator =
+        createIvGenerator(System.getProperty(PROPERTY_IV_GENERATOR, GENERATOR_THREAD_LOCAL));
+
+    /**
+     * 获取当前使用的IV生成器
+     *
+     * @return IV生成器
+     */
+    public static IvGenerator getIvGenerator() {
+        return ivGenerator;
+    }
+
+    /**
+     * 设置SM4Util、AESUtil加密时使用的IV生成器，被替换的生成器实现了Closeable时将其关闭（如停止PooledIvGenerator的后台补充线程）
+     *
+     * @param generator IV生成器，不可为null
+     */
+    public static void setIvGenerator(IvGenerator generator) {
+        if (generator == null) {
+            throw new IllegalArgumentException("generator cannot be null");
+        }
+        IvGenerator oldGenerator = IvUtil.ivGenerator;
+        IvUtil.ivGenerator = generator;
+        if (oldGenerator != generator && oldGenerator instanceof Closeable) {
+            try {
+                ((Closeable) oldGenerator).close();
+            } catch (IOException e) {
+                log.warn("Fail to close replaced IV generator: {}", oldGenerator, e);
+            }
+        }
+    }
+
+    /**
+     * 生成IV并写入数组的指定区间
+     *
+     * @param iv     目标数组
+     * @param offset 起始位置
+     * @param length IV长度
+     */
+    public static void nextIv(byte[] iv, int offset, int length) {
+        ivGenerator.nextIv(iv, offset, length);
+    }
+
+    /**
+     * 生成指定长度的IV
+     *
+     * @param length IV长度
+     * @return IV字节数组
+     */
+    public static byte[] nextIv(int length) {
+        return ivGenerator.nextIv(length);
+    }
+
+    /**
+     * 根据类型名称创建IV生成器
+     *
+     * @param type 类型名称，可选值：threadLocal、pool、counter，无法识别时使用threadLocal
+     * @return IV生成器
+     */
+    public static IvGenerator createIvGenerator(String type) {
+        if (GENERATOR_POOL.equalsIgnoreCase(type)) {
+            return new PooledIvGenerator();
+        } else if (GENERATOR_COUNTER.equalsIgnoreCase(type)) {
+            return new CounterIvGenerator();
+        } else if (!GENERATOR_THREAD_LOCAL.equalsIgnoreCase(type)) {
+            log.warn("Unknown iv generator type: {}, use {} instead", type, GENERATOR_THREAD_LOCAL);
+        }
+        return new ThreadLocalIvGenerator();
+    }
+}
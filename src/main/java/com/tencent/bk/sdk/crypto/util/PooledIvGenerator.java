@@ -0,0 +1,136 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.security.SecureRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 使用随机字节池的IV生成器：后台线程持续批量生成随机字节块放入池中，业务线程取出整块后独占使用，
+ * 生成随机数的开销不计入加密调用；池为空时由业务线程使用自身的随机数生成器临时生成，不会阻塞
+ * 每个随机字节块只会被一个线程使用一次
+ */
+@Slf4j
+public class PooledIvGenerator implements IvGenerator, Closeable {
+
+    private static final int DEFAULT_CHUNK_SIZE = 4096;
+    private static final int DEFAULT_POOL_SIZE = 64;
+
+    private final int chunkSize;
+    private final BlockingQueue<byte[]> pool;
+    private final ThreadLocal<Chunk> chunks = ThreadLocal.withInitial(Chunk::new);
+    private final ThreadLocal<SecureRandom> fallbackRandoms =
+        ThreadLocal.withInitial(ThreadLocalIvGenerator::newSecureRandom);
+    private final Thread refillThread;
+    private volatile boolean running = true;
+
+    public PooledIvGenerator() {
+        this(DEFAULT_CHUNK_SIZE, DEFAULT_POOL_SIZE);
+    }
+
+    /**
+     * @param chunkSize 每个随机字节块的长度
+     * @param poolSize  池中最多缓存的随机字节块数量
+     */
+    public PooledIvGenerator(int chunkSize, int poolSize) {
+        if (chunkSize <= 0 || poolSize <= 0) {
+            throw new IllegalArgumentException(
+                "chunkSize and poolSize must be positive: chunkSize=" + chunkSize + ", poolSize=" + poolSize
+            );
+        }
+        this.chunkSize = chunkSize;
+        this.pool = new ArrayBlockingQueue<>(poolSize);
+        this.refillThread = new Thread(this::refill, "bk-crypto-iv-pool-refill");
+        this.refillThread.setDaemon(true);
+        this.refillThread.start();
+    }
+
+    @Override
+    public void nextIv(byte[] iv, int offset, int length) {
+        Chunk chunk = chunks.get();
+        while (length > 0) {
+            if (chunk.buffer == null || chunk.position == chunk.buffer.length) {
+                chunk.buffer = takeChunk();
+                chunk.position = 0;
+            }
+            int n = Math.min(length, chunk.buffer.length - chunk.position);
+            System.arraycopy(chunk.buffer, chunk.position, iv, offset, n);
+            chunk.position += n;
+            offset += n;
+            length -= n;
+        }
+    }
+
+    /**
+     * 当前池中可用的随机字节块数量
+     *
+     * @return 随机字节块数量
+     */
+    public int getAvailableChunks() {
+        return pool.size();
+    }
+
+    /**
+     * 停止后台补充线程，之后仍可继续生成IV（由业务线程自行生成随机字节）
+     */
+    @Override
+    public void close() {
+        running = false;
+        refillThread.interrupt();
+    }
+
+    private byte[] takeChunk() {
+        byte[] buffer = pool.poll();
+        if (buffer == null) {
+            buffer = new byte[chunkSize];
+            fallbackRandoms.get().nextBytes(buffer);
+        }
+        return buffer;
+    }
+
+    private void refill() {
+        SecureRandom random = ThreadLocalIvGenerator.newSecureRandom();
+        try {
+            while (running) {
+                byte[] buffer = new byte[chunkSize];
+                random.nextBytes(buffer);
+                pool.put(buffer);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable t) {
+            log.error("IV pool refill thread exits unexpectedly", t);
+        }
+    }
+
+    private static class Chunk {
+        private byte[] buffer;
+        private int position;
+    }
+}
@@ -61,7 +61,7 @@ public class RSAUtil {
             throw new CryptoException("messageBytes is invalid: null or empty");
         }
         try {
-            Cipher cipher = Cipher.getInstance(KEY_ALGORITHM);
+            Cipher cipher = CipherPool.getCipher(KEY_ALGORITHM, null);
             cipher.init(Cipher.ENCRYPT_MODE, publicKey);
             return cipher.doFinal(messageBytes);
         } catch (GeneralSecurityException e) {
@@ -73,10 +73,26 @@ public class RSAUtil {
         if (cipherBytes == null || cipherBytes.length == 0) {
             throw new CryptoException("cipherBytes is invalid: null or empty");
         }
+        return decryptToBytes(privateKey, cipherBytes, 0, cipherBytes.length);
+    }
+
+    /**
+     * 解密数组指定区间中的密文，不复制密文
+     *
+     * @param privateKey  私钥
+     * @param cipherBytes 密文所在的字节数组
+     * @param offset      密文起始位置
+     * @param length      密文长度
+     * @return 明文字节数组
+     */
+    public static byte[] decryptToBytes(PrivateKey privateKey, byte[] cipherBytes, int offset, int length) {
+        if (length == 0) {
+            throw new CryptoException("cipherBytes is invalid: empty");
+        }
         try {
-            Cipher cipher = Cipher.getInstance(KEY_ALGORITHM);
+            Cipher cipher = CipherPool.getCipher(KEY_ALGORITHM, null);
             cipher.init(Cipher.DECRYPT_MODE, privateKey);
-            return cipher.doFinal(cipherBytes);
+            return cipher.doFinal(cipherBytes, offset, length);
         } catch (GeneralSecurityException e) {
             throw new CryptoException("Fail to decrypt cipher using RSA", e);
         }
@@ -49,6 +49,7 @@ import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.security.Security;
 import java.security.spec.InvalidKeySpecException;
+import java.util.Arrays;
 
 import static com.tencent.kona.crypto.CryptoUtils.toHex;
 
@@ -147,8 +148,22 @@ public class SM2Util {
      * @throws SM2DecryptException 解密失败异常信息
      */
     public static byte[] decrypt(PrivateKey privateKey, byte[] encryptedMessage) {
+        return decrypt(privateKey, encryptedMessage, 0, encryptedMessage.length);
+    }
+
+    /**
+     * 使用SM2私钥对密文数组指定区间中的内容进行解密，不复制密文
+     *
+     * @param privateKey       SM2私钥
+     * @param encryptedMessage 密文所在的字节数组
+     * @param offset           密文起始位置
+     * @param length           密文长度
+     * @return 明文字节数组
+     * @throws SM2DecryptException 解密失败异常信息
+     */
+    public static byte[] decrypt(PrivateKey privateKey, byte[] encryptedMessage, int offset, int length) {
         try {
-            return doDecrypt(privateKey, encryptedMessage);
+            return doDecrypt(privateKey, encryptedMessage, offset, length);
         } catch (Exception e) {
             throw new SM2DecryptException("Fail to decrypt encryptedMessage using SM2", e);
         }
@@ -166,7 +181,7 @@ public class SM2Util {
     private static byte[] doEncrypt(PublicKey publicKey, byte[] message) throws NoSuchProviderException,
         NoSuchAlgorithmException, NoSuchPaddingException, InvalidKeyException, BadPaddingException,
         IllegalBlockSizeException {
-        Cipher cipher = Cipher.getInstance(ALGORITHM_SM2, PROVIDER_NAME_KONA_CRYPTO);
+        Cipher cipher = CipherPool.getCipher(ALGORITHM_SM2, PROVIDER_NAME_KONA_CRYPTO);
 
         cipher.init(Cipher.ENCRYPT_MODE, publicKey);
         byte[] encryptedMessage = cipher.doFinal(message);
@@ -186,20 +201,20 @@ public class SM2Util {
         KeyFactory keyFactory = KeyFactory.getInstance(ALGORITHM_SM2, PROVIDER_NAME_KONA_CRYPTO);
         SM2PrivateKeySpec privateKeySpec = new SM2PrivateKeySpec(privateKey);
         PrivateKey priKey = keyFactory.generatePrivate(privateKeySpec);
-        return doDecrypt(priKey, encryptedMessage);
+        return doDecrypt(priKey, encryptedMessage, 0, encryptedMessage.length);
     }
 
-    private static byte[] doDecrypt(PrivateKey privateKey, byte[] encryptedMessage) throws NoSuchProviderException,
-        NoSuchAlgorithmException, NoSuchPaddingException, InvalidKeyException,
+    private static byte[] doDecrypt(PrivateKey privateKey, byte[] encryptedMessage, int offset, int length)
+        throws NoSuchProviderException, NoSuchAlgorithmException, NoSuchPaddingException, InvalidKeyException,
         BadPaddingException, IllegalBlockSizeException {
-        Cipher cipher = Cipher.getInstance(ALGORITHM_SM2, PROVIDER_NAME_KONA_CRYPTO);
+        Cipher cipher = CipherPool.getCipher(ALGORITHM_SM2, PROVIDER_NAME_KONA_CRYPTO);
 
         cipher.init(Cipher.DECRYPT_MODE, privateKey);
-        byte[] decryptedMessage = cipher.doFinal(encryptedMessage);
+        byte[] decryptedMessage = cipher.doFinal(encryptedMessage, offset, length);
         if (log.isDebugEnabled()) {
             log.debug(
                 "privateKey=" + toHex(privateKey.getEncoded())
-                    + ",encryptedMessage=" + toHex(encryptedMessage)
+                    + ",encryptedMessage=" + toHex(Arrays.copyOfRange(encryptedMessage, offset, offset + length))
                     + ",decryptedMessage=" + toHex(decryptedMessage)
             );
         }
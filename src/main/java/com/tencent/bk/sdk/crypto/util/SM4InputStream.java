@@ -1,16 +1,24 @@
 package com.tencent.bk.sdk.crypto.util;
 
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 
 /**
- * 读取数据时，使用SM4进行解密
+ * 读取数据时，使用SM4进行解密，支持O(1)跳过（见CtrCipherInputStream）
  */
-public class SM4InputStream extends CipherInputStream {
+public class SM4InputStream extends CtrCipherInputStream {
     public SM4InputStream(InputStream in, String key, int size) {
-        super(in, SM4Util.creatDecryptCipher(key, in), size);
+        super(
+            in,
+            SM4Util.TRANSFORMATION_SM4_CTR_NO_PADDING,
+            SM4Util.PROVIDER_NAME_KONA_CRYPTO,
+            SM4Util.toSecretKey(key.getBytes(StandardCharsets.UTF_8)),
+            SM4Util.readIv(in),
+            size
+        );
     }
 
     public SM4InputStream(InputStream in, String key) {
-        super(in, SM4Util.creatDecryptCipher(key, in), StreamUtils.BUFFER_SIZE);
+        this(in, key, StreamUtils.BUFFER_SIZE);
     }
 }
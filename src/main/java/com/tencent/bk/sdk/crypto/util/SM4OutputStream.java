@@ -6,10 +6,15 @@ import static com.tencent.bk.sdk.crypto.util.SM4Util.creatEncryptCipher;
 
 /**
  * 数据写入时，使用SM4进行加密
+ * 数据格式与SM4Util.encrypt(String, InputStream, OutputStream)的输出一致：IV + 密文，需调用close结束写入
  */
 public class SM4OutputStream extends CipherOutputStream {
 
     public SM4OutputStream(OutputStream out, String key) {
         super(out, creatEncryptCipher(key));
     }
+
+    public SM4OutputStream(OutputStream out, String key, int size) {
+        super(out, creatEncryptCipher(key), size);
+    }
 }
@@ -33,18 +33,21 @@ import com.tencent.bk.sdk.crypto.exception.SM4EncryptException;
 import com.tencent.kona.crypto.KonaCryptoProvider;
 import lombok.extern.slf4j.Slf4j;
 
-import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
-import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.SecretKey;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.StandardCharsets;
-import java.security.SecureRandom;
 import java.security.Security;
+import java.util.Arrays;
 
 import static com.tencent.kona.crypto.CryptoUtils.toHex;
 
@@ -57,7 +60,7 @@ public class SM4Util extends BasicCipherUtil {
     /**
      * Kona加解密算法Provider名称
      */
-    private static final String PROVIDER_NAME_KONA_CRYPTO = "KonaCrypto";
+    static final String PROVIDER_NAME_KONA_CRYPTO = "KonaCrypto";
     /**
      * 加解密算法
      */
@@ -65,15 +68,11 @@ public class SM4Util extends BasicCipherUtil {
     /**
      * 加解密算法/工作模式/填充方式
      */
-    private static final String TRANSFORMATION_SM4_CTR_NO_PADDING = "SM4/CTR/NoPadding";
+    static final String TRANSFORMATION_SM4_CTR_NO_PADDING = "SM4/CTR/NoPadding";
     /**
      * CTR工作模式下的初始化向量长度
      */
     private static final int CTR_IV_LENGTH = 16;
-    /**
-     * 随机数发生器，用于生成随机IV
-     */
-    private static final SecureRandom random = new SecureRandom();
 
 
     static {
@@ -92,13 +91,81 @@ public class SM4Util extends BasicCipherUtil {
      * @throws SM4EncryptException 加密失败异常信息
      */
     public static byte[] encrypt(byte[] key, byte[] message) {
+        return encryptWithSecretKey(toSecretKey(key), message);
+    }
+
+    /**
+     * 使用预先转换好的SM4密钥，以SM4/CTR/NoPadding对明文内容进行加密
+     *
+     * @param secretKey SM4密钥，可通过toSecretKey方法由密钥字节数组得到
+     * @param message   明文字节数组
+     * @return 首部含IV的密文字节数组
+     * @throws SM4EncryptException 加密失败异常信息
+     */
+    public static byte[] encryptWithSecretKey(SecretKey secretKey, byte[] message) {
+        byte[] finalBytes = new byte[message.length + CTR_IV_LENGTH];
+        encrypt(secretKey, message, 0, message.length, finalBytes, 0);
+        return finalBytes;
+    }
+
+    /**
+     * 使用预先转换好的SM4密钥，以SM4/CTR/NoPadding对明文数组的指定区间进行加密，将IV与密文直接写入输出数组
+     * 除IV外不分配与明文等长的中间数组
+     *
+     * @param secretKey    SM4密钥，可通过toSecretKey方法由密钥字节数组得到
+     * @param message      明文字节数组
+     * @param offset       明文起始位置
+     * @param length       明文长度
+     * @param output       输出字节数组，从outputOffset开始的剩余空间不可小于明文长度 + 16字节（IV）
+     * @param outputOffset 输出起始位置
+     * @return 写入输出数组的字节数
+     * @throws SM4EncryptException 加密失败异常信息
+     */
+    public static int encrypt(SecretKey secretKey, byte[] message, int offset, int length,
+                              byte[] output, int outputOffset) {
         try {
+            if (output.length - outputOffset < length + CTR_IV_LENGTH) {
+                throw new ShortBufferException(
+                    "Output buffer too small: required=" + (length + CTR_IV_LENGTH)
+                        + ", remaining=" + (output.length - outputOffset)
+                );
+            }
             byte[] iv = getRandomIv();
-            byte[] cipherBytes = encryptWithIV(key, iv, message);
-            byte[] finalBytes = new byte[cipherBytes.length + CTR_IV_LENGTH];
-            System.arraycopy(iv, 0, finalBytes, 0, iv.length);
-            System.arraycopy(cipherBytes, 0, finalBytes, iv.length, cipherBytes.length);
-            return finalBytes;
+            System.arraycopy(iv, 0, output, outputOffset, iv.length);
+            if (CtrCipherUtil.shouldParallelize(length)) {
+                CtrCipherUtil.process(TRANSFORMATION_SM4_CTR_NO_PADDING, PROVIDER_NAME_KONA_CRYPTO,
+                    Cipher.ENCRYPT_MODE, secretKey, iv, message, offset, length, output, outputOffset + iv.length);
+                return length + iv.length;
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("key=" + toHex(secretKey.getEncoded()) + ",iv=" + toHex(iv)
+                    + ",message=" + toHex(Arrays.copyOfRange(message, offset, offset + length)));
+            }
+            Cipher cipher = getPooledCipher(secretKey, iv, Cipher.ENCRYPT_MODE);
+            return iv.length + cipher.doFinal(message, offset, length, output, outputOffset + iv.length);
+        } catch (Exception e) {
+            throw new SM4EncryptException("Fail to encrypt message using SM4", e);
+        }
+    }
+
+    /**
+     * 使用预先转换好的SM4密钥，以SM4/CTR/NoPadding对输入缓冲区中的明文进行加密，将IV与密文直接写入输出缓冲区
+     * 支持直接缓冲区，处理完成后输入缓冲区与输出缓冲区的position均向后移动
+     *
+     * @param secretKey SM4密钥，可通过toSecretKey方法由密钥字节数组得到
+     * @param src       明文缓冲区，处理position至limit之间的全部数据
+     * @param dst       输出缓冲区，剩余空间不可小于明文长度 + 16字节（IV）
+     * @throws SM4EncryptException 加密失败异常信息
+     */
+    public static void encrypt(SecretKey secretKey, ByteBuffer src, ByteBuffer dst) {
+        try {
+            if (dst.remaining() < src.remaining() + CTR_IV_LENGTH) {
+                throw new BufferOverflowException();
+            }
+            byte[] iv = getRandomIv();
+            dst.put(iv);
+            CtrCipherUtil.process(TRANSFORMATION_SM4_CTR_NO_PADDING, PROVIDER_NAME_KONA_CRYPTO,
+                Cipher.ENCRYPT_MODE, secretKey, iv, src, dst);
         } catch (Exception e) {
             throw new SM4EncryptException("Fail to encrypt message using SM4", e);
         }
@@ -113,12 +180,56 @@ public class SM4Util extends BasicCipherUtil {
      * @param out 输出流
      */
     public static void encrypt(String key, InputStream in, OutputStream out) throws Exception {
+        encrypt(key, in, out, StreamCryptoOptions.getDefault());
+    }
+
+    /**
+     * 对输入流中的数据加密，并写入到输出流中
+     * 按调优参数使用流数据处理引擎；调优参数启用并行（默认参数启用）且并行CTR可用时，
+     * 读取的数据超过并行阈值后每次读取多个分段并行处理
+     * 注意：该方法不对输入流与输出流做关闭操作，需要外层调用方自行处理
+     *
+     * @param key     密钥
+     * @param in      输入流
+     * @param out     输出流
+     * @param options 流数据处理调优参数
+     */
+    public static void encrypt(String key, InputStream in, OutputStream out, StreamCryptoOptions options)
+        throws Exception {
+        if (options.isParallel() && CtrCipherUtil.shouldParallelizeStream()) {
+            SecretKey secretKey = toSecretKey(key.getBytes(StandardCharsets.UTF_8));
+            byte[] iv = getRandomIv();
+            out.write(iv);
+            CtrCipherUtil.process(TRANSFORMATION_SM4_CTR_NO_PADDING, PROVIDER_NAME_KONA_CRYPTO,
+                Cipher.ENCRYPT_MODE, secretKey, iv, in, out, options);
+            return;
+        }
         Cipher cipher = creatEncryptCipher(key);
         byte[] iv = cipher.getIV();
         if (iv != null) {
             out.write(iv);
         }
-        write(in, out, cipher);
+        transfer(in, out, cipher, options);
+    }
+
+    /**
+     * 对输入文件通道中当前位置之后的数据加密，并从输出文件通道的当前位置开始写入IV与密文
+     * 使用文件映射缓冲区读写，数据较大时并行处理；注意：该方法不对文件通道做关闭操作，需要外层调用方自行处理
+     *
+     * @param key 密钥
+     * @param in  输入文件通道，需可读
+     * @param out 输出文件通道，需可读写
+     */
+    public static void encryptFile(String key, FileChannel in, FileChannel out) throws IOException {
+        SecretKey secretKey = toSecretKey(key.getBytes(StandardCharsets.UTF_8));
+        byte[] iv = getRandomIv();
+        long outPosition = out.position();
+        writeFully(out, ByteBuffer.wrap(iv));
+        long length = in.size() - in.position();
+        CtrCipherUtil.process(TRANSFORMATION_SM4_CTR_NO_PADDING, PROVIDER_NAME_KONA_CRYPTO, Cipher.ENCRYPT_MODE,
+            secretKey, iv, in, in.position(), length, out, outPosition + CTR_IV_LENGTH);
+        in.position(in.size());
+        out.position(outPosition + CTR_IV_LENGTH + length);
     }
 
     /**
@@ -130,18 +241,100 @@ public class SM4Util extends BasicCipherUtil {
      * @throws SM4DecryptException 解密失败异常信息
      */
     public static byte[] decrypt(byte[] key, byte[] encryptedMessageWithIV) {
+        return decryptWithSecretKey(toSecretKey(key), encryptedMessageWithIV);
+    }
+
+    /**
+     * 使用预先转换好的SM4密钥，以SM4/CTR/NoPadding对密文内容进行解密
+     *
+     * @param secretKey              SM4密钥，可通过toSecretKey方法由密钥字节数组得到
+     * @param encryptedMessageWithIV 首部含IV的密文字节数组
+     * @return 明文字节数组
+     * @throws SM4DecryptException 解密失败异常信息
+     */
+    public static byte[] decryptWithSecretKey(SecretKey secretKey, byte[] encryptedMessageWithIV) {
+        return decryptWithSecretKey(secretKey, encryptedMessageWithIV, 0, encryptedMessageWithIV.length);
+    }
+
+    /**
+     * 使用预先转换好的SM4密钥，以SM4/CTR/NoPadding对密文数组指定区间中的内容进行解密，不复制密文
+     *
+     * @param secretKey              SM4密钥，可通过toSecretKey方法由密钥字节数组得到
+     * @param encryptedMessageWithIV 首部含IV的密文所在的字节数组
+     * @param offset                 密文（含IV）起始位置
+     * @param length                 密文（含IV）长度
+     * @return 明文字节数组
+     * @throws SM4DecryptException 解密失败异常信息
+     */
+    public static byte[] decryptWithSecretKey(SecretKey secretKey, byte[] encryptedMessageWithIV,
+                                              int offset, int length) {
+        if (length < CTR_IV_LENGTH) {
+            throw new SM4DecryptException("Unexpected encryptedMessageWithIV length:" + length);
+        }
+        byte[] message = new byte[length - CTR_IV_LENGTH];
+        decrypt(secretKey, encryptedMessageWithIV, offset, length, message, 0);
+        return message;
+    }
+
+    /**
+     * 使用预先转换好的SM4密钥，以SM4/CTR/NoPadding对密文数组指定区间中的内容进行解密，将明文直接写入输出数组
+     *
+     * @param secretKey              SM4密钥，可通过toSecretKey方法由密钥字节数组得到
+     * @param encryptedMessageWithIV 首部含IV的密文所在的字节数组
+     * @param offset                 密文（含IV）起始位置
+     * @param length                 密文（含IV）长度
+     * @param output                 输出字节数组，从outputOffset开始的剩余空间不可小于密文长度 - 16字节（IV）
+     * @param outputOffset           输出起始位置
+     * @return 写入输出数组的字节数
+     * @throws SM4DecryptException 解密失败异常信息
+     */
+    public static int decrypt(SecretKey secretKey, byte[] encryptedMessageWithIV, int offset, int length,
+                              byte[] output, int outputOffset) {
+        try {
+            if (length < CTR_IV_LENGTH) {
+                throw new SM4DecryptException("Unexpected encryptedMessageWithIV length:" + length);
+            }
+            byte[] iv = Arrays.copyOfRange(encryptedMessageWithIV, offset, offset + CTR_IV_LENGTH);
+            int encryptedMessageOffset = offset + CTR_IV_LENGTH;
+            int encryptedMessageLength = length - CTR_IV_LENGTH;
+            if (CtrCipherUtil.shouldParallelize(encryptedMessageLength)) {
+                CtrCipherUtil.process(TRANSFORMATION_SM4_CTR_NO_PADDING, PROVIDER_NAME_KONA_CRYPTO,
+                    Cipher.DECRYPT_MODE, secretKey, iv, encryptedMessageWithIV, encryptedMessageOffset,
+                    encryptedMessageLength, output, outputOffset);
+                return encryptedMessageLength;
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("key=" + toHex(secretKey.getEncoded()) + ",iv=" + toHex(iv) + ",encryptedMessage="
+                    + toHex(Arrays.copyOfRange(encryptedMessageWithIV, encryptedMessageOffset, offset + length)));
+            }
+            Cipher cipher = getPooledCipher(secretKey, iv, Cipher.DECRYPT_MODE);
+            return cipher.doFinal(encryptedMessageWithIV, encryptedMessageOffset, encryptedMessageLength,
+                output, outputOffset);
+        } catch (Exception e) {
+            throw new SM4DecryptException("Fail to decrypt encryptedMessageWithIV using SM4", e);
+        }
+    }
+
+    /**
+     * 使用预先转换好的SM4密钥，以SM4/CTR/NoPadding对输入缓冲区中的密文（首部含IV）进行解密，将明文直接写入输出缓冲区
+     * 支持直接缓冲区，处理完成后输入缓冲区与输出缓冲区的position均向后移动
+     *
+     * @param secretKey SM4密钥，可通过toSecretKey方法由密钥字节数组得到
+     * @param src       首部含IV的密文缓冲区，处理position至limit之间的全部数据
+     * @param dst       输出缓冲区，剩余空间不可小于密文长度 - 16字节（IV）
+     * @throws SM4DecryptException 解密失败异常信息
+     */
+    public static void decrypt(SecretKey secretKey, ByteBuffer src, ByteBuffer dst) {
         try {
-            if (encryptedMessageWithIV.length < CTR_IV_LENGTH) {
+            if (src.remaining() < CTR_IV_LENGTH) {
                 throw new SM4DecryptException(
-                        "Unexpected encryptedMessageWithIV length:" + encryptedMessageWithIV.length
+                        "Unexpected encryptedMessageWithIV length:" + src.remaining()
                 );
             }
             byte[] iv = new byte[CTR_IV_LENGTH];
-            System.arraycopy(encryptedMessageWithIV, 0, iv, 0, iv.length);
-            int encryptedMessageLength = encryptedMessageWithIV.length - CTR_IV_LENGTH;
-            byte[] encryptedMessage = new byte[encryptedMessageLength];
-            System.arraycopy(encryptedMessageWithIV, CTR_IV_LENGTH, encryptedMessage, 0, encryptedMessage.length);
-            return decryptWithIV(key, iv, encryptedMessage);
+            src.get(iv);
+            CtrCipherUtil.process(TRANSFORMATION_SM4_CTR_NO_PADDING, PROVIDER_NAME_KONA_CRYPTO,
+                Cipher.DECRYPT_MODE, secretKey, iv, src, dst);
         } catch (Exception e) {
             throw new SM4DecryptException("Fail to decrypt encryptedMessageWithIV using SM4", e);
         }
@@ -156,8 +349,58 @@ public class SM4Util extends BasicCipherUtil {
      * @param out 输出流
      */
     public static void decrypt(String key, InputStream in, OutputStream out) throws Exception {
+        decrypt(key, in, out, StreamCryptoOptions.getDefault());
+    }
+
+    /**
+     * 对输入流中的数据解密，并写入到输出流中
+     * 按调优参数使用流数据处理引擎；调优参数启用并行（默认参数启用）且并行CTR可用时，
+     * 读取的数据超过并行阈值后每次读取多个分段并行处理
+     * 注意：该方法不对输入流与输出流做关闭操作，需要外层调用方自行处理
+     *
+     * @param key     密钥
+     * @param in      输入流
+     * @param out     输出流
+     * @param options 流数据处理调优参数
+     */
+    public static void decrypt(String key, InputStream in, OutputStream out, StreamCryptoOptions options)
+        throws Exception {
+        if (options.isParallel() && CtrCipherUtil.shouldParallelizeStream()) {
+            byte[] iv = new byte[CTR_IV_LENGTH];
+            if (in.read(iv) != CTR_IV_LENGTH) {
+                throw new IllegalStateException("Broken iv data.");
+            }
+            SecretKey secretKey = toSecretKey(key.getBytes(StandardCharsets.UTF_8));
+            CtrCipherUtil.process(TRANSFORMATION_SM4_CTR_NO_PADDING, PROVIDER_NAME_KONA_CRYPTO,
+                Cipher.DECRYPT_MODE, secretKey, iv, in, out, options);
+            return;
+        }
         Cipher cipher = creatDecryptCipher(key, in);
-        write(in, out, cipher);
+        transfer(in, out, cipher, options);
+    }
+
+    /**
+     * 对输入文件通道中当前位置之后的数据（IV + 密文）解密，并从输出文件通道的当前位置开始写入明文
+     * 使用文件映射缓冲区读写，数据较大时并行处理；注意：该方法不对文件通道做关闭操作，需要外层调用方自行处理
+     *
+     * @param key 密钥
+     * @param in  输入文件通道，需可读
+     * @param out 输出文件通道，需可读写
+     */
+    public static void decryptFile(String key, FileChannel in, FileChannel out) throws IOException {
+        ByteBuffer ivBuffer = ByteBuffer.allocate(CTR_IV_LENGTH);
+        while (ivBuffer.hasRemaining()) {
+            if (in.read(ivBuffer) == -1) {
+                throw new IllegalStateException("Broken iv data.");
+            }
+        }
+        SecretKey secretKey = toSecretKey(key.getBytes(StandardCharsets.UTF_8));
+        long outPosition = out.position();
+        long length = in.size() - in.position();
+        CtrCipherUtil.process(TRANSFORMATION_SM4_CTR_NO_PADDING, PROVIDER_NAME_KONA_CRYPTO, Cipher.DECRYPT_MODE,
+            secretKey, ivBuffer.array(), in, in.position(), length, out, outPosition);
+        in.position(in.size());
+        out.position(outPosition + length);
     }
 
     /**
@@ -178,14 +421,45 @@ public class SM4Util extends BasicCipherUtil {
      * @param in  输入流
      */
     public static Cipher creatDecryptCipher(String key, InputStream in) {
+        byte[] iv = readIv(in);
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        return creatCipher(keyBytes, iv, Cipher.DECRYPT_MODE);
+    }
+
+    /**
+     * 打开一个可随机访问的解密通道，读取任意位置的明文时只需解密该位置附近的数据
+     * 注意：关闭返回的通道时会同时关闭底层通道
+     *
+     * @param key      密钥
+     * @param channel  密文所在的通道，如FileChannel
+     * @param ivOffset IV在通道中的位置，如SM4Util.encrypt(String, InputStream, OutputStream)输出的数据为0，
+     *                 SM4Cryptor输出的数据为元数据前缀的长度
+     * @return 明文视图的只读通道
+     */
+    public static SeekableByteChannel openDecryptChannel(String key, SeekableByteChannel channel, long ivOffset) {
+        return new CtrDecryptChannel(
+            channel,
+            ivOffset,
+            TRANSFORMATION_SM4_CTR_NO_PADDING,
+            PROVIDER_NAME_KONA_CRYPTO,
+            toSecretKey(key.getBytes(StandardCharsets.UTF_8))
+        );
+    }
+
+    /**
+     * 从输入流中读取IV，iv值在流的头16个字节
+     *
+     * @param in 输入流
+     * @return iv数据
+     */
+    static byte[] readIv(InputStream in) {
         try {
             byte[] iv = new byte[CTR_IV_LENGTH];
             int read = in.read(iv);
             if (read != CTR_IV_LENGTH) {
                 throw new IllegalStateException("Broken iv data.");
             }
-            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
-            return creatCipher(keyBytes, iv, Cipher.DECRYPT_MODE);
+            return iv;
         } catch (IOException e) {
             throw new CryptoException("Create cipher error", e);
         }
@@ -199,39 +473,55 @@ public class SM4Util extends BasicCipherUtil {
      * @param mode     密码器工作模式
      */
     public static Cipher creatCipher(byte[] keyBytes, byte[] iv, int mode) {
+        return creatCipher(toSecretKey(keyBytes), iv, mode);
+    }
+
+    /**
+     * 使用指定的SM4密钥和iv数据创建对应mode的密码器
+     *
+     * @param secretKey SM4密钥
+     * @param iv        iv数据
+     * @param mode      密码器工作模式
+     */
+    public static Cipher creatCipher(SecretKey secretKey, byte[] iv, int mode) {
         try {
             Cipher cipher = Cipher.getInstance(TRANSFORMATION_SM4_CTR_NO_PADDING, PROVIDER_NAME_KONA_CRYPTO);
-            SecretKey secretKey = new SecretKeySpec(paddingKey(keyBytes), ALGORITHM_SM4);
-            IvParameterSpec paramSpec = new IvParameterSpec(iv);
-            cipher.init(mode, secretKey, paramSpec);
+            cipher.init(mode, secretKey, new IvParameterSpec(iv));
             return cipher;
         } catch (Exception e) {
             throw new CryptoException("Create cipher error", e);
         }
     }
 
-    private static byte[] decryptWithIV(byte[] key, byte[] iv, byte[] encryptedMessage) throws
-            BadPaddingException, IllegalBlockSizeException {
-        if (log.isDebugEnabled()) {
-            log.debug("key=" + toHex(key) + ",iv=" + toHex(iv) + ",encryptedMessage=" + toHex(encryptedMessage));
-        }
-        Cipher cipher = creatCipher(key, iv, Cipher.DECRYPT_MODE);
-        return cipher.doFinal(encryptedMessage);
+    /**
+     * 将密钥字节数组补齐为16字节后转换为SM4密钥，可预先转换并复用以避免每次加解密时重复处理密钥
+     *
+     * @param key 密钥字节数组
+     * @return SM4密钥
+     */
+    public static SecretKey toSecretKey(byte[] key) {
+        return new SecretKeySpec(paddingKey(key), ALGORITHM_SM4);
     }
 
-    private static byte[] encryptWithIV(byte[] key, byte[] iv, byte[] message) throws
-            BadPaddingException, IllegalBlockSizeException {
-        if (log.isDebugEnabled()) {
-            log.debug("key=" + toHex(key) + ",iv=" + toHex(iv) + ",message=" + toHex(message));
+    /**
+     * 从密码器池中获取并初始化一个仅用于单次加解密操作的密码器
+     *
+     * @param secretKey SM4密钥
+     * @param iv        iv数据
+     * @param mode      密码器工作模式
+     */
+    private static Cipher getPooledCipher(SecretKey secretKey, byte[] iv, int mode) {
+        try {
+            Cipher cipher = CipherPool.getCipher(TRANSFORMATION_SM4_CTR_NO_PADDING, PROVIDER_NAME_KONA_CRYPTO);
+            cipher.init(mode, secretKey, new IvParameterSpec(iv));
+            return cipher;
+        } catch (Exception e) {
+            throw new CryptoException("Create cipher error", e);
         }
-        Cipher cipher = creatCipher(key, iv, Cipher.ENCRYPT_MODE);
-        return cipher.doFinal(message);
     }
 
     private static byte[] getRandomIv() {
-        byte[] iv = new byte[CTR_IV_LENGTH];
-        random.nextBytes(iv);
-        return iv;
+        return IvUtil.nextIv(CTR_IV_LENGTH);
     }
 
     /**
@@ -0,0 +1,141 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.util;
+
+/**
+ * 流数据加解密的调优参数：读取缓冲区从初始大小开始，每次读取都读满缓冲区时加倍，直至最大大小，
+ * 因此小数据量不会占用大缓冲区，大数据量（如高速磁盘、对象存储）很快以大块读写；
+ * 启用预读后由后台线程读取下一块数据，与当前块的加解密及写出同时进行；
+ * 启用并行后SM4/AES流数据读取的数据超过并行CTR阈值时改为每次读取多个分段并行处理（CtrCipherUtil），
+ * 此后的数据不再使用上述缓冲区与预读参数，需要严格按缓冲区参数读写时应关闭并行
+ * 默认参数可通过系统属性配置
+ */
+public final class StreamCryptoOptions {
+
+    /**
+     * 默认最大读取缓冲区大小，默认为1MB；初始大小使用StreamUtils.BUFFER_SIZE（系统属性bk.sdk.crypto.stream.bufferSize）
+     */
+    public static final String PROPERTY_MAX_BUFFER_SIZE = "bk.sdk.crypto.stream.maxBufferSize";
+    /**
+     * 默认是否启用预读，默认为false
+     */
+    public static final String PROPERTY_READ_AHEAD = "bk.sdk.crypto.stream.readAhead";
+    /**
+     * 预读后台线程数上限，默认为CPU核数，线程已全部占用时在调用线程顺序读取
+     */
+    public static final String PROPERTY_READ_AHEAD_THREADS = "bk.sdk.crypto.stream.readAheadThreads";
+    /**
+     * 默认是否启用并行CTR处理，默认为true
+     */
+    public static final String PROPERTY_PARALLEL = "bk.sdk.crypto.stream.parallel";
+
+    private static final int DEFAULT_MAX_BUFFER_SIZE = 1024 * 1024;
+
+    private static final StreamCryptoOptions DEFAULT_OPTIONS = new StreamCryptoOptions(
+        StreamUtils.BUFFER_SIZE,
+        Math.max(Integer.getInteger(PROPERTY_MAX_BUFFER_SIZE, DEFAULT_MAX_BUFFER_SIZE), StreamUtils.BUFFER_SIZE),
+        Boolean.getBoolean(PROPERTY_READ_AHEAD),
+        Boolean.parseBoolean(System.getProperty(PROPERTY_PARALLEL, "true"))
+    );
+
+    /**
+     * 初始读取缓冲区大小
+     */
+    private final int initialBufferSize;
+    /**
+     * 最大读取缓冲区大小
+     */
+    private final int maxBufferSize;
+    /**
+     * 是否启用预读（双缓冲）
+     */
+    private final boolean readAhead;
+    /**
+     * 是否启用并行CTR处理
+     */
+    private final boolean parallel;
+
+    /**
+     * 创建不启用并行处理的调优参数，全部数据均按缓冲区与预读参数处理
+     *
+     * @param initialBufferSize 初始读取缓冲区大小
+     * @param maxBufferSize     最大读取缓冲区大小，与初始大小相同时不调整缓冲区大小
+     * @param readAhead         是否启用预读，启用后同时占用两个读取缓冲区与一个后台线程
+     */
+    public StreamCryptoOptions(int initialBufferSize, int maxBufferSize, boolean readAhead) {
+        this(initialBufferSize, maxBufferSize, readAhead, false);
+    }
+
+    /**
+     * @param initialBufferSize 初始读取缓冲区大小
+     * @param maxBufferSize     最大读取缓冲区大小，与初始大小相同时不调整缓冲区大小
+     * @param readAhead         是否启用预读，启用后同时占用两个读取缓冲区与一个后台线程
+     * @param parallel          是否启用并行CTR处理，只对SM4/AES流数据且CtrCipherUtil启用并行时生效
+     */
+    public StreamCryptoOptions(int initialBufferSize, int maxBufferSize, boolean readAhead, boolean parallel) {
+        if (initialBufferSize <= 0 || maxBufferSize < initialBufferSize) {
+            throw new IllegalArgumentException(
+                "invalid buffer size: initialBufferSize=" + initialBufferSize + ", maxBufferSize=" + maxBufferSize
+            );
+        }
+        this.initialBufferSize = initialBufferSize;
+        this.maxBufferSize = maxBufferSize;
+        this.readAhead = readAhead;
+        this.parallel = parallel;
+    }
+
+    /**
+     * 获取默认参数（由系统属性确定）
+     *
+     * @return 默认参数
+     */
+    public static StreamCryptoOptions getDefault() {
+        return DEFAULT_OPTIONS;
+    }
+
+    public int getInitialBufferSize() {
+        return initialBufferSize;
+    }
+
+    public int getMaxBufferSize() {
+        return maxBufferSize;
+    }
+
+    public boolean isReadAhead() {
+        return readAhead;
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    @Override
+    public String toString() {
+        return "StreamCryptoOptions(initialBufferSize=" + initialBufferSize
+            + ", maxBufferSize=" + maxBufferSize
+            + ", readAhead=" + readAhead
+            + ", parallel=" + parallel + ")";
+    }
+}
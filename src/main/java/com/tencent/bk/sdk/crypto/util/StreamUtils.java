@@ -9,7 +9,12 @@ import java.util.function.Consumer;
  * 流工具
  */
 public class StreamUtils {
-    public static int BUFFER_SIZE = 8192;
+    /**
+     * 默认流缓冲区大小，默认为8192
+     */
+    public static final String PROPERTY_BUFFER_SIZE = "bk.sdk.crypto.stream.bufferSize";
+
+    public static int BUFFER_SIZE = Integer.getInteger(PROPERTY_BUFFER_SIZE, 8192);
 
     /**
      * 将InputStream拷贝到OutputStream中去
@@ -18,12 +23,22 @@ public class StreamUtils {
      * @param out 输出流
      */
     public static int copy(InputStream in, OutputStream out) throws IOException {
+        if (in instanceof CipherInputStream) {
+            // 直接从解密流的明文缓冲区写出
+            int byteCount = (int) ((CipherInputStream) in).transferTo(out);
+            out.flush();
+            return byteCount;
+        }
         int byteCount = 0;
-        byte[] buffer = new byte[BUFFER_SIZE];
-        int bytesRead;
-        while ((bytesRead = in.read(buffer)) != -1) {
-            out.write(buffer, 0, bytesRead);
-            byteCount += bytesRead;
+        byte[] buffer = BufferPool.acquire(BUFFER_SIZE);
+        try {
+            int bytesRead;
+            while ((bytesRead = in.read(buffer)) != -1) {
+                out.write(buffer, 0, bytesRead);
+                byteCount += bytesRead;
+            }
+        } finally {
+            BufferPool.releaseAndClear(buffer);
         }
         out.flush();
         return byteCount;
@@ -33,11 +48,15 @@ public class StreamUtils {
      * 排出流剩余数据
      */
     public static int drain(InputStream in) throws IOException {
-        byte[] buffer = new byte[BUFFER_SIZE];
+        byte[] buffer = BufferPool.acquire(BUFFER_SIZE);
         int bytesRead;
         int byteCount = 0;
-        while ((bytesRead = in.read(buffer)) != -1) {
-            byteCount += bytesRead;
+        try {
+            while ((bytesRead = in.read(buffer)) != -1) {
+                byteCount += bytesRead;
+            }
+        } finally {
+            BufferPool.releaseAndClear(buffer);
         }
         return byteCount;
     }
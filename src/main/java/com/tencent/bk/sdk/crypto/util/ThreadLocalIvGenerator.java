@@ -0,0 +1,126 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto.util;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+/**
+ * 每个线程使用独立DRBG实例（JDK8下为独立的SHA1PRNG实例）的IV生成器，线程之间不共享随机数生成器状态，不存在锁竞争
+ * 每个线程一次生成一批随机字节并按需取用，减少调用随机数生成器的次数
+ */
+public class ThreadLocalIvGenerator implements IvGenerator {
+
+    private static final int DEFAULT_BATCH_SIZE = 512;
+
+    /**
+     * JDK8下SHA1PRNG实例的种子长度
+     */
+    private static final int SEED_LENGTH = 32;
+
+    private final int batchSize;
+
+    private final ThreadLocal<RandomBatch> batches = ThreadLocal.withInitial(this::newBatch);
+
+    public ThreadLocalIvGenerator() {
+        this(DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param batchSize 每个线程每次批量生成的随机字节数
+     */
+    public ThreadLocalIvGenerator(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void nextIv(byte[] iv, int offset, int length) {
+        batches.get().nextBytes(iv, offset, length);
+    }
+
+    private RandomBatch newBatch() {
+        return new RandomBatch(newSecureRandom(), batchSize);
+    }
+
+    /**
+     * 创建一个独立的安全随机数生成器，优先使用DRBG（JDK9+）
+     * JDK8不支持DRBG，平台默认实现（如Linux下的NativePRNG）在所有实例间共享同一把全局锁，无法做到线程之间无竞争，
+     * 因此改用SHA1PRNG：每个实例创建时从平台默认实现读取一次种子，之后独立生成随机数，不再访问平台随机源
+     *
+     * @return 安全随机数生成器
+     */
+    static SecureRandom newSecureRandom() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            return newSha1Prng();
+        }
+    }
+
+    private static SecureRandom newSha1Prng() {
+        try {
+            SecureRandom random = SecureRandom.getInstance("SHA1PRNG");
+            byte[] seed = new byte[SEED_LENGTH];
+            new SecureRandom().nextBytes(seed);
+            // 在首次生成随机数之前设置种子，SHA1PRNG只使用该种子而不再自行读取平台随机源
+            random.setSeed(seed);
+            return random;
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+
+    /**
+     * 单个线程使用的随机字节批次
+     */
+    private static class RandomBatch {
+        private final SecureRandom random;
+        private final byte[] buffer;
+        private int position;
+
+        RandomBatch(SecureRandom random, int batchSize) {
+            this.random = random;
+            this.buffer = new byte[batchSize];
+            this.position = batchSize;
+        }
+
+        void nextBytes(byte[] dst, int offset, int length) {
+            while (length > 0) {
+                if (position == buffer.length) {
+                    random.nextBytes(buffer);
+                    position = 0;
+                }
+                int n = Math.min(length, buffer.length - position);
+                System.arraycopy(buffer, position, dst, offset, n);
+                position += n;
+                offset += n;
+                length -= n;
+            }
+        }
+    }
+}
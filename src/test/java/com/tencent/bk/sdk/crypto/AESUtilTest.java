@@ -29,6 +29,7 @@ package com.tencent.bk.sdk.crypto;
 
 import com.tencent.bk.sdk.crypto.exception.CryptoException;
 import com.tencent.bk.sdk.crypto.util.AESUtil;
+import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.junit.jupiter.api.Test;
 
@@ -82,6 +83,18 @@ class AESUtilTest {
         assertThrows(CryptoException.class, () -> AESUtil.decrypt(finalEncryptedData, EMPTY_KEY_BYTES));
     }
 
+    @Test
+    void testDecryptCompatible() throws Exception {
+        // 引入派生密钥缓存前使用相同密钥与固定IV加密得到的密文
+        byte[] encryptedData = Hex.decodeHex(
+            "000102030405060708090a0b0c0d0e0f0a95bf70553a915b342b20ffe9163f54e54032e66828f005e50ff0b33f49c49b"
+                + "b878971c4c04a2614d5b17e5af389aa96263b391e60b3a48"
+        );
+        for (int i = 0; i < 3; i++) {
+            assertArrayEquals(MESSAGE_BYTES, AESUtil.decrypt(encryptedData, KEY_BYTES));
+        }
+    }
+
     @Test
     void testEncryptAndDecryptStream() throws Exception {
         // 加密
@@ -0,0 +1,219 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto;
+
+import com.tencent.bk.sdk.crypto.cryptor.ASymmetricCryptor;
+import com.tencent.bk.sdk.crypto.cryptor.ASymmetricCryptorFactory;
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricCryptor;
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricCryptorFactory;
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricKeyHandle;
+import com.tencent.bk.sdk.crypto.cryptor.UniversalDecryptor;
+import com.tencent.bk.sdk.crypto.cryptor.consts.CryptorIds;
+import com.tencent.bk.sdk.crypto.cryptor.consts.CryptorNames;
+import com.tencent.bk.sdk.crypto.exception.CryptoException;
+import com.tencent.bk.sdk.crypto.util.CryptorMetaUtil;
+import com.tencent.bk.sdk.crypto.util.IvGenerator;
+import com.tencent.bk.sdk.crypto.util.IvUtil;
+import com.tencent.bk.sdk.crypto.util.SM2Util;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CipherFormatTest {
+
+    private static final String KEY = "test_key_123";
+    private static final byte[] KEY_BYTES = KEY.getBytes(StandardCharsets.UTF_8);
+    private static final String MESSAGE = "test中文符号~!@#$%^&*()_+=-0987654321`[]{};:'\"<>?,./";
+    private static final byte[] MESSAGE_BYTES = MESSAGE.getBytes(StandardCharsets.UTF_8);
+
+    private final SymmetricCryptor sm4Cryptor = SymmetricCryptorFactory.getCryptor(CryptorNames.SM4);
+    private final SymmetricCryptor aesCryptor = SymmetricCryptorFactory.getCryptor(CryptorNames.AES);
+
+    @AfterEach
+    void tearDown() {
+        CryptorMetaUtil.setCipherFormatVersion(CryptorMetaUtil.CIPHER_FORMAT_V1);
+    }
+
+    @Test
+    void testSymmetricV2() {
+        byte[] v1Bytes = sm4Cryptor.encrypt(KEY_BYTES, MESSAGE_BYTES);
+        String v1String = sm4Cryptor.encrypt(KEY, MESSAGE);
+        CryptorMetaUtil.setCipherFormatVersion(CryptorMetaUtil.CIPHER_FORMAT_V2);
+
+        byte[] v2Bytes = sm4Cryptor.encrypt(KEY_BYTES, MESSAGE_BYTES);
+        assertEquals(v1Bytes.length - "[Cipher:::SM4]".length() + 3, v2Bytes.length);
+        assertArrayEquals(new byte[]{(byte) 0xBC, 0x02, CryptorIds.SM4}, Arrays.copyOf(v2Bytes, 3));
+        assertEquals(v2Bytes.length, sm4Cryptor.getOutputSize(MESSAGE_BYTES.length));
+        String v2String = sm4Cryptor.encrypt(KEY, MESSAGE);
+        assertTrue(v2String.startsWith("[v2]vAIB"));
+
+        // 两种格式在任一写入配置下均可解密
+        for (int version : new int[]{CryptorMetaUtil.CIPHER_FORMAT_V2, CryptorMetaUtil.CIPHER_FORMAT_V1}) {
+            CryptorMetaUtil.setCipherFormatVersion(version);
+            assertArrayEquals(MESSAGE_BYTES, sm4Cryptor.decrypt(KEY_BYTES, v1Bytes));
+            assertArrayEquals(MESSAGE_BYTES, sm4Cryptor.decrypt(KEY_BYTES, v2Bytes));
+            assertEquals(MESSAGE, sm4Cryptor.decrypt(KEY, v1String));
+            assertEquals(MESSAGE, sm4Cryptor.decrypt(KEY, v2String));
+        }
+        // 算法ID不匹配
+        assertThrows(CryptoException.class, () -> aesCryptor.decrypt(KEY_BYTES, v2Bytes));
+    }
+
+    @Test
+    void testSymmetricV2StreamAndBuffer() {
+        CryptorMetaUtil.setCipherFormatVersion(CryptorMetaUtil.CIPHER_FORMAT_V2);
+        for (SymmetricCryptor cryptor : Arrays.asList(sm4Cryptor, aesCryptor)) {
+            ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+            cryptor.encrypt(KEY, new ByteArrayInputStream(MESSAGE_BYTES), encrypted);
+            assertEquals((byte) 0xBC, encrypted.toByteArray()[0]);
+            ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+            cryptor.decrypt(KEY, new ByteArrayInputStream(encrypted.toByteArray()), decrypted);
+            assertArrayEquals(MESSAGE_BYTES, decrypted.toByteArray());
+
+            ByteArrayOutputStream base64Encrypted = new ByteArrayOutputStream();
+            cryptor.encryptToBase64(KEY, new ByteArrayInputStream(MESSAGE_BYTES), base64Encrypted);
+            assertEquals(MESSAGE, cryptor.decrypt(KEY, new String(base64Encrypted.toByteArray(),
+                StandardCharsets.US_ASCII)));
+            ByteArrayOutputStream base64Decrypted = new ByteArrayOutputStream();
+            cryptor.decryptFromBase64(KEY, new ByteArrayInputStream(base64Encrypted.toByteArray()), base64Decrypted);
+            assertArrayEquals(MESSAGE_BYTES, base64Decrypted.toByteArray());
+
+            ByteBuffer dst = ByteBuffer.allocate(cryptor.getOutputSize(MESSAGE_BYTES.length));
+            cryptor.encrypt(KEY_BYTES, ByteBuffer.wrap(MESSAGE_BYTES), dst);
+            dst.flip();
+            ByteBuffer plain = ByteBuffer.allocate(MESSAGE_BYTES.length);
+            cryptor.decrypt(KEY_BYTES, dst, plain);
+            assertArrayEquals(MESSAGE_BYTES, plain.array());
+        }
+    }
+
+    @Test
+    void testLegacyCipherWithHeaderLikeIv() {
+        IvGenerator defaultGenerator = IvUtil.getIvGenerator();
+        try {
+            for (byte version : new byte[]{0x02, (byte) 0x82}) {
+                // IV恰好以二进制密文头开始的不含元数据的历史密文
+                IvUtil.setIvGenerator((iv, offset, length) -> {
+                    Arrays.fill(iv, offset, offset + length, (byte) 0x01);
+                    iv[offset] = (byte) 0xBC;
+                    iv[offset + 1] = version;
+                    iv[offset + 2] = CryptorIds.SM4;
+                });
+                String legacyString = sm4Cryptor.encrypt(KEY, MESSAGE).substring("[Cipher:::SM4]".length());
+                assertEquals(MESSAGE, sm4Cryptor.decrypt(KEY, legacyString));
+                assertEquals(MESSAGE, sm4Cryptor.decryptBatch(KEY, Arrays.asList(legacyString)).get(0));
+
+                byte[] v1Bytes = sm4Cryptor.encrypt(KEY_BYTES, MESSAGE_BYTES);
+                byte[] legacyBytes = Arrays.copyOfRange(v1Bytes, "[Cipher:::SM4]".length(), v1Bytes.length);
+                ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+                sm4Cryptor.decrypt(KEY, new ByteArrayInputStream(legacyBytes), decrypted);
+                assertArrayEquals(MESSAGE_BYTES, decrypted.toByteArray());
+            }
+        } finally {
+            IvUtil.setIvGenerator(defaultGenerator);
+        }
+    }
+
+    @Test
+    void testKeyIdAndUniversalDecryptor() {
+        byte[] keyId = "k1".getBytes(StandardCharsets.UTF_8);
+        CryptorMetaUtil.setCipherFormatVersion(CryptorMetaUtil.CIPHER_FORMAT_V2);
+        byte[] v2Bytes = aesCryptor.encrypt(KEY_BYTES, MESSAGE_BYTES);
+        byte[] withKeyId = CryptorMetaUtil.addPrefixToEncryptedBytes(
+            CryptorMetaUtil.buildCipherHeader(CryptorIds.AES, keyId),
+            Arrays.copyOfRange(v2Bytes, 3, v2Bytes.length)
+        );
+        assertArrayEquals(keyId, CryptorMetaUtil.getCipherHeaderKeyId(withKeyId, 0));
+        assertArrayEquals(MESSAGE_BYTES, aesCryptor.decrypt(KEY_BYTES, withKeyId));
+
+        UniversalDecryptor decryptor = UniversalDecryptor.getInstance();
+        assertArrayEquals(MESSAGE_BYTES, decryptor.decrypt(KEY_BYTES, v2Bytes));
+        assertArrayEquals(MESSAGE_BYTES, decryptor.decrypt(KEY_BYTES, withKeyId));
+        String v2String = sm4Cryptor.encrypt(KEY, MESSAGE);
+        CryptorMetaUtil.setCipherFormatVersion(CryptorMetaUtil.CIPHER_FORMAT_V1);
+        String v1String = aesCryptor.encrypt(KEY, MESSAGE);
+        assertEquals(
+            Arrays.asList(MESSAGE, MESSAGE, MESSAGE),
+            decryptor.decryptBatch(KEY, Arrays.asList(v2String, v1String, MESSAGE))
+        );
+        ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+        decryptor.decrypt(KEY, new ByteArrayInputStream(withKeyId), decrypted);
+        assertArrayEquals(MESSAGE_BYTES, decrypted.toByteArray());
+    }
+
+    @Test
+    void testEncryptWithKeyId() {
+        byte[] keyId = "k2".getBytes(StandardCharsets.UTF_8);
+        SymmetricKeyHandle keyHandle = sm4Cryptor.prepareKey(KEY_BYTES).withKeyId(keyId);
+
+        // 未启用v2格式时，带密钥ID的句柄同样写入二进制密文头
+        byte[] encrypted = sm4Cryptor.encrypt(keyHandle, MESSAGE_BYTES);
+        assertArrayEquals(new byte[]{(byte) 0xBC, (byte) 0x82, CryptorIds.SM4, 2}, Arrays.copyOf(encrypted, 4));
+        assertArrayEquals(keyId, CryptorMetaUtil.getCipherKeyId(encrypted));
+        assertArrayEquals(MESSAGE_BYTES, sm4Cryptor.decrypt(KEY_BYTES, encrypted));
+        assertArrayEquals(MESSAGE_BYTES, UniversalDecryptor.getInstance().decrypt(KEY_BYTES, encrypted));
+
+        byte[] output = new byte[encrypted.length];
+        assertEquals(
+            encrypted.length,
+            sm4Cryptor.encrypt(keyHandle, MESSAGE_BYTES, 0, MESSAGE_BYTES.length, output, 0)
+        );
+        assertArrayEquals(MESSAGE_BYTES, sm4Cryptor.decrypt(KEY_BYTES, output));
+
+        String encryptedString = sm4Cryptor.encrypt(keyHandle, MESSAGE);
+        assertArrayEquals(keyId, CryptorMetaUtil.getCipherKeyId(encryptedString));
+        assertEquals(MESSAGE, sm4Cryptor.decrypt(KEY, encryptedString));
+
+        // 不带密钥ID的密文
+        assertNull(CryptorMetaUtil.getCipherKeyId(sm4Cryptor.encrypt(KEY_BYTES, MESSAGE_BYTES)));
+        assertNull(CryptorMetaUtil.getCipherKeyId(sm4Cryptor.encrypt(KEY, MESSAGE)));
+        assertThrows(CryptoException.class, () -> keyHandle.withKeyId(new byte[256]));
+    }
+
+    @Test
+    void testASymmetricV2() {
+        ASymmetricCryptor sm2Cryptor = ASymmetricCryptorFactory.getCryptor(CryptorNames.SM2);
+        KeyPair keyPair = SM2Util.genKeyPair();
+        CryptorMetaUtil.setCipherFormatVersion(CryptorMetaUtil.CIPHER_FORMAT_V2);
+        byte[] v2Bytes = sm2Cryptor.encrypt(keyPair.getPublic(), MESSAGE_BYTES);
+        assertArrayEquals(new byte[]{(byte) 0xBC, 0x02, CryptorIds.SM2}, Arrays.copyOf(v2Bytes, 3));
+        String v2String = sm2Cryptor.encrypt(keyPair.getPublic(), MESSAGE);
+        CryptorMetaUtil.setCipherFormatVersion(CryptorMetaUtil.CIPHER_FORMAT_V1);
+        assertArrayEquals(MESSAGE_BYTES, sm2Cryptor.decrypt(keyPair.getPrivate(), v2Bytes));
+        assertEquals(MESSAGE, sm2Cryptor.decrypt(keyPair.getPrivate(), v2String));
+    }
+}
@@ -27,17 +27,31 @@
  */
 package com.tencent.bk.sdk.crypto;
 
+import com.tencent.bk.sdk.crypto.annotation.Cryptor;
+import com.tencent.bk.sdk.crypto.annotation.CryptorTypeEnum;
 import com.tencent.bk.sdk.crypto.cryptor.ASymmetricCryptorFactory;
+import com.tencent.bk.sdk.crypto.cryptor.CryptorEntry;
+import com.tencent.bk.sdk.crypto.cryptor.CryptorRegistry;
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricCryptor;
 import com.tencent.bk.sdk.crypto.cryptor.SymmetricCryptorFactory;
 import com.tencent.bk.sdk.crypto.cryptor.consts.CryptorNames;
+import com.tencent.bk.sdk.crypto.cryptor.impl.NoneCryptor;
+import com.tencent.bk.sdk.crypto.exception.CryptorNotFoundException;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class CryptorFactoryTest {
 
@@ -83,6 +97,48 @@ class CryptorFactoryTest {
         assertEquals(0, errorNum);
     }
 
+    @Test
+    void testCryptorRegistry() {
+        CryptorRegistry registry = CryptorRegistry.getInstance();
+        assertSame(registry, CryptorRegistry.getInstance());
+
+        CryptorEntry<SymmetricCryptor> sm4Entry = registry.getSymmetricEntry(CryptorNames.SM4);
+        assertSame(SymmetricCryptorFactory.getCryptor(CryptorNames.SM4), sm4Entry.getCryptor());
+        assertEquals("[Cipher:::SM4]", sm4Entry.getCipherPrefix());
+        assertArrayEquals("[Cipher:::SM4]".getBytes(StandardCharsets.UTF_8), sm4Entry.getCipherPrefixBytes());
+        assertSame(sm4Entry, registry.getSymmetricEntryByPrefix("[Cipher:::SM4]"));
+        assertSame(
+            ASymmetricCryptorFactory.getCryptor(CryptorNames.SM2),
+            registry.getASymmetricEntryByPrefix("[Cipher:::SM2]").getCryptor()
+        );
+        // 不添加前缀的加密器不参与前缀索引
+        assertEquals("", registry.getSymmetricEntry(CryptorNames.NONE).getCipherPrefix());
+        assertNull(registry.getSymmetricEntryByPrefix(""));
+        assertNull(registry.getASymmetricEntryByPrefix("[Cipher:::SM4]"));
+
+        // 写时复制：注册后发布新快照，旧快照不变
+        CryptorRegistry newRegistry = CryptorRegistry.register(new TestCryptor());
+        try {
+            assertNotSame(registry, newRegistry);
+            assertNull(registry.getSymmetricEntry(TestCryptor.NAME));
+            assertEquals(TestCryptor.NAME, SymmetricCryptorFactory.getCryptor(TestCryptor.NAME).getName());
+            assertSame(sm4Entry, newRegistry.getSymmetricEntry(CryptorNames.SM4));
+        } finally {
+            CryptorRegistry.refresh();
+        }
+        assertThrows(CryptorNotFoundException.class, () -> SymmetricCryptorFactory.getCryptor(TestCryptor.NAME));
+    }
+
+    @Cryptor(name = TestCryptor.NAME, type = CryptorTypeEnum.SYMMETRIC)
+    static class TestCryptor extends NoneCryptor {
+        static final String NAME = "TEST_REGISTRY";
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+    }
+
     <T> int runInMultiThreadsAndGetErrorNum(Function<T, Integer> function, int threadNum, T param) {
         AtomicInteger finalResult = new AtomicInteger(0);
         List<Thread> threadList = new ArrayList<>(threadNum);
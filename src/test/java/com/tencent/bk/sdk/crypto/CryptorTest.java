@@ -31,25 +31,40 @@ import com.tencent.bk.sdk.crypto.cryptor.ASymmetricCryptor;
 import com.tencent.bk.sdk.crypto.cryptor.ASymmetricCryptorFactory;
 import com.tencent.bk.sdk.crypto.cryptor.SymmetricCryptor;
 import com.tencent.bk.sdk.crypto.cryptor.SymmetricCryptorFactory;
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricKeyHandle;
 import com.tencent.bk.sdk.crypto.cryptor.consts.CryptorNames;
 import com.tencent.bk.sdk.crypto.exception.CryptoException;
+import com.tencent.bk.sdk.crypto.util.CryptorMetaUtil;
 import com.tencent.bk.sdk.crypto.util.RSAUtil;
 import com.tencent.bk.sdk.crypto.util.SM2Util;
+import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 
 import static com.tencent.kona.crypto.CryptoUtils.toHex;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class CryptorTest {
 
@@ -271,6 +286,254 @@ class CryptorTest {
         fis.close();
     }
 
+    @Test
+    void testSymmetricKeyHandle() {
+        for (SymmetricCryptor cryptor : new SymmetricCryptor[]{noneCryptor, sm4Cryptor, aesCryptor}) {
+            SymmetricKeyHandle keyHandle = cryptor.prepareKey(KEY);
+            // 字节数组：句柄加密的密文可用原始密钥解密，反之亦然
+            byte[] encryptedMessageBytes = cryptor.encrypt(keyHandle, MESSAGE_BYTES);
+            assertArrayEquals(MESSAGE_BYTES, cryptor.decrypt(KEY_BYTES, encryptedMessageBytes));
+            encryptedMessageBytes = cryptor.encrypt(KEY_BYTES, MESSAGE_BYTES);
+            assertArrayEquals(MESSAGE_BYTES, cryptor.decrypt(keyHandle, encryptedMessageBytes));
+            // 字符串
+            String encryptedMessage = cryptor.encrypt(keyHandle, MESSAGE);
+            assertEquals(MESSAGE, cryptor.decrypt(KEY, encryptedMessage));
+            encryptedMessage = cryptor.encrypt(KEY, MESSAGE);
+            assertEquals(MESSAGE, cryptor.decrypt(keyHandle, encryptedMessage));
+            // 空值用例
+            assertArrayEquals(EMPTY_MESSAGE_BYTES, cryptor.encrypt(keyHandle, EMPTY_MESSAGE_BYTES));
+            assertEquals(EMPTY_MESSAGE, cryptor.encrypt(keyHandle, EMPTY_MESSAGE));
+        }
+        // 空密钥与其他加密器的密钥句柄
+        assertThrows(CryptoException.class, () -> sm4Cryptor.prepareKey(EMPTY_KEY));
+        assertThrows(CryptoException.class, () -> aesCryptor.prepareKey(EMPTY_KEY_BYTES));
+        SymmetricKeyHandle sm4KeyHandle = sm4Cryptor.prepareKey(KEY_BYTES);
+        assertThrows(CryptoException.class, () -> aesCryptor.encrypt(sm4KeyHandle, MESSAGE));
+    }
+
+    @Test
+    void testDefaultKeyHandleStringMethods() {
+        // 只实现了字符串密钥接口的加密器：字符串密钥创建的句柄可以正常使用
+        SymmetricCryptor cryptor = new StringKeyCryptor(sm4Cryptor);
+        SymmetricKeyHandle keyHandle = cryptor.prepareKey(KEY);
+        String encryptedMessage = cryptor.encrypt(keyHandle, MESSAGE);
+        assertEquals(MESSAGE, sm4Cryptor.decrypt(KEY, encryptedMessage));
+        assertEquals(MESSAGE, cryptor.decrypt(keyHandle, encryptedMessage));
+        // 非UTF-8字节数组密钥无法还原为字符串密钥，不能静默替换为其他密钥
+        byte[] binaryKey = {(byte) 0xff, (byte) 0xfe, 0x01, (byte) 0x80};
+        SymmetricKeyHandle binaryKeyHandle = cryptor.prepareKey(binaryKey);
+        assertThrows(CryptoException.class, () -> cryptor.encrypt(binaryKeyHandle, MESSAGE));
+        assertThrows(CryptoException.class, () -> cryptor.decrypt(binaryKeyHandle, encryptedMessage));
+        // None加密器不使用密钥，任意句柄均原样返回
+        assertEquals(MESSAGE, noneCryptor.encrypt(noneCryptor.prepareKey(binaryKey), MESSAGE));
+    }
+
+    @Test
+    void testBatch() {
+        List<String> messages = Arrays.asList(MESSAGE, EMPTY_MESSAGE, null, MESSAGE + "2");
+        List<byte[]> messageBytesList = new ArrayList<>();
+        for (String message : messages) {
+            messageBytesList.add(message == null ? null : message.getBytes(StandardCharsets.UTF_8));
+        }
+        for (SymmetricCryptor cryptor : new SymmetricCryptor[]{noneCryptor, sm4Cryptor, aesCryptor}) {
+            // 批量加密结果可逐条解密，逐条加密结果可批量解密
+            List<String> encryptedMessages = cryptor.encryptBatch(KEY, messages);
+            assertEquals(messages.size(), encryptedMessages.size());
+            for (int i = 0; i < messages.size(); i++) {
+                assertEquals(messages.get(i), cryptor.decrypt(KEY, encryptedMessages.get(i)));
+            }
+            List<String> singleEncryptedMessages = new ArrayList<>();
+            for (String message : messages) {
+                singleEncryptedMessages.add(cryptor.encrypt(KEY, message));
+            }
+            assertEquals(messages, cryptor.decryptBatch(KEY, singleEncryptedMessages));
+            // 字节数组
+            List<byte[]> encryptedMessageBytesList = cryptor.encryptBytesBatch(KEY_BYTES, messageBytesList);
+            List<byte[]> decryptedMessageBytesList = cryptor.decryptBytesBatch(KEY_BYTES, encryptedMessageBytesList);
+            for (int i = 0; i < messageBytesList.size(); i++) {
+                assertArrayEquals(messageBytesList.get(i), decryptedMessageBytesList.get(i));
+                assertArrayEquals(
+                    messageBytesList.get(i),
+                    cryptor.decrypt(KEY_BYTES, encryptedMessageBytesList.get(i))
+                );
+            }
+        }
+        assertThrows(CryptoException.class, () -> sm4Cryptor.encryptBatch(EMPTY_KEY, messages));
+        assertThrows(CryptoException.class, () -> aesCryptor.decryptBytesBatch(EMPTY_KEY_BYTES, messageBytesList));
+
+        for (ASymmetricCryptor cryptor : new ASymmetricCryptor[]{sm2Cryptor, rsaCryptor}) {
+            KeyPair keyPair = cryptor == sm2Cryptor ? SM2Util.genKeyPair() : RSAUtil.genKeyPair();
+            List<String> encryptedMessages = cryptor.encryptBatch(keyPair.getPublic(), messages);
+            for (int i = 0; i < messages.size(); i++) {
+                assertEquals(messages.get(i), cryptor.decrypt(keyPair.getPrivate(), encryptedMessages.get(i)));
+            }
+            assertEquals(messages, cryptor.decryptBatch(keyPair.getPrivate(), encryptedMessages));
+            List<byte[]> encryptedMessageBytesList = cryptor.encryptBytesBatch(keyPair.getPublic(), messageBytesList);
+            List<byte[]> decryptedMessageBytesList =
+                cryptor.decryptBytesBatch(keyPair.getPrivate(), encryptedMessageBytesList);
+            for (int i = 0; i < messageBytesList.size(); i++) {
+                assertArrayEquals(messageBytesList.get(i), decryptedMessageBytesList.get(i));
+            }
+        }
+    }
+
+    @Test
+    void testEncryptFile() throws Exception {
+        byte[] data = new byte[100000];
+        new Random().nextBytes(data);
+        Path srcFile = Paths.get(new File("").getAbsolutePath(), "out", "fileToEncrypt.bin");
+        Files.createDirectories(srcFile.getParent());
+        Files.write(srcFile, data);
+        for (SymmetricCryptor cryptor : new SymmetricCryptor[]{noneCryptor, sm4Cryptor, aesCryptor}) {
+            Path encryptedFile = Paths.get(srcFile + "." + cryptor.getName() + ".encrypt");
+            Path decryptedFile = Paths.get(srcFile + "." + cryptor.getName() + ".decrypt");
+            // 文件加密结果与流数据加密格式一致
+            cryptor.encryptFile(KEY, srcFile, encryptedFile);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (InputStream in = Files.newInputStream(encryptedFile)) {
+                cryptor.decrypt(KEY, in, out);
+            }
+            assertArrayEquals(data, out.toByteArray());
+            cryptor.decryptFile(KEY, encryptedFile, decryptedFile);
+            assertArrayEquals(data, Files.readAllBytes(decryptedFile));
+
+            // 流数据加密结果可按文件解密
+            out = new ByteArrayOutputStream();
+            cryptor.encrypt(KEY, new ByteArrayInputStream(data), out);
+            Files.write(encryptedFile, out.toByteArray());
+            cryptor.decryptFile(KEY, encryptedFile, decryptedFile);
+            assertArrayEquals(data, Files.readAllBytes(decryptedFile));
+        }
+    }
+
+    @Test
+    void testByteBuffer() {
+        for (SymmetricCryptor cryptor : new SymmetricCryptor[]{noneCryptor, sm4Cryptor, aesCryptor}) {
+            ByteBuffer src = ByteBuffer.allocateDirect(MESSAGE_BYTES.length);
+            src.put(MESSAGE_BYTES).flip();
+            int outputSize = cryptor.getOutputSize(MESSAGE_BYTES.length);
+            // 输出缓冲区空间不足时不移动输入缓冲区的position
+            ByteBuffer smallDst = ByteBuffer.allocateDirect(outputSize - 1);
+            assertThrows(CryptoException.class, () -> cryptor.encrypt(KEY_BYTES, src, smallDst));
+            assertEquals(MESSAGE_BYTES.length, src.remaining());
+
+            ByteBuffer dst = ByteBuffer.allocateDirect(outputSize);
+            assertEquals(outputSize, cryptor.encrypt(KEY_BYTES, src, dst));
+            assertEquals(0, src.remaining());
+            assertEquals(0, dst.remaining());
+            dst.flip();
+            // 与字节数组接口的密文格式一致
+            byte[] encryptedMessageBytes = new byte[dst.remaining()];
+            dst.duplicate().get(encryptedMessageBytes);
+            assertArrayEquals(MESSAGE_BYTES, cryptor.decrypt(KEY_BYTES, encryptedMessageBytes));
+
+            // 解密时输出缓冲区空间不足同样不移动输入缓冲区的position，扩大输出缓冲区后可重试
+            ByteBuffer smallDecrypted = ByteBuffer.allocateDirect(MESSAGE_BYTES.length - 1);
+            assertThrows(CryptoException.class, () -> cryptor.decrypt(KEY_BYTES, dst, smallDecrypted));
+            assertEquals(outputSize, dst.remaining());
+            assertEquals(0, smallDecrypted.position());
+
+            ByteBuffer decrypted = ByteBuffer.allocateDirect(outputSize);
+            assertEquals(MESSAGE_BYTES.length, cryptor.decrypt(KEY_BYTES, dst, decrypted));
+            decrypted.flip();
+            byte[] decryptedMessageBytes = new byte[decrypted.remaining()];
+            decrypted.get(decryptedMessageBytes);
+            assertArrayEquals(MESSAGE_BYTES, decryptedMessageBytes);
+            // 空值用例
+            assertEquals(0, cryptor.encrypt(KEY_BYTES, ByteBuffer.allocate(0), dst));
+        }
+
+        KeyPair keyPair = SM2Util.genKeyPair();
+        ByteBuffer dst = ByteBuffer.allocate(1024);
+        int n = sm2Cryptor.encrypt(keyPair.getPublic(), ByteBuffer.wrap(MESSAGE_BYTES), dst);
+        dst.flip();
+        assertEquals(n, dst.remaining());
+        ByteBuffer decrypted = ByteBuffer.allocateDirect(1024);
+        assertEquals(MESSAGE_BYTES.length, sm2Cryptor.decrypt(keyPair.getPrivate(), dst, decrypted));
+    }
+
+    @Test
+    void testEncryptToArray() {
+        for (SymmetricCryptor cryptor : new SymmetricCryptor[]{noneCryptor, sm4Cryptor, aesCryptor}) {
+            int outputSize = cryptor.getOutputSize(MESSAGE_BYTES.length);
+            // 明文位于输入数组中间，密文写入输出数组中间
+            byte[] input = new byte[MESSAGE_BYTES.length + 8];
+            System.arraycopy(MESSAGE_BYTES, 0, input, 3, MESSAGE_BYTES.length);
+            byte[] output = new byte[outputSize + 10];
+            assertThrows(CryptoException.class,
+                () -> cryptor.encrypt(KEY_BYTES, input, 3, MESSAGE_BYTES.length, output, 11));
+            assertEquals(outputSize, cryptor.encrypt(KEY_BYTES, input, 3, MESSAGE_BYTES.length, output, 5));
+            byte[] encryptedMessageBytes = Arrays.copyOfRange(output, 5, 5 + outputSize);
+            assertArrayEquals(MESSAGE_BYTES, cryptor.decrypt(KEY_BYTES, encryptedMessageBytes));
+
+            SymmetricKeyHandle keyHandle = cryptor.prepareKey(KEY_BYTES);
+            assertEquals(outputSize, cryptor.encrypt(keyHandle, input, 3, MESSAGE_BYTES.length, output, 0));
+            encryptedMessageBytes = Arrays.copyOf(output, outputSize);
+            assertArrayEquals(MESSAGE_BYTES, cryptor.decrypt(keyHandle, encryptedMessageBytes));
+            // 空值用例
+            assertEquals(0, cryptor.encrypt(keyHandle, input, 0, 0, output, 0));
+        }
+    }
+
+    @Test
+    void testStringCipherFormat() {
+        for (SymmetricCryptor cryptor : new SymmetricCryptor[]{sm4Cryptor, aesCryptor}) {
+            String prefix = cryptor.getStringCipherPrefix();
+            String encryptedMessage = cryptor.encrypt(KEY, MESSAGE);
+            // 与字节数组接口的密文一致：前缀 + base64(IV + 密文)
+            byte[] rawEncryptedMessage = Base64.decodeBase64(encryptedMessage.substring(prefix.length()));
+            byte[] encryptedMessageBytes = CryptorMetaUtil.addPrefixToEncryptedBytes(prefix, rawEncryptedMessage);
+            assertArrayEquals(MESSAGE_BYTES, cryptor.decrypt(KEY_BYTES, encryptedMessageBytes));
+            // 兼容不含前缀、含换行的base64密文
+            assertEquals(MESSAGE, cryptor.decrypt(KEY, Base64.encodeBase64String(rawEncryptedMessage)));
+            assertEquals(MESSAGE, cryptor.decrypt(KEY, prefix + new String(
+                Base64.encodeBase64Chunked(rawEncryptedMessage), StandardCharsets.ISO_8859_1)));
+        }
+    }
+
+    @Test
+    void testBase64Stream() throws Exception {
+        byte[] data = new byte[3 * 1024 * 1024 + 7];
+        new Random().nextBytes(data);
+        for (SymmetricCryptor cryptor : new SymmetricCryptor[]{noneCryptor, sm4Cryptor, aesCryptor}) {
+            ByteArrayOutputStream textOut = new ByteArrayOutputStream();
+            cryptor.encryptToBase64(KEY, new ByteArrayInputStream(data), textOut);
+            String text = textOut.toString(StandardCharsets.UTF_8.name());
+            assertTrue(text.startsWith(cryptor.getStringCipherPrefix()));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            cryptor.decryptFromBase64(KEY, new ByteArrayInputStream(textOut.toByteArray()), out);
+            assertArrayEquals(data, out.toByteArray());
+        }
+        for (SymmetricCryptor cryptor : new SymmetricCryptor[]{sm4Cryptor, aesCryptor}) {
+            // 与字符串接口的密文格式一致
+            ByteArrayOutputStream textOut = new ByteArrayOutputStream();
+            cryptor.encryptToBase64(KEY, new ByteArrayInputStream(MESSAGE_BYTES), textOut);
+            String text = textOut.toString(StandardCharsets.UTF_8.name());
+            assertEquals(MESSAGE, cryptor.decrypt(KEY, text));
+            // 兼容含换行的base64文本
+            String prefix = cryptor.getStringCipherPrefix();
+            byte[] rawEncryptedMessage = Base64.decodeBase64(text.substring(prefix.length()));
+            byte[] chunkedText = (prefix + new String(Base64.encodeBase64Chunked(rawEncryptedMessage),
+                StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            cryptor.decryptFromBase64(KEY, new ByteArrayInputStream(chunkedText), out);
+            assertArrayEquals(MESSAGE_BYTES, out.toByteArray());
+        }
+        for (SymmetricCryptor cryptor : new SymmetricCryptor[]{noneCryptor, sm4Cryptor, aesCryptor}) {
+            // 换行以外的非base64字符不能被静默丢弃
+            ByteArrayOutputStream textOut = new ByteArrayOutputStream();
+            cryptor.encryptToBase64(KEY, new ByteArrayInputStream(MESSAGE_BYTES), textOut);
+            String text = textOut.toString(StandardCharsets.UTF_8.name());
+            int middle = cryptor.getStringCipherPrefix().length() + 4;
+            for (String corruption : new String[]{"*", " ", "\t", "~"}) {
+                byte[] corruptText = (text.substring(0, middle) + corruption + text.substring(middle))
+                    .getBytes(StandardCharsets.UTF_8);
+                assertThrows(CryptoException.class, () -> cryptor.decryptFromBase64(
+                    KEY, new ByteArrayInputStream(corruptText), new ByteArrayOutputStream()), cryptor.getName());
+            }
+        }
+    }
+
     @Test
     void testSM2Cryptor() {
         KeyPair keyPair = SM2Util.genKeyPair();
@@ -305,4 +568,54 @@ class CryptorTest {
         assertEquals(MESSAGE, decryptedMessageStr);
     }
 
+    /**
+     * 只实现了必需方法的对称加密器，密钥句柄相关方法均使用接口默认实现
+     */
+    private static class StringKeyCryptor implements SymmetricCryptor {
+        private final SymmetricCryptor delegate;
+
+        StringKeyCryptor(SymmetricCryptor delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public byte[] encrypt(byte[] key, byte[] message) {
+            return delegate.encrypt(key, message);
+        }
+
+        @Override
+        public byte[] decrypt(byte[] key, byte[] encryptedMessage) {
+            return delegate.decrypt(key, encryptedMessage);
+        }
+
+        @Override
+        public void encrypt(String key, InputStream in, OutputStream out) {
+            delegate.encrypt(key, in, out);
+        }
+
+        @Override
+        public void decrypt(String key, InputStream in, OutputStream out) {
+            delegate.decrypt(key, in, out);
+        }
+
+        @Override
+        public String getStringCipherPrefix() {
+            return delegate.getStringCipherPrefix();
+        }
+
+        @Override
+        public String encrypt(String key, String message) {
+            return delegate.encrypt(key, message);
+        }
+
+        @Override
+        public String decrypt(String key, String base64MessageWithPrefix) {
+            return delegate.decrypt(key, base64MessageWithPrefix);
+        }
+    }
 }
@@ -0,0 +1,114 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto;
+
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricChunkCipher;
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricCryptor;
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricCryptorFactory;
+import com.tencent.bk.sdk.crypto.cryptor.consts.CryptorNames;
+import com.tencent.bk.sdk.crypto.exception.CryptoException;
+import com.tencent.bk.sdk.crypto.util.CryptorMetaUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SymmetricChunkCipherTest {
+
+    private static final String KEY = "test_key_123";
+
+    private final SymmetricCryptor sm4Cryptor = SymmetricCryptorFactory.getCryptor(CryptorNames.SM4);
+    private final SymmetricCryptor aesCryptor = SymmetricCryptorFactory.getCryptor(CryptorNames.AES);
+
+    @AfterEach
+    void tearDown() {
+        CryptorMetaUtil.setCipherFormatVersion(CryptorMetaUtil.CIPHER_FORMAT_V1);
+    }
+
+    @Test
+    void testCompatibleWithStream() {
+        byte[] message = new byte[10000];
+        new Random(1).nextBytes(message);
+        for (int version : new int[]{CryptorMetaUtil.CIPHER_FORMAT_V1, CryptorMetaUtil.CIPHER_FORMAT_V2}) {
+            CryptorMetaUtil.setCipherFormatVersion(version);
+            for (SymmetricCryptor cryptor : Arrays.asList(sm4Cryptor, aesCryptor)) {
+                for (int chunkSize : new int[]{1, 7, 4096}) {
+                    // 分块加密 -> 流数据解密
+                    byte[] encrypted = process(cryptor.newChunkEncryptor(KEY), message, chunkSize);
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    cryptor.decrypt(KEY, new ByteArrayInputStream(encrypted), out);
+                    assertArrayEquals(message, out.toByteArray());
+
+                    // 流数据加密 -> 分块解密
+                    out = new ByteArrayOutputStream();
+                    cryptor.encrypt(KEY, new ByteArrayInputStream(message), out);
+                    assertArrayEquals(message, process(cryptor.newChunkDecryptor(KEY), out.toByteArray(), chunkSize));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testEmptyAndBroken() {
+        SymmetricChunkCipher encryptor = sm4Cryptor.newChunkEncryptor(KEY);
+        ByteBuffer head = encryptor.finish();
+        assertEquals("[Cipher:::SM4]".length() + 16, head.remaining());
+        assertThrows(IllegalStateException.class, () -> encryptor.update(ByteBuffer.allocate(1)));
+
+        byte[] encrypted = new byte[head.remaining()];
+        head.get(encrypted);
+        assertEquals(0, process(sm4Cryptor.newChunkDecryptor(KEY), encrypted, 3).length);
+
+        SymmetricChunkCipher decryptor = sm4Cryptor.newChunkDecryptor(KEY);
+        assertEquals(0, decryptor.update(ByteBuffer.wrap(encrypted, 0, encrypted.length - 1)).remaining());
+        assertThrows(CryptoException.class, decryptor::finish);
+
+        SymmetricCryptor noneCryptor = SymmetricCryptorFactory.getCryptor(CryptorNames.NONE);
+        assertThrows(CryptoException.class, () -> noneCryptor.newChunkEncryptor(KEY));
+    }
+
+    private static byte[] process(SymmetricChunkCipher chunkCipher, byte[] data, int chunkSize) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int offset = 0; offset < data.length; offset += chunkSize) {
+            write(out, chunkCipher.update(ByteBuffer.wrap(data, offset, Math.min(chunkSize, data.length - offset))));
+        }
+        write(out, chunkCipher.finish());
+        return out.toByteArray();
+    }
+
+    private static void write(ByteArrayOutputStream out, ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        out.write(bytes, 0, bytes.length);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.crypto;
+
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricCryptor;
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricCryptorFactory;
+import com.tencent.bk.sdk.crypto.cryptor.UniversalDecryptor;
+import com.tencent.bk.sdk.crypto.cryptor.consts.CryptorNames;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class UniversalDecryptorTest {
+
+    private static final String KEY = "test_key_123";
+    private static final String MESSAGE = "test中文符号~!@#$%^&*()_+=-0987654321`[]{};:'\"<>?,./";
+
+    private final UniversalDecryptor decryptor = UniversalDecryptor.getInstance();
+    private final SymmetricCryptor sm4Cryptor = SymmetricCryptorFactory.getCryptor(CryptorNames.SM4);
+    private final SymmetricCryptor aesCryptor = SymmetricCryptorFactory.getCryptor(CryptorNames.AES);
+
+    @Test
+    void testMatch() {
+        assertEquals(CryptorNames.SM4, decryptor.match(sm4Cryptor.encrypt(KEY, MESSAGE)).getName());
+        assertEquals(CryptorNames.AES, decryptor.match(aesCryptor.encrypt(KEY, MESSAGE)).getName());
+        byte[] encrypted = sm4Cryptor.encrypt(KEY.getBytes(StandardCharsets.UTF_8),
+            MESSAGE.getBytes(StandardCharsets.UTF_8));
+        assertEquals(CryptorNames.SM4, decryptor.match(encrypted, 0, encrypted.length).getName());
+        assertNull(decryptor.match(MESSAGE));
+        assertNull(decryptor.match("[Cipher:::SM"));
+        assertNull(decryptor.match("[Cipher:::UNKNOWN]abc"));
+        assertNull(decryptor.match(encrypted, 0, 5));
+    }
+
+    @Test
+    void testDecryptMixed() {
+        List<String> ciphers = Arrays.asList(
+            sm4Cryptor.encrypt(KEY, MESSAGE),
+            MESSAGE,
+            aesCryptor.encrypt(KEY, MESSAGE),
+            null,
+            "",
+            sm4Cryptor.encrypt(KEY, MESSAGE)
+        );
+        List<String> expected = Arrays.asList(MESSAGE, MESSAGE, MESSAGE, null, "", MESSAGE);
+        for (int i = 0; i < ciphers.size(); i++) {
+            assertEquals(expected.get(i), decryptor.decrypt(KEY, ciphers.get(i)));
+        }
+        assertEquals(expected, decryptor.decryptBatch(KEY, ciphers));
+
+        byte[] keyBytes = KEY.getBytes(StandardCharsets.UTF_8);
+        byte[] message = MESSAGE.getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(message, decryptor.decrypt(keyBytes, sm4Cryptor.encrypt(keyBytes, message)));
+        assertArrayEquals(message, decryptor.decrypt(keyBytes, aesCryptor.encrypt(keyBytes, message)));
+        assertArrayEquals(message, decryptor.decrypt(keyBytes, message));
+    }
+
+    @Test
+    void testPlaintextLikeV2HeaderPassthrough() {
+        // 以v2密文头base64编码（如SM4为vAIB）开头的明文原样返回
+        List<String> plains = Arrays.asList("vAIBaGVsbG8gd29ybGQhISEhISEhISEh", "vAICaGVsbG8=", "vIIBAmsx");
+        for (String plain : plains) {
+            assertNull(decryptor.match(plain));
+            assertEquals(plain, decryptor.decrypt(KEY, plain));
+        }
+        assertEquals(plains, decryptor.decryptBatch(KEY, plains));
+    }
+
+    @Test
+    void testDecryptStream() {
+        byte[] message = MESSAGE.getBytes(StandardCharsets.UTF_8);
+        for (SymmetricCryptor cryptor : Arrays.asList(sm4Cryptor, aesCryptor)) {
+            ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+            cryptor.encrypt(KEY, new ByteArrayInputStream(message), encrypted);
+            ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+            decryptor.decrypt(KEY, new ByteArrayInputStream(encrypted.toByteArray()), decrypted);
+            assertArrayEquals(message, decrypted.toByteArray());
+        }
+        // 不含前缀的数据原样输出，包括短于前缀的数据
+        for (byte[] plain : Arrays.asList(message, new byte[]{'['}, new byte[0])) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            decryptor.decrypt(KEY, new ByteArrayInputStream(plain), out);
+            assertArrayEquals(plain, out.toByteArray());
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.util;
+
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricCryptor;
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricCryptorFactory;
+import com.tencent.bk.sdk.crypto.cryptor.consts.CryptorNames;
+import com.tencent.bk.sdk.crypto.util.BasicCipherUtil;
+import com.tencent.bk.sdk.crypto.util.BufferPool;
+import com.tencent.bk.sdk.crypto.util.BufferPoolStats;
+import com.tencent.bk.sdk.crypto.util.SM4InputStream;
+import com.tencent.bk.sdk.crypto.util.SM4OutputStream;
+import com.tencent.bk.sdk.crypto.util.StreamCryptoOptions;
+import com.tencent.bk.sdk.crypto.util.StreamUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BufferPoolTest {
+
+    private static final String KEY = "test_key_123";
+
+    @BeforeEach
+    void setUp() {
+        BufferPool.setLeakDetectionEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        BufferPool.setLeakDetectionEnabled(false);
+    }
+
+    @Test
+    void testSizeClass() {
+        byte[] small = BufferPool.acquire(1);
+        byte[] medium = BufferPool.acquire(5000);
+        byte[] large = BufferPool.acquire(5 * 1024 * 1024);
+        try {
+            assertEquals(512, small.length);
+            assertEquals(8192, medium.length);
+            // 超过最大等级时按实际大小分配
+            assertEquals(5 * 1024 * 1024, large.length);
+        } finally {
+            BufferPool.release(small);
+            BufferPool.release(medium);
+            BufferPool.release(large);
+        }
+    }
+
+    @Test
+    void testReuse() {
+        BufferPool.clear();
+        byte[] buffer = BufferPool.acquire(3000);
+        BufferPool.release(buffer);
+        BufferPoolStats before = BufferPool.getStats();
+        byte[] reused = BufferPool.acquire(4096);
+        BufferPool.release(reused);
+        BufferPoolStats after = BufferPool.getStats();
+
+        assertSame(buffer, reused);
+        assertEquals(before.getHitCount() + 1, after.getHitCount());
+        assertTrue(after.getPooledHeapBuffers() >= 1);
+        assertTrue(after.getPooledBytes() >= 4096);
+
+        BufferPool.clear();
+        assertEquals(0, BufferPool.getStats().getPooledHeapBuffers());
+    }
+
+    @Test
+    void testDirectBuffer() {
+        ByteBuffer buffer = BufferPool.acquireDirect(1000);
+        assertTrue(buffer.isDirect());
+        assertEquals(1024, buffer.capacity());
+        buffer.putInt(1).flip();
+        BufferPool.releaseDirect(buffer);
+
+        ByteBuffer reused = BufferPool.acquireDirect(1024);
+        // 再次获取的缓冲区已被重置
+        assertEquals(0, reused.position());
+        assertEquals(reused.capacity(), reused.limit());
+        BufferPool.releaseDirect(reused);
+        assertTrue(BufferPool.getLeakedBufferTraces().isEmpty());
+    }
+
+    @Test
+    void testDoubleRelease() {
+        byte[] buffer = BufferPool.acquire(1024);
+        BufferPool.release(buffer);
+        assertThrows(IllegalStateException.class, () -> BufferPool.release(buffer));
+        BufferPool.clear();
+    }
+
+    @Test
+    void testLeakDetection() {
+        byte[] buffer = BufferPool.acquire(1024);
+        assertEquals(1, BufferPool.getLeakedBufferTraces().size());
+        BufferPool.release(buffer);
+        assertTrue(BufferPool.getLeakedBufferTraces().isEmpty());
+    }
+
+    @Test
+    void testReleaseAndClear() {
+        BufferPool.clear();
+        byte[] buffer = BufferPool.acquire(1024);
+        Arrays.fill(buffer, (byte) 1);
+        BufferPool.releaseAndClear(buffer);
+
+        byte[] reused = BufferPool.acquire(1024);
+        assertSame(buffer, reused);
+        assertArrayEquals(new byte[1024], reused);
+        BufferPool.release(reused);
+        BufferPool.clear();
+    }
+
+    @Test
+    void testStreamCryptoClearBuffers() throws IOException {
+        byte[] data = new byte[100_000];
+        Arrays.fill(data, (byte) 1);
+        BufferPool.clear();
+
+        ByteArrayOutputStream sm4Encrypted = new ByteArrayOutputStream();
+        try (SM4OutputStream out = new SM4OutputStream(sm4Encrypted, KEY)) {
+            out.write(data);
+        }
+        ByteArrayOutputStream sm4Decrypted = new ByteArrayOutputStream();
+        try (SM4InputStream in = new SM4InputStream(new ByteArrayInputStream(sm4Encrypted.toByteArray()), KEY)) {
+            StreamUtils.copy(in, sm4Decrypted);
+        }
+        assertArrayEquals(data, sm4Decrypted.toByteArray());
+
+        // 池中缓存的缓冲区均不残留明文
+        List<byte[]> buffers = new ArrayList<>();
+        try {
+            for (int size = 512; size <= 4 * 1024 * 1024; size <<= 1) {
+                for (int i = 0; i < 4; i++) {
+                    byte[] buffer = BufferPool.acquire(size);
+                    buffers.add(buffer);
+                    assertArrayEquals(new byte[buffer.length], buffer);
+                }
+            }
+        } finally {
+            buffers.forEach(BufferPool::release);
+            BufferPool.clear();
+        }
+    }
+
+    @Test
+    void testStreamCryptoNoLeak() throws IOException, GeneralSecurityException {
+        byte[] data = new byte[100_000];
+        new Random(1).nextBytes(data);
+        SymmetricCryptor cryptor = SymmetricCryptorFactory.getCryptor(CryptorNames.SM4);
+
+        // 加密器流式接口
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        cryptor.encrypt(KEY, new ByteArrayInputStream(data), encrypted);
+        ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+        cryptor.decrypt(KEY, new ByteArrayInputStream(encrypted.toByteArray()), decrypted);
+        assertArrayEquals(data, decrypted.toByteArray());
+
+        // 预读模式的流数据处理引擎
+        ByteArrayOutputStream copied = new ByteArrayOutputStream();
+        BasicCipherUtil.transfer(new ByteArrayInputStream(data), copied, null,
+            new StreamCryptoOptions(1024, 64 * 1024, true));
+        assertArrayEquals(data, copied.toByteArray());
+
+        // 加解密流
+        ByteArrayOutputStream sm4Encrypted = new ByteArrayOutputStream();
+        try (SM4OutputStream out = new SM4OutputStream(sm4Encrypted, KEY)) {
+            out.write(data);
+        }
+        ByteArrayOutputStream sm4Decrypted = new ByteArrayOutputStream();
+        try (SM4InputStream in = new SM4InputStream(new ByteArrayInputStream(sm4Encrypted.toByteArray()), KEY)) {
+            StreamUtils.copy(in, sm4Decrypted);
+        }
+        assertArrayEquals(data, sm4Decrypted.toByteArray());
+
+        assertTrue(BufferPool.getLeakedBufferTraces().isEmpty(), () -> BufferPool.getLeakedBufferTraces().toString());
+    }
+}
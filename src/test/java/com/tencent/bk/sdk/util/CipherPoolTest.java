@@ -0,0 +1,81 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.util;
+
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricCryptor;
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricCryptorFactory;
+import com.tencent.bk.sdk.crypto.cryptor.consts.CryptorNames;
+import com.tencent.bk.sdk.crypto.util.CipherPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Cipher;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class CipherPoolTest {
+
+    private static final byte[] KEY_BYTES = "中文符号~!@#$%^&*();test".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] MESSAGE_BYTES = "test中文符号~!@#$%^&*()_+=-0987654321`[]{};:'\"<>?,./"
+        .getBytes(StandardCharsets.UTF_8);
+
+    @AfterEach
+    public void tearDown() {
+        CipherPool.setEnabled(true);
+        CipherPool.clearCurrentThread();
+    }
+
+    @Test
+    public void testReuseInSameThread() throws Exception {
+        CipherPool.setEnabled(true);
+        Cipher cipher = CipherPool.getCipher("AES/CTR/NoPadding", null);
+        assertSame(cipher, CipherPool.getCipher("AES/CTR/NoPadding", null));
+
+        CipherPool.setEnabled(false);
+        assertNotSame(cipher, CipherPool.getCipher("AES/CTR/NoPadding", null));
+    }
+
+    @Test
+    public void testCipherCompatible() {
+        testCipherCompatible(CryptorNames.SM4);
+        testCipherCompatible(CryptorNames.AES);
+    }
+
+    private void testCipherCompatible(String cryptorName) {
+        SymmetricCryptor cryptor = SymmetricCryptorFactory.getCryptor(cryptorName);
+        // 关闭密码器池时加密的密文，开启后可正常解密，反之亦然
+        CipherPool.setEnabled(false);
+        byte[] encryptedWithoutPool = cryptor.encrypt(KEY_BYTES, MESSAGE_BYTES);
+        CipherPool.setEnabled(true);
+        byte[] encryptedWithPool = cryptor.encrypt(KEY_BYTES, MESSAGE_BYTES);
+        assertArrayEquals(MESSAGE_BYTES, cryptor.decrypt(KEY_BYTES, encryptedWithoutPool));
+        assertArrayEquals(MESSAGE_BYTES, cryptor.decrypt(KEY_BYTES, encryptedWithPool));
+        CipherPool.setEnabled(false);
+        assertArrayEquals(MESSAGE_BYTES, cryptor.decrypt(KEY_BYTES, encryptedWithPool));
+    }
+}
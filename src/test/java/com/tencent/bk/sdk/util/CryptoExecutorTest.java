@@ -0,0 +1,139 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.util;
+
+import com.tencent.bk.sdk.crypto.cryptor.ASymmetricCryptor;
+import com.tencent.bk.sdk.crypto.cryptor.ASymmetricCryptorFactory;
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricCryptor;
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricCryptorFactory;
+import com.tencent.bk.sdk.crypto.cryptor.consts.CryptorNames;
+import com.tencent.bk.sdk.crypto.exception.CryptoException;
+import com.tencent.bk.sdk.crypto.util.CryptoExecutor;
+import com.tencent.bk.sdk.crypto.util.CryptoExecutorStats;
+import com.tencent.bk.sdk.crypto.util.SM2Util;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CryptoExecutorTest {
+
+    private static final String KEY = "test_key_123";
+    private static final String MESSAGE = "test中文符号~!@#$%^&*()_+=-0987654321`[]{};:'\"<>?,./";
+
+    @Test
+    void testSymmetricAsync() throws Exception {
+        SymmetricCryptor cryptor = SymmetricCryptorFactory.getCryptor(CryptorNames.SM4);
+        String encrypted = cryptor.encryptAsync(KEY, MESSAGE).get(10, TimeUnit.SECONDS);
+        assertEquals(MESSAGE, cryptor.decryptAsync(KEY, encrypted).get(10, TimeUnit.SECONDS));
+
+        byte[] key = KEY.getBytes(StandardCharsets.UTF_8);
+        byte[] message = MESSAGE.getBytes(StandardCharsets.UTF_8);
+        byte[] encryptedBytes = cryptor.encryptAsync(key, message)
+            .thenCompose(bytes -> cryptor.decryptAsync(key, bytes))
+            .get(10, TimeUnit.SECONDS);
+        assertArrayEquals(message, encryptedBytes);
+
+        ByteArrayOutputStream encryptedOut = new ByteArrayOutputStream();
+        cryptor.encryptAsync(KEY, new ByteArrayInputStream(message), encryptedOut).get(10, TimeUnit.SECONDS);
+        ByteArrayOutputStream decryptedOut = new ByteArrayOutputStream();
+        cryptor.decryptAsync(KEY, new ByteArrayInputStream(encryptedOut.toByteArray()), decryptedOut)
+            .get(10, TimeUnit.SECONDS);
+        assertArrayEquals(message, decryptedOut.toByteArray());
+    }
+
+    @Test
+    void testASymmetricAsync() throws Exception {
+        ASymmetricCryptor cryptor = ASymmetricCryptorFactory.getCryptor(CryptorNames.SM2);
+        KeyPair keyPair = SM2Util.genKeyPair();
+        String encrypted = cryptor.encryptAsync(keyPair.getPublic(), MESSAGE).get(10, TimeUnit.SECONDS);
+        assertEquals(MESSAGE, cryptor.decryptAsync(keyPair.getPrivate(), encrypted).get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testSaturation() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        try (CryptoExecutor executor = new CryptoExecutor(1, 1, 0)) {
+            CompletableFuture<String> running = executor.submit(() -> {
+                started.countDown();
+                await(release);
+                return "running";
+            });
+            started.await(10, TimeUnit.SECONDS);
+            CompletableFuture<String> queued = executor.submit(() -> "queued");
+            CompletableFuture<String> rejected = executor.submit(() -> "rejected");
+
+            ExecutionException e = assertThrows(ExecutionException.class, rejected::get);
+            assertTrue(e.getCause() instanceof CryptoException);
+            CryptoExecutorStats stats = executor.getStats();
+            assertEquals(3, stats.getSubmittedCount());
+            assertEquals(1, stats.getRejectedCount());
+            assertEquals(1, stats.getQueueSize());
+            assertEquals(1, stats.getPeakQueueSize());
+
+            release.countDown();
+            assertEquals("running", running.get(10, TimeUnit.SECONDS));
+            assertEquals("queued", queued.get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void testTimeout() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try (CryptoExecutor executor = new CryptoExecutor(1, 1, 50)) {
+            CompletableFuture<String> slow = executor.submit(() -> {
+                await(release);
+                return "slow";
+            });
+            ExecutionException e = assertThrows(ExecutionException.class, () -> slow.get(10, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof TimeoutException);
+            assertEquals(1, executor.getStats().getTimedOutCount());
+            release.countDown();
+
+            assertEquals("fast", executor.submit(() -> "fast", 0).get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.util;
+
+import com.tencent.bk.sdk.crypto.cryptor.ASymmetricCryptor;
+import com.tencent.bk.sdk.crypto.cryptor.ASymmetricCryptorFactory;
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricCryptor;
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricCryptorFactory;
+import com.tencent.bk.sdk.crypto.cryptor.consts.CryptorNames;
+import com.tencent.bk.sdk.crypto.exception.CryptoException;
+import com.tencent.bk.sdk.crypto.metrics.CryptoMetrics;
+import com.tencent.bk.sdk.crypto.metrics.CryptoMetricsUtil;
+import com.tencent.bk.sdk.crypto.metrics.CryptoOperation;
+import com.tencent.bk.sdk.crypto.metrics.CryptoOperationStats;
+import com.tencent.bk.sdk.crypto.metrics.InMemoryCryptoMetrics;
+import com.tencent.bk.sdk.crypto.metrics.LatencyHistogram;
+import com.tencent.bk.sdk.crypto.metrics.NoopCryptoMetrics;
+import com.tencent.bk.sdk.crypto.util.RSAUtil;
+import com.tencent.bk.sdk.crypto.util.SM4InputStream;
+import com.tencent.bk.sdk.crypto.util.SM4OutputStream;
+import com.tencent.bk.sdk.crypto.util.StreamUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CryptoMetricsTest {
+
+    private static final String KEY = "test_key_123";
+
+    private InMemoryCryptoMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new InMemoryCryptoMetrics();
+        CryptoMetricsUtil.setMetrics(metrics);
+    }
+
+    @AfterEach
+    void tearDown() {
+        CryptoMetricsUtil.setMetrics(NoopCryptoMetrics.INSTANCE);
+    }
+
+    @Test
+    void testLatencyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentileNanos(99));
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500500, histogram.getTotalNanos());
+        assertEquals(1000, histogram.getMaxNanos());
+        // 每个2的幂区间分为4个子区间，分位数的相对误差不超过25%
+        long p50 = histogram.getPercentileNanos(50);
+        assertTrue(p50 >= 500 && p50 <= 625, "p50=" + p50);
+        long p99 = histogram.getPercentileNanos(99);
+        assertTrue(p99 >= 990 && p99 <= 1000, "p99=" + p99);
+        assertEquals(1000, histogram.getPercentileNanos(100));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentileNanos(101));
+
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, histogram.getPercentileNanos(100));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMaxNanos());
+    }
+
+    @Test
+    void testSymmetricCryptorMetrics() {
+        SymmetricCryptor cryptor = SymmetricCryptorFactory.getCryptor(CryptorNames.SM4);
+        byte[] key = KEY.getBytes(StandardCharsets.UTF_8);
+        byte[] message = "test message".getBytes(StandardCharsets.UTF_8);
+        byte[] encrypted = cryptor.encrypt(key, message);
+        assertArrayEquals(message, cryptor.decrypt(key, encrypted));
+        String encryptedStr = cryptor.encrypt(KEY, "中文");
+        assertEquals("中文", cryptor.decrypt(KEY, encryptedStr));
+        assertThrows(CryptoException.class, () -> cryptor.decrypt(new byte[0], encrypted));
+
+        CryptoOperationStats encryptStats = metrics.getStats(CryptorNames.SM4, CryptoOperation.ENCRYPT);
+        assertEquals(2, encryptStats.getCount());
+        assertEquals(0, encryptStats.getErrorCount());
+        assertEquals(message.length + 2, encryptStats.getBytes());
+        assertTrue(encryptStats.getMaxNanos() > 0);
+        assertTrue(encryptStats.getP50Nanos() <= encryptStats.getMaxNanos());
+
+        CryptoOperationStats decryptStats = metrics.getStats(CryptorNames.SM4, CryptoOperation.DECRYPT);
+        assertEquals(3, decryptStats.getCount());
+        assertEquals(1, decryptStats.getErrorCount());
+        assertEquals(2L * encrypted.length + encryptedStr.length(), decryptStats.getBytes());
+
+        List<String> encryptedList = cryptor.encryptBatch(KEY, Arrays.asList("a", "bc", null));
+        cryptor.decryptBatch(KEY, encryptedList);
+        CryptoOperationStats batchStats = metrics.getStats(CryptorNames.SM4, CryptoOperation.ENCRYPT_BATCH);
+        assertEquals(1, batchStats.getCount());
+        assertEquals(3, batchStats.getBytes());
+        assertNotNull(metrics.getStats(CryptorNames.SM4, CryptoOperation.DECRYPT_BATCH));
+        assertNull(metrics.getStats(CryptorNames.SM4, CryptoOperation.ENCRYPT_FILE));
+        assertEquals(4, metrics.getStats().size());
+
+        metrics.reset();
+        assertTrue(metrics.getStats().isEmpty());
+    }
+
+    @Test
+    void testStreamMetrics() throws IOException {
+        byte[] data = new byte[100 * 1024];
+        new Random().nextBytes(data);
+
+        SymmetricCryptor cryptor = SymmetricCryptorFactory.getCryptor(CryptorNames.SM4);
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        cryptor.encrypt(KEY, new ByteArrayInputStream(data), encrypted);
+        ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+        cryptor.decrypt(KEY, new ByteArrayInputStream(encrypted.toByteArray()), decrypted);
+        assertArrayEquals(data, decrypted.toByteArray());
+        assertEquals(data.length,
+            metrics.getStats(CryptorNames.SM4, CryptoOperation.ENCRYPT_STREAM).getBytes());
+        assertEquals(encrypted.size(),
+            metrics.getStats(CryptorNames.SM4, CryptoOperation.DECRYPT_STREAM).getBytes());
+
+        // 加解密流按密码器算法名称记录，关闭流时记录一次
+        metrics.reset();
+        ByteArrayOutputStream sm4Encrypted = new ByteArrayOutputStream();
+        try (SM4OutputStream out = new SM4OutputStream(sm4Encrypted, KEY)) {
+            out.write(data);
+        }
+        ByteArrayOutputStream sm4Decrypted = new ByteArrayOutputStream();
+        try (SM4InputStream in = new SM4InputStream(new ByteArrayInputStream(sm4Encrypted.toByteArray()), KEY)) {
+            StreamUtils.copy(in, sm4Decrypted);
+        }
+        assertArrayEquals(data, sm4Decrypted.toByteArray());
+        CryptoOperationStats encryptStats = metrics.getStats(CryptorNames.SM4, CryptoOperation.ENCRYPT_STREAM);
+        assertEquals(1, encryptStats.getCount());
+        assertEquals(data.length, encryptStats.getBytes());
+        CryptoOperationStats decryptStats = metrics.getStats(CryptorNames.SM4, CryptoOperation.DECRYPT_STREAM);
+        assertEquals(1, decryptStats.getCount());
+        assertTrue(decryptStats.getBytes() >= data.length);
+    }
+
+    @Test
+    void testASymmetricCryptorMetrics() {
+        ASymmetricCryptor cryptor = ASymmetricCryptorFactory.getCryptor(CryptorNames.RSA);
+        KeyPair keyPair = RSAUtil.genKeyPair(2048);
+        String encrypted = cryptor.encrypt(keyPair.getPublic(), "message");
+        assertEquals("message", cryptor.decrypt(keyPair.getPrivate(), encrypted));
+        assertEquals(1, metrics.getStats(CryptorNames.RSA, CryptoOperation.ENCRYPT).getCount());
+        assertEquals(7, metrics.getStats(CryptorNames.RSA, CryptoOperation.ENCRYPT).getBytes());
+        assertEquals(1, metrics.getStats(CryptorNames.RSA, CryptoOperation.DECRYPT).getCount());
+    }
+
+    @Test
+    void testNoopMetrics() {
+        CryptoMetricsUtil.setMetrics(NoopCryptoMetrics.INSTANCE);
+        assertFalse(CryptoMetricsUtil.isEnabled());
+        SymmetricCryptor cryptor = SymmetricCryptorFactory.getCryptor(CryptorNames.NONE);
+        assertEquals("message", cryptor.encrypt(KEY, "message"));
+        assertTrue(metrics.getStats().isEmpty());
+
+        assertSame(NoopCryptoMetrics.INSTANCE, CryptoMetricsUtil.createMetrics(CryptoMetricsUtil.METRICS_NOOP));
+        assertTrue(CryptoMetricsUtil.createMetrics(CryptoMetricsUtil.METRICS_MEMORY) instanceof InMemoryCryptoMetrics);
+        assertThrows(IllegalArgumentException.class, () -> CryptoMetricsUtil.setMetrics(null));
+    }
+
+    @Test
+    void testMetricsErrorIgnored() {
+        CryptoMetrics failingMetrics = (cryptorName, operation, bytes, elapsedNanos, error) -> {
+            throw new IllegalStateException("metrics backend unavailable");
+        };
+        CryptoMetricsUtil.setMetrics(failingMetrics);
+        SymmetricCryptor cryptor = SymmetricCryptorFactory.getCryptor(CryptorNames.NONE);
+        assertEquals("message", cryptor.encrypt(KEY, "message"));
+    }
+}
@@ -25,6 +25,7 @@
 package com.tencent.bk.sdk.util;
 
 import com.tencent.bk.sdk.crypto.cryptor.CryptorMetaDefinition;
+import com.tencent.bk.sdk.crypto.exception.CryptoException;
 import com.tencent.bk.sdk.crypto.util.CryptorMetaUtil;
 import org.junit.jupiter.api.Test;
 
@@ -35,9 +36,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class CryptorMetaUtilTest {
     @Test
@@ -79,4 +83,54 @@ public class CryptorMetaUtilTest {
         assertEquals(cipherStr, reader.readLine());
         reader.close();
     }
+
+    @Test
+    public void testCheckPrefixOfEncryptedBytes() {
+        byte[] prefixBytes = "[Cipher:::SM4]".getBytes(StandardCharsets.UTF_8);
+        byte[] encryptedBytes = "[Cipher:::SM4]abc".getBytes(StandardCharsets.UTF_8);
+        assertEquals(prefixBytes.length, CryptorMetaUtil.checkPrefixOfEncryptedBytes(prefixBytes, encryptedBytes));
+        assertArrayEquals(
+            "abc".getBytes(StandardCharsets.UTF_8),
+            CryptorMetaUtil.removePrefixFromEncryptedBytes(prefixBytes, encryptedBytes)
+        );
+        // 异常用例
+        assertThrows(CryptoException.class, () -> CryptorMetaUtil.checkPrefixOfEncryptedBytes(
+            prefixBytes, "[Cipher:::AES]abc".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(CryptoException.class, () -> CryptorMetaUtil.checkPrefixOfEncryptedBytes(
+            prefixBytes, "[Cipher:::".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testCipherHeader() {
+        byte[] header = CryptorMetaUtil.buildCipherHeader(1, null);
+        assertArrayEquals(new byte[]{(byte) 0xBC, 0x02, 0x01}, header);
+        assertEquals(3, CryptorMetaUtil.getCipherHeaderLength(header, 0, header.length));
+        assertEquals(1, CryptorMetaUtil.getCipherHeaderAlgorithmId(header, 0));
+        assertNull(CryptorMetaUtil.getCipherHeaderKeyId(header, 0));
+
+        byte[] keyId = "key-2024".getBytes(StandardCharsets.UTF_8);
+        byte[] headerWithKeyId = CryptorMetaUtil.buildCipherHeader(200, keyId);
+        assertEquals(4 + keyId.length, CryptorMetaUtil.getCipherHeaderLength(headerWithKeyId, 0, 4));
+        assertEquals(200, CryptorMetaUtil.getCipherHeaderAlgorithmId(headerWithKeyId, 0));
+        assertArrayEquals(keyId, CryptorMetaUtil.getCipherHeaderKeyId(headerWithKeyId, 0));
+
+        // 文本前缀、未知版本均不是二进制密文头
+        byte[] textPrefix = "[Cipher:::SM4]".getBytes(StandardCharsets.UTF_8);
+        assertEquals(-1, CryptorMetaUtil.getCipherHeaderLength(textPrefix, 0, textPrefix.length));
+        assertEquals(-1, CryptorMetaUtil.getCipherHeaderLength(new byte[]{(byte) 0xBC, 0x03, 0x01}, 0, 3));
+        assertEquals(0, CryptorMetaUtil.getMatchingCipherHeaderLength(2, header, 0, header.length));
+
+        // 同时兼容两种格式的校验
+        byte[] body = {1, 2, 3};
+        assertEquals(3, CryptorMetaUtil.checkHeaderOfEncryptedBytes(
+            textPrefix, 1, CryptorMetaUtil.addPrefixToEncryptedBytes(header, body)));
+        assertEquals(textPrefix.length, CryptorMetaUtil.checkHeaderOfEncryptedBytes(
+            textPrefix, 1, CryptorMetaUtil.addPrefixToEncryptedBytes(textPrefix, body)));
+        assertThrows(CryptoException.class, () -> CryptorMetaUtil.checkHeaderOfEncryptedBytes(
+            textPrefix, 2, CryptorMetaUtil.addPrefixToEncryptedBytes(header, body)));
+        assertThrows(CryptoException.class, () -> CryptorMetaUtil.checkHeaderOfEncryptedBytes(
+            textPrefix, 200, Arrays.copyOf(headerWithKeyId, 6)));
+        assertThrows(IllegalArgumentException.class, () -> CryptorMetaUtil.buildCipherHeader(0, null));
+        assertThrows(IllegalArgumentException.class, () -> CryptorMetaUtil.setCipherFormatVersion(3));
+    }
 }
@@ -0,0 +1,208 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.util;
+
+import com.tencent.bk.sdk.crypto.util.AESUtil;
+import com.tencent.bk.sdk.crypto.util.CtrCipherUtil;
+import com.tencent.bk.sdk.crypto.util.SM4Util;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.IvParameterSpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CtrCipherUtilTest {
+
+    private static final byte[] KEY_BYTES = "中文符号~!@#$%^&*();test".getBytes(StandardCharsets.UTF_8);
+    private static final String KEY = "中文符号~!@#$%^&*();test";
+    /**
+     * 大于并行阈值且不是分组长度整数倍的数据
+     */
+    private static final byte[] LARGE_MESSAGE = new byte[3 * 1024 * 1024 + 7];
+
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    public static void setup() {
+        new Random(0).nextBytes(LARGE_MESSAGE);
+        pool = new ForkJoinPool(4);
+        CtrCipherUtil.setForkJoinPool(pool);
+    }
+
+    @AfterAll
+    public static void cleanup() {
+        CtrCipherUtil.setForkJoinPool(ForkJoinPool.commonPool());
+        pool.shutdown();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        CtrCipherUtil.setParallelEnabled(true);
+    }
+
+    @Test
+    public void testGetCounter() {
+        byte[] iv = new byte[16];
+        Arrays.fill(iv, 8, 16, (byte) 0xFF);
+        byte[] expected = new byte[16];
+        expected[7] = 1;
+        expected[15] = 1;
+        // 低64位溢出时需要进位到高64位
+        assertArrayEquals(expected, CtrCipherUtil.getCounter(iv, 2));
+        Arrays.fill(iv, (byte) 0xFF);
+        // 128位整体溢出时回绕
+        assertArrayEquals(new byte[16], CtrCipherUtil.getCounter(iv, 1));
+    }
+
+    @Test
+    public void testSameAsSingleCipher() throws Exception {
+        SecretKey secretKey = AESUtil.getSecretKey(KEY_BYTES);
+        // 计数器在处理过程中跨越低字节进位
+        byte[] iv = new byte[16];
+        Arrays.fill(iv, 12, 16, (byte) 0xFF);
+        Cipher cipher = Cipher.getInstance("AES/CTR/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, secretKey, new IvParameterSpec(iv));
+        byte[] expected = cipher.doFinal(LARGE_MESSAGE);
+
+        byte[] actual = new byte[LARGE_MESSAGE.length];
+        CtrCipherUtil.process("AES/CTR/NoPadding", null, Cipher.ENCRYPT_MODE, secretKey, iv,
+            LARGE_MESSAGE, 0, LARGE_MESSAGE.length, actual, 0);
+        assertArrayEquals(expected, actual);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CtrCipherUtil.process("AES/CTR/NoPadding", null, Cipher.ENCRYPT_MODE, secretKey, iv,
+            new ByteArrayInputStream(LARGE_MESSAGE), out);
+        assertArrayEquals(expected, out.toByteArray());
+    }
+
+    @Test
+    public void testStreamSequentialBeforeThreshold() throws Exception {
+        SecretKey secretKey = AESUtil.getSecretKey(KEY_BYTES);
+        byte[] iv = new byte[16];
+        Cipher cipher = Cipher.getInstance("AES/CTR/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, secretKey, new IvParameterSpec(iv));
+        byte[] expected = cipher.doFinal(LARGE_MESSAGE);
+
+        // 每次读取不足一个分组整数倍的数据，跨越并行阈值时仍需从分组边界开始并行处理
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CtrCipherUtil.process("AES/CTR/NoPadding", null, Cipher.ENCRYPT_MODE, secretKey, iv,
+            new ChunkedInputStream(LARGE_MESSAGE, 777), out);
+        assertArrayEquals(expected, out.toByteArray());
+
+        // 未达到并行阈值的数据逐块写出，不等待读满缓冲区
+        ByteArrayOutputStream smallOut = new ByteArrayOutputStream();
+        int[] writtenBeforeSecondRead = {-1};
+        InputStream in = new ChunkedInputStream(Arrays.copyOf(LARGE_MESSAGE, 200), 100) {
+            private int reads = 0;
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (++reads == 2) {
+                    writtenBeforeSecondRead[0] = smallOut.size();
+                }
+                return super.read(b, off, len);
+            }
+        };
+        CtrCipherUtil.process("AES/CTR/NoPadding", null, Cipher.ENCRYPT_MODE, secretKey, iv, in, smallOut);
+        assertEquals(100, writtenBeforeSecondRead[0]);
+        assertArrayEquals(Arrays.copyOf(expected, 200), smallOut.toByteArray());
+    }
+
+    @Test
+    public void testStreamWithReentrantRead() throws Exception {
+        // 读取输入流时在同一线程内调用单次加密接口，不影响流数据加密使用的密码器
+        byte[] message = Arrays.copyOf(LARGE_MESSAGE, 1000);
+        InputStream in = new ChunkedInputStream(message, 100) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                SM4Util.encrypt(KEY_BYTES, "reentrant".getBytes(StandardCharsets.UTF_8));
+                return super.read(b, off, len);
+            }
+        };
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SM4Util.encrypt(KEY, in, out);
+        assertArrayEquals(message, SM4Util.decrypt(KEY_BYTES, out.toByteArray()));
+    }
+
+    @Test
+    public void testParallelCompatible() throws Exception {
+        // 并行加密的密文可串行解密，反之亦然
+        CtrCipherUtil.setParallelEnabled(true);
+        byte[] sm4Encrypted = SM4Util.encrypt(KEY_BYTES, LARGE_MESSAGE);
+        byte[] aesEncrypted = AESUtil.encrypt(LARGE_MESSAGE, KEY_BYTES);
+        CtrCipherUtil.setParallelEnabled(false);
+        assertArrayEquals(LARGE_MESSAGE, SM4Util.decrypt(KEY_BYTES, sm4Encrypted));
+        assertArrayEquals(LARGE_MESSAGE, AESUtil.decrypt(aesEncrypted, KEY_BYTES));
+
+        sm4Encrypted = SM4Util.encrypt(KEY_BYTES, LARGE_MESSAGE);
+        aesEncrypted = AESUtil.encrypt(LARGE_MESSAGE, KEY_BYTES);
+        CtrCipherUtil.setParallelEnabled(true);
+        assertArrayEquals(LARGE_MESSAGE, SM4Util.decrypt(KEY_BYTES, sm4Encrypted));
+        assertArrayEquals(LARGE_MESSAGE, AESUtil.decrypt(aesEncrypted, KEY_BYTES));
+
+        // 流数据
+        ByteArrayOutputStream sm4Out = new ByteArrayOutputStream();
+        SM4Util.encrypt(KEY, new ByteArrayInputStream(LARGE_MESSAGE), sm4Out);
+        ByteArrayOutputStream aesOut = new ByteArrayOutputStream();
+        AESUtil.encrypt(KEY, new ByteArrayInputStream(LARGE_MESSAGE), aesOut);
+        CtrCipherUtil.setParallelEnabled(false);
+        assertArrayEquals(LARGE_MESSAGE, SM4Util.decrypt(KEY_BYTES, sm4Out.toByteArray()));
+        ByteArrayOutputStream decryptedOut = new ByteArrayOutputStream();
+        AESUtil.decrypt(KEY, new ByteArrayInputStream(aesOut.toByteArray()), decryptedOut);
+        assertArrayEquals(LARGE_MESSAGE, decryptedOut.toByteArray());
+    }
+
+    /**
+     * 每次最多返回指定长度数据的输入流，模拟网络流等不会读满缓冲区的输入
+     */
+    private static class ChunkedInputStream extends FilterInputStream {
+        private final int chunkSize;
+
+        ChunkedInputStream(byte[] data, int chunkSize) {
+            super(new ByteArrayInputStream(data));
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return super.read(b, off, Math.min(len, chunkSize));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.util;
+
+import com.tencent.bk.sdk.crypto.util.AESInputStream;
+import com.tencent.bk.sdk.crypto.util.AESUtil;
+import com.tencent.bk.sdk.crypto.util.CtrCipherInputStream;
+import com.tencent.bk.sdk.crypto.util.SM4InputStream;
+import com.tencent.bk.sdk.crypto.util.SM4Util;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CtrSeekableDecryptTest {
+
+    private static final String KEY = "secretKey";
+
+    private final byte[] data = new byte[100000];
+
+    private Path encryptedFile;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        new Random(0).nextBytes(data);
+        encryptedFile = Files.createTempFile("ctr-seekable", ".encrypt");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(encryptedFile);
+    }
+
+    @Test
+    public void testSkip() throws Exception {
+        ByteArrayOutputStream sm4Out = new ByteArrayOutputStream();
+        SM4Util.encrypt(KEY, new ByteArrayInputStream(data), sm4Out);
+        ByteArrayOutputStream aesOut = new ByteArrayOutputStream();
+        AESUtil.encrypt(KEY, new ByteArrayInputStream(data), aesOut);
+
+        assertSkip(new SM4InputStream(new ByteArrayInputStream(sm4Out.toByteArray()), KEY, 1000));
+        assertSkip(new AESInputStream(new ByteArrayInputStream(aesOut.toByteArray()), KEY, 1000));
+    }
+
+    private void assertSkip(CtrCipherInputStream in) throws IOException {
+        byte[] b = new byte[10];
+        // 在已解密的缓冲区内跳过
+        assertEquals(3, in.skip(3));
+        assertEquals(10, in.read(b));
+        assertArrayEquals(Arrays.copyOfRange(data, 3, 13), b);
+        // 跳过缓冲区之外且不在分组边界上的位置
+        assertEquals(50000, in.skip(50000));
+        assertEquals(50013, in.getPosition());
+        assertEquals(10, in.read(b));
+        assertArrayEquals(Arrays.copyOfRange(data, 50013, 50023), b);
+        // 跳过超出数据末尾
+        assertEquals(data.length - 50023, in.skip(data.length));
+        assertEquals(-1, in.read());
+        in.close();
+    }
+
+    @Test
+    public void testSkipAfterSingleByteRead() throws Exception {
+        ByteArrayOutputStream sm4Out = new ByteArrayOutputStream();
+        SM4Util.encrypt(KEY, new ByteArrayInputStream(data), sm4Out);
+
+        try (SM4InputStream in = new SM4InputStream(new ByteArrayInputStream(sm4Out.toByteArray()), KEY, 1000)) {
+            // 单字节读取同样需要推进读取位置，否则skip后按错误的位置重新初始化密码器
+            assertEquals(Byte.toUnsignedInt(data[0]), in.read());
+            assertEquals(1, in.getPosition());
+            assertEquals(50000, in.skip(50000));
+            assertEquals(50001, in.getPosition());
+            byte[] b = new byte[4];
+            assertEquals(4, in.read(b));
+            assertArrayEquals(Arrays.copyOfRange(data, 50001, 50005), b);
+        }
+    }
+
+    @Test
+    public void testChannel() throws Exception {
+        try (InputStream in = new ByteArrayInputStream(data)) {
+            Files.write(encryptedFile, new byte[]{'h', 'e', 'a', 'd'});
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            SM4Util.encrypt(KEY, in, out);
+            Files.write(encryptedFile, out.toByteArray(), StandardOpenOption.APPEND);
+        }
+        try (SeekableByteChannel channel = SM4Util.openDecryptChannel(
+            KEY, FileChannel.open(encryptedFile, StandardOpenOption.READ), 4)) {
+            assertChannel(channel);
+        }
+
+        try (InputStream in = new ByteArrayInputStream(data)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            AESUtil.encrypt(KEY, in, out);
+            Files.write(encryptedFile, out.toByteArray());
+        }
+        try (SeekableByteChannel channel = AESUtil.openDecryptChannel(
+            KEY, FileChannel.open(encryptedFile, StandardOpenOption.READ), 0)) {
+            assertChannel(channel);
+        }
+    }
+
+    private void assertChannel(SeekableByteChannel channel) throws IOException {
+        assertEquals(data.length, channel.size());
+        // 读取末尾数据
+        channel.position(data.length - 1000);
+        assertArrayEquals(Arrays.copyOfRange(data, data.length - 1000, data.length), readFully(channel, 1000));
+        assertEquals(-1, channel.read(ByteBuffer.allocate(1)));
+        // 向前定位到非分组边界的位置后连续读取
+        channel.position(17);
+        assertArrayEquals(Arrays.copyOfRange(data, 17, 20017), readFully(channel, 20000));
+        assertEquals(20017, channel.position());
+        // 读取全部数据
+        channel.position(0);
+        assertArrayEquals(data, readFully(channel, data.length));
+    }
+
+    private byte[] readFully(SeekableByteChannel channel, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) == -1) {
+                break;
+            }
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+}
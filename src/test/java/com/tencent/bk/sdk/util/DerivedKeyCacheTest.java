@@ -0,0 +1,93 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.util;
+
+import com.tencent.bk.sdk.crypto.util.DerivedKeyCache;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class DerivedKeyCacheTest {
+
+    @Test
+    public void testDeriveOnce() throws Exception {
+        AtomicInteger deriveCount = new AtomicInteger(0);
+        DerivedKeyCache cache = new DerivedKeyCache("AES", 4, rawKey -> {
+            deriveCount.incrementAndGet();
+            return reverse(rawKey);
+        });
+        byte[] key = "secretKey".getBytes(StandardCharsets.UTF_8);
+        SecretKeySpec keySpec = cache.getKeySpec(key);
+        assertArrayEquals(reverse(key), keySpec.getEncoded());
+        for (int i = 0; i < 10; i++) {
+            assertArrayEquals(reverse(key), cache.getKeySpec(key.clone()).getEncoded());
+        }
+        assertEquals(1, deriveCount.get());
+    }
+
+    @Test
+    public void testEvict() throws Exception {
+        AtomicInteger deriveCount = new AtomicInteger(0);
+        DerivedKeyCache cache = new DerivedKeyCache("AES", 2, rawKey -> {
+            deriveCount.incrementAndGet();
+            return reverse(rawKey);
+        });
+        for (int i = 0; i < 10; i++) {
+            byte[] key = ("secretKey" + i).getBytes(StandardCharsets.UTF_8);
+            assertArrayEquals(reverse(key), cache.getKeySpec(key).getEncoded());
+        }
+        assertEquals(2, cache.size());
+        assertEquals(10, deriveCount.get());
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        AtomicInteger deriveCount = new AtomicInteger(0);
+        DerivedKeyCache cache = new DerivedKeyCache("AES", 0, rawKey -> {
+            deriveCount.incrementAndGet();
+            return reverse(rawKey);
+        });
+        byte[] key = "secretKey".getBytes(StandardCharsets.UTF_8);
+        cache.getKeySpec(key);
+        cache.getKeySpec(key);
+        assertEquals(0, cache.size());
+        assertEquals(2, deriveCount.get());
+    }
+
+    private static byte[] reverse(byte[] bytes) {
+        byte[] result = new byte[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            result[i] = bytes[bytes.length - 1 - i];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.util;
+
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricCryptor;
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricCryptorFactory;
+import com.tencent.bk.sdk.crypto.cryptor.consts.CryptorNames;
+import com.tencent.bk.sdk.crypto.util.CounterIvGenerator;
+import com.tencent.bk.sdk.crypto.util.IvGenerator;
+import com.tencent.bk.sdk.crypto.util.IvUtil;
+import com.tencent.bk.sdk.crypto.util.PooledIvGenerator;
+import com.tencent.bk.sdk.crypto.util.ThreadLocalIvGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class IvGeneratorTest {
+
+    private static final byte[] KEY_BYTES = "中文符号~!@#$%^&*();test".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] MESSAGE_BYTES = "test中文符号~!@#$%^&*()_+=-0987654321`[]{};:'\"<>?,./"
+        .getBytes(StandardCharsets.UTF_8);
+
+    private final IvGenerator defaultGenerator = IvUtil.getIvGenerator();
+
+    @AfterEach
+    public void tearDown() {
+        IvUtil.setIvGenerator(defaultGenerator);
+    }
+
+    @Test
+    public void testUniqueAcrossThreads() throws Exception {
+        try (PooledIvGenerator pooledIvGenerator = new PooledIvGenerator(256, 4)) {
+            for (IvGenerator generator : new IvGenerator[]{
+                new ThreadLocalIvGenerator(), pooledIvGenerator, new CounterIvGenerator()}) {
+                assertUnique(generator);
+            }
+        }
+    }
+
+    private void assertUnique(IvGenerator generator) throws Exception {
+        int threads = 4;
+        int count = 10000;
+        Set<ByteBuffer> ivs = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < count; j++) {
+                        ivs.add(ByteBuffer.wrap(generator.nextIv(16)));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(threads * count, ivs.size());
+    }
+
+    @Test
+    public void testSetIvGeneratorClosesReplaced() {
+        AtomicInteger closeCount = new AtomicInteger();
+        ClosableIvGenerator generator = new ClosableIvGenerator(closeCount);
+        IvUtil.setIvGenerator(generator);
+        // 重复设置同一生成器时不关闭
+        IvUtil.setIvGenerator(generator);
+        assertEquals(0, closeCount.get());
+
+        IvUtil.setIvGenerator(new ThreadLocalIvGenerator());
+        assertEquals(1, closeCount.get());
+    }
+
+    private static class ClosableIvGenerator implements IvGenerator, Closeable {
+        private final IvGenerator delegate = new ThreadLocalIvGenerator();
+        private final AtomicInteger closeCount;
+
+        ClosableIvGenerator(AtomicInteger closeCount) {
+            this.closeCount = closeCount;
+        }
+
+        @Override
+        public void nextIv(byte[] iv, int offset, int length) {
+            delegate.nextIv(iv, offset, length);
+        }
+
+        @Override
+        public void close() {
+            closeCount.incrementAndGet();
+        }
+    }
+
+    @Test
+    public void testCounterNonceLayout() {
+        CounterIvGenerator generator = new CounterIvGenerator();
+        byte[] buffer = new byte[20];
+        generator.nextIv(buffer, 2, 16);
+        byte[] next = generator.nextIv(16);
+        // 相同随机前缀，消息计数器递增，末尾4字节为0
+        assertArrayEquals(Arrays.copyOfRange(buffer, 2, 10), Arrays.copyOf(next, 8));
+        assertEquals(ByteBuffer.wrap(buffer, 10, 4).getInt() + 1, ByteBuffer.wrap(next, 8, 4).getInt());
+        assertEquals(0, ByteBuffer.wrap(next, 12, 4).getInt());
+        assertThrows(IllegalArgumentException.class, () -> generator.nextIv(12));
+    }
+
+    @Test
+    public void testEncryptWithGenerators() {
+        SymmetricCryptor sm4Cryptor = SymmetricCryptorFactory.getCryptor(CryptorNames.SM4);
+        SymmetricCryptor aesCryptor = SymmetricCryptorFactory.getCryptor(CryptorNames.AES);
+        for (String type : new String[]{IvUtil.GENERATOR_THREAD_LOCAL, IvUtil.GENERATOR_POOL,
+            IvUtil.GENERATOR_COUNTER}) {
+            IvGenerator generator = IvUtil.createIvGenerator(type);
+            IvUtil.setIvGenerator(generator);
+            for (SymmetricCryptor cryptor : new SymmetricCryptor[]{sm4Cryptor, aesCryptor}) {
+                byte[] encryptedMessage = cryptor.encrypt(KEY_BYTES, MESSAGE_BYTES);
+                assertArrayEquals(MESSAGE_BYTES, cryptor.decrypt(KEY_BYTES, encryptedMessage));
+            }
+            if (generator instanceof PooledIvGenerator) {
+                ((PooledIvGenerator) generator).close();
+            }
+        }
+    }
+}
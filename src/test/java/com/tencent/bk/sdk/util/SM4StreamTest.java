@@ -1,5 +1,7 @@
 package com.tencent.bk.sdk.util;
 
+import com.tencent.bk.sdk.crypto.util.AESInputStream;
+import com.tencent.bk.sdk.crypto.util.AESOutputStream;
 import com.tencent.bk.sdk.crypto.util.SM4InputStream;
 import com.tencent.bk.sdk.crypto.util.SM4OutputStream;
 import com.tencent.bk.sdk.crypto.util.SM4Util;
@@ -13,7 +15,10 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 public class SM4StreamTest {
     @Test
@@ -67,6 +72,74 @@ public class SM4StreamTest {
         assertSuccessDecrypt(data3, new ByteArrayInputStream(SM4Util.encrypt(key, data3)), secretKey, 1023);
     }
 
+    @Test
+    public void readApiTest() throws IOException {
+        String secretKey = "secretKey";
+        byte[] data = createTempData(10000);
+        byte[] encryptData = SM4Util.encrypt(secretKey.getBytes(StandardCharsets.UTF_8), data);
+
+        // 单次读取长度大于缓冲区
+        SM4InputStream in = new SM4InputStream(new ByteArrayInputStream(encryptData), secretKey, 1000);
+        byte[] decryptData = new byte[data.length + 10];
+        Assertions.assertEquals(3000, in.read(decryptData, 5, 3000));
+        Assertions.assertEquals(Byte.toUnsignedInt(data[3000]), in.read());
+        Assertions.assertEquals(data.length - 3001, in.available());
+        Assertions.assertEquals(data.length - 3001, in.read(decryptData, 3006, decryptData.length - 3006));
+        Assertions.assertEquals(-1, in.read(decryptData, 0, 1));
+        Assertions.assertEquals(0, in.available());
+        decryptData[3005] = data[3000];
+        Assertions.assertArrayEquals(data, Arrays.copyOfRange(decryptData, 5, 5 + data.length));
+
+        // 从中间位置批量写出
+        in = new SM4InputStream(new ByteArrayInputStream(encryptData), secretKey, 1000);
+        Assertions.assertEquals(100, in.skip(100));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Assertions.assertEquals(data.length - 100, in.transferTo(out));
+        Assertions.assertEquals(data.length, in.getPosition());
+        Assertions.assertArrayEquals(Arrays.copyOfRange(data, 100, data.length), out.toByteArray());
+    }
+
+    @Test
+    public void outputStreamTest() throws IOException {
+        String secretKey = "secretKey";
+        byte[] data = createTempData(100000);
+
+        // 中途flush不结束密码器，外层包装GZIP流
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(new SM4OutputStream(output, secretKey, 1000), true)) {
+            gzipOut.write(data, 0, 10);
+            gzipOut.flush();
+            gzipOut.write(data, 10, 50000);
+            gzipOut.flush();
+            gzipOut.write(data, 50010, data.length - 50010);
+        }
+        ByteArrayOutputStream plainOutput = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(new SM4InputStream(
+            new ByteArrayInputStream(output.toByteArray()), secretKey))) {
+            StreamUtils.copy(in, plainOutput);
+        }
+        Assertions.assertArrayEquals(data, plainOutput.toByteArray());
+
+        // 逐字节写入
+        output = new ByteArrayOutputStream();
+        try (AESOutputStream aesOut = new AESOutputStream(output, secretKey, 7)) {
+            for (int i = 0; i < 100; i++) {
+                aesOut.write(data[i]);
+                if (i % 33 == 0) {
+                    aesOut.flush();
+                }
+            }
+        }
+        plainOutput = new ByteArrayOutputStream();
+        StreamUtils.copy(new AESInputStream(new ByteArrayInputStream(output.toByteArray()), secretKey), plainOutput);
+        Assertions.assertArrayEquals(Arrays.copyOf(data, 100), plainOutput.toByteArray());
+
+        // 未写入数据时也输出IV
+        output = new ByteArrayOutputStream();
+        new SM4OutputStream(output, secretKey).close();
+        Assertions.assertEquals(16, output.size());
+    }
+
     private byte[] createTempData(int size) {
         byte[] data = new byte[size];
         new Random().nextBytes(data);
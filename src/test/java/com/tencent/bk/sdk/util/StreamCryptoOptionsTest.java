@@ -0,0 +1,217 @@
+/*
+ * Tencent is pleased to support the open source community by making 蓝鲸加解密Java SDK（crypto-java-sdk） available.
+ *
+ * Copyright (C) 2021 THL A29 Limited, a Tencent company.  All rights reserved.
+ *
+ * 蓝鲸加解密Java SDK（crypto-java-sdk） is licensed under the MIT License.
+ *
+ * License for 蓝鲸加解密Java SDK（crypto-java-sdk）:
+ * --------------------------------------------------------------------
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and
+ * to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of
+ * the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO
+ * THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ */
+
+package com.tencent.bk.sdk.util;
+
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricCryptor;
+import com.tencent.bk.sdk.crypto.cryptor.SymmetricCryptorFactory;
+import com.tencent.bk.sdk.crypto.cryptor.consts.CryptorNames;
+import com.tencent.bk.sdk.crypto.util.AESUtil;
+import com.tencent.bk.sdk.crypto.util.BasicCipherUtil;
+import com.tencent.bk.sdk.crypto.util.CtrCipherUtil;
+import com.tencent.bk.sdk.crypto.util.SM4Util;
+import com.tencent.bk.sdk.crypto.util.StreamCryptoOptions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamCryptoOptionsTest {
+
+    private static final String KEY = "test_key_123";
+
+    private boolean parallelEnabled;
+
+    @BeforeEach
+    void setUp() {
+        // 关闭并行处理以使用流数据处理引擎
+        parallelEnabled = CtrCipherUtil.isParallelEnabled();
+        CtrCipherUtil.setParallelEnabled(false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        CtrCipherUtil.setParallelEnabled(parallelEnabled);
+    }
+
+    @Test
+    void testStreamWithOptions() {
+        byte[] data = new byte[100000];
+        new Random(1).nextBytes(data);
+        StreamCryptoOptions[] optionsList = {
+            StreamCryptoOptions.getDefault(),
+            new StreamCryptoOptions(16, 1024, false),
+            new StreamCryptoOptions(16, 1024, true),
+            new StreamCryptoOptions(1000, 1000, true)
+        };
+        for (String name : new String[]{CryptorNames.SM4, CryptorNames.AES, CryptorNames.NONE}) {
+            SymmetricCryptor cryptor = SymmetricCryptorFactory.getCryptor(name);
+            for (StreamCryptoOptions options : optionsList) {
+                ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+                cryptor.encrypt(KEY, new ChunkedInputStream(data, 777), encrypted, options);
+                ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+                cryptor.decrypt(KEY, new ChunkedInputStream(encrypted.toByteArray(), 333), decrypted, options);
+                assertArrayEquals(data, decrypted.toByteArray(), name + " " + options);
+            }
+        }
+    }
+
+    @Test
+    void testOptionsWithParallelEnabled() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        CtrCipherUtil.setForkJoinPool(pool);
+        CtrCipherUtil.setParallelEnabled(true);
+        try {
+            // 超过并行阈值的数据
+            byte[] data = new byte[3 * 1024 * 1024 + 7];
+            new Random(2).nextBytes(data);
+            // 未启用并行的调优参数：全部数据按指定的缓冲区大小读取
+            StreamCryptoOptions options = new StreamCryptoOptions(512, 512, false);
+            MaxReadLengthInputStream in = new MaxReadLengthInputStream(data);
+            ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+            SM4Util.encrypt(KEY, in, encrypted, options);
+            assertEquals(512, in.maxReadLength);
+            ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+            SM4Util.decrypt(KEY, new ByteArrayInputStream(encrypted.toByteArray()), decrypted, options);
+            assertArrayEquals(data, decrypted.toByteArray());
+
+            // 启用并行的调优参数：超过阈值后按分段批量读取，结果与单线程处理一致
+            StreamCryptoOptions parallelOptions = new StreamCryptoOptions(512, 4096, true, true);
+            assertTrue(parallelOptions.isParallel());
+            in = new MaxReadLengthInputStream(data);
+            ByteArrayOutputStream aesEncrypted = new ByteArrayOutputStream();
+            AESUtil.encrypt(KEY, in, aesEncrypted, parallelOptions);
+            assertTrue(in.maxReadLength > 4096);
+            decrypted = new ByteArrayOutputStream();
+            AESUtil.decrypt(KEY, new ByteArrayInputStream(aesEncrypted.toByteArray()), decrypted, options);
+            assertArrayEquals(data, decrypted.toByteArray());
+        } finally {
+            CtrCipherUtil.setForkJoinPool(ForkJoinPool.commonPool());
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testReadAheadWithManyStreams() throws Exception {
+        int processors = Runtime.getRuntime().availableProcessors();
+        int streams = processors * 4;
+        byte[] data = new byte[200000];
+        new Random(3).nextBytes(data);
+        StreamCryptoOptions options = new StreamCryptoOptions(64, 1024, true);
+        ExecutorService executor = Executors.newFixedThreadPool(streams);
+        try {
+            List<Future<byte[]>> results = new ArrayList<>();
+            for (int i = 0; i < streams; i++) {
+                results.add(executor.submit(() -> {
+                    ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+                    SM4Util.encrypt(KEY, new ChunkedInputStream(data, 100), encrypted, options);
+                    ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+                    SM4Util.decrypt(KEY, new ChunkedInputStream(encrypted.toByteArray(), 100), decrypted, options);
+                    return decrypted.toByteArray();
+                }));
+            }
+            for (Future<byte[]> result : results) {
+                assertArrayEquals(data, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        // 预读线程数不超过上限，超出的流在调用线程顺序读取
+        long readAheadThreads = Thread.getAllStackTraces().keySet().stream()
+            .filter(thread -> thread.getName().startsWith("bk-crypto-stream-read-ahead-"))
+            .count();
+        assertTrue(readAheadThreads <= processors, "readAheadThreads=" + readAheadThreads);
+    }
+
+    @Test
+    void testReadAheadError() {
+        InputStream in = new InputStream() {
+            private int count = 0;
+
+            @Override
+            public int read() throws IOException {
+                if (++count > 100) {
+                    throw new IOException("broken");
+                }
+                return 0;
+            }
+        };
+        IOException e = assertThrows(IOException.class, () -> BasicCipherUtil.transfer(
+            in, new ByteArrayOutputStream(), null, new StreamCryptoOptions(16, 64, true)));
+        assertEquals("broken", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> new StreamCryptoOptions(0, 16, false));
+        assertThrows(IllegalArgumentException.class, () -> new StreamCryptoOptions(32, 16, false));
+    }
+
+    /**
+     * 每次最多返回指定长度数据的输入流，模拟网络流等不会读满缓冲区的输入
+     */
+    private static class ChunkedInputStream extends FilterInputStream {
+        private final int chunkSize;
+
+        ChunkedInputStream(byte[] data, int chunkSize) {
+            super(new ByteArrayInputStream(data));
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return super.read(b, off, Math.min(len, chunkSize));
+        }
+    }
+
+    /**
+     * 记录单次读取请求的最大长度的输入流
+     */
+    private static class MaxReadLengthInputStream extends ByteArrayInputStream {
+        private int maxReadLength = 0;
+
+        MaxReadLengthInputStream(byte[] data) {
+            super(data);
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            maxReadLength = Math.max(maxReadLength, len);
+            return super.read(b, off, len);
+        }
+    }
+}